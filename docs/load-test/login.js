@@ -0,0 +1,39 @@
+// k6 load test for the login flow, used to compare the platform-thread and virtual-thread modes.
+//
+// Usage:
+//   k6 run -e BASE_URL=http://localhost:2310/auth-server -e EMAIL=user@example.com -e PASSWORD=secret docs/load-test/login.js
+//
+// Run it once with VIRTUAL_THREADS_ENABLED=false and once with VIRTUAL_THREADS_ENABLED=true
+// against the same database and compare http_reqs (throughput) and the p(95)/p(99) of
+// http_req_duration.
+import http from 'k6/http';
+import { check } from 'k6';
+
+export const options = {
+    scenarios: {
+        login: {
+            executor: 'ramping-arrival-rate',
+            startRate: 50,
+            timeUnit: '1s',
+            preAllocatedVUs: 200,
+            maxVUs: 2000,
+            stages: [
+                { target: 200, duration: '1m' },
+                { target: 500, duration: '2m' },
+                { target: 500, duration: '2m' },
+            ],
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+const baseUrl = __ENV.BASE_URL || 'http://localhost:2310/auth-server';
+
+export default function () {
+    const response = http.post(`${baseUrl}/login`, JSON.stringify({
+        email: __ENV.EMAIL,
+        password: __ENV.PASSWORD,
+    }), { headers: { 'Content-Type': 'application/json' } });
+
+    check(response, { 'login answered': (r) => r.status === 200 || r.status === 409 });
+}
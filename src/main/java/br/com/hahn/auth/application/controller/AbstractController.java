@@ -14,11 +14,12 @@ import org.springframework.security.oauth2.server.resource.authentication.JwtAut
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
-import java.util.regex.Pattern;
-
 @Slf4j
 public abstract class AbstractController {
 
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+
     /**
      * Extracts a Jwt token from the current security context.
      * <p>
@@ -73,63 +74,28 @@ public abstract class AbstractController {
     }
 
     /**
-     * Validates the format of the provided email address.
+     * Reads the optional {@code Idempotency-Key} header of the current request.
      * <p>
-     * This method checks if the email is not null or blank and matches the standard
-     * email format pattern. If the email is invalid, an {@link InvalidFormatTypeException}
-     * is thrown with an appropriate error message.
+     * The header is not part of the generated API interfaces, so it is read from the request
+     * bound to the current thread.
      * </p>
      *
      * @author HahnGuil
-     * @param email the email address to be validated
-     * @throws InvalidFormatTypeException if the email is null, blank, or does not match the expected format
+     * @return the key, or null when the header is absent or there is no current request
+     * @throws InvalidFormatTypeException if the key is longer than 255 characters
      */
-    public void validateEmailFormat(String email){
-        log.info("AbstractController: Validating email: {} format at: {}", email, DateTimeConverter.formatInstantNow());
-
-        if (email == null || email.isBlank()) {
-            log.error("AbstractController: Email is null or blank. Throw InvalidFormatTypeException at: {}", DateTimeConverter.formatInstantNow());
-            throw new InvalidFormatTypeException(ErrorsResponses.INVALID_EMAIL_FORMAT_TYPE.getMessage());
-        }
-
-        var emailPattern = Pattern.compile("^[A-Z0-9._%+-]+@[A-Z0-9.-]+\\.[A-Z]{2,}$", Pattern.CASE_INSENSITIVE);
-        if (!emailPattern.matcher(email).matches()) {
-            log.error("AbstractController: Email format invalid for {}. Throw InvalidFormatException at: {}", email, DateTimeConverter.formatInstantNow());
-            throw new InvalidFormatTypeException(ErrorsResponses.INVALID_EMAIL_FORMAT_TYPE.getMessage());
-        }
-         log.info("AbstractController: Finish email validation at: {}", DateTimeConverter.formatInstantNow());
-    }
-
-    /**
-     * Validates the format of the provided password.
-     * <p>
-     * This method ensures that the password is not null or blank and matches the required format:
-     * - Must contain at least one digit.
-     * - Must contain at least one uppercase letter.
-     * - Must contain at least one special character.
-     * - Must be between 8 and 12 characters in length.
-     * If the password is invalid, an {@link InvalidFormatTypeException} is thrown with an appropriate error message.
-     * </p>
-     *
-     * @author HahnGuil
-     * @param password the password to be validated
-     * @throws InvalidFormatTypeException if the password is null, blank, or does not match the expected format
-     */
-    public void validatePasswordFormat(String password) {
-        log.info("AbstractController: Validating password format at: {}", DateTimeConverter.formatInstantNow());
-
-        if (password == null || password.isBlank()) {
-            log.error("AbstractController: Password is null or blank. Throw InvalidFormatTypeException at: {}", DateTimeConverter.formatInstantNow());
-            throw new InvalidFormatTypeException(ErrorsResponses.INVALID_PASSWORD_FORMAT_TYPE.getMessage());
+    protected String extractIdempotencyKey() {
+        var attrs = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+        if (attrs == null) {
+            return null;
         }
 
-        var passwordPattern = Pattern.compile("^(?=.*\\d)(?=.*[A-Z])(?=.*[^A-Za-z0-9]).{8,12}$");
-        if (!passwordPattern.matcher(password).matches()) {
-            log.error("AbstractController: Password format invalid. Throw InvalidFormatTypeException at: {}", DateTimeConverter.formatInstantNow());
-            throw new InvalidFormatTypeException(ErrorsResponses.INVALID_PASSWORD_FORMAT_TYPE.getMessage());
+        String key = attrs.getRequest().getHeader(IDEMPOTENCY_KEY_HEADER);
+        if (key != null && key.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            log.error("AbstractController: Idempotency key too long. Throw InvalidFormatTypeException at: {}", DateTimeConverter.formatInstantNow());
+            throw new InvalidFormatTypeException(ErrorsResponses.INVALID_IDEMPOTENCY_KEY.getMessage());
         }
-
-        log.info("AbstractController: Finish password format at: {}", DateTimeConverter.formatInstantNow());
+        return key;
     }
 
     public boolean isApplicationToken(Jwt jwt) {
@@ -5,6 +5,7 @@ import br.com.hahn.auth.application.service.AuthService;
 import br.com.hahn.auth.domain.model.LogOfRequest;
 import br.com.hahn.auth.domain.model.LoginRequest;
 import br.com.hahn.auth.domain.model.LoginResponse;
+import br.com.hahn.auth.infrastructure.cache.IdempotentResponseCache;
 import br.com.hahn.auth.util.DateTimeConverter;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -18,17 +19,18 @@ import org.springframework.web.bind.annotation.RestController;
 public class LoginController extends AbstractController implements LoginApi {
 
     private final AuthService authService;
+    private final IdempotentResponseCache idempotentResponseCache;
 
     /**
      * Handles the login request for a user.
      * <p>
      * This method processes the login request by:
      * - Logging the start of the login process.
-     * - Validating the format of the provided email.
-     * - Validating the format of the provided password.
      * - Delegating the login operation to the {@link AuthService}.
      * Upon successful login, it returns a {@link ResponseEntity} with the login response
      * and an HTTP status of 201 (Created).
+     * When the request carries an {@code Idempotency-Key} header, a retry with the same key and
+     * credentials receives the stored response instead of logging in again.
      * </p>
      *
      * @author HahnGuil
@@ -39,13 +41,9 @@ public class LoginController extends AbstractController implements LoginApi {
     public ResponseEntity<LoginResponse> postLogin(LoginRequest loginRequest) {
         log.info("LoginController: Starting login for user {}, at {}", loginRequest.getEmail(), DateTimeConverter.formatInstantNow());
 
-        log.info("LoginController: Validate email format at: {}", DateTimeConverter.formatInstantNow());
-        validateEmailFormat(loginRequest.getEmail());
-
-        log.info("LoginController: Validate password format at: {}", DateTimeConverter.formatInstantNow());
-        validatePasswordFormat(loginRequest.getPassword());
-        
-        var loginResponse = authService.userLogin(loginRequest);
+        var fingerprint = idempotentResponseCache.fingerprint(loginRequest.getEmail(), loginRequest.getPassword());
+        var loginResponse = idempotentResponseCache.execute("login", extractIdempotencyKey(), fingerprint,
+                () -> authService.userLogin(loginRequest));
         return ResponseEntity.status(HttpStatus.CREATED).body(loginResponse);
     }
 
@@ -23,9 +23,6 @@ public class PasswordController extends AbstractController implements PasswordAp
      * <p>
      * This method processes the password change request by:
      * - Logging the start of the process with the user's email.
-     * - Validating the format of the provided email.
-     * - Validating the format of the new password.
-     * - Validating the format of the old password.
      * - Validating if the token is valid for the user.
      * - Delegating the password change operation to the {@link PasswordService}.
      * Upon successful completion, it returns a {@link ResponseEntity} with an HTTP status of 204 (No Content).
@@ -39,15 +36,6 @@ public class PasswordController extends AbstractController implements PasswordAp
     public ResponseEntity<Void> patchChangePassword(ChangePasswordRequest changePasswordRequest) {
         log.info("PasswordController: Starting changePassword for user with email: {}, at: {}", changePasswordRequest.getEmail(), DateTimeConverter.formatInstantNow());
 
-        log.info("PasswordController: Validate email format at: {}", DateTimeConverter.formatInstantNow());
-        validateEmailFormat(changePasswordRequest.getEmail());
-
-        log.info("PasswordController: Validate new password format at: {}", DateTimeConverter.formatInstantNow());
-        validatePasswordFormat(changePasswordRequest.getNewPassword());
-
-        log.info("PasswordController: Validate old password format at: {}", DateTimeConverter.formatInstantNow());
-        validatePasswordFormat(changePasswordRequest.getOldPassword());
-
         log.info("PasswordController: validate if the token is valid for user: {}, at: {}", changePasswordRequest.getEmail(), DateTimeConverter.formatInstantNow());
         passwordService.validateTokenForChangePassword(extractJwtFromContext());
 
@@ -60,7 +48,6 @@ public class PasswordController extends AbstractController implements PasswordAp
      * <p>
      * This method processes the password reset request by:
      * - Logging the start of the process with the user's email.
-     * - Validating the format of the provided email.
      * - Delegating the request to generate a validation code to the {@link PasswordService}.
      * Upon successful completion, it returns a {@link ResponseEntity} containing a {@link SuccessResponse}
      * and an HTTP status of 200 (OK).
@@ -74,9 +61,6 @@ public class PasswordController extends AbstractController implements PasswordAp
     public ResponseEntity<SuccessResponse> postPasswordResetRequest(PasswordResetRequest passwordResetRequest) {
         log.info("PasswordController: Starting generate validate code flow for user email: {}, at: {}", passwordResetRequest.getEmail(), DateTimeConverter.formatInstantNow());
 
-        log.info("PasswordController: Validate format email of reset request at: {}", DateTimeConverter.formatInstantNow());
-        validateEmailFormat(passwordResetRequest.getEmail());
-
         log.info("PasswordController: Validate cod send to user email: {}, at: {}", passwordResetRequest.getEmail(), DateTimeConverter.formatInstantNow());
         var response = passwordService.requestValidateCode(passwordResetRequest);
         return ResponseEntity.status(HttpStatus.OK).body(response);
@@ -109,7 +93,6 @@ public class PasswordController extends AbstractController implements PasswordAp
      * <p>
      * This method processes the password reset request by:
      * - Logging the start of the process.
-     * - Validating the format of the new password.
      * - Delegating the password reset operation to the {@link PasswordService}.
      * Upon successful completion, it returns a {@link ResponseEntity} with an HTTP status of 204 (No Content).
      * </p>
@@ -120,9 +103,6 @@ public class PasswordController extends AbstractController implements PasswordAp
      */
     @Override
     public ResponseEntity<Void> patchResetPassword(NewPasswordRequest newPasswordRequest) {
-        log.info("PasswordController: password format at: {}", DateTimeConverter.formatInstantNow());
-        validatePasswordFormat(newPasswordRequest.getNewPassword());
-
         log.info("PasswordController: Stating reset password at: {}", DateTimeConverter.formatInstantNow());
         passwordService.resetUserPassword(extractJwtFromContext(), newPasswordRequest);
         return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
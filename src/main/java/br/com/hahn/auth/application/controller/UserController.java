@@ -7,6 +7,7 @@ import br.com.hahn.auth.domain.model.UpdateUsernameRequest;
 import br.com.hahn.auth.domain.model.UserRequest;
 import br.com.hahn.auth.domain.model.UserProfileResponse;
 import br.com.hahn.auth.domain.model.UserResponse;
+import br.com.hahn.auth.infrastructure.cache.IdempotentResponseCache;
 import br.com.hahn.auth.util.DateTimeConverter;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -22,17 +23,18 @@ import java.util.UUID;
 public class UserController extends AbstractController implements UsersApi {
 
     private final UserService userService;
+    private final IdempotentResponseCache idempotentResponseCache;
 
     /**
      * Handles the registration of a new user.
      * <p>
      * This method processes the user registration request by:
      * - Logging the start of the registration process with the user's email.
-     * - Validating the format of the provided email.
-     * - Validating the format of the provided password.
      * - Delegating the user creation and login operation to the {@link UserService}.
      * Upon successful registration, it returns a {@link ResponseEntity} containing a {@link UserResponse}
      * and an HTTP status of 201 (Created).
+     * When the request carries an {@code Idempotency-Key} header, a retry with the same key and
+     * body receives the stored response instead of registering again.
      * </p>
      *
      * @author HahnGuil
@@ -43,14 +45,12 @@ public class UserController extends AbstractController implements UsersApi {
     public ResponseEntity<UserResponse> postRegisterUser(UserRequest userRequest) {
         log.info("UserController: Starting user registration fot user {}, at {}", userRequest.getEmail(), DateTimeConverter.formatInstantNow());
 
-        log.info("UserController: Validate email format at: {}", DateTimeConverter.formatInstantNow());
-        validateEmailFormat(userRequest.getEmail());
-
-        log.info("UserController: Validate password format at: {}", DateTimeConverter.formatInstantNow());
-        validatePasswordFormat(userRequest.getPassword());
-
         log.info("Calling UserService to create and log in the user at: {}", DateTimeConverter.formatInstantNow());
-        var userResponse = userService.createUser(userRequest);
+        var fingerprint = idempotentResponseCache.fingerprint(userRequest.getUsername(), userRequest.getEmail(), userRequest.getPassword(),
+                userRequest.getFirstName(), userRequest.getLastName(), userRequest.getPictureUrl(),
+                String.valueOf(userRequest.getTypeUser()), String.valueOf(userRequest.getApplicationCode()));
+        var userResponse = idempotentResponseCache.execute("register", extractIdempotencyKey(), fingerprint,
+                () -> userService.createUser(userRequest));
         return ResponseEntity.status(HttpStatus.CREATED).body(userResponse);
     }
 
@@ -0,0 +1,48 @@
+package br.com.hahn.auth.application.dto;
+
+import br.com.hahn.auth.domain.model.Application;
+
+import java.util.UUID;
+
+/**
+ * Immutable copy of an application, reduced to the identifiers and the name used in token claims.
+ * <p>
+ * Snapshots are what the application registry and the user cache hold, so they can be shared
+ * across threads without exposing a managed entity.
+ *
+ * @author HahnGuil
+ * @param id the application id
+ * @param publicId the application public id
+ * @param nameApplication the application name
+ */
+public record ApplicationSnapshot(Long id, UUID publicId, String nameApplication) {
+
+    /**
+     * Copies the given entity into a snapshot.
+     *
+     * @author HahnGuil
+     * @param application the application entity to copy
+     * @return the snapshot of the application
+     */
+    public static ApplicationSnapshot from(Application application) {
+        return new ApplicationSnapshot(application.getId(), application.getPublicId(), application.getNameApplication());
+    }
+
+    /**
+     * Builds a new detached {@link Application} carrying the values of this snapshot.
+     * <p>
+     * The instance has its id set, so it can be referenced from a managed entity
+     * (for example {@code User.applications} or {@code TokenLog.application}), but it must not be
+     * saved itself.
+     *
+     * @author HahnGuil
+     * @return a new detached Application populated from this snapshot
+     */
+    public Application toApplication() {
+        var application = new Application();
+        application.setId(id);
+        application.setPublicId(publicId);
+        application.setNameApplication(nameApplication);
+        return application;
+    }
+}
@@ -0,0 +1,104 @@
+package br.com.hahn.auth.application.dto;
+
+import br.com.hahn.auth.domain.enums.TypeUser;
+import br.com.hahn.auth.domain.enums.UserApplicationRole;
+import br.com.hahn.auth.domain.enums.UserRole;
+import br.com.hahn.auth.domain.model.User;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable copy of the user fields read by the login, token and profile flows.
+ * <p>
+ * Snapshots are what the user cache holds: they carry no Hibernate proxies or lazy
+ * collections, so they can be shared across threads and requests. The applications of the
+ * user are flattened to {@link ApplicationSnapshot} values.
+ *
+ * @author HahnGuil
+ */
+public record UserSnapshot(
+        UUID userId,
+        String username,
+        String password,
+        LocalDateTime passwordCreateDate,
+        String email,
+        String firstName,
+        String lastName,
+        String pictureUrl,
+        Boolean blockUser,
+        TypeUser typeUser,
+        UserRole role,
+        UserApplicationRole userApplicationRole,
+        List<ApplicationSnapshot> applications) {
+
+    public UserSnapshot {
+        applications = applications == null ? List.of() : List.copyOf(applications);
+    }
+
+    /**
+     * Copies the given entity into a snapshot. The applications collection must already be
+     * initialized (for example by {@code findByEmailWithApplications}).
+     *
+     * @author HahnGuil
+     * @param user the user entity to copy
+     * @return the snapshot of the user
+     */
+    public static UserSnapshot from(User user) {
+        var applications = Optional.ofNullable(user.getApplications()).orElse(Set.of()).stream()
+                .filter(Objects::nonNull)
+                .map(ApplicationSnapshot::from)
+                .toList();
+
+        return new UserSnapshot(
+                user.getUserId(),
+                user.getUsername(),
+                user.getPassword(),
+                user.getPasswordCreateDate(),
+                user.getEmail(),
+                user.getFirstName(),
+                user.getLastName(),
+                user.getPictureUrl(),
+                user.getBlockUser(),
+                user.getTypeUser(),
+                user.getRole(),
+                user.getUserApplicationRole(),
+                applications);
+    }
+
+    /**
+     * Builds a detached {@link User} carrying the values of this snapshot.
+     * <p>
+     * The returned instance is a read-only view for the token and profile code; it is not
+     * attached to any persistence context and must never be passed to {@code save}.
+     *
+     * @author HahnGuil
+     * @return a new detached User populated from this snapshot
+     */
+    public User toUser() {
+        var user = new User();
+        user.setUserId(userId);
+        user.setUsername(username);
+        user.setPassword(password);
+        user.setPasswordCreateDate(passwordCreateDate);
+        user.setEmail(email);
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+        user.setPictureUrl(pictureUrl);
+        user.setBlockUser(blockUser);
+        user.setTypeUser(typeUser);
+        user.setRole(role);
+        user.setUserApplicationRole(userApplicationRole);
+
+        user.setApplications(applications.stream()
+                .map(ApplicationSnapshot::toApplication)
+                .collect(Collectors.toCollection(HashSet::new)));
+        return user;
+    }
+}
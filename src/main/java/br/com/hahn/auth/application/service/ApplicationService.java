@@ -1,9 +1,12 @@
 package br.com.hahn.auth.application.service;
 
+import br.com.hahn.auth.application.dto.ApplicationSnapshot;
 import br.com.hahn.auth.application.execption.ApplicationNotFoundException;
 import br.com.hahn.auth.domain.enums.ScopeToken;
 import br.com.hahn.auth.domain.model.*;
-import br.com.hahn.auth.domain.respository.ApplicationRepository;
+import br.com.hahn.auth.infrastructure.cache.ApplicationRegistry;
+import br.com.hahn.auth.infrastructure.cache.ApplicationTokenCache;
+import br.com.hahn.auth.infrastructure.cache.ApplicationTokenCache.IssuedTokens;
 import br.com.hahn.auth.infrastructure.security.TokenService;
 import br.com.hahn.auth.util.DateTimeConverter;
 import lombok.RequiredArgsConstructor;
@@ -19,16 +22,18 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class ApplicationService {
 
-    private final ApplicationRepository applicationRepository;
+    private final ApplicationRegistry applicationRegistry;
     private final TokenLogService tokenLogService;
     private final TokenService tokenService;
+    private final ApplicationTokenCache applicationTokenCache;
 
     /**
      * Finds an application by its ID.
      * <p>
-     * This method logs an informational message when starting the lookup and an error
-     * message if the application is not found. If the application cannot be found,
-     * an {@link ApplicationNotFoundException} is thrown.
+     * The lookup is served by the {@link ApplicationRegistry}. This method logs an
+     * informational message when starting the lookup and an error message if the application
+     * is not found. If the application cannot be found, an {@link ApplicationNotFoundException}
+     * is thrown.
      *
      * @author HahnGuil
      * @param id the ID of the application to find
@@ -37,28 +42,42 @@ public class ApplicationService {
      */
     public Application findById(Long id) {
         log.info("ApplicationService: Find application: {} at: {}", id, Instant.now());
-        return applicationRepository.findById(id).orElseThrow(() -> {
+        return applicationRegistry.findById(id).map(ApplicationSnapshot::toApplication).orElseThrow(() -> {
             log.error("ApplicationService: Application not found for id: {}. Throw the ApplicationNotFoundException at: {}", id, DateTimeConverter.formatInstantNow());
             return new ApplicationNotFoundException("Application not found");
         });
     }
 
+    /**
+     * Issues the application token pair for the application with the given public id.
+     * <p>
+     * Issuance is idempotent: while the pair issued last for this application is still active
+     * and not close to expiry, the same pair is returned from the {@link ApplicationTokenCache}
+     * without writing token logs or signing. A new pair is minted only when the stored one
+     * nears expiry or was deactivated by an application token refresh.
+     *
+     * @author HahnGuil
+     * @param publicId the public id of the application
+     * @return the application token and refresh token
+     * @throws ApplicationNotFoundException if the application is not found
+     */
     public ApplicationRegisterResponse registerApplication(UUID publicId){
         var application = findByPublicId(publicId);
 
-        var applicationToken = tokenService.generateApplicationToken(application, generateTokenLog(application, ScopeToken.APPLICATION_TOKEN));
-        var refreshApplicationToken = tokenService.generateApplicationRefreshToken(application, generateTokenLog(application, ScopeToken.APPLICATION_REFRESH_TOKEN));
+        var issuedTokens = applicationTokenCache.getOrIssue(publicId,
+                tokens -> tokenLogService.isTokenValid(tokens.tokenLogId()),
+                () -> issueTokens(application));
 
         ApplicationRegisterResponse response = new ApplicationRegisterResponse();
-        response.setApplicationToken(applicationToken);
-        response.setRefreshApplicationToken(refreshApplicationToken);
+        response.setApplicationToken(issuedTokens.applicationToken());
+        response.setRefreshApplicationToken(issuedTokens.refreshApplicationToken());
         return response;
     }
 
     public Application findByPublicId(UUID publicId){
         log.info("ApplicationService: Find application for publicId: {} at: {}", publicId, DateTimeConverter.formatInstantNow());
 
-        return applicationRepository.findApplicationByPublicId(publicId).orElseThrow(() -> {
+        return applicationRegistry.findByPublicId(publicId).map(ApplicationSnapshot::toApplication).orElseThrow(() -> {
             log.error("ApplicationService: Application not found for public id: {}. Throw the ApplicationNotFoundException at: {}", publicId, DateTimeConverter.formatInstantNow());
             return new ApplicationNotFoundException("Application not found");
         });
@@ -85,6 +104,21 @@ public class ApplicationService {
         }
     }
 
+    private IssuedTokens issueTokens(Application application){
+        log.info("ApplicationService: Issue new token pair for application: {} at: {}", application.getPublicId(), DateTimeConverter.formatInstantNow());
+        var tokenLog = generateTokenLog(application, ScopeToken.APPLICATION_TOKEN);
+        var refreshTokenLog = generateTokenLog(application, ScopeToken.APPLICATION_REFRESH_TOKEN);
+
+        var applicationToken = tokenService.generateApplicationToken(application, tokenLog);
+        var refreshApplicationToken = tokenService.generateApplicationRefreshToken(application, refreshTokenLog);
+
+        var tokenExpiresAt = tokenService.applicationTokenExpiresAt(tokenLog);
+        var refreshTokenExpiresAt = tokenService.applicationRefreshTokenExpiresAt(refreshTokenLog);
+        var expiresAt = tokenExpiresAt.isBefore(refreshTokenExpiresAt) ? tokenExpiresAt : refreshTokenExpiresAt;
+
+        return new IssuedTokens(applicationToken, refreshApplicationToken, tokenLog.getIdTokenLog(), expiresAt);
+    }
+
     private TokenLog generateTokenLog(Application application, ScopeToken scopeToken){
         return tokenLogService.saveApplicationTokenLog(application, scopeToken, LocalDateTime.now());
     }
@@ -8,8 +8,11 @@ import br.com.hahn.auth.domain.enums.ErrorsResponses;
 import br.com.hahn.auth.domain.enums.ScopeToken;
 import br.com.hahn.auth.domain.enums.TypeInvalidation;
 import br.com.hahn.auth.domain.model.*;
+import br.com.hahn.auth.infrastructure.cache.RefreshSingleFlight;
+import br.com.hahn.auth.infrastructure.lock.UserSessionLock;
 import br.com.hahn.auth.infrastructure.security.TokenService;
 import br.com.hahn.auth.util.DateTimeConverter;
+import br.com.hahn.auth.util.TaskScope;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -20,6 +23,7 @@ import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 @Service
 @Slf4j
@@ -31,14 +35,18 @@ public class AuthService {
     private final LoggedNowService loggedNowService;
     private final PasswordEncoder passwordEncoder;
     private final ApplicationService applicationService;
+    private final RefreshSingleFlight refreshSingleFlight;
+    private final UserSessionLock userSessionLock;
 
-    public AuthService(@Lazy UserService userService, TokenLogService tokenLogService, TokenService tokenService, LoggedNowService loggedNowService, PasswordEncoder passwordEncoder, ApplicationService applicationService) {
+    public AuthService(@Lazy UserService userService, TokenLogService tokenLogService, TokenService tokenService, LoggedNowService loggedNowService, PasswordEncoder passwordEncoder, ApplicationService applicationService, RefreshSingleFlight refreshSingleFlight, UserSessionLock userSessionLock) {
         this.userService = userService;
         this.tokenLogService = tokenLogService;
         this.tokenService = tokenService;
         this.loggedNowService = loggedNowService;
         this.passwordEncoder = passwordEncoder;
         this.applicationService = applicationService;
+        this.refreshSingleFlight = refreshSingleFlight;
+        this.userSessionLock = userSessionLock;
     }
 
     /**
@@ -50,6 +58,15 @@ public class AuthService {
      * - Validates if the user is blocked
      * - Validates if the password is correct
      * After validations, returns the LoginResponse
+     * <p>
+     * The BCrypt comparison runs on a virtual thread while the previous-session check and cleanup
+     * run on the calling thread, and is skipped when the user is OAuth or blocked, since the login
+     * fails before it is looked at. Failures are reported in the same order as before: session
+     * cleanup, OAuth, blocked user and then credentials.
+     * Everything after the email lookup runs under the {@link UserSessionLock} of the user, so
+     * concurrent logins, logoffs and refreshes of the same user do not interleave. Database work
+     * stays on the calling thread, so it joins the advisory lock transaction and needs no
+     * connection besides the one that transaction holds.
      * @author HahnGuil
      * @param loginRequest the login request containing user credentials
      * @return LoginResponse containing user data and tokens
@@ -60,19 +77,31 @@ public class AuthService {
         log.info("AuthService: Validating the existence of the email: {}", loginRequest.getEmail());
         var user = userService.findByEmail(loginRequest.getEmail());
 
-        log.info("AuthService: Checking if the user: {} is currently logged in at: {}.", user.getUserId(), DateTimeConverter.formatInstantNow());
-        validateIfUserIsAlreadyLoggedIn(user);
+        return userSessionLock.withLock(user.getUserId(), () -> {
+            Supplier<Boolean> credentialsMatch;
+            try (var scope = new TaskScope()) {
+                log.info("Login Service: Validating credentials of the user: {} at: {}", user.getUserId(), DateTimeConverter.formatInstantNow());
+                credentialsMatch = isOauthUser(user) || Boolean.TRUE.equals(user.getBlockUser())
+                        ? () -> false
+                        : scope.fork(() -> passwordEncoder.matches(loginRequest.getPassword(), user.getPassword()));
 
-        log.info("AuthService: Validating if the user: {}, are OAuth user at: {}", user.getUserId(), DateTimeConverter.formatInstantNow());
-        validatingYourUserIsOauth(user);
+                log.info("AuthService: Checking if the user: {} is currently logged in at: {}.", user.getUserId(), DateTimeConverter.formatInstantNow());
+                validateIfUserIsAlreadyLoggedIn(user);
+                scope.join();
+            }
 
-        log.info("AuthService: Validating if the user: {} are block at: {}", user.getUserId(), DateTimeConverter.formatInstantNow());
-        validateBlockUser(user);
+            log.info("AuthService: Validating if the user: {}, are OAuth user at: {}", user.getUserId(), DateTimeConverter.formatInstantNow());
+            validatingYourUserIsOauth(user);
 
-        log.info("Login Service: Validating credentials of the user: {} at: {}", user.getUserId(), DateTimeConverter.formatInstantNow());
-        validateCredentials(loginRequest.getPassword(), user.getPassword());
+            log.info("AuthService: Validating if the user: {} are block at: {}", user.getUserId(), DateTimeConverter.formatInstantNow());
+            validateBlockUser(user);
 
-        return convertToLoginResponse(user);
+            if (!credentialsMatch.get()) {
+                throw new InvalidCredentialsException(ErrorsResponses.INVALID_CREDENTIALS.getMessage());
+            }
+
+            return convertToLoginResponse(user);
+        });
     }
 
     /**
@@ -80,6 +109,8 @@ public class AuthService {
      * This method checks if the user already exists in the system:
      * - If the user exists, it logs them in and creates a login log.
      * - If the user does not exist, it creates a new user from the OAuth request and logs them in.
+     * Both cases are resolved by {@link UserService#findOrCreateOAuthUser(OAuth2User)}, from the
+     * user cache or with a single upsert.
      *
      * @author HahnGuil
      * @param oAuth2User the OAuth2User object containing user details from the OAuth provider
@@ -88,16 +119,7 @@ public class AuthService {
     public LoginResponse processOAuthUser(OAuth2User oAuth2User){
         log.info("AuthService: Starting process Login or Register for OAuthUser with email: {},  at: {}", oAuth2User.getAttribute("email"), DateTimeConverter.formatInstantNow());
 
-        String email = oAuth2User.getAttribute("email");
-        User user;
-
-        if(userService.existsByEmail(email)){
-            log.info("AuthService: OAuth User exist. Starting login for OAuthUser with email: {} at {}: ", email, DateTimeConverter.formatInstantNow());
-            user = userService.findByEmail(email);
-        }else {
-            log.info("AuthService: OAuth user not exist. Starting create user for OAuthRequest with email: {}, at: {}", email, DateTimeConverter.formatInstantNow());
-            user = userService.createNewUserFromOAuth(oAuth2User);
-        }
+        var user = userService.findOrCreateOAuthUser(oAuth2User);
 
         return convertToLoginResponse(user);
     }
@@ -125,6 +147,7 @@ public class AuthService {
      * This method executes the following steps:
      * - Deletes the user's active session from the `loggedNowService`.
      * - Deactivates the user's active token in the `tokenLogService` with the specified invalidation type.
+     * Both steps run under the {@link UserSessionLock} of the user.
      * </p>
      *
      * @author HahnGuil
@@ -133,8 +156,10 @@ public class AuthService {
      */
     public void doLogOff(UUID userId, TypeInvalidation typeInvalidation){
         log.info("AuthService: Execute user logOff for user: {}, with type: {} ,at: {}", userId, typeInvalidation.toString(), DateTimeConverter.formatInstantNow());
-        loggedNowService.deleteByUserId(userId);
-        tokenLogService.deactivateActiveUserToken(userId, typeInvalidation);
+        userSessionLock.withLock(userId, () -> {
+            loggedNowService.deleteByUserId(userId);
+            tokenLogService.deactivateActiveUserToken(userId, typeInvalidation);
+        });
     }
 
     /**
@@ -159,6 +184,9 @@ public class AuthService {
      * - Extracts the user ID from the JWT and deactivates the current token.
      * - Generates a new access token and refresh token for the user.
      * - Saves the new token log and returns the LoginResponse.
+     * Concurrent refreshes with the same refresh token are coalesced by {@link RefreshSingleFlight}
+     * and all receive the response computed by the first one. The deactivation and reissue run
+     * under the {@link UserSessionLock} of the user.
      *
      * @author HahnGuil
      * @param jwt the JWT token containing user information and claims
@@ -172,18 +200,24 @@ public class AuthService {
         String idToken = jwt.getClaim("token_log_id").toString();
         var tokenLogId = UUID.fromString(idToken);
 
+        return refreshSingleFlight.refresh(tokenLogId, () -> refreshUserToken(jwt, tokenLogId));
+    }
+
+    private LoginResponse refreshUserToken(Jwt jwt, UUID tokenLogId){
         isRefreshToken(tokenLogId);
         checkTokenActive(tokenLogId);
 
         log.info("AuthService: Extract user id for Deactivate the actual token of user: {}, at: {}", jwt.getSubject(), DateTimeConverter.formatInstantNow());
         String idUser = jwt.getClaim("user_id").toString();
         var userID = UUID.fromString(idUser);
-        tokenLogService.deactivateActiveUserToken(userID, TypeInvalidation.USER_REFRESH);
+        return userSessionLock.withLock(userID, () -> {
+            tokenLogService.deactivateActiveUserToken(userID, TypeInvalidation.USER_REFRESH);
 
-        log.info("AuthService: Generated new access token for user: {}, at: {}", userID, DateTimeConverter.formatInstantNow());
-        var user = userService.findByEmail(jwt.getSubject());
+            log.info("AuthService: Generated new access token for user: {}, at: {}", userID, DateTimeConverter.formatInstantNow());
+            var user = userService.findByEmail(jwt.getSubject());
 
-        return convertToLoginResponse(user);
+            return convertToLoginResponse(user);
+        });
     }
 
     public ApplicationRegisterResponse generateNewTokenForApplication(Jwt jwt, UUID applicationPublicId){
@@ -240,27 +274,40 @@ public class AuthService {
     /**
      * Converts a User and LoginLog into a LoginResponse object.
      * This method generates tokens for the user, sets the attributes of the LoginResponse,
-     * and returns the populated LoginResponse object.
+     * and returns the populated LoginResponse object. The token logs of the access token and the
+     * refresh token are recorded on the calling thread, inside the transaction of the caller if
+     * there is one; only the two signatures run concurrently. If either signature fails the other
+     * is cancelled and the failure is rethrown.
      *
      * @author HahnGuil
      * @param user the User object containing user details
      * @return LoginResponse containing the user's name, email, token, and refresh token
      */
     private LoginResponse convertToLoginResponse(User user){
-        log.info("AuthService: Generate token for user: {}, using token service at: {}", user.getUserId(), DateTimeConverter.formatInstantNow());
+        log.info("AuthService: Record token logs for user: {} at: {}", user.getUserId(), DateTimeConverter.formatInstantNow());
         var tokenLogLogin = tokenLogService.saveTokenLog(user, ScopeToken.LOGIN_TOKEN, LocalDateTime.now());
-        var token = tokenService.generateUserToken(user, tokenLogLogin);
-
-        log.info("AuthService: Generate refreshToken for user: {}, using token service at: {}", user.getUserId(), DateTimeConverter.formatInstantNow());
         var refreshTokenLogin = tokenLogService.saveTokenLog(user, ScopeToken.REFRESH_TOKEN, LocalDateTime.now());
-        var refreshToken = tokenService.generateRefreshToken(user, refreshTokenLogin);
+
+        Supplier<String> token;
+        Supplier<String> refreshToken;
+        try (var scope = new TaskScope()) {
+            token = scope.fork(() -> {
+                log.info("AuthService: Generate token for user: {}, using token service at: {}", user.getUserId(), DateTimeConverter.formatInstantNow());
+                return tokenService.generateUserToken(user, tokenLogLogin);
+            });
+            refreshToken = scope.fork(() -> {
+                log.info("AuthService: Generate refreshToken for user: {}, using token service at: {}", user.getUserId(), DateTimeConverter.formatInstantNow());
+                return tokenService.generateRefreshToken(user, refreshTokenLogin);
+            });
+            scope.join();
+        }
 
         log.info("AuthService: Setting loginResponse attributes for user: {}, at: {}", user.getUserId(), DateTimeConverter.formatInstantNow());
         LoginResponse loginResponse = new LoginResponse();
         loginResponse.setUserName(user.getFirstName() + user.getLastName());
         loginResponse.setEmail(user.getEmail());
-        loginResponse.setToken(token);
-        loginResponse.setRefreshToken(refreshToken);
+        loginResponse.setToken(token.get());
+        loginResponse.setRefreshToken(refreshToken.get());
         return loginResponse;
     }
 
@@ -355,12 +402,16 @@ public class AuthService {
      * @throws DirectLoginNotAllowedException if the user is an OAuth user attempting direct login
      */
     private void validatingYourUserIsOauth(User user){
-        if (user.getPassword() == null || user.getPassword().isEmpty()) {
+        if (isOauthUser(user)) {
             log.error("AuthService: User: {} try login with OAuth, throw exception at {}", user.getUserId(), DateTimeConverter.formatInstantNow());
             throw new DirectLoginNotAllowedException(ErrorsResponses.USER_OAUTH_CAN_NOT_LOGIN_DIRECT.getMessage());
         }
     }
 
+    private boolean isOauthUser(User user){
+        return user.getPassword() == null || user.getPassword().isEmpty();
+    }
+
     /**
      * Validates if the provided token has the "REFRESH_TOKEN" scope.
      * <p>
@@ -375,21 +426,17 @@ public class AuthService {
      */
     private void isRefreshToken(UUID tokenLogId){
         log.info("AuthService: validate if token: {}, have a user Refresh Scope Token at: {}", tokenLogId, DateTimeConverter.formatInstantNow());
-        var tokenlog = tokenLogService.findById(tokenLogId);
-
-        var scope = tokenlog.getScopeToken();
+        var scope = tokenLogService.findTokenState(tokenLogId).scopeToken();
 
         if(!ScopeToken.REFRESH_TOKEN.equals(scope)){
-            log.error("AuthService: Inform token dont have the expect scope token. Inform token is: {}, user of request is: {}. Throw InvalidTokenException at: {}", scope, tokenlog.getUserId(), DateTimeConverter.formatInstantNow());
+            log.error("AuthService: Inform token dont have the expect scope token. Inform token is: {}, token of request is: {}. Throw InvalidTokenException at: {}", scope, tokenLogId, DateTimeConverter.formatInstantNow());
             throw new InvalidTokenException(ErrorsResponses.TOKEN_MUST_BE_REFRESH.getMessage() + scope);
         }
     }
 
     private void isApplicationRefreshToken(UUID tokenLogId){
         log.info("AuthService: validate if token: {}, have an application Refresh Scope Token at: {}", tokenLogId, DateTimeConverter.formatInstantNow());
-        var tokenlog = tokenLogService.findById(tokenLogId);
-
-        var scope = tokenlog.getScopeToken();
+        var scope = tokenLogService.findTokenState(tokenLogId).scopeToken();
 
         if(!ScopeToken.APPLICATION_REFRESH_TOKEN.equals(scope)){
             log.error("AuthService: Inform application token dont have the expected scope token. Inform token is: {}. Throw InvalidTokenException at: {}", scope, DateTimeConverter.formatInstantNow());
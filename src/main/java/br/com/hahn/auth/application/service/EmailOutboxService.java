@@ -0,0 +1,153 @@
+package br.com.hahn.auth.application.service;
+
+import br.com.hahn.auth.domain.enums.EmailOutboxStatus;
+import br.com.hahn.auth.domain.model.EmailOutbox;
+import br.com.hahn.auth.domain.respository.EmailOutboxRepository;
+import br.com.hahn.auth.util.DateTimeConverter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+@Slf4j
+public class EmailOutboxService {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration claimLease;
+
+    public EmailOutboxService(EmailOutboxRepository emailOutboxRepository,
+                              @Value("${email.outbox.max-attempts:8}") int maxAttempts,
+                              @Value("${email.outbox.initial-backoff:PT30S}") Duration initialBackoff,
+                              @Value("${email.outbox.max-backoff:PT30M}") Duration maxBackoff,
+                              @Value("${email.outbox.claim-lease:PT2M}") Duration claimLease) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.claimLease = claimLease;
+    }
+
+    /**
+     * Stores an email in the outbox for later delivery.
+     * <p>
+     * Must be called inside the transaction that writes the business change the email refers to,
+     * so the email is recorded if and only if that change commits.
+     *
+     * @author HahnGuil
+     * @param recipient the recipient email address
+     * @param subject the email subject
+     * @param htmlBody the email body in HTML format
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String recipient, String subject, String htmlBody) {
+        log.info("EmailOutboxService: Enqueue email to: {} at: {}", recipient, DateTimeConverter.formatInstantNow());
+        var now = LocalDateTime.now();
+        EmailOutbox email = new EmailOutbox();
+        email.setRecipient(recipient);
+        email.setSubject(subject);
+        email.setHtmlBody(htmlBody);
+        email.setStatus(EmailOutboxStatus.PENDING);
+        email.setAttempts(0);
+        email.setNextAttemptAt(now);
+        email.setCreatedAt(now);
+        emailOutboxRepository.save(email);
+    }
+
+    /**
+     * Claims up to {@code batchSize} pending emails that are due for delivery.
+     * <p>
+     * Rows are locked with {@code FOR UPDATE SKIP LOCKED}, their attempt counter is incremented
+     * and their next attempt is pushed by the claim lease, so another dispatcher (on this or any
+     * other instance) will not pick them up while this attempt is in flight. If the dispatcher
+     * dies mid-batch the emails become due again once the lease elapses.
+     *
+     * @author HahnGuil
+     * @param batchSize the maximum number of emails to claim
+     * @return the claimed emails, detached from the persistence context
+     */
+    @Transactional
+    public List<EmailOutbox> claimDueBatch(int batchSize) {
+        var now = LocalDateTime.now();
+        var batch = emailOutboxRepository.lockDueBatch(now, batchSize);
+        batch.forEach(email -> {
+            email.setAttempts(email.getAttempts() + 1);
+            email.setNextAttemptAt(now.plus(claimLease));
+        });
+        return batch;
+    }
+
+    /**
+     * Marks an email as delivered and drops its body.
+     *
+     * @author HahnGuil
+     * @param id the outbox id of the email
+     */
+    @Transactional
+    public void markSent(Long id) {
+        emailOutboxRepository.findById(id).ifPresent(email -> {
+            email.setStatus(EmailOutboxStatus.SENT);
+            email.setSentAt(LocalDateTime.now());
+            email.setHtmlBody(null);
+            email.setLastError(null);
+        });
+    }
+
+    /**
+     * Records a failed delivery attempt.
+     * <p>
+     * The email is scheduled again with exponential backoff, starting at
+     * {@code email.outbox.initial-backoff} and capped at {@code email.outbox.max-backoff}.
+     * Once {@code email.outbox.max-attempts} attempts have failed the email is moved to the
+     * {@link EmailOutboxStatus#DEAD} status and is not retried anymore. Its body is dropped, as
+     * it may carry a recovery code that must not outlive the delivery attempts.
+     *
+     * @author HahnGuil
+     * @param id the outbox id of the email
+     * @param error a description of the failure
+     * @return the status of the email after the failure
+     */
+    @Transactional
+    public EmailOutboxStatus markFailed(Long id, String error) {
+        var email = emailOutboxRepository.findById(id).orElse(null);
+        if (email == null) {
+            return EmailOutboxStatus.DEAD;
+        }
+        email.setLastError(error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+
+        if (email.getAttempts() >= maxAttempts) {
+            log.error("EmailOutboxService: Email: {} to: {} failed {} times, moving to dead letter at: {}", id, email.getRecipient(), email.getAttempts(), DateTimeConverter.formatInstantNow());
+            email.setStatus(EmailOutboxStatus.DEAD);
+            email.setHtmlBody(null);
+            return EmailOutboxStatus.DEAD;
+        }
+
+        var backoff = backoffFor(email.getAttempts());
+        log.info("EmailOutboxService: Email: {} failed attempt {}, retrying in: {} at: {}", id, email.getAttempts(), backoff, DateTimeConverter.formatInstantNow());
+        email.setNextAttemptAt(LocalDateTime.now().plus(backoff));
+        return EmailOutboxStatus.PENDING;
+    }
+
+    /**
+     * Computes the delay before the next attempt, doubling for each failed attempt.
+     *
+     * @author HahnGuil
+     * @param attempts the number of attempts already made, at least 1
+     * @return the delay before the next attempt
+     */
+    Duration backoffFor(int attempts) {
+        var shift = Math.min(Math.max(attempts - 1, 0), 30);
+        var backoff = initialBackoff.multipliedBy(1L << shift);
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+}
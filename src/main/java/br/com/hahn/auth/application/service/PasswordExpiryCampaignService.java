@@ -0,0 +1,176 @@
+package br.com.hahn.auth.application.service;
+
+import br.com.hahn.auth.domain.model.PasswordExpiryCandidate;
+import br.com.hahn.auth.domain.respository.PasswordExpiryNoticeRepository;
+import br.com.hahn.auth.infrastructure.scheduling.JobLease;
+import br.com.hahn.auth.infrastructure.scheduling.JobScanMetrics;
+import br.com.hahn.auth.infrastructure.scheduling.JobShard;
+import br.com.hahn.auth.infrastructure.service.EmailService;
+import br.com.hahn.auth.util.DateTimeConverter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+/**
+ * Sends password expiry warnings to users whose password is about to expire.
+ *
+ * <p>A run walks every user whose password is inside the warning window (between
+ * {@code max(warning-days)} days and 0 days before expiry) with a single keyset-paginated query,
+ * {@code chunk-size} users at a time. For each user it picks the most urgent threshold already
+ * reached and sends one email only if no warning was recorded yet for that threshold, or a more
+ * urgent one, on the current password. Successful sends of each chunk are recorded in
+ * {@code password_expiry_notice}, so a user receives at most one email per threshold per
+ * password, even if the job runs several times a day.</p>
+ *
+ * <p>The job can be split into shards by user id, in which case a run only walks the users of
+ * its {@link JobShard}.</p>
+ *
+ * <p>Emails are dispatched with at most {@code concurrency} requests in flight and no more than
+ * {@code rate-per-second} requests started per second. Throughput and heap peak of each run are
+ * published by {@link JobScanMetrics} under {@code job=password-expiry-campaign}.</p>
+ *
+ * @author HahnGuil
+ */
+@Service
+@Slf4j
+public class PasswordExpiryCampaignService {
+
+    static final long PASSWORD_MAX_AGE_DAYS = 90;
+    private static final UUID FIRST_USER_ID = new UUID(0L, 0L);
+    private static final String SUBJECT = "Your password will expire soon";
+
+    private final PasswordExpiryNoticeRepository passwordExpiryNoticeRepository;
+    private final EmailService emailService;
+    private final JobScanMetrics jobScanMetrics;
+    private final List<Integer> warningDays;
+    private final int chunkSize;
+    private final int concurrency;
+    private final Duration sendInterval;
+    private final Duration sendTimeout;
+    private final Counter sent;
+    private final Counter failed;
+    private final Counter skipped;
+
+    public PasswordExpiryCampaignService(PasswordExpiryNoticeRepository passwordExpiryNoticeRepository,
+                                         EmailService emailService,
+                                         JobScanMetrics jobScanMetrics,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${password.expiry.campaign.warning-days:20,15,10,5}") List<Integer> warningDays,
+                                         @Value("${password.expiry.campaign.chunk-size:500}") int chunkSize,
+                                         @Value("${password.expiry.campaign.concurrency:4}") int concurrency,
+                                         @Value("${password.expiry.campaign.rate-per-second:10}") int ratePerSecond,
+                                         @Value("${password.expiry.campaign.send-timeout:PT10S}") Duration sendTimeout) {
+        this.passwordExpiryNoticeRepository = passwordExpiryNoticeRepository;
+        this.emailService = emailService;
+        this.jobScanMetrics = jobScanMetrics;
+        this.warningDays = warningDays.stream().sorted().toList();
+        this.chunkSize = chunkSize;
+        this.concurrency = concurrency;
+        this.sendInterval = Duration.ofNanos(1_000_000_000L / Math.max(ratePerSecond, 1));
+        this.sendTimeout = sendTimeout;
+        this.sent = Counter.builder("password.expiry.notifications").tag("result", "sent").register(meterRegistry);
+        this.failed = Counter.builder("password.expiry.notifications").tag("result", "failed").register(meterRegistry);
+        this.skipped = Counter.builder("password.expiry.notifications").tag("result", "skipped").register(meterRegistry);
+    }
+
+    /**
+     * Runs the campaign over every user of the shard inside the warning window.
+     *
+     * @author HahnGuil
+     * @param shard the slice of the users to process
+     * @return the number of emails sent
+     */
+    public int run(JobShard shard) {
+        log.info("PasswordExpiryCampaignService: Starting password expiry campaign at: {}", DateTimeConverter.formatInstantNow());
+        var now = LocalDateTime.now();
+        var windowStart = now.minusDays(PASSWORD_MAX_AGE_DAYS);
+        var windowEnd = now.minusDays(PASSWORD_MAX_AGE_DAYS - warningDays.getLast());
+
+        var scan = jobScanMetrics.start("password-expiry-campaign");
+        int total = 0;
+        var afterUserId = FIRST_USER_ID;
+        List<PasswordExpiryCandidate> chunk;
+        do {
+            JobLease.checkHeld();
+            chunk = passwordExpiryNoticeRepository.findCandidatesAfter(windowStart, windowEnd, afterUserId, chunkSize, shard.index(), shard.count());
+            if (chunk.isEmpty()) {
+                break;
+            }
+            total += dispatch(chunk, now);
+            scan.add(chunk.size());
+            afterUserId = chunk.getLast().getUserId();
+        } while (chunk.size() == chunkSize);
+        scan.finish();
+
+        log.info("PasswordExpiryCampaignService: Password expiry campaign completed, emails sent: {} at: {}", total, DateTimeConverter.formatInstantNow());
+        return total;
+    }
+
+    private int dispatch(List<PasswordExpiryCandidate> chunk, LocalDateTime now) {
+        var notices = chunk.stream()
+                .map(candidate -> toNotice(candidate, now))
+                .flatMap(Optional::stream)
+                .toList();
+        skipped.increment((double) chunk.size() - notices.size());
+
+        var delivered = Flux.fromIterable(notices)
+                .delayElements(sendInterval)
+                .flatMap(this::send, concurrency)
+                .collectList()
+                .blockOptional()
+                .orElse(List.of());
+
+        var sentAt = LocalDateTime.now();
+        delivered.forEach(notice -> passwordExpiryNoticeRepository.recordNotice(
+                notice.candidate().getUserId(), notice.candidate().getPasswordCreateDate(), notice.thresholdDays(), sentAt));
+        sent.increment(delivered.size());
+        failed.increment((double) notices.size() - delivered.size());
+        return delivered.size();
+    }
+
+    private Mono<Notice> send(Notice notice) {
+        var candidate = notice.candidate();
+        var body = String.format("Hello %s, your password will expire in %d days. Please update it.", candidate.getFirstName(), notice.daysLeft());
+        return emailService.sendEmail(candidate.getEmail(), SUBJECT, body)
+                .timeout(sendTimeout)
+                .thenReturn(notice)
+                .onErrorResume(e -> {
+                    log.error("PasswordExpiryCampaignService: Failed to send email to {}: {} at: {}", candidate.getEmail(), e.toString(), DateTimeConverter.formatInstantNow());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Picks the most urgent threshold reached by the candidate and returns the notice to send,
+     * or empty when that threshold, or a more urgent one, was already sent for this password.
+     */
+    Optional<Notice> toNotice(PasswordExpiryCandidate candidate, LocalDateTime now) {
+        var daysLeft = PASSWORD_MAX_AGE_DAYS - ChronoUnit.DAYS.between(candidate.getPasswordCreateDate(), now);
+        var threshold = IntStream.range(0, warningDays.size())
+                .map(warningDays::get)
+                .filter(days -> daysLeft <= days)
+                .findFirst();
+        if (threshold.isEmpty()) {
+            return Optional.empty();
+        }
+        var lastNotified = candidate.getLastNotifiedThreshold();
+        if (lastNotified != null && lastNotified <= threshold.getAsInt()) {
+            return Optional.empty();
+        }
+        return Optional.of(new Notice(candidate, threshold.getAsInt(), daysLeft));
+    }
+
+    record Notice(PasswordExpiryCandidate candidate, int thresholdDays, long daysLeft) { }
+}
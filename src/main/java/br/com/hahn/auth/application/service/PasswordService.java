@@ -5,13 +5,13 @@ import br.com.hahn.auth.domain.enums.*;
 import br.com.hahn.auth.domain.model.*;
 import br.com.hahn.auth.domain.respository.ResetPasswordRepository;
 import br.com.hahn.auth.infrastructure.security.TokenService;
-import br.com.hahn.auth.infrastructure.service.EmailService;
 import br.com.hahn.auth.util.DateTimeConverter;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.Random;
@@ -28,7 +28,7 @@ public class PasswordService {
     private final AuthService authService;
     private final PasswordEncoder passwordEncoder;
     private final ResetPasswordRepository resetPasswordRepository;
-    private final EmailService emailService;
+    private final EmailOutboxService emailOutboxService;
     private final TokenService tokenService;
     private final TokenLogService tokenLogService;
 
@@ -75,15 +75,16 @@ public class PasswordService {
      * - Checks if there is an existing reset password request for the email and deletes it if found.
      * - Generates a new recovery code for the user.
      * - Creates a reset password entry for the user with the encoded recovery code.
-     * - Sends the validation code to the user's email.
+     * - Writes the email with the validation code to the outbox, in the same transaction as the
+     *   reset password entry. The email is delivered in the background by the outbox dispatcher.
      * - Returns a success response indicating the operation was completed.
      *
      * @author HahnGuil
      * @param passwordResetRequest the request object containing the user's email
      * @return SuccessResponse indicating the result of the operation
      * @throws UserNotFoundException if the user is not found by the provided email
-     * @throws InvalidOperationException if there is a failure in sending the email
      */
+    @Transactional
     public SuccessResponse requestValidateCode(PasswordResetRequest passwordResetRequest){
         log.info("PasswordService: Starting requesting for a validate code for email: {}, at: {}", passwordResetRequest.getEmail(), DateTimeConverter.formatInstantNow());
 
@@ -102,8 +103,8 @@ public class PasswordService {
         log.info("PasswordService: Creating reset password for the user: {}, at: {}", user.getUserId(), DateTimeConverter.formatInstantNow());
         createResetPassword(user, passwordEncoder.encode(recoverCode));
         
-        log.info("PasswordService: Send validation code to user email: {}, at: {}", user.getEmail(), DateTimeConverter.formatInstantNow());
-        sendEmail(user.getEmail(), buildResetEmailBody(user.getFirstName() + " " +  user.getLastName(), recoverCode));
+        log.info("PasswordService: Enqueue validation code to user email: {}, at: {}", user.getEmail(), DateTimeConverter.formatInstantNow());
+        enqueueEmail(user.getEmail(), buildResetEmailBody(user.getFirstName() + " " +  user.getLastName(), recoverCode));
 
         return generateResponse();
     }
@@ -170,27 +171,12 @@ public class PasswordService {
         tokenLogService.deactivateActiveUserToken(userId, TypeInvalidation.RESET_PASSWORD);
     }
 
-    /**
-     * Deletes reset password entries that have an expiration date before the specified date and time.
-     * This method performs the following steps:
-     * - Logs the start of the deletion process.
-     * - Deletes all reset password entries from the repository with an expiration date earlier than the provided date.
-     *
-     * @author HahnGuil
-     * @param dataTime the cutoff date and time; entries with an expiration date before this will be deleted
-     * @return the number of entries deleted
-     */
-    public int deleteByExpirationDateBefore(LocalDateTime dataTime){
-        log.info("ResetPasswordService: Delete reset password by expiration date");
-        return resetPasswordRepository.deleteByExpirationDateBefore(dataTime);
-    }
-
     /**
      * Validates the token for changing a user's password.
      * <p>
      * This method performs the following steps:
      * - Extracts the token log ID from the JWT.
-     * - Finds the token log entry by its ID.
+     * - Finds the scope, active flag and creation date of the token log in a single query.
      * - Validates if the token log has the expected scope.
      * - Checks if the token log is valid.
      * </p>
@@ -204,7 +190,7 @@ public class PasswordService {
         var tokensId = UUID.fromString(jwt.getClaim("token_log_id"));
 
         log.info("PasswordService: Find token by id: {} at: {}", tokensId, DateTimeConverter.formatInstantNow());
-        var token = tokenLogService.findById(tokensId);
+        var token = tokenLogService.findTokenState(tokensId);
 
         tokenLogService.isExpectedScopeToken(token);
         tokenLogService.isTokenLogValid(token);
@@ -364,26 +350,16 @@ public class PasswordService {
     }
 
     /**
-     * Sends an email with a validation code for password reset.
-     * This method performs the following steps:
-     * - Logs the start of the email sending process.
-     * - Attempts to send the email using the EmailService.
-     * - If an exception occurs, logs the failure and throws an InvalidOperationExecption.
+     * Stores the email with a validation code for password reset in the email outbox.
+     * The email is sent by the outbox dispatcher after the current transaction commits.
      *
      * @author HahnGuil
      * @param email the recipient's email address
      * @param htmlBody the HTML content of the email
-     * @throws InvalidOperationException if the email fails to send
      */
-    private void sendEmail(String email, String htmlBody) {
-        log.info("PasswordService: Send email with validate code for user email: {}, at: {}", email, DateTimeConverter.formatInstantNow());
-        try {
-            emailService.sendEmail(email, "Password Reset Request", htmlBody).block();
-        } catch (Exception _) {
-            log.error("PasswordService: Fail to send email to user email: {}. Throw InvalidOperationException at: {}", email, DateTimeConverter.formatInstantNow());
-            log.error("AuthService: Failed to send email");
-            throw new InvalidOperationException(ErrorsResponses.FAIL_TO_SEND_EMAIL.getMessage());
-        }
+    private void enqueueEmail(String email, String htmlBody) {
+        log.info("PasswordService: Enqueue email with validate code for user email: {}, at: {}", email, DateTimeConverter.formatInstantNow());
+        emailOutboxService.enqueue(email, "Password Reset Request", htmlBody);
     }
 
     /**
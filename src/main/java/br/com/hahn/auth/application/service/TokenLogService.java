@@ -7,8 +7,13 @@ import br.com.hahn.auth.domain.enums.TypeInvalidation;
 import br.com.hahn.auth.domain.model.Application;
 import br.com.hahn.auth.domain.model.InvalidatedToken;
 import br.com.hahn.auth.domain.model.TokenLog;
+import br.com.hahn.auth.domain.model.TokenState;
 import br.com.hahn.auth.domain.model.User;
 import br.com.hahn.auth.domain.respository.TokenLogRepository;
+import br.com.hahn.auth.infrastructure.cache.ApplicationTokenCache;
+import br.com.hahn.auth.infrastructure.cache.RequestMemo;
+import br.com.hahn.auth.infrastructure.persistence.ReadYourWrites;
+import br.com.hahn.auth.infrastructure.scheduling.TokenExpiryWheel;
 import br.com.hahn.auth.util.DateTimeConverter;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -16,7 +21,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
@@ -24,9 +30,15 @@ import java.util.UUID;
 @AllArgsConstructor
 public class TokenLogService {
 
+    private static final String MEMO_TOKEN_LOG = "token-log";
+    private static final String MEMO_TOKEN_STATE = "token-state";
+
     private final TokenLogRepository loginLogRepository;
     private final LoggedNowService loggedNowService;
     private final InvalidatedTokenService invalidatedTokenService;
+    private final RequestMemo requestMemo;
+    private final ApplicationTokenCache applicationTokenCache;
+    private final TokenExpiryWheel tokenExpiryWheel;
 
     /**
      * Deactivates the active token for a user and invalidates it.
@@ -44,6 +56,7 @@ public class TokenLogService {
     public void deactivateActiveUserToken(UUID userId, TypeInvalidation typeInvalidation){
         log.info("TokenLogService: Detective token for user: {} at {}", userId, DateTimeConverter.formatInstantNow());
         loginLogRepository.deactivateActiveTokenByUserId(userId);
+        evictMemoizedTokens();
 
         var tokenLog = findLoginLogByUserId(userId);
 
@@ -55,6 +68,8 @@ public class TokenLogService {
     public void deactiveActiveApplicationToken(UUID aplicationPublicId, TypeInvalidation typeInvalidation){
         log.info("TokenLogService: Deactivate old token for {} at {}", aplicationPublicId, DateTimeConverter.formatInstantNow());
         loginLogRepository.deactivateActiveTokenByApplicationPublicId(aplicationPublicId);
+        evictMemoizedTokens();
+        applicationTokenCache.evict(aplicationPublicId);
 
         var tokenLog = findLoginLogByApplicationPublicId(aplicationPublicId);
 
@@ -69,6 +84,9 @@ public class TokenLogService {
      * 1. Converts the provided user, scope token, and creation date into a TokenLog entity.
      * 2. Saves the TokenLog entity in the database.
      * 3. If the scope token is not RECOVER_CODE, it saves the token in the LoggedNow service.
+     * 4. Schedules the expiry of the token on the TokenExpiryWheel.
+     * 5. Binds the user email, the subject of the token, as the caller of the request, so the
+     *    requests that follow with the token read their own writes.
      *
      * @author HahnGuil
      * @param user       The user for whom the token log is being saved.
@@ -84,6 +102,8 @@ public class TokenLogService {
             log.info("TokenLogService: Scope token, is different of RECOVER: {}. Save token for user: {} on LoggedNow at: {}", scopeToken, user.getUserId(), DateTimeConverter.formatInstantNow());
             loggedNowService.save(user.getUserId(), loginLog.getIdTokenLog(), createDate);
         }
+        tokenExpiryWheel.schedule(loginLog.getIdTokenLog(), scopeToken, createDate);
+        ReadYourWrites.bindCaller(user.getEmail());
         return loginLog;
     }
 
@@ -91,43 +111,49 @@ public class TokenLogService {
     public TokenLog saveApplicationTokenLog(Application application, ScopeToken scopeToken, LocalDateTime createDate){
         log.info("TokenLogService: Save token on data base, for Application: {}, Scope Token is: {}, at: {}",
                 application.getNameApplication(), scopeToken, DateTimeConverter.formatInstantNow());
-        return loginLogRepository.save(convertToEntity(application, scopeToken, createDate));
+        var tokenLog = loginLogRepository.save(convertToEntity(application, scopeToken, createDate));
+        ReadYourWrites.bindCaller(Objects.toString(application.getPublicId(), null));
+        return tokenLog;
     }
 
     /**
      * Checks if a token is valid based on its ID.
      * <p>
-     * This method queries the database to determine if there is an active token
-     * associated with the provided token log ID.
+     * This method reads the token state through {@link #findTokenStateIfPresent(UUID)}, so it
+     * shares the round trip with any other scope or date check made in the same request.
      *
      * @author HahnGuil
      * @param tokenLogId The UUID of the token log to be validated.
-     * @return true if the token is active, false otherwise.
+     * @return true if the token exists and is active, false otherwise.
      */
     public boolean isTokenValid (UUID tokenLogId){
         log.info("TokenLogService: Find active token for token log id: {}, at: {}", tokenLogId, DateTimeConverter.formatInstantNow());
-        return loginLogRepository.findActiveTokenByLoginLogId(tokenLogId);
+        return findTokenStateIfPresent(tokenLogId).map(TokenState::activeToken).orElse(false);
     }
 
     /**
-     * Retrieves a list of expired active tokens based on the provided expiration time.
+     * Retrieves the scope, active flag and creation date of a token log in a single query.
      * <p>
-     * This method queries the database to find all active tokens that have expired
-     * before the specified expiration time.
+     * The result is memoized for the current request, so validating the scope and then the
+     * active flag of the same token costs one round trip.
      *
      * @author HahnGuil
-     * @param expirationTime The cutoff time to determine which tokens are considered expired.
-     * @return A list of TokenLog entities representing the expired active tokens.
+     * @param tokenLogId The UUID of the token log.
+     * @return The state of the token log.
+     * @throws InvalidTokenException if no TokenLog is found for the given ID.
      */
-    public List<TokenLog> findExpiredActiveTokens(LocalDateTime expirationTime) {
-        log.info("TokenLogServe: Find tokens log with expiration time to delete at: {}",DateTimeConverter.formatInstantNow());
-        return loginLogRepository.findExpiredActiveTokens(expirationTime);
+    public TokenState findTokenState(UUID tokenLogId){
+        return findTokenStateIfPresent(tokenLogId).orElseThrow(() -> {
+            log.error("TokenLogService: Not foud Token for user: {}. Throw InvalidTokenException at: {}", tokenLogId, DateTimeConverter.formatInstantNow());
+            return new InvalidTokenException(ErrorsResponses.INVALID_TOKEN.getMessage());
+        });
     }
 
     /**
      * Retrieves a TokenLog entity by its ID.
      * <p>
      * This method attempts to find a TokenLog in the database using the provided token log ID.
+     * The entity is memoized for the current request.
      * If the TokenLog is not found, it logs an error message and throws an InvalidTokenException.
      *
      * @author HahnGuil
@@ -136,7 +162,7 @@ public class TokenLogService {
      * @throws InvalidTokenException if no TokenLog is found for the given ID.
      */
     public TokenLog findById(UUID tokenLogId){
-        return loginLogRepository.findById(tokenLogId).orElseThrow(() -> {
+        return requestMemo.get(MEMO_TOKEN_LOG, tokenLogId, () -> loginLogRepository.findById(tokenLogId)).orElseThrow(() -> {
             log.error("TokenLogService: Not foud Token for user: {}. Throw InvalidTokenException at: {}", tokenLogId, DateTimeConverter.formatInstantNow());
             return new InvalidTokenException(ErrorsResponses.INVALID_TOKEN.getMessage());
         });
@@ -167,9 +193,20 @@ public class TokenLogService {
      * @throws InvalidTokenException if the token is inactive or invalid.
      */
     public void isTokenLogValid(TokenLog tokenLog){
-        log.info("TokenLogService: Check if the Token: {} is active: at: {}", tokenLog.getIdTokenLog(), DateTimeConverter.formatInstantNow());
-        if(!tokenLog.isActiveToken()){
-            log.error("TokenLogService: Token: {} is invalid or deactivate. Throw InvalidTokenException at: {}", tokenLog.getIdTokenLog(), DateTimeConverter.formatInstantNow());
+        isTokenLogValid(TokenState.from(tokenLog));
+    }
+
+    /**
+     * Validates if the token described by the given state is active.
+     *
+     * @author HahnGuil
+     * @param tokenState The state of the token to be validated.
+     * @throws InvalidTokenException if the token is inactive or invalid.
+     */
+    public void isTokenLogValid(TokenState tokenState){
+        log.info("TokenLogService: Check if the Token: {} is active: at: {}", tokenState.idTokenLog(), DateTimeConverter.formatInstantNow());
+        if(!tokenState.activeToken()){
+            log.error("TokenLogService: Token: {} is invalid or deactivate. Throw InvalidTokenException at: {}", tokenState.idTokenLog(), DateTimeConverter.formatInstantNow());
             throw new InvalidTokenException(ErrorsResponses.INVALID_TOKEN.getMessage());
         }
     }
@@ -187,11 +224,22 @@ public class TokenLogService {
      * @throws InvalidTokenException if the token scope is not LOGIN_TOKEN or REGISTER_TOKEN
      */
     public void isExpectedScopeToken(TokenLog tokenLog){
-        log.info("TokenLogService: Check the scope of token: {} at: {}", tokenLog.getIdTokenLog(), DateTimeConverter.formatInstantNow());
-        var scope = tokenLog.getScopeToken();
+        isExpectedScopeToken(TokenState.from(tokenLog));
+    }
+
+    /**
+     * Validates that the token described by the given state has a scope appropriate for login operations.
+     *
+     * @author HahnGuil
+     * @param tokenState the state of the token to validate; its scope is checked
+     * @throws InvalidTokenException if the token scope is not LOGIN_TOKEN or REGISTER_TOKEN
+     */
+    public void isExpectedScopeToken(TokenState tokenState){
+        log.info("TokenLogService: Check the scope of token: {} at: {}", tokenState.idTokenLog(), DateTimeConverter.formatInstantNow());
+        var scope = tokenState.scopeToken();
         if(!ScopeToken.LOGIN_TOKEN.equals(scope) && !ScopeToken.REGISTER_TOKEN.equals(scope)){
-            log.error("TokenLogService: Token: {} has invalid scope: {}. Throw InvalidTokenException at: {}", tokenLog.getIdTokenLog(), scope, DateTimeConverter.formatInstantNow());
-            throw new InvalidTokenException(ErrorsResponses.SCOPE_TOKEN_INVALID.getMessage() + tokenLog.getScopeToken().toString());
+            log.error("TokenLogService: Token: {} has invalid scope: {}. Throw InvalidTokenException at: {}", tokenState.idTokenLog(), scope, DateTimeConverter.formatInstantNow());
+            throw new InvalidTokenException(ErrorsResponses.SCOPE_TOKEN_INVALID.getMessage() + scope);
         }
     }
 
@@ -237,6 +285,21 @@ public class TokenLogService {
         return loginLogRepository.findTopByApplicationPublicIdOrderByCreateDateDesc(applicationPublicId);
     }
 
+    private Optional<TokenState> findTokenStateIfPresent(UUID tokenLogId){
+        return requestMemo.get(MEMO_TOKEN_STATE, tokenLogId, () -> loginLogRepository.findTokenStateById(tokenLogId));
+    }
+
+    /**
+     * Drops every token memoized for the current request after a bulk deactivation, since the
+     * update may have changed the active flag of any of them.
+     *
+     * @author HahnGuil
+     */
+    private void evictMemoizedTokens(){
+        requestMemo.evictNamespace(MEMO_TOKEN_LOG);
+        requestMemo.evictNamespace(MEMO_TOKEN_STATE);
+    }
+
 
     private TokenLog convertToEntity(User user, ScopeToken scopeToken, LocalDateTime createDate) {
         return convertToEntity(user.getUserId(), null, scopeToken, createDate);
@@ -1,22 +1,173 @@
 package br.com.hahn.auth.application.service;
 
-import br.com.hahn.auth.infrastructure.service.UserDataClient;
+import br.com.hahn.auth.domain.enums.UserSyncStatus;
+import br.com.hahn.auth.domain.model.UserSyncTask;
+import br.com.hahn.auth.domain.respository.UserSyncTaskRepository;
+import br.com.hahn.auth.infrastructure.security.TokenCipher;
 import br.com.hahn.auth.util.DateTimeConverter;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
 
 @Service
 @Slf4j
-@RequiredArgsConstructor
 public class UserDataService {
 
-    private final UserDataClient userDataClient;
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final UserSyncTaskRepository userSyncTaskRepository;
+    private final TokenCipher tokenCipher;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration claimLease;
 
+    public UserDataService(UserSyncTaskRepository userSyncTaskRepository,
+                           TokenCipher tokenCipher,
+                           @Value("${integration.toxicbet.users.sync.max-attempts:6}") int maxAttempts,
+                           @Value("${integration.toxicbet.users.sync.initial-backoff:PT5S}") Duration initialBackoff,
+                           @Value("${integration.toxicbet.users.sync.max-backoff:PT2M}") Duration maxBackoff,
+                           @Value("${integration.toxicbet.users.sync.claim-lease:PT1M}") Duration claimLease) {
+        this.userSyncTaskRepository = userSyncTaskRepository;
+        this.tokenCipher = tokenCipher;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.claimLease = claimLease;
+    }
+
+    /**
+     * Schedules the update of the user on the user-data service.
+     * <p>
+     * Must be called inside the transaction that writes the user change, so the sync is recorded
+     * if and only if that change commits. If a sync for the same user is still pending it is
+     * coalesced with this one: the row keeps a single pending update carrying the latest token.
+     * The token is stored encrypted by {@link TokenCipher}, bound to the user email.
+     *
+     * @author HahnGuil
+     * @param jwt the token of the request that changed the user, forwarded to the user-data service
+     * @param userEmail the email of the changed user
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
     public void updateUserByEmailHeader(Jwt jwt, String userEmail) {
-        log.info("UserDataService: Updating user by email header for {} at {}", userEmail, DateTimeConverter.formatInstantNow());
-        userDataClient.patchUserByEmailHeader(jwt.getTokenValue(), userEmail);
+        log.info("UserDataService: Scheduling user sync by email header for {} at {}", userEmail, DateTimeConverter.formatInstantNow());
+        var tokenExpiresAt = jwt.getExpiresAt() == null ? null : LocalDateTime.ofInstant(jwt.getExpiresAt(), ZoneId.systemDefault());
+        userSyncTaskRepository.upsertPending(userEmail, tokenCipher.encrypt(jwt.getTokenValue(), userEmail), tokenExpiresAt, LocalDateTime.now());
+    }
+
+    /**
+     * Decrypts the token stored with a sync, to be forwarded to the user-data service.
+     *
+     * @author HahnGuil
+     * @param task the claimed sync
+     * @return the bearer token in plain text
+     * @throws IllegalStateException if the token cannot be decrypted with the current key
+     */
+    public String bearerTokenOf(UserSyncTask task) {
+        return tokenCipher.decrypt(task.getBearerToken(), task.getUserEmail());
+    }
+
+    /**
+     * Claims up to {@code batchSize} pending user syncs that are due.
+     * <p>
+     * Rows are locked with {@code FOR UPDATE SKIP LOCKED}, their attempt counter is incremented
+     * and their next attempt is pushed by the claim lease, so no other dispatcher picks them up
+     * while this attempt is in flight.
+     *
+     * @author HahnGuil
+     * @param batchSize the maximum number of syncs to claim
+     * @return the claimed syncs, detached from the persistence context
+     */
+    @Transactional
+    public List<UserSyncTask> claimDueBatch(int batchSize) {
+        var now = LocalDateTime.now();
+        var batch = userSyncTaskRepository.lockDueBatch(now, batchSize);
+        batch.forEach(task -> {
+            task.setAttempts(task.getAttempts() + 1);
+            task.setNextAttemptAt(now.plus(claimLease));
+        });
+        return batch;
     }
-}
 
+    /**
+     * Marks a sync as done and drops its token, unless a newer update was coalesced into the row
+     * while the call was in flight; in that case the row stays pending for the newer update.
+     *
+     * @author HahnGuil
+     * @param id the id of the sync
+     * @param version the version of the sync that was sent
+     */
+    @Transactional
+    public void markSynced(Long id, int version) {
+        userSyncTaskRepository.findById(id)
+                .filter(task -> task.getVersion() == version)
+                .ifPresent(task -> {
+                    task.setStatus(UserSyncStatus.SYNCED);
+                    task.setSyncedAt(LocalDateTime.now());
+                    task.setBearerToken(null);
+                    task.setLastError(null);
+                });
+    }
+
+    /**
+     * Records a failed sync attempt.
+     * <p>
+     * The sync is retried with exponential backoff, starting at
+     * {@code integration.toxicbet.users.sync.initial-backoff} and capped at
+     * {@code integration.toxicbet.users.sync.max-backoff}. It is moved to
+     * {@link UserSyncStatus#DEAD} once {@code integration.toxicbet.users.sync.max-attempts}
+     * attempts have failed or its token has expired, since a retry could not succeed anymore.
+     *
+     * @author HahnGuil
+     * @param id the id of the sync
+     * @param version the version of the sync that was sent
+     * @param error a description of the failure
+     * @return the status of the sync after the failure
+     */
+    @Transactional
+    public UserSyncStatus markFailed(Long id, int version, String error) {
+        var task = userSyncTaskRepository.findById(id).orElse(null);
+        if (task == null) {
+            return UserSyncStatus.DEAD;
+        }
+        if (task.getVersion() != version) {
+            return UserSyncStatus.PENDING;
+        }
+        task.setLastError(error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+
+        var backoff = backoffFor(task.getAttempts());
+        var nextAttemptAt = LocalDateTime.now().plus(backoff);
+        var tokenExpired = task.getTokenExpiresAt() != null && nextAttemptAt.isAfter(task.getTokenExpiresAt());
+        if (task.getAttempts() >= maxAttempts || tokenExpired) {
+            log.error("UserDataService: Sync of user: {} failed {} times, moving to dead letter at: {}", task.getUserEmail(), task.getAttempts(), DateTimeConverter.formatInstantNow());
+            task.setStatus(UserSyncStatus.DEAD);
+            task.setBearerToken(null);
+            return UserSyncStatus.DEAD;
+        }
+
+        log.info("UserDataService: Sync of user: {} failed attempt {}, retrying in: {} at: {}", task.getUserEmail(), task.getAttempts(), backoff, DateTimeConverter.formatInstantNow());
+        task.setNextAttemptAt(nextAttemptAt);
+        return UserSyncStatus.PENDING;
+    }
+
+    /**
+     * Computes the delay before the next attempt, doubling for each failed attempt.
+     *
+     * @author HahnGuil
+     * @param attempts the number of attempts already made, at least 1
+     * @return the delay before the next attempt
+     */
+    Duration backoffFor(int attempts) {
+        var shift = Math.min(Math.max(attempts - 1, 0), 30);
+        var backoff = initialBackoff.multipliedBy(1L << shift);
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+}
@@ -1,5 +1,7 @@
 package br.com.hahn.auth.application.service;
 
+import br.com.hahn.auth.application.dto.ApplicationSnapshot;
+import br.com.hahn.auth.application.dto.UserSnapshot;
 import br.com.hahn.auth.application.execption.UserEmailAlreadyExistException;
 import br.com.hahn.auth.application.execption.UserNotFoundException;
 import br.com.hahn.auth.application.execption.InvalidFormatTypeException;
@@ -7,6 +9,12 @@ import br.com.hahn.auth.application.execption.ResourceAlreadyExistException;
 import br.com.hahn.auth.domain.enums.*;
 import br.com.hahn.auth.domain.model.*;
 import br.com.hahn.auth.domain.respository.UserRepository;
+import br.com.hahn.auth.infrastructure.cache.RegisteredEmailFilter;
+import br.com.hahn.auth.infrastructure.cache.RequestMemo;
+import br.com.hahn.auth.infrastructure.cache.UserSnapshotCache;
+import br.com.hahn.auth.infrastructure.scheduling.JobLease;
+import br.com.hahn.auth.infrastructure.scheduling.JobScanMetrics;
+import br.com.hahn.auth.infrastructure.scheduling.JobShard;
 import br.com.hahn.auth.infrastructure.security.TokenService;
 import br.com.hahn.auth.infrastructure.service.UserDataClient;
 import br.com.hahn.auth.util.DateTimeConverter;
@@ -21,6 +29,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.regex.Pattern;
@@ -30,20 +39,32 @@ import java.util.regex.Pattern;
 public class UserService {
 
 
+    private static final String MEMO_USER_BY_EMAIL = "user-by-email";
+    private static final long PASSWORD_MAX_AGE_DAYS = 90;
+    private static final int BLOCK_BATCH_SIZE = 500;
+
     private final UserRepository userRepository;
     private final ApplicationService applicationService;
     private final TokenLogService tokenLogService;
     private final TokenService tokenService;
     private final PasswordEncoder passwordEncoder;
     private final UserDataService userDataService;
+    private final UserSnapshotCache userSnapshotCache;
+    private final RequestMemo requestMemo;
+    private final RegisteredEmailFilter registeredEmailFilter;
+    private final JobScanMetrics jobScanMetrics;
 
-    public UserService(UserRepository userRepository, ApplicationService applicationService, @Lazy TokenLogService tokenLogService, TokenService tokenService, PasswordEncoder passwordEncoder, UserDataService userDataService) {
+    public UserService(UserRepository userRepository, ApplicationService applicationService, @Lazy TokenLogService tokenLogService, TokenService tokenService, PasswordEncoder passwordEncoder, UserDataService userDataService, UserSnapshotCache userSnapshotCache, RequestMemo requestMemo, RegisteredEmailFilter registeredEmailFilter, JobScanMetrics jobScanMetrics) {
         this.userRepository = userRepository;
         this.applicationService = applicationService;
         this.tokenLogService = tokenLogService;
         this.tokenService = tokenService;
         this.passwordEncoder = passwordEncoder;
         this.userDataService = userDataService;
+        this.userSnapshotCache = userSnapshotCache;
+        this.requestMemo = requestMemo;
+        this.registeredEmailFilter = registeredEmailFilter;
+        this.jobScanMetrics = jobScanMetrics;
     }
 
 
@@ -53,8 +74,10 @@ public class UserService {
      * - Logs the start of the user creation process.
      * - Checks if the email provided in the user request already exists.
      * - Converts the user request into a User entity and encodes the password.
-     * - Saves the new user entity to the repository.
+     * - Inserts the new user, failing if the email was registered in the meantime.
      * - Converts the saved user entity into a UserResponse object and returns it.
+     * The existence check is answered by the {@link RegisteredEmailFilter} without a query for
+     * most new emails, and the unique email index decides races through the insert.
      *
      * @author HahnGuil
      * @param userRequest the request object containing user details
@@ -71,7 +94,10 @@ public class UserService {
 
         log.info("UserService: Starting convert user with email: {} to entity at: {}", userRequest.getEmail(), DateTimeConverter.formatInstantNow());
         var user = convertToEntity(userRequest, passwordEncoder.encode(userRequest.getPassword()));
-        userRepository.save(user);
+        if (!insertUser(user)) {
+            log.error("UserService: Email registered concurrently for email: {}. throw UserEmailAlreadyExistsException at: {}", userRequest.getEmail(), DateTimeConverter.formatInstantNow());
+            throw new UserEmailAlreadyExistException(ErrorsResponses.EMAIL_ALREADY_REGISTER_ERROR.getMessage());
+        }
         return convertToUserResponse(user);
     }
 
@@ -79,7 +105,9 @@ public class UserService {
      * Checks if a user with the given email exists in the repository.
      * This method performs the following steps:
      * - Logs the start of the email existence check process.
-     * - Queries the repository to determine if the email exists.
+     * - Returns false without a query when the {@link RegisteredEmailFilter} knows the email is
+     *   not registered.
+     * - Otherwise queries the repository to determine if the email exists.
      *
      * @author HahnGuil
      * @param email the email address to check for existence
@@ -87,6 +115,9 @@ public class UserService {
      */
     public boolean existsByEmail(String email){
         log.info("UserService: Checking if the requested email exists. For email {} at {}", email,  DateTimeConverter.formatInstantNow());
+        if (!registeredEmailFilter.mightContain(email)) {
+            return false;
+        }
         return userRepository.existsByEmail(email);
     }
 
@@ -94,17 +125,24 @@ public class UserService {
      * Retrieves a user by their email address.
      * This method performs the following steps:
      * - Logs the start of the user search process.
-     * - Attempts to find the user along with their associated applications in the repository.
+     * - Looks the user up in the {@link RequestMemo} of the current request, then in the
+     *   {@link UserSnapshotCache}, loading the user along with their associated applications
+     *   from the repository on a miss.
      * - If the user is not found, logs the error and throws a UserNotFoundException.
+     * <p>
+     * The returned User is a detached, read-only copy built from the cached snapshot. Flows that
+     * modify the user must load the entity through {@link #findEntityByEmail(String)} instead.
      *
      * @author HahnGuil
      * @param email the email address of the user to search for
-     * @return the User object associated with the provided email
+     * @return a detached User carrying the data of the user associated with the provided email
      * @throws UserNotFoundException if no user is found for the given email
      */
     public User findByEmail(String email){
         log.info("UserService: Searching for user for email: {} at: {}", email, DateTimeConverter.formatInstantNow());
-        return userRepository.findByEmailWithApplications(email)
+        return requestMemo.get(MEMO_USER_BY_EMAIL, email,
+                        () -> userSnapshotCache.getByEmail(email, () -> userRepository.findByEmailWithApplications(email).map(UserSnapshot::from)))
+                .map(UserSnapshot::toUser)
                 .orElseThrow(() -> {
                     log.error("UserService: User not found for email: {}. Throw the UserNotFoundException at: {}", email, DateTimeConverter.formatInstantNow());
                     return new UserNotFoundException(ErrorsResponses.USER_NOT_FOUD.getMessage());
@@ -165,60 +203,64 @@ public class UserService {
     public void updatePassword(String email, UUID id, String newPassword, LocalDateTime passwordCreateDate) {
         log.info("UserService: update password for the user: {} at: {}", id, DateTimeConverter.formatInstantNow());
         userRepository.updatePasswordByEmailAndId(newPassword, email, id, passwordCreateDate);
+        evictUser(email, id);
     }
 
     /**
-     * Creates a new user from an OAuth2User object.
+     * Finds the user signing in through OAuth, registering it on its first sign-in.
      * This method performs the following steps:
-     * - Logs the start of the user creation process.
-     * - Converts the OAuth2User object into a UserRequest object.
-     * - Converts the UserRequest object into a User entity.
-     * - Saves the new User entity to the repository.
-     * - Returns the newly created User entity.
+     * - Looks the user up in the {@link RequestMemo} of the current request, then in the
+     *   {@link UserSnapshotCache}.
+     * - On a miss, converts the OAuth2User into a new User entity and upserts it with a single
+     *   statement that returns the existing or inserted row along with its applications.
+     * - Caches and returns the user.
+     * A returning user found in the cache costs no query, and any other sign-in costs one.
      *
      * @author HahnGuil
      * @param oAuth2User the OAuth2User object containing user details from the OAuth provider
-     * @return the newly created User entity
+     * @return a detached User carrying the data of the existing or newly created user
      */
-    public User createNewUserFromOAuth (OAuth2User oAuth2User){
-        log.info("UserService: Creating a new user: {}, from OAuth, at: {}", oAuth2User.getAttribute("email"), DateTimeConverter.formatInstantNow());
-        var userRequest = convertToUserRequest(oAuth2User);
-        var newUserFromOAuth = convertToEntity(userRequest, "");
-        userRepository.save(newUserFromOAuth);
-        return newUserFromOAuth;
-    }
-
-    /**
-     * Retrieves a list of users whose passwords are expiring within a specified number of days.
-     * This method performs the following steps:
-     * - Logs the start of the retrieval process.
-     * - Calculates the date threshold based on the provided number of days until expiration.
-     * - Queries the repository for users with passwords older than the calculated threshold.
-     *
-     * @author HahnGuil
-     * @param daysUntilBlock the number of days until the passwords are considered expiring
-     * @return a list of users whose passwords are expiring within the specified timeframe
-     */
-    public List<User> getUsersWithPasswordExpiringInDays(int daysUntilBlock) {
-        log.info("UserService: get users with password expiring in dats: {}, at: {}", daysUntilBlock, DateTimeConverter.formatInstantNow());
-        var dateThreshold = LocalDateTime.now().minusDays(90L - daysUntilBlock);
-        return userRepository.findUsersWithPasswordOlderThan(dateThreshold);
+    public User findOrCreateOAuthUser(OAuth2User oAuth2User){
+        String email = oAuth2User.getAttribute("email");
+        log.info("UserService: Find or create OAuth user: {}, at: {}", email, DateTimeConverter.formatInstantNow());
+        return requestMemo.get(MEMO_USER_BY_EMAIL, email,
+                        () -> userSnapshotCache.getByEmail(email, () -> upsertOAuthUser(oAuth2User)))
+                .map(UserSnapshot::toUser)
+                .orElseThrow(() -> {
+                    log.error("UserService: Upsert returned no user for email: {}. Throw the UserNotFoundException at: {}", email, DateTimeConverter.formatInstantNow());
+                    return new UserNotFoundException(ErrorsResponses.USER_NOT_FOUD.getMessage());
+                });
     }
 
     /**
-     * Finds and blocks users whose passwords were updated within the last 90 days.
+     * Blocks the normal users whose password expired. OAuth users have no local password and
+     * are never blocked.
      * This method performs the following steps:
      * - Logs the start of the search for users to block.
-     * - Calculates a reference date equal to 90 days ago.
-     * - Retrieves users with passwords updated after the reference date and delegates
-     *   the blocking logic to {@code blockUsers}.
+     * - Calculates a reference date equal to {@value #PASSWORD_MAX_AGE_DAYS} days ago.
+     * - Blocks, {@value #BLOCK_BATCH_SIZE} at a time and with one UPDATE per batch, the users
+     *   whose password was created before the reference date, evicting each of them from the
+     *   user cache, until a batch comes back smaller than the batch size.
+     * Only the id, email, first name and role of the blocked users are read, so memory use does
+     * not grow with the number of users. Throughput and heap peak of the run are published by
+     * {@link JobScanMetrics} under {@code job=block-users}.
      *
      * @author HahnGuil
+     * @param shard the slice of the users to process
+     * @return the number of users blocked
      */
-    public void findUserToBlock() {
+    public long findUserToBlock(JobShard shard) {
         log.info("UserService: Find users to block at: {}", DateTimeConverter.formatInstantNow());
-        var referenceData = LocalDateTime.now().minusDays(90);
-        blockUsers(userRepository.findUsersWithPasswordNewerThan(referenceData));
+        var referenceData = LocalDateTime.now().minusDays(PASSWORD_MAX_AGE_DAYS);
+        var scan = jobScanMetrics.start("block-users");
+        List<UserScanRow> blocked;
+        do {
+            JobLease.checkHeld();
+            blocked = userRepository.blockUsersWithPasswordOlderThan(referenceData, BLOCK_BATCH_SIZE, shard.index(), shard.count());
+            blocked.forEach(user -> evictUser(user.getEmail(), user.getUserId()));
+            scan.add(blocked.size());
+        } while (blocked.size() == BLOCK_BATCH_SIZE);
+        return scan.finish();
     }
 
     /**
@@ -256,6 +298,7 @@ public class UserService {
             log.info("UserService: Application not yet registered to the user: {}. Adding the application to the user {}", user.getUserId(), application);
             user.getApplications().add(application);
             userRepository.save(user);
+            evictUser(user.getEmail(), user.getUserId());
         }
 
         log.info("UserService: End registration user to application at: {}", DateTimeConverter.formatInstantNow());
@@ -263,13 +306,15 @@ public class UserService {
         return response;
     }
 
+    @Transactional
     public void updateUserApplicationRole(Jwt jwt, UUID applicationPublicId){
         var userEmail = getUserEmailFromToken(jwt);
-        var user = findByEmail(userEmail);
+        var user = findEntityByEmail(userEmail);
 
         if (isUserRegisteredOnApplication(user, applicationPublicId)) {
             user.setUserApplicationRole(UserApplicationRole.ADMIN);
             userRepository.save(user);
+            evictUser(userEmail, user.getUserId());
             userDataService.updateUserByEmailHeader(jwt, userEmail);
         }
     }
@@ -288,7 +333,7 @@ public class UserService {
     @Transactional
     public void updateAuthenticatedUsername(Jwt jwt, UpdateUsernameRequest request) {
         var userEmail = getUserEmailFromToken(jwt);
-        var user = findByEmail(userEmail);
+        var user = findEntityByEmail(userEmail);
         var requestedUserName = request.getUserName() == null ? null : request.getUserName().trim();
 
         if (requestedUserName.equals(user.getUsername())) {
@@ -301,9 +346,40 @@ public class UserService {
 
         user.setUsername(requestedUserName);
         userRepository.save(user);
+        evictUser(userEmail, user.getUserId());
         userDataService.updateUserByEmailHeader(jwt, userEmail);
     }
 
+    /**
+     * Retrieves the managed User entity, with its applications, for flows that modify it.
+     * This method bypasses the {@link UserSnapshotCache}; callers must evict the user from the
+     * cache after saving their changes.
+     *
+     * @author HahnGuil
+     * @param email the email address of the user to search for
+     * @return the managed User entity associated with the provided email
+     * @throws UserNotFoundException if no user is found for the given email
+     */
+    private User findEntityByEmail(String email){
+        return userRepository.findByEmailWithApplications(email)
+                .orElseThrow(() -> {
+                    log.error("UserService: User not found for email: {}. Throw the UserNotFoundException at: {}", email, DateTimeConverter.formatInstantNow());
+                    return new UserNotFoundException(ErrorsResponses.USER_NOT_FOUD.getMessage());
+                });
+    }
+
+    /**
+     * Drops the user from the request memo and from the {@link UserSnapshotCache} after a write.
+     *
+     * @author HahnGuil
+     * @param email the email of the changed user
+     * @param userId the id of the changed user
+     */
+    private void evictUser(String email, UUID userId){
+        requestMemo.evict(MEMO_USER_BY_EMAIL, email);
+        userSnapshotCache.evict(email, userId);
+    }
+
     private boolean isUserRegisteredOnApplication(User user, UUID applicationPublicId) {
         return user.getApplications() != null &&
                 user.getApplications().stream()
@@ -382,7 +458,7 @@ public class UserService {
      * Checks if an application is already associated with a user.
      * This method performs the following steps:
      * - Logs the validation process to check if the application is registered for the user.
-     * - Verifies if the user's list of applications contains the specified application.
+     * - Verifies if the user's list of applications contains an application with the same id.
      *
      * @author HahnGuil
      * @param user the User entity to check for the application association
@@ -391,7 +467,8 @@ public class UserService {
      */
     private boolean isApplicationAlreadySetForUser(User user, Application application){
         log.info("UserService: Validate if user: {}, already register for this application {} at: {}", user.getUserId(), application, DateTimeConverter.formatInstantNow());
-        return !user.getApplications().contains(application);
+        return user.getApplications().stream()
+                .noneMatch(registered -> registered.getId().equals(application.getId()));
     }
 
     /**
@@ -413,28 +490,53 @@ public class UserService {
     }
 
     /**
-     * Blocks a list of users by setting their block status to true.
-     * This method performs the following steps:
-     * - Logs the start of the blocking process.
-     * - Checks if the provided list of users is null or empty and logs a message if so.
-     * - Filters the list to include only users with the role USER_NORMAL.
-     * - Sets the block status to true for each filtered user and saves the changes to the repository.
-     * - Logs the completion of the blocking process.
+     * Inserts a new user with {@code ON CONFLICT DO NOTHING} on the email, linking it to its
+     * application in the same statement, and records the email in the {@link RegisteredEmailFilter}.
      *
      * @author HahnGuil
-     * @param usersToBlock the list of users to be blocked
+     * @param user the new user, without id
+     * @return true when the user was inserted, false when the email was already registered
      */
-    private void blockUsers(List<User> usersToBlock) {
-        log.info("UserService: Starting block user of the list at: {}", DateTimeConverter.formatInstantNow());
-        if (usersToBlock == null || usersToBlock.isEmpty()) {
-            log.info("UserService: No users to block at: {}", DateTimeConverter.formatInstantNow());
-            return;
+    private boolean insertUser(User user) {
+        user.setUserId(UUID.randomUUID());
+        var applicationId = user.getApplications() == null ? null : user.getApplications().stream()
+                .map(Application::getId)
+                .findFirst()
+                .orElse(null);
+        if (userRepository.insertIfEmailAbsent(user, applicationId) == 0) {
+            return false;
         }
-        usersToBlock.stream().filter(u -> u.getRole() == UserRole.USER_NORMAL).forEach(u -> {
-                    u.setBlockUser(true);
-                    userRepository.save(u);
-                });
-        log.info("UserService: Finish block user from list at: {}", DateTimeConverter.formatInstantNow());
+        registeredEmailFilter.add(user.getEmail());
+        return true;
+    }
+
+    private Optional<UserSnapshot> upsertOAuthUser(OAuth2User oAuth2User){
+        var newUser = convertToEntity(convertToUserRequest(oAuth2User), "");
+        newUser.setUserId(UUID.randomUUID());
+        var rows = userRepository.upsertOAuthUser(newUser);
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+
+        var row = rows.getFirst();
+        if (row.getUserId().equals(newUser.getUserId())) {
+            log.info("UserService: Created OAuth user: {} at: {}", row.getUserId(), DateTimeConverter.formatInstantNow());
+            registeredEmailFilter.add(row.getEmail());
+        }
+        var applications = rows.stream()
+                .map(OAuthUserRow::getApplicationId)
+                .filter(Objects::nonNull)
+                .map(applicationService::findById)
+                .map(ApplicationSnapshot::from)
+                .toList();
+        return Optional.of(new UserSnapshot(row.getUserId(), row.getUsername(), row.getPassword(), row.getPasswordCreateDate(),
+                row.getEmail(), row.getFirstName(), row.getLastName(), row.getPictureUrl(), row.getBlockUser(),
+                toEnum(TypeUser.class, row.getTypeUser()), toEnum(UserRole.class, row.getRole()),
+                toEnum(UserApplicationRole.class, row.getUserApplicationRole()), applications));
+    }
+
+    private static <E extends Enum<E>> E toEnum(Class<E> type, String value) {
+        return value == null ? null : Enum.valueOf(type, value);
     }
 
     /**
@@ -0,0 +1,138 @@
+package br.com.hahn.auth.application.validation;
+
+/**
+ * Single-pass format checks for the credentials received by the public endpoints.
+ *
+ * <p>The scanners below replace the regular expressions previously compiled on every request by
+ * {@code AbstractController}:</p>
+ * <ul>
+ *   <li>email: {@code ^[A-Z0-9._%+-]+@[A-Z0-9.-]+\.[A-Z]{2,}$} (case-insensitive)</li>
+ *   <li>password: {@code ^(?=.*\d)(?=.*[A-Z])(?=.*[^A-Za-z0-9]).{8,12}$}</li>
+ * </ul>
+ * <p>They differ from those expressions in two ways. Emails longer than {@link #MAX_EMAIL_LENGTH}
+ * are rejected. Lengths are counted in UTF-16 chars, like the {@code @Size} constraints generated
+ * from {@code minLength}/{@code maxLength}, while the regular expression counted code points, so a
+ * character outside the Basic Multilingual Plane counts as two characters of a password.</p>
+ * <p>Each check rejects oversized input before looking at a single character, walks the string
+ * once and allocates nothing, so it cannot backtrack regardless of what the client sends.
+ * The class is stateless and thread-safe and cannot be instantiated.</p>
+ *
+ * @author HahnGuil
+ */
+public final class InputFormatValidator {
+
+    /**
+     * Maximum accepted email length, as defined by RFC 5321 for a forward path.
+     */
+    public static final int MAX_EMAIL_LENGTH = 254;
+
+    public static final int MIN_PASSWORD_LENGTH = 8;
+
+    public static final int MAX_PASSWORD_LENGTH = 12;
+
+    private InputFormatValidator() { }
+
+    /**
+     * Checks whether the given value is a well-formed email address.
+     *
+     * @author HahnGuil
+     * @param email the value to check; may be null
+     * @return true if the value is not null, not longer than {@link #MAX_EMAIL_LENGTH} and matches the email format
+     */
+    public static boolean isValidEmail(CharSequence email) {
+        if (email == null) {
+            return false;
+        }
+        int length = email.length();
+        if (length == 0 || length > MAX_EMAIL_LENGTH) {
+            return false;
+        }
+
+        int at = -1;
+        int lastDot = -1;
+        for (int i = 0; i < length; i++) {
+            char c = email.charAt(i);
+            if (c == '@') {
+                if (at >= 0) {
+                    return false;
+                }
+                at = i;
+            } else if (at < 0) {
+                if (!isLocalPartChar(c)) {
+                    return false;
+                }
+            } else if (c == '.') {
+                lastDot = i;
+            } else if (!isAsciiLetterOrDigit(c) && c != '-') {
+                return false;
+            }
+        }
+
+        if (at <= 0 || lastDot <= at + 1 || length - lastDot - 1 < 2) {
+            return false;
+        }
+        for (int i = lastDot + 1; i < length; i++) {
+            if (!isAsciiLetter(email.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether the given value satisfies the password policy: 8 to 12 UTF-16 chars with at
+     * least one digit, one uppercase letter and one character that is neither a letter nor a digit.
+     *
+     * @author HahnGuil
+     * @param password the value to check; may be null
+     * @return true if the value is not null and satisfies the password policy
+     */
+    public static boolean isValidPassword(CharSequence password) {
+        if (password == null) {
+            return false;
+        }
+        int length = password.length();
+        if (length < MIN_PASSWORD_LENGTH || length > MAX_PASSWORD_LENGTH) {
+            return false;
+        }
+
+        boolean hasDigit = false;
+        boolean hasUpper = false;
+        boolean hasSpecial = false;
+        for (int i = 0; i < length; i++) {
+            char c = password.charAt(i);
+            if (isLineTerminator(c)) {
+                return false;
+            }
+            if (c >= '0' && c <= '9') {
+                hasDigit = true;
+            }
+            if (c >= 'A' && c <= 'Z') {
+                hasUpper = true;
+            } else if (!isAsciiLetterOrDigit(c)) {
+                hasSpecial = true;
+            }
+        }
+        return hasDigit && hasUpper && hasSpecial;
+    }
+
+    private static boolean isLocalPartChar(char c) {
+        return isAsciiLetterOrDigit(c) || c == '.' || c == '_' || c == '%' || c == '+' || c == '-';
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+    }
+
+    private static boolean isAsciiLetterOrDigit(char c) {
+        return isAsciiLetter(c) || (c >= '0' && c <= '9');
+    }
+
+    /**
+     * Mirrors the characters that {@code .} refuses to match in a {@link java.util.regex.Pattern}
+     * compiled without {@code DOTALL}.
+     */
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+}
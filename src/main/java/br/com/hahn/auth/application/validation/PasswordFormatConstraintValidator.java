@@ -0,0 +1,20 @@
+package br.com.hahn.auth.application.validation;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+/**
+ * Validator for {@link ValidPassword}.
+ * <p>
+ * Null values are considered valid so that presence stays the responsibility of {@code @NotNull},
+ * which the generator already emits for required properties.
+ *
+ * @author HahnGuil
+ */
+public class PasswordFormatConstraintValidator implements ConstraintValidator<ValidPassword, CharSequence> {
+
+    @Override
+    public boolean isValid(CharSequence value, ConstraintValidatorContext context) {
+        return value == null || InputFormatValidator.isValidPassword(value);
+    }
+}
@@ -0,0 +1,31 @@
+package br.com.hahn.auth.application.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Bean Validation constraint for email fields of the request models.
+ * <p>
+ * Backed by {@link InputFormatValidator#isValidEmail(CharSequence)}. It is attached to the
+ * generated models through the {@code x-field-extra-annotation} extension in {@code swagger.yml}.
+ *
+ * @author HahnGuil
+ */
+@Documented
+@Constraint(validatedBy = EmailFormatConstraintValidator.class)
+@Target({ElementType.FIELD, ElementType.METHOD, ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ValidEmail {
+
+    String message() default "This email is in a invalid format.";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
@@ -0,0 +1,31 @@
+package br.com.hahn.auth.application.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Bean Validation constraint for password fields of the request models.
+ * <p>
+ * Backed by {@link InputFormatValidator#isValidPassword(CharSequence)}. It is attached to the
+ * generated models through the {@code x-field-extra-annotation} extension in {@code swagger.yml}.
+ *
+ * @author HahnGuil
+ */
+@Documented
+@Constraint(validatedBy = PasswordFormatConstraintValidator.class)
+@Target({ElementType.FIELD, ElementType.METHOD, ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ValidPassword {
+
+    String message() default "Invalid password format. The password must contain 8 to 12 characters, including numbers, special characters, and uppercase and lowercase letters.";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
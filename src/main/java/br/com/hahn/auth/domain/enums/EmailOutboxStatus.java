@@ -0,0 +1,8 @@
+package br.com.hahn.auth.domain.enums;
+
+public enum EmailOutboxStatus {
+
+    PENDING,
+    SENT,
+    DEAD
+}
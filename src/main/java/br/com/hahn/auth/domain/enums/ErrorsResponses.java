@@ -35,7 +35,9 @@ public enum ErrorsResponses {
     INVALID_FORMAT_ON_REQUEST("Invalid email or password format. Email must be in the format email@email.com, and password must be 8 to 12 characters long, including numbers, special characters, uppercase and lowercase letters."),
     FAIL_CONVERT_TOKEN("Token sent, but not recognized by the server. Check the Spring Security configuration (oauth2ResourceServer().jwt())."),
     SCOPE_TOKEN_INVALID("It is not permitted to change the password using a token of the following type: "),
-    USERNAME_ALREADY_REGISTER_ERROR("Username already registered. Please choose another username.");
+    USERNAME_ALREADY_REGISTER_ERROR("Username already registered. Please choose another username."),
+    INVALID_IDEMPOTENCY_KEY("Invalid Idempotency-Key header. The key must be at most 255 characters long."),
+    IDEMPOTENCY_KEY_REUSED("The Idempotency-Key was already used with a different request. Use a new key for a new request.");
 
     private final String message;
 }
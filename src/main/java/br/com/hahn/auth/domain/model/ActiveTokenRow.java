@@ -0,0 +1,20 @@
+package br.com.hahn.auth.domain.model;
+
+import br.com.hahn.auth.domain.enums.ScopeToken;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Projection of an active user token, used to schedule its expiry.
+ *
+ * @author HahnGuil
+ */
+public interface ActiveTokenRow {
+
+    UUID getIdTokenLog();
+
+    ScopeToken getScopeToken();
+
+    LocalDateTime getCreateDate();
+}
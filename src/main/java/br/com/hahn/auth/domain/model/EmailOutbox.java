@@ -0,0 +1,68 @@
+package br.com.hahn.auth.domain.model;
+
+import br.com.hahn.auth.domain.enums.EmailOutboxStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Represents an email waiting to be delivered by the outbox dispatcher.
+ *
+ * @author HahnGuil
+ * This entity maps to the "email_outbox" table. Rows are written in the same transaction as the
+ * business change that triggers the email and are delivered later, with retries, by the
+ * background dispatcher.
+ */
+@Entity
+@Table(name = "email_outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmailOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "recipient")
+    private String recipient;
+
+    @Column(name = "subject")
+    private String subject;
+
+    /**
+     * The HTML body of the email. Cleared once the email is sent, since it may carry a recovery code.
+     */
+    @Column(name = "html_body")
+    private String htmlBody;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    private EmailOutboxStatus status;
+
+    /**
+     * Number of delivery attempts already started for this email.
+     */
+    @Column(name = "attempts")
+    private int attempts;
+
+    /**
+     * Earliest time at which the dispatcher may pick the email up again.
+     */
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error")
+    private String lastError;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+}
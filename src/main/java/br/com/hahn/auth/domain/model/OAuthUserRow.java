@@ -0,0 +1,39 @@
+package br.com.hahn.auth.domain.model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Projection of a user returned by the OAuth user upsert, one row per application the user
+ * belongs to, or a single row with a null application id when there is none.
+ *
+ * @author HahnGuil
+ */
+public interface OAuthUserRow {
+
+    UUID getUserId();
+
+    String getUsername();
+
+    String getPassword();
+
+    LocalDateTime getPasswordCreateDate();
+
+    String getEmail();
+
+    String getFirstName();
+
+    String getLastName();
+
+    String getPictureUrl();
+
+    Boolean getBlockUser();
+
+    String getTypeUser();
+
+    String getRole();
+
+    String getUserApplicationRole();
+
+    Long getApplicationId();
+}
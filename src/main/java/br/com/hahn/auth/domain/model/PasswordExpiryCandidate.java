@@ -0,0 +1,23 @@
+package br.com.hahn.auth.domain.model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Projection of a user whose password is inside the expiry warning window, with the smallest
+ * warning threshold already sent for the current password, if any.
+ *
+ * @author HahnGuil
+ */
+public interface PasswordExpiryCandidate {
+
+    UUID getUserId();
+
+    String getEmail();
+
+    String getFirstName();
+
+    LocalDateTime getPasswordCreateDate();
+
+    Integer getLastNotifiedThreshold();
+}
@@ -0,0 +1,45 @@
+package br.com.hahn.auth.domain.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Records a password expiry warning sent to a user.
+ *
+ * @author HahnGuil
+ * This entity maps to the "password_expiry_notice" table. There is at most one row per user,
+ * password and warning threshold, so a user is warned once per threshold for each password.
+ */
+@Entity
+@Table(name = "password_expiry_notice")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PasswordExpiryNotice {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id")
+    private UUID userId;
+
+    /**
+     * The creation date of the password the warning refers to. A new password starts a new cycle.
+     */
+    @Column(name = "password_create_date")
+    private LocalDateTime passwordCreateDate;
+
+    @Column(name = "threshold_days")
+    private int thresholdDays;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+}
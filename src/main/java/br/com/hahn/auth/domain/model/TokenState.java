@@ -0,0 +1,30 @@
+package br.com.hahn.auth.domain.model;
+
+import br.com.hahn.auth.domain.enums.ScopeToken;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Projection of the {@code token_log} columns needed to validate a token: scope, active flag
+ * and creation date, loaded in a single query.
+ *
+ * @author HahnGuil
+ * @param idTokenLog the token log id
+ * @param scopeToken the scope of the token
+ * @param activeToken whether the token is still active
+ * @param createDate the creation date of the token
+ */
+public record TokenState(UUID idTokenLog, ScopeToken scopeToken, boolean activeToken, LocalDateTime createDate) {
+
+    /**
+     * Reads the state of an already loaded token log.
+     *
+     * @author HahnGuil
+     * @param tokenLog the token log entity
+     * @return the state of the token log
+     */
+    public static TokenState from(TokenLog tokenLog) {
+        return new TokenState(tokenLog.getIdTokenLog(), tokenLog.getScopeToken(), tokenLog.isActiveToken(), tokenLog.getCreateDate());
+    }
+}
@@ -0,0 +1,19 @@
+package br.com.hahn.auth.domain.model;
+
+import java.util.UUID;
+
+/**
+ * Projection of the user columns read by the batch jobs that scan the user base.
+ *
+ * @author HahnGuil
+ */
+public interface UserScanRow {
+
+    UUID getUserId();
+
+    String getEmail();
+
+    String getFirstName();
+
+    String getRole();
+}
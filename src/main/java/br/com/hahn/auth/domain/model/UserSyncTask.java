@@ -0,0 +1,79 @@
+package br.com.hahn.auth.domain.model;
+
+import br.com.hahn.auth.domain.enums.UserSyncStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Represents a pending update of a user on the downstream user-data service.
+ *
+ * @author HahnGuil
+ * This entity maps to the "user_sync_queue" table. There is a single row per user email: new
+ * updates requested while a sync is still pending are coalesced into that row, so the user is
+ * patched once with the latest state.
+ */
+@Entity
+@Table(name = "user_sync_queue")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSyncTask {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_email")
+    private String userEmail;
+
+    /**
+     * The bearer token of the latest request that changed the user, encrypted by
+     * {@code TokenCipher}. Cleared once the sync ends.
+     */
+    @Column(name = "bearer_token")
+    private String bearerToken;
+
+    @Column(name = "token_expires_at")
+    private LocalDateTime tokenExpiresAt;
+
+    /**
+     * Incremented every time an update is coalesced into the row, so a sync that was in flight
+     * while a newer update arrived does not mark the newer one as synced.
+     */
+    @Column(name = "version")
+    private int version;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    private UserSyncStatus status;
+
+    /**
+     * Number of sync attempts already started for the current version.
+     */
+    @Column(name = "attempts")
+    private int attempts;
+
+    /**
+     * Earliest time at which the dispatcher may pick the row up again.
+     */
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error")
+    private String lastError;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "synced_at")
+    private LocalDateTime syncedAt;
+}
@@ -3,6 +3,7 @@ package br.com.hahn.auth.domain.respository;
 import br.com.hahn.auth.domain.model.Application;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 import java.util.UUID;
@@ -10,5 +11,6 @@ import java.util.UUID;
 @Repository
 public interface ApplicationRepository extends JpaRepository<Application, Long> {
 
+    @Transactional(readOnly = true)
     Optional<Application> findApplicationByPublicId(UUID publicId);
 }
@@ -0,0 +1,24 @@
+package br.com.hahn.auth.domain.respository;
+
+import br.com.hahn.auth.domain.model.EmailOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    @Query(value = """
+    SELECT *
+      FROM toxic_bet.email_outbox
+     WHERE status = 'PENDING'
+       AND next_attempt_at <= :now
+     ORDER BY next_attempt_at
+     LIMIT :batchSize
+       FOR UPDATE SKIP LOCKED
+    """, nativeQuery = true)
+    List<EmailOutbox> lockDueBatch(LocalDateTime now, int batchSize);
+}
@@ -0,0 +1,46 @@
+package br.com.hahn.auth.domain.respository;
+
+import br.com.hahn.auth.domain.model.PasswordExpiryCandidate;
+import br.com.hahn.auth.domain.model.PasswordExpiryNotice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface PasswordExpiryNoticeRepository extends JpaRepository<PasswordExpiryNotice, Long> {
+
+    @Query(value = """
+    SELECT u.user_id AS "userId",
+           u.user_email AS "email",
+           u.first_name AS "firstName",
+           u.password_create_date AS "passwordCreateDate",
+           (SELECT MIN(n.threshold_days)
+              FROM toxic_bet.password_expiry_notice n
+             WHERE n.user_id = u.user_id
+               AND n.password_create_date = u.password_create_date) AS "lastNotifiedThreshold"
+      FROM toxic_bet.users u
+     WHERE u.password_create_date > :windowStart
+       AND u.password_create_date <= :windowEnd
+       AND u.user_role = 'USER_NORMAL'
+       AND u.user_id > :afterUserId
+       AND (hashtext(u.user_id::text) & 2147483647) % :shardCount = :shardIndex
+     ORDER BY u.user_id
+     LIMIT :chunkSize
+    """, nativeQuery = true)
+    List<PasswordExpiryCandidate> findCandidatesAfter(LocalDateTime windowStart, LocalDateTime windowEnd, UUID afterUserId, int chunkSize, int shardIndex, int shardCount);
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+    INSERT INTO toxic_bet.password_expiry_notice (user_id, password_create_date, threshold_days, sent_at)
+    VALUES (:userId, :passwordCreateDate, :thresholdDays, :sentAt)
+    ON CONFLICT (user_id, password_create_date, threshold_days) DO NOTHING
+    """, nativeQuery = true)
+    void recordNotice(UUID userId, LocalDateTime passwordCreateDate, int thresholdDays, LocalDateTime sentAt);
+}
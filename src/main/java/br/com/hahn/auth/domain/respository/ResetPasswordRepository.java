@@ -4,7 +4,6 @@ import br.com.hahn.auth.domain.model.ResetPassword;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
@@ -14,7 +13,4 @@ public interface ResetPasswordRepository extends JpaRepository<ResetPassword, Lo
 
     boolean existsByUserEmail(String email);
 
-    int deleteByExpirationDateBefore(LocalDateTime dateTime);
-
-
 }
@@ -1,13 +1,19 @@
 package br.com.hahn.auth.domain.respository;
 
+import br.com.hahn.auth.domain.model.ActiveTokenRow;
 import br.com.hahn.auth.domain.model.TokenLog;
+import br.com.hahn.auth.domain.model.TokenState;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
@@ -17,11 +23,42 @@ public interface TokenLogRepository extends JpaRepository<TokenLog, UUID> {
     @Query("UPDATE TokenLog tl SET tl.activeToken = false WHERE tl.userId = :userId AND tl.activeToken = true")
     void deactivateActiveTokenByUserId(UUID userId);
 
+    @Transactional(readOnly = true)
     @Query("SELECT CASE WHEN COUNT(tl) > 0 THEN true ELSE false END FROM TokenLog tl WHERE tl.idTokenLog = :loginLogId AND tl.activeToken = true")
     boolean findActiveTokenByLoginLogId(UUID loginLogId);
 
-    @Query("SELECT tl FROM TokenLog tl WHERE tl.activeToken = true AND tl.createDate < :expirationTime")
-    List<TokenLog> findExpiredActiveTokens(LocalDateTime expirationTime);
+    @Transactional(readOnly = true)
+    @Query("SELECT new br.com.hahn.auth.domain.model.TokenState(tl.idTokenLog, tl.scopeToken, tl.activeToken, tl.createDate) FROM TokenLog tl WHERE tl.idTokenLog = :tokenLogId")
+    Optional<TokenState> findTokenStateById(UUID tokenLogId);
+
+    @Query("""
+    SELECT tl.idTokenLog
+      FROM TokenLog tl
+     WHERE tl.activeToken = true
+       AND tl.userId IS NOT NULL
+       AND ((tl.scopeToken = br.com.hahn.auth.domain.enums.ScopeToken.REFRESH_TOKEN AND tl.createDate < :refreshExpirationTime)
+         OR (tl.scopeToken <> br.com.hahn.auth.domain.enums.ScopeToken.REFRESH_TOKEN AND tl.createDate < :expirationTime))
+    """)
+    List<UUID> findExpiredActiveUserTokenIds(LocalDateTime expirationTime, LocalDateTime refreshExpirationTime);
+
+    @Query("SELECT tl.idTokenLog AS idTokenLog, tl.scopeToken AS scopeToken, tl.createDate AS createDate FROM TokenLog tl WHERE tl.activeToken = true AND tl.userId IS NOT NULL")
+    List<ActiveTokenRow> findActiveUserTokens();
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+    WITH expired AS (
+        UPDATE toxic_bet.token_log
+           SET active_token = false
+         WHERE id_token_log IN (:tokenLogIds)
+           AND active_token = true
+        RETURNING id_token_log, user_id
+    )
+    INSERT INTO toxic_bet.invalidated_token (id, user_id, login_log_id, date_invalidate, type_invalidation)
+    SELECT gen_random_uuid(), user_id, id_token_log, :dateInvalidate, 'EXPIRATION_TIME'
+      FROM expired
+    """, nativeQuery = true)
+    int expireTokens(@Param("tokenLogIds") Collection<UUID> tokenLogIds, @Param("dateInvalidate") LocalDateTime dateInvalidate);
 
     TokenLog findTopByUserIdOrderByCreateDateDesc(UUID userId);
 
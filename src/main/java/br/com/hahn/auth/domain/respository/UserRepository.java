@@ -1,11 +1,14 @@
 package br.com.hahn.auth.domain.respository;
 
+import br.com.hahn.auth.domain.model.OAuthUserRow;
 import br.com.hahn.auth.domain.model.User;
+import br.com.hahn.auth.domain.model.UserScanRow;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -25,14 +28,106 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     @Query("UPDATE User u SET u.password = :password, u.passwordCreateDate = :passwordCreateDate, u.blockUser = false WHERE u.email = :email AND u.userId = :id")
     void updatePasswordByEmailAndId(@Param("password") String password, @Param("email") String email, @Param("id") UUID id, @Param("passwordCreateDate") LocalDateTime passwordCreateDate);
 
-    @Query("SELECT u FROM User u WHERE u.passwordCreateDate < :dateThreshold")
-    List<User> findUsersWithPasswordOlderThan(@Param("dateThreshold") LocalDateTime dateThreshold);
-
-    @Query("SELECT u FROM User u WHERE u.passwordCreateDate > :dateThreshold")
-    List<User> findUsersWithPasswordNewerThan(@Param("dateThreshold") LocalDateTime dateThreshold);
+    /**
+     * Blocks up to {@code limit} normal users of the given shard whose password was created
+     * before the threshold and who are not blocked yet, in a single statement. OAuth users have
+     * no local password and are never blocked.
+     *
+     * @return the users blocked by this call
+     */
+    @Transactional
+    @Query(value = """
+            WITH blocked AS (
+                UPDATE toxic_bet.users
+                   SET block_user = true
+                 WHERE user_id IN (SELECT user_id
+                                     FROM toxic_bet.users
+                                    WHERE password_create_date < :threshold
+                                      AND user_role = 'USER_NORMAL'
+                                      AND type_user = 'DIRECT_USER'
+                                      AND block_user IS NOT TRUE
+                                      AND (hashtext(user_id::text) & 2147483647) % :shardCount = :shardIndex
+                                    LIMIT :limit)
+                RETURNING user_id, user_email, first_name, user_role
+            )
+            SELECT user_id AS "userId", user_email AS "email", first_name AS "firstName", user_role AS "role" FROM blocked
+            """, nativeQuery = true)
+    List<UserScanRow> blockUsersWithPasswordOlderThan(@Param("threshold") LocalDateTime threshold, @Param("limit") int limit,
+                                                       @Param("shardIndex") int shardIndex, @Param("shardCount") int shardCount);
 
+    /**
+     * Loads the user and their applications for login and the user snapshot cache. The
+     * transaction is not read-only, so it always reads the primary: a replica behind a password
+     * change, reset or block would let the old password log in, and a user registered a moment
+     * ago would not be found.
+     *
+     * @return the user with their applications
+     */
+    @Transactional
     @Query("SELECT u FROM User u LEFT JOIN FETCH u.applications WHERE u.email = :email")
     Optional<User> findByEmailWithApplications(@Param("email") String email);
 
+    @Query(value = "SELECT user_email FROM toxic_bet.users WHERE user_email > :afterEmail ORDER BY user_email LIMIT :limit", nativeQuery = true)
+    List<String> findEmailsAfter(@Param("afterEmail") String afterEmail, @Param("limit") int limit);
+
+    /**
+     * Inserts the user, and links it to the application when one is given, in a single
+     * statement. Nothing is written when the email is already registered.
+     *
+     * @return 1 when the user was inserted, 0 when the email was already registered
+     */
+    @Transactional
+    @Query(value = """
+            WITH inserted AS (
+                INSERT INTO toxic_bet.users (user_id, user_name, password, password_create_date, user_email, first_name, last_name,
+                                             picture_url, block_user, type_user, user_role, user_application_role)
+                VALUES (:#{#user.userId}, :#{#user.username}, :#{#user.password}, :#{#user.passwordCreateDate}, :#{#user.email},
+                        :#{#user.firstName}, :#{#user.lastName}, :#{#user.pictureUrl}, CAST(:#{#user.blockUser} AS BOOLEAN),
+                        :#{#user.typeUser?.name()}, :#{#user.role?.name()}, :#{#user.userApplicationRole?.name()})
+                ON CONFLICT (user_email) DO NOTHING
+                RETURNING user_id
+            ), linked AS (
+                INSERT INTO toxic_bet.user_application (user_id, application_id)
+                SELECT user_id, CAST(:applicationId AS BIGINT) FROM inserted WHERE CAST(:applicationId AS BIGINT) IS NOT NULL
+            )
+            SELECT COUNT(*) FROM inserted
+            """, nativeQuery = true)
+    long insertIfEmailAbsent(@Param("user") User user, @Param("applicationId") Long applicationId);
 
+    /**
+     * Inserts the OAuth user, or locks the user already registered with the email, and returns
+     * it with its application memberships in a single statement. The conflict branch rewrites
+     * the email with itself, so an existing row is never changed but is still returned, even
+     * when it was inserted by a concurrent transaction.
+     *
+     * @return one row per application of the user, or one row with a null application id
+     */
+    @Transactional
+    @Query(value = """
+            WITH upserted AS (
+                INSERT INTO toxic_bet.users (user_id, user_name, password, password_create_date, user_email, first_name, last_name,
+                                             picture_url, block_user, type_user, user_role, user_application_role)
+                VALUES (:#{#user.userId}, :#{#user.username}, :#{#user.password}, :#{#user.passwordCreateDate}, :#{#user.email},
+                        :#{#user.firstName}, :#{#user.lastName}, :#{#user.pictureUrl}, CAST(:#{#user.blockUser} AS BOOLEAN),
+                        :#{#user.typeUser?.name()}, :#{#user.role?.name()}, :#{#user.userApplicationRole?.name()})
+                ON CONFLICT (user_email) DO UPDATE SET user_email = EXCLUDED.user_email
+                RETURNING *
+            )
+            SELECT u.user_id AS "userId",
+                   u.user_name AS "username",
+                   u.password AS "password",
+                   u.password_create_date AS "passwordCreateDate",
+                   u.user_email AS "email",
+                   u.first_name AS "firstName",
+                   u.last_name AS "lastName",
+                   u.picture_url AS "pictureUrl",
+                   u.block_user AS "blockUser",
+                   u.type_user AS "typeUser",
+                   u.user_role AS "role",
+                   u.user_application_role AS "userApplicationRole",
+                   ua.application_id AS "applicationId"
+              FROM upserted u
+              LEFT JOIN toxic_bet.user_application ua ON ua.user_id = u.user_id
+            """, nativeQuery = true)
+    List<OAuthUserRow> upsertOAuthUser(@Param("user") User user);
 }
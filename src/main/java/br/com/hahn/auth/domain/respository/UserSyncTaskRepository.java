@@ -0,0 +1,41 @@
+package br.com.hahn.auth.domain.respository;
+
+import br.com.hahn.auth.domain.model.UserSyncTask;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface UserSyncTaskRepository extends JpaRepository<UserSyncTask, Long> {
+
+    @Modifying
+    @Query(value = """
+    INSERT INTO toxic_bet.user_sync_queue (user_email, bearer_token, token_expires_at, version, status, attempts, next_attempt_at, created_at, updated_at)
+    VALUES (:userEmail, :bearerToken, :tokenExpiresAt, 1, 'PENDING', 0, :now, :now, :now)
+    ON CONFLICT (user_email) DO UPDATE
+       SET bearer_token = EXCLUDED.bearer_token,
+           token_expires_at = EXCLUDED.token_expires_at,
+           version = toxic_bet.user_sync_queue.version + 1,
+           status = 'PENDING',
+           attempts = 0,
+           next_attempt_at = EXCLUDED.next_attempt_at,
+           last_error = NULL,
+           updated_at = EXCLUDED.updated_at
+    """, nativeQuery = true)
+    void upsertPending(String userEmail, String bearerToken, LocalDateTime tokenExpiresAt, LocalDateTime now);
+
+    @Query(value = """
+    SELECT *
+      FROM toxic_bet.user_sync_queue
+     WHERE status = 'PENDING'
+       AND next_attempt_at <= :now
+     ORDER BY next_attempt_at
+     LIMIT :batchSize
+       FOR UPDATE SKIP LOCKED
+    """, nativeQuery = true)
+    List<UserSyncTask> lockDueBatch(LocalDateTime now, int batchSize);
+}
@@ -0,0 +1,156 @@
+package br.com.hahn.auth.infrastructure.archive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes the rows of one table into gzip compressed NDJSON files, one file per day.
+ *
+ * <p>Rows must arrive ordered by day. Files are laid out as
+ * {@code <directory>/<table>/day=<yyyy-MM-dd>/part-<run>.ndjson.gz}. When a file is complete it
+ * is flushed to disk, a {@code .sha256} file in {@code sha256sum} format is written next to it
+ * and a line describing it is appended to the {@code MANIFEST.ndjson} of its day.</p>
+ *
+ * @author HahnGuil
+ */
+class ArchiveBucketWriter implements Closeable {
+
+    /**
+     * A complete archive file.
+     *
+     * @param day the day of the rows in the file
+     * @param file the archive file
+     * @param rows the number of rows in the file
+     * @param bytes the compressed size of the file
+     * @param sha256 the SHA-256 of the file, in hex
+     */
+    record Bucket(LocalDate day, Path file, long rows, long bytes, String sha256) { }
+
+    private static final String MANIFEST = "MANIFEST.ndjson";
+
+    private final Path tableDirectory;
+    private final String table;
+    private final String runId;
+    private final ObjectMapper objectMapper;
+    private final List<Bucket> buckets = new ArrayList<>();
+
+    private LocalDate day;
+    private Path file;
+    private MessageDigest digest;
+    private SequenceWriter writer;
+    private long rows;
+
+    ArchiveBucketWriter(Path directory, String table, String runId, ObjectMapper objectMapper) {
+        this.tableDirectory = directory.resolve(table);
+        this.table = table;
+        this.runId = runId;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Appends a row to the file of its day, completing the file of the previous day first.
+     */
+    void write(LocalDate rowDay, Map<String, Object> row) throws IOException {
+        if (!rowDay.equals(day)) {
+            complete();
+            open(rowDay);
+        }
+        writer.write(row);
+        rows++;
+    }
+
+    /**
+     * Completes the file being written.
+     */
+    @Override
+    public void close() throws IOException {
+        complete();
+    }
+
+    /**
+     * Closes and removes the file being written, leaving the completed files in place.
+     */
+    void abort() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+            Files.deleteIfExists(file);
+        } catch (IOException _) {
+            // the incomplete file is not in the manifest, so it is ignored anyway
+        }
+        writer = null;
+    }
+
+    List<Bucket> buckets() {
+        return List.copyOf(buckets);
+    }
+
+    private void open(LocalDate rowDay) throws IOException {
+        var dayDirectory = Files.createDirectories(tableDirectory.resolve("day=" + rowDay));
+        day = rowDay;
+        file = dayDirectory.resolve("part-" + runId + ".ndjson.gz");
+        digest = sha256();
+        rows = 0;
+        var out = new DigestOutputStream(Files.newOutputStream(file, StandardOpenOption.CREATE_NEW), digest);
+        writer = objectMapper.writer()
+                .withRootValueSeparator("\n")
+                .writeValues(new BufferedOutputStream(new GZIPOutputStream(out), 64 * 1024));
+    }
+
+    private void complete() throws IOException {
+        if (writer == null) {
+            return;
+        }
+        writer.close();
+        writer = null;
+        try (var channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+
+        var bucket = new Bucket(day, file, rows, Files.size(file), HexFormat.of().formatHex(digest.digest()));
+        var fileName = file.getFileName().toString();
+        Files.writeString(file.resolveSibling(fileName + ".sha256"), bucket.sha256() + "  " + fileName + "\n", StandardCharsets.UTF_8);
+
+        var entry = new LinkedHashMap<String, Object>();
+        entry.put("file", fileName);
+        entry.put("table", table);
+        entry.put("day", day.toString());
+        entry.put("rows", bucket.rows());
+        entry.put("bytes", bucket.bytes());
+        entry.put("sha256", bucket.sha256());
+        entry.put("archivedAt", LocalDateTime.now().toString());
+        Files.writeString(file.resolveSibling(MANIFEST), objectMapper.writeValueAsString(entry) + "\n", StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.SYNC);
+        buckets.add(bucket);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package br.com.hahn.auth.infrastructure.archive;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings of the audit archive, under {@code archive}.
+ *
+ * @author HahnGuil
+ */
+@Component
+@ConfigurationProperties(prefix = "archive")
+@Getter
+@Setter
+public class AuditArchiveProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Local directory the archive files are written to.
+     */
+    private Path directory = Path.of("archive");
+
+    /**
+     * Age after which audit rows are moved out of the database.
+     */
+    private Duration retention = Duration.ofDays(30);
+
+    /**
+     * Number of rows fetched from the cursor per round trip.
+     */
+    private int fetchSize = 1000;
+
+    /**
+     * Maximum number of archived rows deleted by a single statement.
+     */
+    private int deleteBatchSize = 1000;
+
+    private Duration pauseBetweenBatches = Duration.ofMillis(200);
+}
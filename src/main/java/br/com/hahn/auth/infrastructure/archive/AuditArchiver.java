@@ -0,0 +1,220 @@
+package br.com.hahn.auth.infrastructure.archive;
+
+import br.com.hahn.auth.infrastructure.scheduling.JobLease;
+import br.com.hahn.auth.util.DateTimeConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves old authentication audit rows out of {@code token_log} and {@code invalidated_token}
+ * into compressed files on local storage.
+ *
+ * <p>For each {@link Source}, rows older than {@code archive.retention} are read in date order
+ * through a server-side cursor ({@code archive.fetch-size} rows per round trip) inside a read-only
+ * transaction, and streamed to {@link ArchiveBucketWriter}, so memory use does not depend on the
+ * number of rows. Only after every file of the source is on disk, with its checksum and manifest
+ * entry, are the archived days deleted, in batches of {@code archive.delete-batch-size} rows each
+ * in its own transaction. If the export fails nothing is deleted, and the next run archives the
+ * same rows again into a new file.</p>
+ *
+ * <p>{@code invalidated_token} is archived first, since deleting a {@code token_log} row cascades
+ * to the invalidations that reference it. Token logs that are still active or still referenced
+ * by an invalidation are left for a later run.</p>
+ *
+ * <p>Each source publishes, tagged with {@code table}, the {@code archive.rows},
+ * {@code archive.files}, {@code archive.bytes} and {@code archive.deleted} counters and the
+ * {@code archive.duration} timer.</p>
+ *
+ * @author HahnGuil
+ */
+@Component
+@Slf4j
+public class AuditArchiver {
+
+    private static final DateTimeFormatter RUN_ID = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+    /**
+     * The archived tables, in archiving order.
+     */
+    public enum Source {
+        INVALIDATED_TOKEN("invalidated_token", "id", "date_invalidate", ""),
+        TOKEN_LOG("token_log", "id_token_log", "create_date",
+                " AND t.active_token IS NOT TRUE"
+                        + " AND NOT EXISTS (SELECT 1 FROM toxic_bet.invalidated_token it WHERE it.login_log_id = t.id_token_log)");
+
+        private final String table;
+        private final String dateColumn;
+        private final String selectSql;
+        private final String deleteSql;
+
+        Source(String table, String idColumn, String dateColumn, String condition) {
+            this.table = table;
+            this.dateColumn = dateColumn;
+            this.selectSql = "SELECT * FROM toxic_bet." + table + " t WHERE t." + dateColumn + " < ?" + condition
+                    + " ORDER BY t." + dateColumn + ", t." + idColumn;
+            this.deleteSql = "DELETE FROM toxic_bet." + table + " WHERE ctid IN (SELECT t.ctid FROM toxic_bet." + table
+                    + " t WHERE t." + dateColumn + " >= ? AND t." + dateColumn + " < ?" + condition + " LIMIT ?)";
+        }
+
+        public String table() {
+            return table;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    private final AuditArchiveProperties properties;
+    private final Map<Source, Meters> meters = new EnumMap<>(Source.class);
+
+    public AuditArchiver(JdbcTemplate jdbcTemplate,
+                         PlatformTransactionManager transactionManager,
+                         ObjectMapper objectMapper,
+                         AuditArchiveProperties properties,
+                         MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        for (var source : Source.values()) {
+            meters.put(source, new Meters(
+                    Counter.builder("archive.rows").tag("table", source.table()).register(meterRegistry),
+                    Counter.builder("archive.files").tag("table", source.table()).register(meterRegistry),
+                    Counter.builder("archive.bytes").tag("table", source.table()).baseUnit("bytes").register(meterRegistry),
+                    Counter.builder("archive.deleted").tag("table", source.table()).register(meterRegistry),
+                    Timer.builder("archive.duration").tag("table", source.table()).register(meterRegistry)));
+        }
+    }
+
+    /**
+     * Archives and deletes the rows of every source older than the retention.
+     *
+     * @author HahnGuil
+     * @return the number of rows archived from each source, empty when archiving is disabled
+     */
+    public Map<Source, Long> archive() {
+        var archived = new EnumMap<Source, Long>(Source.class);
+        if (!properties.isEnabled()) {
+            return archived;
+        }
+        var now = LocalDateTime.now();
+        var cutoff = now.minus(properties.getRetention());
+        var runId = RUN_ID.format(now);
+        for (var source : Source.values()) {
+            archived.put(source, archive(source, cutoff, runId));
+        }
+        return archived;
+    }
+
+    private long archive(Source source, LocalDateTime cutoff, String runId) {
+        var sourceMeters = meters.get(source);
+        var sample = Timer.start();
+        var buckets = export(source, cutoff, runId);
+
+        long rows = 0;
+        long deleted = 0;
+        for (var bucket : buckets) {
+            rows += bucket.rows();
+            sourceMeters.rows().increment(bucket.rows());
+            sourceMeters.files().increment();
+            sourceMeters.bytes().increment(bucket.bytes());
+
+            var from = bucket.day().atStartOfDay();
+            var nextDay = bucket.day().plusDays(1).atStartOfDay();
+            var bucketDeleted = delete(source, from, nextDay.isBefore(cutoff) ? nextDay : cutoff);
+            sourceMeters.deleted().increment(bucketDeleted);
+            deleted += bucketDeleted;
+            if (bucketDeleted != bucket.rows()) {
+                log.warn("AuditArchiver: Archived {} rows of {} for {} but deleted {} at: {}", bucket.rows(), source.table(), bucket.day(), bucketDeleted, DateTimeConverter.formatInstantNow());
+            }
+        }
+        sample.stop(sourceMeters.duration());
+
+        log.info("AuditArchiver: Archived {} rows of {} into {} files and deleted {} at: {}", rows, source.table(), buckets.size(), deleted, DateTimeConverter.formatInstantNow());
+        return rows;
+    }
+
+    private List<ArchiveBucketWriter.Bucket> export(Source source, LocalDateTime cutoff, String runId) {
+        var writer = new ArchiveBucketWriter(properties.getDirectory(), source.table(), runId, objectMapper);
+        try {
+            readOnlyTransaction.executeWithoutResult(_ -> jdbcTemplate.query(connection -> {
+                var statement = connection.prepareStatement(source.selectSql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(properties.getFetchSize());
+                statement.setTimestamp(1, Timestamp.valueOf(cutoff));
+                return statement;
+            }, (RowCallbackHandler) resultSet -> write(writer, source, resultSet)));
+            writer.close();
+        } catch (IOException e) {
+            writer.abort();
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            writer.abort();
+            throw e;
+        }
+        return writer.buckets();
+    }
+
+    private void write(ArchiveBucketWriter writer, Source source, ResultSet resultSet) throws SQLException {
+        var metaData = resultSet.getMetaData();
+        var row = new LinkedHashMap<String, Object>();
+        for (int column = 1; column <= metaData.getColumnCount(); column++) {
+            var value = resultSet.getObject(column);
+            row.put(metaData.getColumnLabel(column), value instanceof Timestamp timestamp ? timestamp.toLocalDateTime().toString() : value);
+        }
+        LocalDate day = resultSet.getTimestamp(source.dateColumn).toLocalDateTime().toLocalDate();
+        try {
+            writer.write(day, row);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private long delete(Source source, LocalDateTime from, LocalDateTime to) {
+        long total = 0;
+        int deleted;
+        do {
+            JobLease.checkHeld();
+            deleted = jdbcTemplate.update(source.deleteSql, Timestamp.valueOf(from), Timestamp.valueOf(to), properties.getDeleteBatchSize());
+            total += deleted;
+        } while (deleted == properties.getDeleteBatchSize() && pause());
+        return total;
+    }
+
+    private boolean pause() {
+        var pause = properties.getPauseBetweenBatches();
+        if (pause.isZero() || pause.isNegative()) {
+            return true;
+        }
+        try {
+            Thread.sleep(pause);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private record Meters(Counter rows, Counter files, Counter bytes, Counter deleted, Timer duration) { }
+}
@@ -0,0 +1,152 @@
+package br.com.hahn.auth.infrastructure.cache;
+
+import br.com.hahn.auth.application.dto.ApplicationSnapshot;
+import br.com.hahn.auth.domain.respository.ApplicationRepository;
+import br.com.hahn.auth.infrastructure.cache.CacheInvalidationBus.Topic;
+import br.com.hahn.auth.util.DateTimeConverter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory registry of every row of the {@code application} table.
+ *
+ * <p>The table holds a handful of rows that almost never change, so the registry keeps an
+ * immutable copy of all of them indexed by public id and by id, and swaps the whole copy
+ * atomically on every reload. Lookups never touch the database except when the key is unknown:
+ * a miss triggers a reload, at most once per {@code cache.applications.miss-reload-interval},
+ * so an application inserted directly in the database becomes visible without waiting for the
+ * periodic refresh while unknown ids sent by clients cannot hammer the table.</p>
+ *
+ * <p>The registry is loaded when the application is ready and reloaded every
+ * {@code cache.applications.refresh-interval}. It is also reloaded when any instance publishes
+ * on the {@code applications} topic of the {@link CacheInvalidationBus} and when the bus
+ * resyncs. Code that changes the table must call {@link #refresh()} and publish on that
+ * topic.</p>
+ *
+ * <p>Reloads are serialized with a {@link ReentrantLock} rather than {@code synchronized}, so a
+ * virtual thread waiting on the database inside a reload does not pin its carrier thread.</p>
+ *
+ * @author HahnGuil
+ */
+@Component
+@Slf4j
+public class ApplicationRegistry {
+
+    private final ApplicationRepository applicationRepository;
+    private final Duration missReloadInterval;
+    private final Clock clock;
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    private volatile Snapshot snapshot;
+    private volatile Instant lastLoad = Instant.EPOCH;
+
+    public ApplicationRegistry(ApplicationRepository applicationRepository,
+                               CacheInvalidationBus cacheInvalidationBus,
+                               MeterRegistry meterRegistry,
+                               @Value("${cache.applications.miss-reload-interval:30s}") Duration missReloadInterval) {
+        this(applicationRepository, cacheInvalidationBus, meterRegistry, missReloadInterval, Clock.systemUTC());
+    }
+
+    ApplicationRegistry(ApplicationRepository applicationRepository, CacheInvalidationBus cacheInvalidationBus, MeterRegistry meterRegistry, Duration missReloadInterval, Clock clock) {
+        this.applicationRepository = applicationRepository;
+        this.missReloadInterval = missReloadInterval;
+        this.clock = clock;
+        Gauge.builder("applications.registry.size", this, registry -> registry.snapshot == null ? 0 : registry.snapshot.byId().size())
+                .description("Number of applications held by the in-memory registry")
+                .register(meterRegistry);
+        cacheInvalidationBus.subscribe(Topic.APPLICATIONS, _ -> refresh());
+        cacheInvalidationBus.onResync(this::refresh);
+    }
+
+    /**
+     * Finds an application by its public id.
+     *
+     * @author HahnGuil
+     * @param publicId the application public id
+     * @return the application, or empty if no application has this public id
+     */
+    public Optional<ApplicationSnapshot> findByPublicId(UUID publicId) {
+        return find(publicId, Snapshot::byPublicId);
+    }
+
+    /**
+     * Finds an application by its id.
+     *
+     * @author HahnGuil
+     * @param id the application id
+     * @return the application, or empty if no application has this id
+     */
+    public Optional<ApplicationSnapshot> findById(Long id) {
+        return find(id, Snapshot::byId);
+    }
+
+    /**
+     * Reloads every application from the database and replaces the registry content.
+     *
+     * @author HahnGuil
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${cache.applications.refresh-interval:PT10M}", initialDelayString = "${cache.applications.refresh-interval:PT10M}", scheduler = "applicationRegistryScheduler")
+    public void refresh() {
+        reloadLock.lock();
+        try {
+            var applications = applicationRepository.findAll().stream()
+                    .map(ApplicationSnapshot::from)
+                    .toList();
+
+            snapshot = new Snapshot(
+                    applications.stream().collect(Collectors.toUnmodifiableMap(ApplicationSnapshot::publicId, Function.identity())),
+                    applications.stream().collect(Collectors.toUnmodifiableMap(ApplicationSnapshot::id, Function.identity())));
+            lastLoad = clock.instant();
+            log.info("ApplicationRegistry: Loaded {} applications at: {}", applications.size(), DateTimeConverter.formatInstantNow());
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private <K> Optional<ApplicationSnapshot> find(K key, Function<Snapshot, Map<K, ApplicationSnapshot>> index) {
+        if (key == null) {
+            return Optional.empty();
+        }
+        if (snapshot == null) {
+            refresh();
+        }
+        var application = index.apply(snapshot).get(key);
+        if (application == null && reloadOnMiss()) {
+            application = index.apply(snapshot).get(key);
+        }
+        return Optional.ofNullable(application);
+    }
+
+    private boolean reloadOnMiss() {
+        reloadLock.lock();
+        try {
+            if (clock.instant().isBefore(lastLoad.plus(missReloadInterval))) {
+                return false;
+            }
+            log.info("ApplicationRegistry: Unknown application requested, reloading registry at: {}", DateTimeConverter.formatInstantNow());
+            refresh();
+            return true;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private record Snapshot(Map<UUID, ApplicationSnapshot> byPublicId, Map<Long, ApplicationSnapshot> byId) { }
+}
@@ -0,0 +1,130 @@
+package br.com.hahn.auth.infrastructure.cache;
+
+import br.com.hahn.auth.infrastructure.cache.CacheInvalidationBus.Topic;
+import br.com.hahn.auth.util.DateTimeConverter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Holds the last application token pair issued for each application public id.
+ *
+ * <p>{@code registerApplication} is called by every service on each pod start and on retries.
+ * Instead of writing two {@code token_log} rows and signing two tokens on every call, the pair
+ * issued last is handed out again until it is within
+ * {@code cache.application-tokens.reissue-before-expiry} of the earliest expiry of the two
+ * tokens. Issuance is serialized per public id, so concurrent calls for the same application
+ * mint a single pair. Public ids are mapped onto {@value #LOCK_STRIPES} {@link ReentrantLock}s,
+ * so memory stays fixed however many applications register; applications sharing a stripe only
+ * wait for each other. {@link ReentrantLock} is used because the issuer writes to the database
+ * while holding it and must not pin the carrier of a virtual thread.</p>
+ *
+ * <p>Reused and issued pairs are counted by the {@code applications.tokens} meter, tagged
+ * {@code result=reused} and {@code result=issued}.</p>
+ *
+ * <p>Evictions are published on the {@link CacheInvalidationBus}, so an application token
+ * refresh on one instance also drops the pair held by the others.</p>
+ *
+ * @author HahnGuil
+ */
+@Component
+@Slf4j
+public class ApplicationTokenCache {
+
+    /**
+     * Token pair issued to an application, with the token log id of the access token and the
+     * instant at which the first of the two tokens expires.
+     *
+     * @param applicationToken the signed application token
+     * @param refreshApplicationToken the signed application refresh token
+     * @param tokenLogId the token log id of the application token
+     * @param expiresAt the earliest expiration of the two tokens
+     */
+    public record IssuedTokens(String applicationToken, String refreshApplicationToken, UUID tokenLogId, Instant expiresAt) { }
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final Map<UUID, IssuedTokens> issuedTokens = new ConcurrentHashMap<>();
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+    private final Duration reissueBeforeExpiry;
+    private final Clock clock;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final Counter reused;
+    private final Counter issued;
+
+    public ApplicationTokenCache(MeterRegistry meterRegistry,
+                                 CacheInvalidationBus cacheInvalidationBus,
+                                 @Value("${cache.application-tokens.reissue-before-expiry:PT5M}") Duration reissueBeforeExpiry) {
+        this(meterRegistry, cacheInvalidationBus, reissueBeforeExpiry, Clock.systemUTC());
+    }
+
+    ApplicationTokenCache(MeterRegistry meterRegistry, CacheInvalidationBus cacheInvalidationBus, Duration reissueBeforeExpiry, Clock clock) {
+        this.reissueBeforeExpiry = reissueBeforeExpiry;
+        this.clock = clock;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        cacheInvalidationBus.subscribe(Topic.APPLICATION_TOKENS, publicId -> issuedTokens.remove(UUID.fromString(publicId)));
+        cacheInvalidationBus.onResync(issuedTokens::clear);
+        this.reused = Counter.builder("applications.tokens").tag("result", "reused").register(meterRegistry);
+        this.issued = Counter.builder("applications.tokens").tag("result", "issued").register(meterRegistry);
+    }
+
+    /**
+     * Returns the pair issued last for the application while it is far enough from expiry and
+     * still accepted by {@code isActive}; otherwise issues, stores and returns a new pair.
+     *
+     * @author HahnGuil
+     * @param publicId the application public id
+     * @param isActive checks that the stored pair was not deactivated since it was issued
+     * @param issuer signs and records a new token pair
+     * @return the reused or newly issued token pair
+     */
+    public IssuedTokens getOrIssue(UUID publicId, Predicate<IssuedTokens> isActive, Supplier<IssuedTokens> issuer) {
+        var lock = locks[Math.floorMod(publicId.hashCode(), locks.length)];
+        lock.lock();
+        try {
+            var current = issuedTokens.get(publicId);
+            if (current != null && isReusable(current) && isActive.test(current)) {
+                log.info("ApplicationTokenCache: Reusing token pair for application: {} at: {}", publicId, DateTimeConverter.formatInstantNow());
+                reused.increment();
+                return current;
+            }
+
+            var newTokens = issuer.get();
+            issuedTokens.put(publicId, newTokens);
+            issued.increment();
+            return newTokens;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Forgets the pair stored for the application, so the next call issues a new one.
+     *
+     * @author HahnGuil
+     * @param publicId the application public id
+     */
+    public void evict(UUID publicId) {
+        issuedTokens.remove(publicId);
+        cacheInvalidationBus.publish(Topic.APPLICATION_TOKENS, publicId.toString());
+    }
+
+    private boolean isReusable(IssuedTokens tokens) {
+        return clock.instant().isBefore(tokens.expiresAt().minus(reissueBeforeExpiry));
+    }
+}
@@ -0,0 +1,367 @@
+package br.com.hahn.auth.infrastructure.cache;
+
+import br.com.hahn.auth.util.DateTimeConverter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Propagates cache invalidations between the instances of the service through Postgres
+ * {@code LISTEN/NOTIFY}.
+ *
+ * <p>A cache that drops an entry after a write calls {@link #publish(Topic, String)}, which runs
+ * {@code pg_notify} on the current connection. Inside a transaction Postgres only delivers the
+ * notification on commit and drops it on rollback, so other instances never evict on a write
+ * that did not happen. Every instance keeps one dedicated connection, outside the pool,
+ * listening on {@code cache.invalidation.channel}, and hands each notification sent by another
+ * instance to the handlers subscribed to its topic.</p>
+ *
+ * <p>Notifications arriving within {@code cache.invalidation.coalesce-window} of each other are
+ * handled as one batch in which duplicates are dropped. Collecting a batch stops after
+ * {@value #MAX_COALESCE_WINDOWS} windows from its first notification, or as soon as it holds more
+ * than {@code cache.invalidation.max-batch} distinct payloads, so a steady stream of notifications
+ * cannot hold back the batch. A batch with more than
+ * {@code cache.invalidation.max-batch} distinct keys is replaced by a full resync, which runs
+ * every handler registered with {@link #onResync(Runnable)}. A full resync also runs each time
+ * the listener reconnects, since notifications sent while it was disconnected are lost. The
+ * listener reconnects with exponential backoff from {@code cache.invalidation.reconnect-backoff}
+ * up to {@code cache.invalidation.max-reconnect-backoff}.</p>
+ *
+ * <p>The payload is {@code <instance>|<topic>|<key>}, so a change made directly in the database
+ * can be broadcast with {@code NOTIFY auth_cache_invalidation, '-|applications|'}.</p>
+ *
+ * <p>Meters: {@code cache.invalidation.published} and {@code cache.invalidation.received},
+ * tagged with the topic; {@code cache.invalidation.resyncs}, tagged {@code reason=reconnect}
+ * and {@code reason=overflow}; and {@code cache.invalidation.connected}.</p>
+ *
+ * @author HahnGuil
+ */
+@Component
+@Slf4j
+public class CacheInvalidationBus {
+
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+    private static final String SEPARATOR = "|";
+    private static final int MAX_COALESCE_WINDOWS = 10;
+
+    /**
+     * Kind of cached state a notification refers to.
+     */
+    public enum Topic {
+        USER("user"),
+        USER_EMAIL("user-email"),
+        REGISTERED_EMAIL("registered-email"),
+        APPLICATIONS("applications"),
+        APPLICATION_TOKENS("application-tokens");
+
+        private final String value;
+
+        Topic(String value) {
+            this.value = value;
+        }
+
+        static Topic from(String value) {
+            return Arrays.stream(values()).filter(topic -> topic.value.equals(value)).findFirst().orElse(null);
+        }
+    }
+
+    record Invalidation(Topic topic, String key) { }
+
+    /**
+     * Source of the notifications received by the listener connection.
+     */
+    interface NotificationSource {
+        PGNotification[] next(int timeoutMillis) throws SQLException;
+    }
+
+    private final DataSourceProperties dataSourceProperties;
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final String channel;
+    private final Duration pollTimeout;
+    private final Duration coalesceWindow;
+    private final int maxBatch;
+    private final Duration reconnectBackoff;
+    private final Duration maxReconnectBackoff;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Map<Topic, List<Consumer<String>>> handlers = new EnumMap<>(Topic.class);
+    private final List<Runnable> resyncHandlers = new CopyOnWriteArrayList<>();
+    private final Counter reconnectResyncs;
+    private final Counter overflowResyncs;
+
+    private volatile boolean running;
+    private volatile boolean connected;
+    private volatile Thread listener;
+    private volatile Connection connection;
+
+    public CacheInvalidationBus(DataSourceProperties dataSourceProperties,
+                                JdbcTemplate jdbcTemplate,
+                                MeterRegistry meterRegistry,
+                                @Value("${cache.invalidation.enabled:true}") boolean enabled,
+                                @Value("${cache.invalidation.channel:auth_cache_invalidation}") String channel,
+                                @Value("${cache.invalidation.poll-timeout:PT10S}") Duration pollTimeout,
+                                @Value("${cache.invalidation.coalesce-window:PT0.05S}") Duration coalesceWindow,
+                                @Value("${cache.invalidation.max-batch:500}") int maxBatch,
+                                @Value("${cache.invalidation.reconnect-backoff:PT1S}") Duration reconnectBackoff,
+                                @Value("${cache.invalidation.max-reconnect-backoff:PT30S}") Duration maxReconnectBackoff) {
+        if (!CHANNEL_NAME.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalid cache invalidation channel: " + channel);
+        }
+        this.dataSourceProperties = dataSourceProperties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.channel = channel;
+        this.pollTimeout = pollTimeout;
+        this.coalesceWindow = coalesceWindow;
+        this.maxBatch = maxBatch;
+        this.reconnectBackoff = reconnectBackoff;
+        this.maxReconnectBackoff = maxReconnectBackoff;
+        for (var topic : Topic.values()) {
+            handlers.put(topic, new CopyOnWriteArrayList<>());
+        }
+        this.reconnectResyncs = Counter.builder("cache.invalidation.resyncs").tag("reason", "reconnect").register(meterRegistry);
+        this.overflowResyncs = Counter.builder("cache.invalidation.resyncs").tag("reason", "overflow").register(meterRegistry);
+        Gauge.builder("cache.invalidation.connected", this, bus -> bus.connected ? 1 : 0).register(meterRegistry);
+    }
+
+    /**
+     * Registers a handler for the keys invalidated by other instances on a topic.
+     *
+     * @author HahnGuil
+     * @param topic the topic to listen to
+     * @param handler drops the given key from the local cache, without publishing it again
+     */
+    public void subscribe(Topic topic, Consumer<String> handler) {
+        handlers.get(topic).add(handler);
+    }
+
+    /**
+     * Registers a handler that drops or reloads a whole cache when invalidations may have been
+     * missed.
+     *
+     * @author HahnGuil
+     * @param handler clears or reloads the local cache
+     */
+    public void onResync(Runnable handler) {
+        resyncHandlers.add(handler);
+    }
+
+    /**
+     * Tells the other instances that the key of the topic changed. Inside a transaction the
+     * notification is only sent if the transaction commits.
+     *
+     * @author HahnGuil
+     * @param topic the topic of the key
+     * @param key the changed key
+     */
+    public void publish(Topic topic, String key) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", (ResultSetExtractor<Void>) _ -> null,
+                    channel, instanceId + SEPARATOR + topic.value + SEPARATOR + key);
+            meterRegistry.counter("cache.invalidation.published", "topic", topic.value).increment();
+        } catch (DataAccessException e) {
+            log.error("CacheInvalidationBus: Fail to publish invalidation of {} {}: {} at: {}", topic, key, e.getMessage(), DateTimeConverter.formatInstantNow());
+        }
+    }
+
+    /**
+     * Starts the listener thread.
+     *
+     * @author HahnGuil
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            log.info("CacheInvalidationBus: Cache invalidation bus disabled at: {}", DateTimeConverter.formatInstantNow());
+            return;
+        }
+        running = true;
+        listener = Thread.ofPlatform().name("cache-invalidation-listener").daemon().start(this::listen);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        var thread = listener;
+        if (thread != null) {
+            thread.interrupt();
+        }
+        closeConnection();
+    }
+
+    private void listen() {
+        var backoff = reconnectBackoff;
+        var missedNotifications = false;
+        while (running) {
+            try {
+                connect();
+                log.info("CacheInvalidationBus: Listening on channel: {} at: {}", channel, DateTimeConverter.formatInstantNow());
+                backoff = reconnectBackoff;
+                if (missedNotifications) {
+                    reconnectResyncs.increment();
+                    resync();
+                }
+                poll();
+            } catch (SQLException | RuntimeException e) {
+                missedNotifications = true;
+                log.error("CacheInvalidationBus: Listener connection lost: {}, reconnecting in {} at: {}", e.getMessage(), backoff, DateTimeConverter.formatInstantNow());
+            } finally {
+                connected = false;
+                closeConnection();
+            }
+            if (!running || !sleep(backoff)) {
+                return;
+            }
+            var doubled = backoff.multipliedBy(2);
+            backoff = doubled.compareTo(maxReconnectBackoff) > 0 ? maxReconnectBackoff : doubled;
+        }
+    }
+
+    private void connect() throws SQLException {
+        connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+        try (var statement = connection.createStatement()) {
+            statement.execute("LISTEN " + channel);
+        }
+        connected = true;
+    }
+
+    private void poll() throws SQLException {
+        var pgConnection = connection.unwrap(PGConnection.class);
+        while (running) {
+            var notifications = pgConnection.getNotifications((int) pollTimeout.toMillis());
+            if (notifications == null || notifications.length == 0) {
+                if (!connection.isValid((int) pollTimeout.toSeconds())) {
+                    throw new SQLException("Listener connection is no longer valid");
+                }
+                continue;
+            }
+            dispatch(coalesce(notifications, pgConnection::getNotifications));
+        }
+    }
+
+    /**
+     * Collects the notifications that follow {@code first} within the coalesce window, until the
+     * window passes without a notification, {@value #MAX_COALESCE_WINDOWS} windows have passed
+     * since {@code first}, or more than {@code maxBatch} distinct payloads are collected.
+     */
+    List<String> coalesce(PGNotification[] first, NotificationSource source) throws SQLException {
+        var windowMillis = Math.max(coalesceWindow.toMillis(), 1);
+        var deadline = System.nanoTime() + Duration.ofMillis(windowMillis * MAX_COALESCE_WINDOWS).toNanos();
+        Set<String> payloads = new LinkedHashSet<>();
+        var notifications = first;
+        while (notifications != null && notifications.length > 0) {
+            Arrays.stream(notifications).forEach(notification -> payloads.add(notification.getParameter()));
+            var remainingMillis = Duration.ofNanos(deadline - System.nanoTime()).toMillis();
+            if (payloads.size() > maxBatch || remainingMillis <= 0) {
+                break;
+            }
+            notifications = source.next((int) Math.min(windowMillis, remainingMillis));
+        }
+        return new ArrayList<>(payloads);
+    }
+
+    /**
+     * Hands a batch of payloads to the subscribed handlers, dropping duplicates and the
+     * notifications sent by this instance, or runs a full resync when the batch is too large.
+     */
+    void dispatch(List<String> payloads) {
+        Set<Invalidation> invalidations = new LinkedHashSet<>();
+        for (var payload : payloads) {
+            var parts = payload.split(Pattern.quote(SEPARATOR), 3);
+            if (parts.length < 3 || instanceId.equals(parts[0])) {
+                continue;
+            }
+            var topic = Topic.from(parts[1]);
+            if (topic == null) {
+                log.warn("CacheInvalidationBus: Ignoring notification with unknown topic: {} at: {}", parts[1], DateTimeConverter.formatInstantNow());
+                continue;
+            }
+            invalidations.add(new Invalidation(topic, parts[2]));
+        }
+
+        if (invalidations.size() > maxBatch) {
+            log.warn("CacheInvalidationBus: {} invalidations received at once, running full resync at: {}", invalidations.size(), DateTimeConverter.formatInstantNow());
+            overflowResyncs.increment();
+            resync();
+            return;
+        }
+        invalidations.forEach(invalidation -> {
+            meterRegistry.counter("cache.invalidation.received", "topic", invalidation.topic().value).increment();
+            handlers.get(invalidation.topic()).forEach(handler -> run(() -> handler.accept(invalidation.key())));
+        });
+    }
+
+    void resync() {
+        log.info("CacheInvalidationBus: Running full cache resync at: {}", DateTimeConverter.formatInstantNow());
+        resyncHandlers.forEach(this::run);
+    }
+
+    String instanceId() {
+        return instanceId;
+    }
+
+    private void run(Runnable handler) {
+        try {
+            handler.run();
+        } catch (RuntimeException e) {
+            log.error("CacheInvalidationBus: Invalidation handler failed: {} at: {}", e.getMessage(), DateTimeConverter.formatInstantNow());
+        }
+    }
+
+    private boolean sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+            return true;
+        } catch (InterruptedException _) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void closeConnection() {
+        var current = connection;
+        connection = null;
+        if (current == null) {
+            return;
+        }
+        try {
+            current.close();
+        } catch (SQLException e) {
+            log.warn("CacheInvalidationBus: Fail to close listener connection: {} at: {}", e.getMessage(), DateTimeConverter.formatInstantNow());
+        }
+    }
+}
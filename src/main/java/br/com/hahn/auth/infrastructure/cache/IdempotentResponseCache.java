@@ -0,0 +1,159 @@
+package br.com.hahn.auth.infrastructure.cache;
+
+import br.com.hahn.auth.application.execption.IdempotencyKeyReusedException;
+import br.com.hahn.auth.domain.enums.ErrorsResponses;
+import br.com.hahn.auth.util.DateTimeConverter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Replays the response of a request sent again with the same {@code Idempotency-Key} header.
+ *
+ * <p>Clients retry {@code POST /login} and {@code POST /users} when a response times out. Running
+ * the flow again costs a BCrypt comparison and two token signatures, and a retried login also
+ * invalidates the session the first attempt has just created. When the client sends an
+ * {@code Idempotency-Key}, the response of the first request is kept for
+ * {@code cache.idempotency.ttl} and returned to every request with the same key, including
+ * requests that arrive while the first one is still running. Failed requests are not kept, so a
+ * retry after an error runs the flow again.</p>
+ *
+ * <p>Each key is bound to a fingerprint of the request body. A key sent again with a different
+ * body is rejected with {@link IdempotencyKeyReusedException}, so a key can never hand out the
+ * response issued for other credentials. Only an HMAC-SHA256 of the body is kept, under a key
+ * generated for each process and never stored, so the fingerprint of a login cannot be cracked
+ * offline for the password, not even from a heap dump.</p>
+ *
+ * <p>Requests are counted by the {@code idempotency.requests} meter, tagged
+ * {@code result=executed}, {@code result=replayed} and {@code result=rejected}.</p>
+ *
+ * @author HahnGuil
+ */
+@Component
+@Slf4j
+public class IdempotentResponseCache {
+
+    private static final String FINGERPRINT_ALGORITHM = "HmacSHA256";
+
+    private record Entry(String fingerprint, CompletableFuture<Object> response) { }
+
+    private final Cache<String, Entry> entries;
+    private final Counter executed;
+    private final Counter replayed;
+    private final Counter rejected;
+    private final SecretKey fingerprintKey = generateFingerprintKey();
+
+    public IdempotentResponseCache(MeterRegistry meterRegistry,
+                                   @Value("${cache.idempotency.ttl:PT1M}") Duration ttl,
+                                   @Value("${cache.idempotency.maximum-size:10000}") long maximumSize) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.executed = Counter.builder("idempotency.requests").tag("result", "executed").register(meterRegistry);
+        this.replayed = Counter.builder("idempotency.requests").tag("result", "replayed").register(meterRegistry);
+        this.rejected = Counter.builder("idempotency.requests").tag("result", "rejected").register(meterRegistry);
+    }
+
+    /**
+     * Returns the response stored for the key, or runs {@code action} and stores its response.
+     * Without a key, {@code action} simply runs.
+     *
+     * @author HahnGuil
+     * @param operation the operation the key belongs to, so equal keys of different endpoints do not meet
+     * @param idempotencyKey the value of the {@code Idempotency-Key} header, may be null
+     * @param fingerprint the fingerprint of the request body, see {@link #fingerprint(String...)}
+     * @param action runs the request
+     * @return the stored or newly computed response
+     * @param <T> the response type
+     * @throws IdempotencyKeyReusedException when the key was used with a different request body
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String operation, String idempotencyKey, String fingerprint, Supplier<T> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+
+        var cacheKey = operation + ":" + idempotencyKey;
+        var entry = new Entry(fingerprint, new CompletableFuture<>());
+        var existing = entries.asMap().putIfAbsent(cacheKey, entry);
+        if (existing != null) {
+            if (!existing.fingerprint().equals(fingerprint)) {
+                log.error("IdempotentResponseCache: Idempotency key reused with a different request for: {} at: {}", operation, DateTimeConverter.formatInstantNow());
+                rejected.increment();
+                throw new IdempotencyKeyReusedException(ErrorsResponses.IDEMPOTENCY_KEY_REUSED.getMessage());
+            }
+            log.info("IdempotentResponseCache: Replaying response for: {} at: {}", operation, DateTimeConverter.formatInstantNow());
+            replayed.increment();
+            return (T) await(existing.response());
+        }
+
+        executed.increment();
+        try {
+            var response = action.get();
+            entry.response().complete(response);
+            return response;
+        } catch (RuntimeException | Error e) {
+            entry.response().completeExceptionally(e);
+            entries.asMap().remove(cacheKey, entry);
+            throw e;
+        }
+    }
+
+    /**
+     * Hashes the fields of a request body into a fingerprint, keyed with the secret of this
+     * process.
+     *
+     * @author HahnGuil
+     * @param fields the request fields, in a fixed order
+     * @return the hex encoded HMAC-SHA256 of the fields
+     */
+    public String fingerprint(String... fields) {
+        try {
+            var mac = Mac.getInstance(FINGERPRINT_ALGORITHM);
+            mac.init(fingerprintKey);
+            for (var field : fields) {
+                mac.update(String.valueOf(field).getBytes(StandardCharsets.UTF_8));
+                mac.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(mac.doFinal());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static SecretKey generateFingerprintKey() {
+        try {
+            return KeyGenerator.getInstance(FINGERPRINT_ALGORITHM).generateKey();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Object await(CompletableFuture<Object> response) {
+        try {
+            return response.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package br.com.hahn.auth.infrastructure.cache;
+
+import br.com.hahn.auth.domain.model.LoginResponse;
+import br.com.hahn.auth.util.DateTimeConverter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent refreshes of the same refresh token into a single computation.
+ *
+ * <p>Clients often fire several requests in parallel when their access token expires, and each
+ * of them calls {@code POST /token} with the same refresh token. Without coordination each call
+ * deactivates the tokens minted by the others and most of them fail. Refreshes are keyed by the
+ * refresh token's {@code token_log_id}: the first call computes the new {@link LoginResponse}
+ * and every call arriving while it runs, or within {@code cache.refresh-coalescing.window}
+ * after it succeeded, receives the same response. A failed refresh is shared with the callers
+ * already waiting for it and then forgotten.</p>
+ *
+ * <p>Coalesced and computed refreshes are counted by the {@code tokens.refresh} meter, tagged
+ * {@code result=coalesced} and {@code result=computed}.</p>
+ *
+ * @author HahnGuil
+ */
+@Component
+@Slf4j
+public class RefreshSingleFlight {
+
+    private final Cache<UUID, CompletableFuture<LoginResponse>> flights;
+    private final Counter coalesced;
+    private final Counter computed;
+
+    public RefreshSingleFlight(MeterRegistry meterRegistry,
+                               @Value("${cache.refresh-coalescing.window:PT10S}") Duration window,
+                               @Value("${cache.refresh-coalescing.maximum-size:10000}") long maximumSize) {
+        this.flights = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(window)
+                .build();
+        this.coalesced = Counter.builder("tokens.refresh").tag("result", "coalesced").register(meterRegistry);
+        this.computed = Counter.builder("tokens.refresh").tag("result", "computed").register(meterRegistry);
+    }
+
+    /**
+     * Returns the response of the refresh in flight, or recently completed, for the token log id,
+     * or computes it with {@code refresh} when there is none.
+     *
+     * @author HahnGuil
+     * @param tokenLogId the token log id of the refresh token
+     * @param refresh validates the refresh token and issues the new token pair
+     * @return the shared login response
+     */
+    public LoginResponse refresh(UUID tokenLogId, Supplier<LoginResponse> refresh) {
+        var flight = new CompletableFuture<LoginResponse>();
+        var existing = flights.asMap().putIfAbsent(tokenLogId, flight);
+        if (existing != null) {
+            log.info("RefreshSingleFlight: Joining refresh in flight for token: {} at: {}", tokenLogId, DateTimeConverter.formatInstantNow());
+            coalesced.increment();
+            return await(existing);
+        }
+
+        computed.increment();
+        try {
+            var response = refresh.get();
+            flight.complete(response);
+            return response;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            flights.asMap().remove(tokenLogId, flight);
+            throw e;
+        }
+    }
+
+    private LoginResponse await(CompletableFuture<LoginResponse> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package br.com.hahn.auth.infrastructure.cache;
+
+import br.com.hahn.auth.domain.respository.UserRepository;
+import br.com.hahn.auth.infrastructure.cache.CacheInvalidationBus.Topic;
+import br.com.hahn.auth.util.BloomFilter;
+import br.com.hahn.auth.util.DateTimeConverter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bloom filter of every registered email, used to skip the existence query on registration.
+ *
+ * <p>{@link #mightContain(String)} returning {@code false} means the email is certainly not
+ * registered, so registration goes straight to the insert. A {@code true} may be a false
+ * positive, in which case callers fall back to the database. The filter is only a shortcut: the
+ * unique index on {@code users.user_email} stays the final arbiter, and inserts use
+ * {@code ON CONFLICT DO NOTHING} to detect an email registered by another instance since the
+ * last rebuild.</p>
+ *
+ * <p>The filter is built from the {@code users} table, paging through the email index
+ * {@code cache.registered-emails.page-size} rows at a time, on startup and every
+ * {@code cache.registered-emails.rebuild-interval}. It is sized for twice the current number of
+ * users at {@code cache.registered-emails.false-positive-rate}. Emails registered by this
+ * instance are added right away and published on the {@link CacheInvalidationBus}, which adds
+ * them to the filter of the other instances and rebuilds the filter when the bus resyncs. Until the first build completes every email is reported as
+ * possibly registered.</p>
+ *
+ * <p>Lookups are counted by the {@code users.email.filter} meter, tagged {@code result=absent}
+ * and {@code result=maybe}.</p>
+ *
+ * @author HahnGuil
+ */
+@Component
+@Slf4j
+public class RegisteredEmailFilter {
+
+    private final UserRepository userRepository;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final double falsePositiveRate;
+    private final int pageSize;
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final Counter absent;
+    private final Counter maybe;
+
+    private volatile BloomFilter filter;
+
+    public RegisteredEmailFilter(UserRepository userRepository,
+                                 CacheInvalidationBus cacheInvalidationBus,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${cache.registered-emails.false-positive-rate:0.01}") double falsePositiveRate,
+                                 @Value("${cache.registered-emails.page-size:5000}") int pageSize) {
+        this.userRepository = userRepository;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.falsePositiveRate = falsePositiveRate;
+        this.pageSize = pageSize;
+        this.absent = Counter.builder("users.email.filter").tag("result", "absent").register(meterRegistry);
+        this.maybe = Counter.builder("users.email.filter").tag("result", "maybe").register(meterRegistry);
+        cacheInvalidationBus.subscribe(Topic.REGISTERED_EMAIL, this::addLocally);
+        cacheInvalidationBus.onResync(this::rebuild);
+    }
+
+    /**
+     * Checks whether the email may be registered.
+     *
+     * @author HahnGuil
+     * @param email the email to check
+     * @return false when the email is certainly not registered, true when it may be
+     */
+    public boolean mightContain(String email) {
+        var current = filter;
+        if (current != null && !current.mightContain(email)) {
+            absent.increment();
+            return false;
+        }
+        maybe.increment();
+        return true;
+    }
+
+    /**
+     * Records an email registered by this instance.
+     *
+     * @author HahnGuil
+     * @param email the registered email
+     */
+    public void add(String email) {
+        addLocally(email);
+        cacheInvalidationBus.publish(Topic.REGISTERED_EMAIL, email);
+    }
+
+    /**
+     * Builds a new filter from the {@code users} table and replaces the current one.
+     * <p>
+     * Emails added while the rebuild runs may be missing from the new filter; the insert
+     * conflict check catches them until the next rebuild.
+     *
+     * @author HahnGuil
+     */
+    @Scheduled(fixedDelayString = "${cache.registered-emails.rebuild-interval:PT1H}", scheduler = "registeredEmailsScheduler")
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            var rebuilt = new BloomFilter(userRepository.count() * 2, falsePositiveRate);
+            long loaded = 0;
+            var afterEmail = "";
+            List<String> page;
+            do {
+                page = userRepository.findEmailsAfter(afterEmail, pageSize);
+                page.forEach(rebuilt::add);
+                loaded += page.size();
+                if (!page.isEmpty()) {
+                    afterEmail = page.getLast();
+                }
+            } while (page.size() == pageSize);
+
+            filter = rebuilt;
+            log.info("RegisteredEmailFilter: Loaded {} emails at: {}", loaded, DateTimeConverter.formatInstantNow());
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void addLocally(String email) {
+        var current = filter;
+        if (current != null) {
+            current.add(email);
+        }
+    }
+}
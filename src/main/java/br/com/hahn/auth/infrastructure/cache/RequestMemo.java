@@ -0,0 +1,95 @@
+package br.com.hahn.auth.infrastructure.cache;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Per-request memo of rows already loaded while serving the current HTTP request.
+ *
+ * <p>Values are stored as a request attribute, grouped by namespace, so they are dropped with the
+ * request and never shared between requests. Outside of a request (scheduled jobs, startup) the
+ * memo is a pass-through and every call goes to the loader.</p>
+ *
+ * <p>Services that change a memoized row must evict it, or the whole namespace for bulk updates,
+ * before the next read in the same request.</p>
+ *
+ * @author HahnGuil
+ */
+@Component
+public class RequestMemo {
+
+    private static final String ATTRIBUTE = RequestMemo.class.getName();
+
+    /**
+     * Returns the value memoized for the key in the namespace, calling the loader on the first
+     * access in the current request. Null values are not memoized.
+     *
+     * @author HahnGuil
+     * @param namespace the group of the key, usually the entity and the lookup type
+     * @param key the lookup key
+     * @param loader loads the value when it is not memoized yet
+     * @return the memoized or loaded value
+     */
+    @SuppressWarnings("unchecked")
+    public <K, V> V get(String namespace, K key, Supplier<V> loader) {
+        var memo = currentMemo();
+        if (memo == null) {
+            return loader.get();
+        }
+        var values = memo.computeIfAbsent(namespace, _ -> new HashMap<>());
+        var value = (V) values.get(key);
+        if (value == null) {
+            value = loader.get();
+            if (value != null) {
+                values.put(key, value);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Removes a single key from the namespace in the current request.
+     *
+     * @author HahnGuil
+     * @param namespace the group of the key
+     * @param key the key to remove
+     */
+    public void evict(String namespace, Object key) {
+        var memo = currentMemo();
+        if (memo != null && memo.containsKey(namespace)) {
+            memo.get(namespace).remove(key);
+        }
+    }
+
+    /**
+     * Removes every key of the namespace in the current request.
+     *
+     * @author HahnGuil
+     * @param namespace the group to clear
+     */
+    public void evictNamespace(String namespace) {
+        var memo = currentMemo();
+        if (memo != null) {
+            memo.remove(namespace);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Map<Object, Object>> currentMemo() {
+        var attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        var memo = (Map<String, Map<Object, Object>>) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (memo == null) {
+            memo = new HashMap<>();
+            attributes.setAttribute(ATTRIBUTE, memo, RequestAttributes.SCOPE_REQUEST);
+        }
+        return memo;
+    }
+}
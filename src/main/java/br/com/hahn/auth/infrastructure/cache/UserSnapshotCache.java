@@ -0,0 +1,161 @@
+package br.com.hahn.auth.infrastructure.cache;
+
+import br.com.hahn.auth.application.dto.UserSnapshot;
+import br.com.hahn.auth.infrastructure.cache.CacheInvalidationBus.Topic;
+import br.com.hahn.auth.util.DateTimeConverter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, time-limited cache of {@link UserSnapshot} values keyed by email and by user id.
+ *
+ * <p>Both indexes are filled together whenever a snapshot is loaded, so a lookup by either key
+ * after the first load is served from memory. Entries expire after the configured TTL and the
+ * number of entries per index is capped. Hit, miss and eviction counts are published to
+ * Micrometer as {@code cache.*} meters tagged {@code cache=users.by-email} and
+ * {@code cache=users.by-id}.</p>
+ *
+ * <p>Every write to a user row must call {@link #evict(String, UUID)}. When a transaction is
+ * active the entry is evicted immediately and again after commit, so a concurrent reader cannot
+ * re-populate the cache with the pre-commit row. The eviction is also published on the
+ * {@link CacheInvalidationBus}, so the other instances drop the user once the write commits,
+ * and the whole cache is dropped when the bus resyncs.</p>
+ *
+ * @author HahnGuil
+ */
+@Component
+@Slf4j
+public class UserSnapshotCache {
+
+    private final Cache<String, UserSnapshot> byEmail;
+    private final Cache<UUID, UserSnapshot> byId;
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    public UserSnapshotCache(MeterRegistry meterRegistry,
+                             CacheInvalidationBus cacheInvalidationBus,
+                             @Value("${cache.users.maximum-size:10000}") long maximumSize,
+                             @Value("${cache.users.ttl:5m}") Duration ttl) {
+        this.byEmail = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byEmail, "users.by-email");
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "users.by-id");
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        cacheInvalidationBus.subscribe(Topic.USER, userId -> doEvict(null, UUID.fromString(userId)));
+        cacheInvalidationBus.subscribe(Topic.USER_EMAIL, email -> doEvict(email, null));
+        cacheInvalidationBus.onResync(this::evictAll);
+    }
+
+    /**
+     * Returns the snapshot cached for the email, loading and caching it on a miss.
+     *
+     * @author HahnGuil
+     * @param email the user email
+     * @param loader loads the snapshot from the database; an empty result is not cached
+     * @return the snapshot, or empty when the loader found no user
+     */
+    public Optional<UserSnapshot> getByEmail(String email, Supplier<Optional<UserSnapshot>> loader) {
+        var cached = byEmail.getIfPresent(email);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        var loaded = loader.get();
+        loaded.ifPresent(this::put);
+        return loaded;
+    }
+
+    /**
+     * Returns the snapshot cached for the user id, loading and caching it on a miss.
+     *
+     * @author HahnGuil
+     * @param userId the user id
+     * @param loader loads the snapshot from the database; an empty result is not cached
+     * @return the snapshot, or empty when the loader found no user
+     */
+    public Optional<UserSnapshot> getById(UUID userId, Supplier<Optional<UserSnapshot>> loader) {
+        var cached = byId.getIfPresent(userId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        var loaded = loader.get();
+        loaded.ifPresent(this::put);
+        return loaded;
+    }
+
+    /**
+     * Removes the user from both indexes. Either key may be null when the caller does not know it;
+     * the other index is then resolved through the cached snapshot, if any.
+     *
+     * @author HahnGuil
+     * @param email the user email, may be null
+     * @param userId the user id, may be null
+     */
+    public void evict(String email, UUID userId) {
+        log.info("UserSnapshotCache: Evict user: {} at: {}", userId, DateTimeConverter.formatInstantNow());
+        doEvict(email, userId);
+        if (userId != null) {
+            cacheInvalidationBus.publish(Topic.USER, userId.toString());
+        }
+        if (email != null) {
+            cacheInvalidationBus.publish(Topic.USER_EMAIL, email);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    doEvict(email, userId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Drops every cached snapshot.
+     *
+     * @author HahnGuil
+     */
+    public void evictAll() {
+        log.info("UserSnapshotCache: Evict all users at: {}", DateTimeConverter.formatInstantNow());
+        byEmail.invalidateAll();
+        byId.invalidateAll();
+    }
+
+    private void put(UserSnapshot snapshot) {
+        byEmail.put(snapshot.email(), snapshot);
+        byId.put(snapshot.userId(), snapshot);
+    }
+
+    private void doEvict(String email, UUID userId) {
+        if (email != null) {
+            var removed = byEmail.asMap().remove(email);
+            if (removed != null) {
+                byId.invalidate(removed.userId());
+            }
+        }
+        if (userId != null) {
+            var removed = byId.asMap().remove(userId);
+            if (removed != null) {
+                byEmail.invalidate(removed.email());
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package br.com.hahn.auth.infrastructure.http;
+
+import br.com.hahn.auth.infrastructure.resilience.CircuitBreaker;
+import br.com.hahn.auth.util.DateTimeConverter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Guards and measures every call made through an outbound client.
+ *
+ * <p>A call is rejected with {@link OutboundCallRejectedException} when the destination already
+ * has {@code max-concurrent-calls} calls in flight (bulkhead) or when its circuit breaker is
+ * open. Server errors, transport errors and cancelled calls count as failures for the circuit
+ * breaker.</p>
+ *
+ * <p>Latency is recorded by the {@code http.client.outbound} timer, with a percentile histogram,
+ * tagged with the client name, the HTTP method and the outcome ({@code 2xx}, {@code 4xx},
+ * {@code 5xx}, {@code error} or {@code cancelled}).</p>
+ *
+ * @author HahnGuil
+ */
+@Slf4j
+class OutboundCallFilter implements ExchangeFilterFunction {
+
+    private final String name;
+    private final Semaphore bulkhead;
+    private final CircuitBreaker circuitBreaker;
+    private final MeterRegistry meterRegistry;
+
+    OutboundCallFilter(String name, int maxConcurrentCalls, CircuitBreaker circuitBreaker, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+        this.circuitBreaker = circuitBreaker;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.defer(() -> {
+            if (!bulkhead.tryAcquire()) {
+                log.warn("OutboundCallFilter: Bulkhead full for client: {} at: {}", name, DateTimeConverter.formatInstantNow());
+                return Mono.error(new OutboundCallRejectedException("Bulkhead full for outbound client: " + name));
+            }
+            if (!circuitBreaker.tryAcquire()) {
+                bulkhead.release();
+                return Mono.error(new OutboundCallRejectedException("Circuit breaker open for outbound client: " + name));
+            }
+
+            var sample = Timer.start(meterRegistry);
+            var outcome = new AtomicReference<String>();
+            return next.exchange(request)
+                    .doOnNext(response -> {
+                        outcome.set(response.statusCode().value() / 100 + "xx");
+                        if (response.statusCode().is5xxServerError()) {
+                            circuitBreaker.onFailure();
+                        } else {
+                            circuitBreaker.onSuccess();
+                        }
+                    })
+                    .doOnError(_ -> {
+                        outcome.set("error");
+                        circuitBreaker.onFailure();
+                    })
+                    .doFinally(_ -> {
+                        if (outcome.compareAndSet(null, "cancelled")) {
+                            circuitBreaker.onFailure();
+                        }
+                        bulkhead.release();
+                        sample.stop(Timer.builder("http.client.outbound")
+                                .tag("client", name)
+                                .tag("method", request.method().name())
+                                .tag("outcome", outcome.get())
+                                .publishPercentileHistogram()
+                                .register(meterRegistry));
+                    });
+        });
+    }
+}
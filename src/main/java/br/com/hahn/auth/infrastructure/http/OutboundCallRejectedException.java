@@ -0,0 +1,14 @@
+package br.com.hahn.auth.infrastructure.http;
+
+/**
+ * Thrown when an outbound call is not sent because the destination bulkhead is full or its
+ * circuit breaker is open.
+ *
+ * @author HahnGuil
+ */
+public class OutboundCallRejectedException extends RuntimeException {
+
+    public OutboundCallRejectedException(String message) {
+        super(message);
+    }
+}
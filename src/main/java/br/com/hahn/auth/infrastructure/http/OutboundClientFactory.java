@@ -0,0 +1,108 @@
+package br.com.hahn.auth.infrastructure.http;
+
+import br.com.hahn.auth.infrastructure.resilience.CircuitBreaker;
+import br.com.hahn.auth.util.DateTimeConverter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Builds the WebClients used to call external services, one per destination configured under
+ * {@code outbound.clients}.
+ *
+ * <p>Each destination gets its own connection pool, connect and response timeouts, a bulkhead
+ * limiting the calls in flight and a {@link CircuitBreaker}, so a slow or failing destination
+ * cannot exhaust the connections or threads used to reach the others. Pool metrics are published
+ * by Reactor Netty under {@code reactor.netty.connection.provider}, call latency by
+ * {@link OutboundCallFilter}.</p>
+ *
+ * @author HahnGuil
+ */
+@Component
+@Slf4j
+public class OutboundClientFactory {
+
+    private final OutboundClientProperties properties;
+    private final WebClient.Builder webClientBuilder;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Client> clients = new ConcurrentHashMap<>();
+
+    public OutboundClientFactory(OutboundClientProperties properties, WebClient.Builder webClientBuilder, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.webClientBuilder = webClientBuilder;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Returns the WebClient of a destination, building it on first use.
+     *
+     * @author HahnGuil
+     * @param name the destination name under {@code outbound.clients}
+     * @return the WebClient of the destination
+     * @throws IllegalStateException if the destination is not configured
+     */
+    public WebClient webClient(String name) {
+        return client(name).webClient();
+    }
+
+    /**
+     * Returns the circuit breaker guarding a destination, so callers can avoid queuing work while
+     * it is open.
+     *
+     * @author HahnGuil
+     * @param name the destination name under {@code outbound.clients}
+     * @return the circuit breaker of the destination
+     * @throws IllegalStateException if the destination is not configured
+     */
+    public CircuitBreaker circuitBreaker(String name) {
+        return client(name).circuitBreaker();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        clients.values().forEach(client -> client.connectionProvider().dispose());
+    }
+
+    private Client client(String name) {
+        return clients.computeIfAbsent(name, this::build);
+    }
+
+    private Client build(String name) {
+        var destination = properties.getClients().get(name);
+        if (destination == null) {
+            throw new IllegalStateException("No outbound client configured for: " + name);
+        }
+        log.info("OutboundClientFactory: Building outbound client: {} for: {} at: {}", name, destination.getBaseUrl(), DateTimeConverter.formatInstantNow());
+
+        var connectionProvider = ConnectionProvider.builder("outbound-" + name)
+                .maxConnections(destination.getMaxConnections())
+                .pendingAcquireMaxCount(destination.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(destination.getPendingAcquireTimeout())
+                .maxIdleTime(destination.getMaxIdleTime())
+                .metrics(true)
+                .build();
+        var httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) destination.getConnectTimeout().toMillis())
+                .responseTimeout(destination.getResponseTimeout());
+
+        var settings = destination.getCircuitBreaker();
+        var circuitBreaker = new CircuitBreaker(name, settings.getFailureThreshold(), settings.getOpenDuration(), meterRegistry);
+        var webClient = webClientBuilder.clone()
+                .baseUrl(destination.getBaseUrl())
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .filter(new OutboundCallFilter(name, destination.getMaxConcurrentCalls(), circuitBreaker, meterRegistry))
+                .build();
+        return new Client(webClient, circuitBreaker, connectionProvider);
+    }
+
+    private record Client(WebClient webClient, CircuitBreaker circuitBreaker, ConnectionProvider connectionProvider) { }
+}
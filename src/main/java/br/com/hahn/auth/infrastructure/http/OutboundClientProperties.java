@@ -0,0 +1,65 @@
+package br.com.hahn.auth.infrastructure.http;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Settings of the outbound HTTP clients, one entry per integration under {@code outbound.clients}.
+ *
+ * @author HahnGuil
+ */
+@Component
+@ConfigurationProperties(prefix = "outbound")
+@Getter
+@Setter
+public class OutboundClientProperties {
+
+    private Map<String, Destination> clients = new HashMap<>();
+
+    @Getter
+    @Setter
+    public static class Destination {
+
+        private String baseUrl;
+
+        /**
+         * Maximum number of open connections to the destination.
+         */
+        private int maxConnections = 20;
+
+        /**
+         * Maximum number of requests waiting for a free connection before new ones are rejected.
+         */
+        private int pendingAcquireMaxCount = 100;
+
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(2);
+
+        private Duration connectTimeout = Duration.ofSeconds(2);
+
+        private Duration responseTimeout = Duration.ofSeconds(5);
+
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+
+        /**
+         * Bulkhead size: maximum number of calls in flight to the destination.
+         */
+        private int maxConcurrentCalls = 10;
+
+        private CircuitBreakerSettings circuitBreaker = new CircuitBreakerSettings();
+    }
+
+    @Getter
+    @Setter
+    public static class CircuitBreakerSettings {
+
+        private int failureThreshold = 5;
+
+        private Duration openDuration = Duration.ofSeconds(30);
+    }
+}
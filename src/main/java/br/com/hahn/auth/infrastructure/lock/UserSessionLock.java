@@ -0,0 +1,113 @@
+package br.com.hahn.auth.infrastructure.lock;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Serializes the session state transitions of a user: login, logoff and refresh.
+ *
+ * <p>Each of these transitions reads the user's current session, deactivates the active token,
+ * records the invalidation against the latest {@code token_log} row and then writes a new
+ * session. Two of them running at the same time for the same user can invalidate each other's
+ * freshly issued token or record the invalidation against the wrong row. This lock makes them run
+ * one at a time per user.</p>
+ *
+ * <p>Users are mapped onto {@code session.lock.stripes} {@link ReentrantLock}s, so memory stays
+ * fixed however many users log in, and two users only wait for each other when they share a
+ * stripe. {@link ReentrantLock} is used instead of {@code synchronized} so that a virtual thread
+ * waiting for it does not pin its carrier.</p>
+ *
+ * <p>With {@code session.lock.mode=advisory} the section additionally runs inside a transaction
+ * that takes {@code pg_advisory_xact_lock} on the user, which serializes the transition across
+ * every instance of the service. The advisory lock is released when that transaction ends. The
+ * default {@code local} mode only covers the current instance. The section must do its database
+ * work on the calling thread, so it joins that transaction and rolls back with it instead of
+ * taking another connection from the pool.</p>
+ *
+ * <p>Time spent waiting for the lock is recorded by the {@code session.lock.wait} timer.</p>
+ *
+ * @author HahnGuil
+ */
+@Component
+public class UserSessionLock {
+
+    /**
+     * First key of the two-key advisory lock, so these locks never collide with advisory locks
+     * taken for other purposes.
+     */
+    static final int ADVISORY_NAMESPACE = 0x5345_5353;
+
+    enum Mode { LOCAL, ADVISORY }
+
+    private final ReentrantLock[] stripes;
+    private final Mode mode;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final Timer waitTimer;
+
+    public UserSessionLock(MeterRegistry meterRegistry,
+                           TransactionTemplate transactionTemplate,
+                           JdbcTemplate jdbcTemplate,
+                           @Value("${session.lock.mode:local}") String mode,
+                           @Value("${session.lock.stripes:1024}") int stripes) {
+        this.mode = Mode.valueOf(mode.toUpperCase());
+        this.transactionTemplate = transactionTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.stripes = new ReentrantLock[Math.max(stripes, 1)];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.waitTimer = Timer.builder("session.lock.wait").tag("mode", mode.toLowerCase()).register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code action} while holding the lock of the given user.
+     *
+     * @author HahnGuil
+     * @param userId the user whose session is changed
+     * @param action the state transition
+     * @return the value returned by {@code action}
+     * @param <T> the type returned by {@code action}
+     */
+    public <T> T withLock(UUID userId, Supplier<T> action) {
+        var stripe = stripes[Math.floorMod(userId.hashCode(), stripes.length)];
+        var sample = Timer.start();
+        stripe.lock();
+        try {
+            if (mode == Mode.LOCAL) {
+                sample.stop(waitTimer);
+                return action.get();
+            }
+            return transactionTemplate.execute(_ -> {
+                jdbcTemplate.query("SELECT pg_advisory_xact_lock(?, ?)", (ResultSetExtractor<Void>) _ -> null, ADVISORY_NAMESPACE, userId.hashCode());
+                sample.stop(waitTimer);
+                return action.get();
+            });
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /**
+     * Runs {@code action} while holding the lock of the given user.
+     *
+     * @author HahnGuil
+     * @param userId the user whose session is changed
+     * @param action the state transition
+     */
+    public void withLock(UUID userId, Runnable action) {
+        withLock(userId, () -> {
+            action.run();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,47 @@
+package br.com.hahn.auth.infrastructure.persistence;
+
+/**
+ * Marks the code running on the current thread as background work, so its database connections
+ * come from the background pool instead of the pool serving requests.
+ *
+ * <p>Scheduled jobs are marked by the task schedulers; code running jobs on its own threads
+ * must wrap them with {@link #run(Runnable)}. See {@link WorkloadRoutingDataSource}.</p>
+ *
+ * @author HahnGuil
+ */
+public final class BackgroundWork {
+
+    private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+    private BackgroundWork() {
+    }
+
+    /**
+     * Runs the task as background work.
+     *
+     * @author HahnGuil
+     * @param task the work to run
+     */
+    public static void run(Runnable task) {
+        if (isActive()) {
+            task.run();
+            return;
+        }
+        ACTIVE.set(Boolean.TRUE);
+        try {
+            task.run();
+        } finally {
+            ACTIVE.remove();
+        }
+    }
+
+    /**
+     * Checks whether the current thread is running background work.
+     *
+     * @author HahnGuil
+     * @return true inside {@link #run(Runnable)}
+     */
+    public static boolean isActive() {
+        return Boolean.TRUE.equals(ACTIVE.get());
+    }
+}
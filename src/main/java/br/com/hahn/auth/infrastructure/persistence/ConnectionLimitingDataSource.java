@@ -0,0 +1,104 @@
+package br.com.hahn.auth.infrastructure.persistence;
+
+import br.com.hahn.auth.util.DateTimeConverter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * DataSource that lets at most {@code maxConnections} threads hold a connection at the same time.
+ *
+ * <p>With virtual threads every request gets its own thread, so thousands of them can reach the
+ * connection pool at once. This wrapper queues them on a fair {@link Semaphore} sized to the pool
+ * before they ask the pool for a connection: waiting threads park cheaply in FIFO order instead of
+ * spinning inside the pool, and a thread that cannot get a permit within {@code acquireTimeout}
+ * fails with {@link SQLTransientConnectionException}, like the pool itself would. The permit is
+ * released when the connection is closed.</p>
+ *
+ * <p>The number of threads waiting for a permit is published by the
+ * {@code db.connections.waiting} gauge, tagged with the name of the pool.</p>
+ *
+ * @author HahnGuil
+ */
+@Slf4j
+public class ConnectionLimitingDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final Duration acquireTimeout;
+
+    public ConnectionLimitingDataSource(DataSource targetDataSource, String poolName, int maxConnections, Duration acquireTimeout, MeterRegistry meterRegistry) {
+        super(targetDataSource);
+        this.permits = new Semaphore(maxConnections, true);
+        this.acquireTimeout = acquireTimeout;
+        Gauge.builder("db.connections.waiting", permits, Semaphore::getQueueLength)
+                .description("Threads waiting for a database connection permit")
+                .tag("pool", poolName)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            if (!permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.error("ConnectionLimitingDataSource: No database connection permit after {} at: {}", acquireTimeout, DateTimeConverter.formatInstantNow());
+                throw new SQLTransientConnectionException("No database connection available after " + acquireTimeout);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database connection", e);
+        }
+    }
+
+    private Connection releasingOnClose(Connection connection) {
+        var released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, (_, method, args) -> {
+            if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+                try {
+                    return method.invoke(connection, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                } finally {
+                    permits.release();
+                }
+            }
+            try {
+                return method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        });
+    }
+}
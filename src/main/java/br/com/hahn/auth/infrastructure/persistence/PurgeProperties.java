@@ -0,0 +1,51 @@
+package br.com.hahn.auth.infrastructure.persistence;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Settings of the retention purge, with one entry per table under {@code purge.tables}.
+ *
+ * @author HahnGuil
+ */
+@Component
+@ConfigurationProperties(prefix = "purge")
+@Getter
+@Setter
+public class PurgeProperties {
+
+    /**
+     * Maximum number of rows deleted by a single statement.
+     */
+    private int batchSize = 1000;
+
+    /**
+     * Pause between two batches of the same table, so the purge never holds back login traffic.
+     */
+    private Duration pauseBetweenBatches = Duration.ofMillis(200);
+
+    /**
+     * Maximum number of batches per table in a single run; the rest is left to the next run.
+     */
+    private int maxBatchesPerRun = 500;
+
+    private Map<String, Retention> tables = new HashMap<>();
+
+    @Getter
+    @Setter
+    public static class Retention {
+
+        private boolean enabled = true;
+
+        /**
+         * How long a row is kept after the instant stored in its retention column.
+         */
+        private Duration retention = Duration.ZERO;
+    }
+}
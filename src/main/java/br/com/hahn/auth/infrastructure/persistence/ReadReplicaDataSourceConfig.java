@@ -0,0 +1,61 @@
+package br.com.hahn.auth.infrastructure.persistence;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Sends read-only transactions to a read replica, enabled by {@code datasource.replica.enabled}.
+ *
+ * <p>The application DataSource becomes a {@link LazyConnectionDataSourceProxy} over the primary
+ * pools of {@link WorkloadDataSourceConfig}, which only fetches a physical connection on the
+ * first statement of a transaction. By then a {@code @Transactional(readOnly = true)} transaction
+ * has marked the connection read-only, and the proxy takes it from the
+ * {@link ReplicaRoutingDataSource} instead, which picks the replica or the primary according to
+ * the {@link ReplicaLagMonitor}. Read-write transactions, reads joining one, background jobs and
+ * Flyway always use the primary.</p>
+ *
+ * <p>The replica pool is configured under {@code datasource.replica.hikari}.</p>
+ *
+ * @author HahnGuil
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.replica.enabled", havingValue = "true")
+public class ReadReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("datasource.replica.hikari")
+    public HikariDataSource replicaDataSource() {
+        return new HikariDataSource();
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                               MeterRegistry meterRegistry,
+                                               @Value("${datasource.replica.max-lag:PT1S}") Duration maxLag,
+                                               @Value("${datasource.replica.read-your-writes-margin:PT0.05S}") Duration readYourWritesMargin) {
+        return new ReplicaLagMonitor(new JdbcTemplate(replicaDataSource), meterRegistry, maxLag, readYourWritesMargin);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("workloadDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                 ReplicaLagMonitor replicaLagMonitor,
+                                 MeterRegistry meterRegistry) {
+        var dataSource = new LazyConnectionDataSourceProxy(new WriteRecordingDataSource(primaryDataSource, replicaLagMonitor));
+        dataSource.setReadOnlyDataSource(new ReplicaRoutingDataSource(replicaDataSource, primaryDataSource, replicaLagMonitor, meterRegistry));
+        return dataSource;
+    }
+}
@@ -0,0 +1,74 @@
+package br.com.hahn.auth.infrastructure.persistence;
+
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Instant;
+
+/**
+ * Identifies the caller of the current HTTP request, so the {@link ReplicaLagMonitor} can keep
+ * the reads of a caller on the primary after that caller wrote, without holding back everyone
+ * else.
+ *
+ * <p>The caller is the subject of the authenticated token: the user email or the application
+ * public id. Requests that issue a token, like a login, are not authenticated yet and bind the
+ * subject of the new token with {@link #bindCaller(String)}, so the reads of the requests that
+ * follow with that token are covered. The time of the last write of the request is kept as well,
+ * which covers reads made later in the same request by an anonymous caller.</p>
+ *
+ * <p>Everything is stored as request attributes and dropped with the request. Outside of a
+ * request there is no caller.</p>
+ *
+ * @author HahnGuil
+ */
+public final class ReadYourWrites {
+
+    private static final String CALLER = ReadYourWrites.class.getName() + ".caller";
+    private static final String LAST_WRITE_AT = ReadYourWrites.class.getName() + ".lastWriteAt";
+
+    private ReadYourWrites() {
+    }
+
+    /**
+     * Makes the given token subject the caller of the current request.
+     *
+     * @author HahnGuil
+     * @param caller the subject of the token issued to the caller
+     */
+    public static void bindCaller(String caller) {
+        var attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null && caller != null) {
+            attributes.setAttribute(CALLER, caller, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    static String caller() {
+        var attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        var bound = (String) attributes.getAttribute(CALLER, RequestAttributes.SCOPE_REQUEST);
+        if (bound != null) {
+            return bound;
+        }
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    static void recordWrite(Instant writeAt) {
+        var attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(LAST_WRITE_AT, writeAt, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    static Instant lastWriteAt() {
+        var attributes = RequestContextHolder.getRequestAttributes();
+        return attributes == null ? null : (Instant) attributes.getAttribute(LAST_WRITE_AT, RequestAttributes.SCOPE_REQUEST);
+    }
+}
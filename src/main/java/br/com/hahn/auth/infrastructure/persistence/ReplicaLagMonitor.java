@@ -0,0 +1,153 @@
+package br.com.hahn.auth.infrastructure.persistence;
+
+import br.com.hahn.auth.util.DateTimeConverter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Tracks how far the read replica is behind the primary and decides whether a read-only
+ * transaction may run on it.
+ *
+ * <p>The replication lag is measured on the replica every
+ * {@code datasource.replica.lag-check-interval}. It is unknown when the WAL receiver of the
+ * replica is not streaming, since the replica then stops receiving writes without falling behind
+ * on what it received. Otherwise it is zero when the replica has replayed all the WAL it
+ * received, and the time since the last transaction it replayed when it has not. The status of
+ * the WAL receiver is only visible to roles with {@code pg_read_all_stats}, which the replica
+ * user therefore needs. Reads go to the primary while the lag is unknown, because the receiver is
+ * not streaming or the last check failed, or above {@code datasource.replica.max-lag}.</p>
+ *
+ * <p>Reads of a caller, as identified by {@link ReadYourWrites}, also go to the primary while a
+ * write committed by that caller may not be on the replica yet, that is for the measured lag plus
+ * {@code datasource.replica.read-your-writes-margin} after the write. A user reading right after
+ * logging in therefore sees their new session, while the reads of other callers stay on the
+ * replica.</p>
+ *
+ * <p>The lag is published by the {@code db.replica.lag} gauge, in milliseconds, and failed checks
+ * are counted by {@code db.replica.lag.check.failures}.</p>
+ *
+ * @author HahnGuil
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    static final String LAG_QUERY = """
+            SELECT CASE
+                       WHEN NOT pg_is_in_recovery() THEN 0
+                       WHEN NOT EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming') THEN NULL
+                       WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                       ELSE (EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000)::bigint
+                   END
+            """;
+
+    private static final long MAX_TRACKED_CALLERS = 100_000;
+
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final Duration maxLag;
+    private final Duration readYourWritesMargin;
+    private final Clock clock;
+    private final Counter checkFailures;
+    private final Cache<String, Instant> lastWriteByCaller;
+
+    private volatile Duration lag;
+
+    public ReplicaLagMonitor(JdbcTemplate replicaJdbcTemplate, MeterRegistry meterRegistry, Duration maxLag, Duration readYourWritesMargin) {
+        this(replicaJdbcTemplate, meterRegistry, maxLag, readYourWritesMargin, Clock.systemUTC());
+    }
+
+    ReplicaLagMonitor(JdbcTemplate replicaJdbcTemplate, MeterRegistry meterRegistry, Duration maxLag, Duration readYourWritesMargin, Clock clock) {
+        this.replicaJdbcTemplate = replicaJdbcTemplate;
+        this.maxLag = maxLag;
+        this.readYourWritesMargin = readYourWritesMargin;
+        this.clock = clock;
+        this.checkFailures = Counter.builder("db.replica.lag.check.failures").register(meterRegistry);
+        this.lastWriteByCaller = Caffeine.newBuilder()
+                .expireAfterWrite(maxLag.plus(readYourWritesMargin))
+                .maximumSize(MAX_TRACKED_CALLERS)
+                .build();
+        Gauge.builder("db.replica.lag", this, monitor -> monitor.lag == null ? Double.NaN : monitor.lag.toMillis())
+                .description("Replication lag of the read replica in milliseconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Measures the replication lag of the replica.
+     *
+     * @author HahnGuil
+     */
+    @Scheduled(fixedDelayString = "${datasource.replica.lag-check-interval:PT1S}", scheduler = "replicaLagScheduler")
+    public void checkLag() {
+        try {
+            var lagMillis = replicaJdbcTemplate.queryForObject(LAG_QUERY, Long.class);
+            if (lagMillis == null) {
+                markUnavailable();
+                log.warn("ReplicaLagMonitor: Replica is not streaming WAL, reading from primary at: {}", DateTimeConverter.formatInstantNow());
+                return;
+            }
+            lag = Duration.ofMillis(Math.max(lagMillis, 0));
+        } catch (DataAccessException e) {
+            markUnavailable();
+            checkFailures.increment();
+            log.error("ReplicaLagMonitor: Fail to measure replica lag: {} at: {}", e.getMessage(), DateTimeConverter.formatInstantNow());
+        }
+    }
+
+    /**
+     * Records that the caller of the current request just wrote to the primary.
+     *
+     * @author HahnGuil
+     */
+    public void recordWrite() {
+        var now = clock.instant();
+        ReadYourWrites.recordWrite(now);
+        var caller = ReadYourWrites.caller();
+        if (caller != null) {
+            lastWriteByCaller.put(caller, now);
+        }
+    }
+
+    /**
+     * Sends reads to the primary until the next successful lag check.
+     *
+     * @author HahnGuil
+     */
+    public void markUnavailable() {
+        lag = null;
+    }
+
+    /**
+     * Checks whether a read-only transaction starting now may run on the replica.
+     *
+     * @author HahnGuil
+     * @return true when the replica is close enough and holds every write of the current caller
+     */
+    public boolean canReadFromReplica() {
+        var current = lag;
+        if (current == null || current.compareTo(maxLag) > 0) {
+            return false;
+        }
+        var lastWriteAt = lastWriteOfCaller();
+        return lastWriteAt == null || clock.instant().isAfter(lastWriteAt.plus(current).plus(readYourWritesMargin));
+    }
+
+    private Instant lastWriteOfCaller() {
+        var inRequest = ReadYourWrites.lastWriteAt();
+        var caller = ReadYourWrites.caller();
+        var byCaller = caller == null ? null : lastWriteByCaller.getIfPresent(caller);
+        if (inRequest == null || byCaller == null) {
+            return inRequest == null ? byCaller : inRequest;
+        }
+        return inRequest.isAfter(byCaller) ? inRequest : byCaller;
+    }
+}
@@ -0,0 +1,82 @@
+package br.com.hahn.auth.infrastructure.persistence;
+
+import br.com.hahn.auth.util.DateTimeConverter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * DataSource of the read-only transactions: hands out replica connections while the
+ * {@link ReplicaLagMonitor} allows it and primary connections otherwise. {@link BackgroundWork}
+ * always reads from the primary, so batch scans never compete with requests for the replica
+ * pool.
+ *
+ * <p>When the replica cannot hand out a connection, the read falls back to the primary and the
+ * replica is left out until the next successful lag check.</p>
+ *
+ * <p>Routed connections are counted by the {@code db.replica.routing} meter, tagged
+ * {@code target=replica} and {@code target=primary}.</p>
+ *
+ * @author HahnGuil
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private final DataSource replica;
+    private final DataSource primary;
+    private final ReplicaLagMonitor replicaLagMonitor;
+    private final Counter toReplica;
+    private final Counter toPrimary;
+
+    public ReplicaRoutingDataSource(DataSource replica, DataSource primary, ReplicaLagMonitor replicaLagMonitor, MeterRegistry meterRegistry) {
+        this.replica = replica;
+        this.primary = primary;
+        this.replicaLagMonitor = replicaLagMonitor;
+        this.toReplica = Counter.builder("db.replica.routing").tag("target", "replica").register(meterRegistry);
+        this.toPrimary = Counter.builder("db.replica.routing").tag("target", "primary").register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (useReplica()) {
+            try {
+                var connection = replica.getConnection();
+                toReplica.increment();
+                return connection;
+            } catch (SQLException e) {
+                replicaUnavailable(e);
+            }
+        }
+        toPrimary.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (useReplica()) {
+            try {
+                var connection = replica.getConnection(username, password);
+                toReplica.increment();
+                return connection;
+            } catch (SQLException e) {
+                replicaUnavailable(e);
+            }
+        }
+        toPrimary.increment();
+        return primary.getConnection(username, password);
+    }
+
+    private boolean useReplica() {
+        return !BackgroundWork.isActive() && replicaLagMonitor.canReadFromReplica();
+    }
+
+    private void replicaUnavailable(SQLException e) {
+        log.error("ReplicaRoutingDataSource: Replica unavailable, reading from primary: {} at: {}", e.getMessage(), DateTimeConverter.formatInstantNow());
+        replicaLagMonitor.markUnavailable();
+    }
+}
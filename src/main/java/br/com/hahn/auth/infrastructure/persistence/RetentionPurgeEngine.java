@@ -0,0 +1,146 @@
+package br.com.hahn.auth.infrastructure.persistence;
+
+import br.com.hahn.auth.infrastructure.scheduling.JobLease;
+import br.com.hahn.auth.util.DateTimeConverter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Deletes rows that are past their retention, in bounded batches.
+ *
+ * <p>Each table is purged with repeated
+ * {@code DELETE ... WHERE ctid IN (SELECT ctid ... LIMIT batch-size)} statements. Every statement
+ * runs in its own short transaction, so a large backlog never turns into one long delete that
+ * holds row locks and bloats the WAL. The engine pauses {@code purge.pause-between-batches}
+ * between two batches and stops after {@code purge.max-batches-per-run}; what is left is deleted
+ * by the next run.</p>
+ *
+ * <p>The retention of each table is configured under {@code purge.tables.<table>}. Table and
+ * column names come from {@link Target}, never from configuration.</p>
+ *
+ * <p>Each table publishes, tagged with {@code table}, the {@code purge.rows} and
+ * {@code purge.batches} counters and the {@code purge.duration} timer.</p>
+ *
+ * @author HahnGuil
+ */
+@Component
+@Slf4j
+public class RetentionPurgeEngine {
+
+    /**
+     * The purged tables, the column that holds the instant their retention counts from and, for
+     * tables that also hold live rows, the condition that selects the rows that may be purged.
+     */
+    public enum Target {
+        RESET_PASSWORD("reset-password", "toxic_bet.reset_password", "expiration_date"),
+        LOGGED_NOW("logged-now", "toxic_bet.logged_now", "date_login"),
+        INVALIDATED_TOKEN("invalidated-token", "toxic_bet.invalidated_token", "date_invalidate"),
+        EMAIL_OUTBOX("email-outbox", "toxic_bet.email_outbox", "created_at", "status IN ('SENT', 'DEAD')");
+
+        private final String key;
+        private final String deleteSql;
+
+        Target(String key, String table, String column) {
+            this(key, table, column, null);
+        }
+
+        Target(String key, String table, String column, String condition) {
+            this.key = key;
+            this.deleteSql = "DELETE FROM " + table + " WHERE ctid IN (SELECT ctid FROM " + table
+                    + " WHERE " + column + " < ?" + (condition == null ? "" : " AND " + condition) + " LIMIT ?)";
+        }
+
+        public String key() {
+            return key;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PurgeProperties purgeProperties;
+    private final Map<Target, Meters> meters = new EnumMap<>(Target.class);
+
+    public RetentionPurgeEngine(JdbcTemplate jdbcTemplate, PurgeProperties purgeProperties, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.purgeProperties = purgeProperties;
+        for (var target : Target.values()) {
+            meters.put(target, new Meters(
+                    Counter.builder("purge.rows").tag("table", target.key()).register(meterRegistry),
+                    Counter.builder("purge.batches").tag("table", target.key()).register(meterRegistry),
+                    Timer.builder("purge.duration").tag("table", target.key()).register(meterRegistry)));
+        }
+    }
+
+    /**
+     * Purges every enabled table, one after the other.
+     *
+     * @author HahnGuil
+     * @return the number of rows deleted from each purged table
+     */
+    public Map<Target, Long> purgeAll() {
+        var deleted = new EnumMap<Target, Long>(Target.class);
+        for (var target : Target.values()) {
+            if (Thread.currentThread().isInterrupted()) {
+                break;
+            }
+            var retention = purgeProperties.getTables().getOrDefault(target.key(), new PurgeProperties.Retention());
+            if (retention.isEnabled()) {
+                deleted.put(target, purge(target, LocalDateTime.now().minus(retention.getRetention())));
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Deletes the rows of {@code target} whose retention column is before {@code cutoff}.
+     *
+     * @author HahnGuil
+     * @param target the table to purge
+     * @param cutoff rows older than this instant are deleted
+     * @return the number of rows deleted
+     */
+    public long purge(Target target, LocalDateTime cutoff) {
+        var tableMeters = meters.get(target);
+        var batchSize = purgeProperties.getBatchSize();
+        var sample = Timer.start();
+        long total = 0;
+        int batches = 0;
+        int deleted;
+        do {
+            JobLease.checkHeld();
+            deleted = jdbcTemplate.update(target.deleteSql, Timestamp.valueOf(cutoff), batchSize);
+            total += deleted;
+            batches++;
+            tableMeters.rows().increment(deleted);
+            tableMeters.batches().increment();
+        } while (deleted == batchSize && batches < purgeProperties.getMaxBatchesPerRun() && pause());
+        sample.stop(tableMeters.duration());
+
+        log.info("RetentionPurgeEngine: Purged {} rows from {} in {} batches at: {}", total, target.key(), batches, DateTimeConverter.formatInstantNow());
+        return total;
+    }
+
+    private boolean pause() {
+        var pause = purgeProperties.getPauseBetweenBatches();
+        if (pause.isZero() || pause.isNegative()) {
+            return true;
+        }
+        try {
+            Thread.sleep(pause);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private record Meters(Counter rows, Counter batches, Timer duration) { }
+}
@@ -0,0 +1,42 @@
+package br.com.hahn.auth.infrastructure.persistence;
+
+import br.com.hahn.auth.util.DateTimeConverter;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Database settings of the virtual-thread mode, enabled by {@code spring.threads.virtual.enabled}.
+ *
+ * <p>Each Hikari pool is wrapped in a {@link ConnectionLimitingDataSource} sized to its
+ * {@code maximumPoolSize}, so threads queue for a permit before touching the pool.</p>
+ *
+ * @author HahnGuil
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@Slf4j
+public class VirtualThreadDataSourceConfig {
+
+    @Bean
+    public static BeanPostProcessor connectionLimitingDataSourcePostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikari) {
+                    log.info("VirtualThreadDataSourceConfig: Limiting data source: {} to {} concurrent connections at: {}", beanName, hikari.getMaximumPoolSize(), DateTimeConverter.formatInstantNow());
+                    return new ConnectionLimitingDataSource(hikari, hikari.getPoolName() == null ? beanName : hikari.getPoolName(), hikari.getMaximumPoolSize(),
+                            Duration.ofMillis(hikari.getConnectionTimeout()), meterRegistry.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,71 @@
+package br.com.hahn.auth.infrastructure.persistence;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Splits the connections to the primary database into two Hikari pools, so background jobs can
+ * never take the connections that serve requests.
+ *
+ * <p>The {@code interactive} pool is configured under {@code spring.datasource.hikari}. The
+ * {@code background} pool connects to the same database with its own settings under
+ * {@code datasource.background.hikari}, and each of its statements is cancelled after
+ * {@code datasource.background.statement-timeout}. {@link WorkloadRoutingDataSource} picks the
+ * pool per connection; both pools publish the {@code hikaricp.*} meters tagged with their pool
+ * name.</p>
+ *
+ * <p>Every scheduled job has its own single-thread scheduler and holds at most one connection
+ * at a time, so the background pool is sized for all of them running together; see
+ * {@code datasource.background.hikari} in {@code application.yml}. The lease heartbeat is kept
+ * off it, see {@code SchedulingConfig}.</p>
+ *
+ * <p>The application DataSource is the {@code workloadDataSource}, unless
+ * {@link ReadReplicaDataSourceConfig} puts the read replica in front of it.</p>
+ *
+ * @author HahnGuil
+ */
+@Configuration
+public class WorkloadDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource interactiveDataSource(DataSourceProperties dataSourceProperties) {
+        var dataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("interactive");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("datasource.background.hikari")
+    public HikariDataSource backgroundDataSource(DataSourceProperties dataSourceProperties,
+                                                 @Value("${datasource.background.statement-timeout:PT5M}") Duration statementTimeout) {
+        var dataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("background");
+        dataSource.setMaximumPoolSize(12);
+        dataSource.addDataSourceProperty("options", "-c statement_timeout=" + statementTimeout.toMillis());
+        return dataSource;
+    }
+
+    @Bean
+    public DataSource workloadDataSource(@Qualifier("interactiveDataSource") DataSource interactiveDataSource,
+                                         @Qualifier("backgroundDataSource") DataSource backgroundDataSource) {
+        return new WorkloadRoutingDataSource(interactiveDataSource, backgroundDataSource);
+    }
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "datasource.replica.enabled", havingValue = "false", matchIfMissing = true)
+    public DataSource dataSource(@Qualifier("workloadDataSource") DataSource workloadDataSource) {
+        return workloadDataSource;
+    }
+}
@@ -0,0 +1,32 @@
+package br.com.hahn.auth.infrastructure.persistence;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * DataSource that takes connections from the background pool for {@link BackgroundWork} and
+ * from the interactive pool for everything else.
+ *
+ * <p>The pool is chosen when the connection is requested, which for a transaction is when it
+ * begins, so a job keeps its background connection for the whole transaction.</p>
+ *
+ * @author HahnGuil
+ */
+public class WorkloadRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Workload { INTERACTIVE, BACKGROUND }
+
+    public WorkloadRoutingDataSource(DataSource interactive, DataSource background) {
+        setTargetDataSources(Map.of(Workload.INTERACTIVE, interactive, Workload.BACKGROUND, background));
+        setDefaultTargetDataSource(interactive);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return BackgroundWork.isActive() ? Workload.BACKGROUND : Workload.INTERACTIVE;
+    }
+}
@@ -0,0 +1,51 @@
+package br.com.hahn.auth.infrastructure.persistence;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Primary DataSource that reports to the {@link ReplicaLagMonitor} every time a read-write
+ * connection is closed, that is once its transaction has committed or rolled back. The write is
+ * recorded for the caller of the current request only, see {@link ReadYourWrites}. Writes of
+ * {@link BackgroundWork} are not recorded: requests do not need to read them back right away.
+ *
+ * @author HahnGuil
+ */
+class WriteRecordingDataSource extends DelegatingDataSource {
+
+    private final ReplicaLagMonitor replicaLagMonitor;
+
+    WriteRecordingDataSource(DataSource targetDataSource, ReplicaLagMonitor replicaLagMonitor) {
+        super(targetDataSource);
+        this.replicaLagMonitor = replicaLagMonitor;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return recordingOnClose(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return recordingOnClose(super.getConnection(username, password));
+    }
+
+    private Connection recordingOnClose(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, (_, method, args) -> {
+            try {
+                return method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            } finally {
+                if ("close".equals(method.getName()) && !BackgroundWork.isActive()) {
+                    replicaLagMonitor.recordWrite();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,132 @@
+package br.com.hahn.auth.infrastructure.resilience;
+
+import br.com.hahn.auth.util.DateTimeConverter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Minimal consecutive-failure circuit breaker guarding calls to a remote dependency.
+ *
+ * <p>The breaker opens after {@code failureThreshold} consecutive failures and rejects calls for
+ * {@code openDuration}. After that a single trial call is let through (half open): a success
+ * closes the breaker, a failure opens it again for another {@code openDuration}.</p>
+ *
+ * <p>The current state is published by the {@code circuit.breaker.state} gauge, tagged with the
+ * breaker name: 0 closed, 1 half open, 2 open.</p>
+ *
+ * @author HahnGuil
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        HALF_OPEN,
+        OPEN
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final Clock clock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private Instant openedAt;
+    private boolean trialInFlight;
+
+    public CircuitBreaker(String name, int failureThreshold, Duration openDuration, MeterRegistry meterRegistry) {
+        this(name, failureThreshold, openDuration, meterRegistry, Clock.systemUTC());
+    }
+
+    CircuitBreaker(String name, int failureThreshold, Duration openDuration, MeterRegistry meterRegistry, Clock clock) {
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+        this.clock = clock;
+        Gauge.builder("circuit.breaker.state", this, breaker -> breaker.getState().ordinal())
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Tells whether a call may be attempted now. When the open period is over, the first caller
+     * gets the half-open trial call and the others keep being rejected until it completes.
+     *
+     * @author HahnGuil
+     * @return true if the call may proceed
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN && !clock.instant().isBefore(openedAt.plus(openDuration))) {
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> false;
+            case HALF_OPEN -> {
+                if (trialInFlight) {
+                    yield false;
+                }
+                trialInFlight = true;
+                yield true;
+            }
+        };
+    }
+
+    /**
+     * Records a successful call and closes the breaker.
+     *
+     * @author HahnGuil
+     */
+    public synchronized void onSuccess() {
+        if (state != State.CLOSED) {
+            log.info("CircuitBreaker: Closing circuit breaker: {} at: {}", name, DateTimeConverter.formatInstantNow());
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        trialInFlight = false;
+    }
+
+    /**
+     * Records a failed call, opening the breaker once the failure threshold is reached or when
+     * the half-open trial call fails.
+     *
+     * @author HahnGuil
+     */
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            if (state != State.OPEN) {
+                log.warn("CircuitBreaker: Opening circuit breaker: {} after {} consecutive failures at: {}", name, consecutiveFailures, DateTimeConverter.formatInstantNow());
+            }
+            state = State.OPEN;
+            openedAt = clock.instant();
+            trialInFlight = false;
+        }
+    }
+
+    /**
+     * Tells whether the breaker is open and its open period is not over, without taking the
+     * half-open trial call.
+     *
+     * @author HahnGuil
+     * @return true while calls are rejected
+     */
+    public synchronized boolean isOpen() {
+        return state == State.OPEN && clock.instant().isBefore(openedAt.plus(openDuration));
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
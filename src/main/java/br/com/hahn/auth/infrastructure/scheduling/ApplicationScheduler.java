@@ -1,140 +1,137 @@
 package br.com.hahn.auth.infrastructure.scheduling;
 
-import br.com.hahn.auth.application.service.PasswordService;
-import br.com.hahn.auth.application.service.TokenLogService;
+import br.com.hahn.auth.application.service.PasswordExpiryCampaignService;
 import br.com.hahn.auth.application.service.UserService;
-import br.com.hahn.auth.domain.enums.TypeInvalidation;
-import br.com.hahn.auth.domain.enums.UserRole;
-import br.com.hahn.auth.domain.model.TokenLog;
-import br.com.hahn.auth.domain.model.User;
-import br.com.hahn.auth.infrastructure.service.EmailService;
+import br.com.hahn.auth.infrastructure.archive.AuditArchiver;
+import br.com.hahn.auth.infrastructure.persistence.RetentionPurgeEngine;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
-import reactor.core.publisher.SignalType;
 
 import java.time.Instant;
-import java.time.LocalDateTime;
-import java.util.List;
 
+/**
+ * Runs the periodic maintenance jobs of the service.
+ * <p>
+ * Every job runs under a lease of SchedulerLeaseManager, so with several replicas each run
+ * happens on a single instance. The user scans are sharded by user id, and with
+ * scheduler.lease.shards set the replicas split their shards between them. Each job runs on
+ * its own scheduler declared in SchedulingConfig, so a long run never delays the other jobs.
+ *
+ * @author HahnGuil
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class ApplicationScheduler {
 
-    private final EmailService emailService;
+    private final PasswordExpiryCampaignService passwordExpiryCampaignService;
+    private final TokenExpiryWheel tokenExpiryWheel;
+    private final RetentionPurgeEngine retentionPurgeEngine;
+    private final AuditArchiver auditArchiver;
     private final UserService userService;
-    private final TokenLogService tokenLogService;
-    private final PasswordService passwordService;
+    private final SchedulerLeaseManager schedulerLeaseManager;
 
     /**
-     * Cleans up expired password reset and recover codes.
+     * Purges expired recover codes, stale sessions, old invalidated tokens and delivered or
+     * dead-lettered outbox emails.
      * <p>
      * This scheduled method runs periodically and performs the following steps:
      * - Logs the start of the routine with the current timestamp.
-     * - Deletes all expired reset/recover codes older than the current time
-     *   by invoking PasswordService#deleteByExpirationDateBefore.
+     * - Deletes the rows past their retention from reset_password, logged_now,
+     *   invalidated_token and email_outbox by invoking RetentionPurgeEngine#purgeAll.
      * - Logs the number of deleted records and the completion timestamp.
      * <p>
-     * Executed within a transactional context to ensure database integrity.
+     * Rows are deleted in bounded batches, each in its own transaction.
      *
      * @author HahnGuil
      */
-    @Scheduled(cron = "0 */5 * * * *")
-    @Transactional
-    public void cleanExpiredResetRecoverCodes(){
-        log.info("ApplicationScheduler: Starting routine to delete expired Recover Code at: {}", Instant.now());
-        int deleteCount = passwordService.deleteByExpirationDateBefore(LocalDateTime.now());
-        log.info("ApplicationScheduler: Routine completed: Records deleted: {} at: {}", deleteCount, Instant.now());
+    @Scheduled(cron = "${purge.cron:0 */5 * * * *}", scheduler = "purgeScheduler")
+    public void purgeExpiredRecords(){
+        schedulerLeaseManager.runExclusive("purge-expired-records", () -> {
+            log.info("ApplicationScheduler: Starting routine to purge expired records at: {}", Instant.now());
+            var deleted = retentionPurgeEngine.purgeAll();
+            log.info("ApplicationScheduler: Routine completed: Records deleted: {} at: {}", deleted, Instant.now());
+        });
     }
 
     /**
-     * Sends notification emails to users whose passwords are about to expire.
+     * Archives old token logs and token invalidations.
      * <p>
-     * This scheduled method runs daily at midnight and performs the following steps:
-     * - Logs the start of the notification routine with the current timestamp.
-     * - Iterates through a predefined set of warning days (20, 15, 10, 5).
-     * - For each warning day, retrieves the list of users whose passwords will expire in that number of days.
-     * - Sends an email notification to each user with the expiration details, if the user has a normal role.
-     * - Logs success or failure for each email sent.
-     * - Logs the completion of the notification routine.
+     * This scheduled method runs daily and delegates to AuditArchiver#archive, which streams the
+     * rows past the archive retention into compressed files and then deletes them. It does
+     * nothing unless archive.enabled is set.
+     *
+     * @author HahnGuil
+     */
+    @Scheduled(cron = "${archive.cron:0 30 3 * * *}", scheduler = "archiveScheduler")
+    public void archiveAuditHistory(){
+        schedulerLeaseManager.runExclusive("archive-audit-history", () -> {
+            log.info("ApplicationScheduler: Starting routine to archive audit history at: {}", Instant.now());
+            var archived = auditArchiver.archive();
+            log.info("ApplicationScheduler: Routine completed: Records archived: {} at: {}", archived, Instant.now());
+        });
+    }
+
+    /**
+     * Sends notification emails to users whose passwords are about to expire.
      * <p>
-     * Reactive programming is used to handle email sending, with error handling and completion logging.
+     * This scheduled method runs daily at midnight and delegates to
+     * PasswordExpiryCampaignService#run, which streams the users inside the warning window in
+     * chunks and sends each of them at most one email per warning threshold. The run is split
+     * into the shards configured for password-expiry-campaign.
      *
      * @author HahnGuil
      */
-    @Scheduled(cron = "0 0 0 * * *")
+    @Scheduled(cron = "0 0 0 * * *", scheduler = "passwordExpiryScheduler")
     public void alertExpiredUser() {
-        log.info("ApplicationScheduler: Sending notification email to users with expiring passwords at :{}", Instant.now());
-
-        int[] warningDays = {20, 15, 10, 5};
-        for (int days : warningDays) {
-            List<User> usersToWarn = userService.getUsersWithPasswordExpiringInDays(days);
-            usersToWarn.forEach(user -> {
-                if(user.getRole() == UserRole.USER_NORMAL){
-                    String subject = "Your password will expire soon";
-                    String body = String.format("Hello %s, your password will expire in %d days. Please update it.", user.getFirstName(), days);
-                    emailService.sendEmail(user.getEmail(), subject, body)
-                            .doOnError(_ -> log.error("ApplicationScheduler: Failed to send email to {}: at: {}", user.getEmail(), Instant.now()))
-                            .doFinally(signal -> {
-                                if (signal == SignalType.ON_COMPLETE) {
-                                    log.info("ApplicationScheduler: Email sent to {} at: {}", user.getEmail(), Instant.now());
-                                }
-                            })
-                            .subscribe();
-                }
-            });
-        }
-        log.info("ApplicationScheduler: Notification routine completed at: {}", Instant.now());
+        schedulerLeaseManager.runSharded("password-expiry-campaign", shard -> {
+            log.info("ApplicationScheduler: Sending notification email to users with expiring passwords, shard: {} at :{}", shard, Instant.now());
+            int sentCount = passwordExpiryCampaignService.run(shard);
+            log.info("ApplicationScheduler: Notification routine completed, emails sent: {} at: {}", sentCount, Instant.now());
+        });
     }
 
     /**
      * Blocks users based on specific criteria.
      * <p>
-     * This scheduled method runs daily at midnight and performs the following steps:
+     * This scheduled method is disabled by default, as automatic blocking is not turned on yet.
+     * It only runs when block-users.cron is set to a cron expression, and then performs the
+     * following steps:
      * - Logs the start of the user blocking routine.
-     * - Invokes UserService#findUserToBlock to identify and block users who meet the criteria.
+     * - Invokes UserService#findUserToBlock to block the users whose password expired.
      * <p>
-     * Executed within a transactional context to ensure database integrity.
+     * Each batch is blocked in its own transaction, so the routine never holds a long
+     * transaction over the users table. The run is split into the shards configured for
+     * block-users.
      *
      * @author HahnGuil
      */
-    @Scheduled(cron = "0 0 0 * * *")
-//    @Transactional
-//    public void blockUser(){
-//        log.info("ApplicationScheduler: Start block user routine at: {}", Instant.now());
-//        userService.findUserToBlock();
-//    }
+    @Scheduled(cron = "${block-users.cron:-}", scheduler = "blockUsersScheduler")
+    public void blockUser(){
+        schedulerLeaseManager.runSharded("block-users", shard -> {
+            log.info("ApplicationScheduler: Start block user routine, shard: {} at: {}", shard, Instant.now());
+            long blockedCount = userService.findUserToBlock(shard);
+            log.info("ApplicationScheduler: Block user routine completed, users blocked: {} at: {}", blockedCount, Instant.now());
+        });
+    }
 
     /**
-     * Invalidates expired tokens.
-     * <p>
-     * This scheduled method runs every minute and performs the following steps:
-     * - Logs the start of the token invalidation routine with the current timestamp.
-     * - Calculates the expiration time as 15 minutes before the current time.
-     * - Retrieves a list of expired active tokens using TokenLogService#findExpiredActiveTokens.
-     * - Iterates through the expired tokens and deactivates each one by invoking
-     *   TokenLogService#deactivateActiveToken with the appropriate invalidation type.
-     * - Logs the invalidation of each token and the associated user ID.
-     * - Logs the completion of the token invalidation routine.
+     * Deactivates user tokens that outlived their lifetime but are still active.
      * <p>
-     * Executed within a transactional context to ensure database integrity.
+     * Tokens are expired on time by TokenExpiryWheel. This scheduled method is only a coarse
+     * safety net for the tokens the wheel missed, such as those of a failed batch, and delegates
+     * to TokenExpiryWheel#expireOverdue.
      *
      * @author HahnGuil
      */
-    @Scheduled(cron = "0 */1 * * * *")
-    @Transactional
+    @Scheduled(cron = "${token.expiry.safety-net-cron:0 */10 * * * *}", scheduler = "tokenExpiryScheduler")
     public void invalidTokenScheduler() {
-        log.info("ApplicationScheduler: Starting routine to invalidate expired tokens at: {}", Instant.now());
-        LocalDateTime expirationTime = LocalDateTime.now().minusMinutes(15);
-        List<TokenLog> expiredTokens = tokenLogService.findExpiredActiveTokens(expirationTime);
-
-        for (TokenLog tokenLog : expiredTokens) {
-            tokenLogService.deactivateActiveUserToken(tokenLog.getUserId(), TypeInvalidation.EXPIRATION_TIME);
-            log.info("ApplicationScheduler: Expired token invalidated for user.: {} at: {}", tokenLog.getUserId(), Instant.now()) ;
-        }
-        log.info("ApplicationScheduler: Routine for invalidating expired tokens completed at: {}", Instant.now());
+        schedulerLeaseManager.runExclusive("expire-overdue-tokens", () -> {
+            log.info("ApplicationScheduler: Starting routine to invalidate expired tokens at: {}", Instant.now());
+            int expiredCount = tokenExpiryWheel.expireOverdue();
+            log.info("ApplicationScheduler: Routine for invalidating expired tokens completed, tokens invalidated: {} at: {}", expiredCount, Instant.now());
+        });
     }
-}
\ No newline at end of file
+}
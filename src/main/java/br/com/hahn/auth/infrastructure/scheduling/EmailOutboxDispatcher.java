@@ -0,0 +1,109 @@
+package br.com.hahn.auth.infrastructure.scheduling;
+
+import br.com.hahn.auth.application.service.EmailOutboxService;
+import br.com.hahn.auth.domain.enums.EmailOutboxStatus;
+import br.com.hahn.auth.domain.model.EmailOutbox;
+import br.com.hahn.auth.infrastructure.service.EmailService;
+import br.com.hahn.auth.util.DateTimeConverter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Drains the email outbox in the background.
+ *
+ * <p>Each run claims due emails in batches and sends them through {@link EmailService} with at
+ * most {@code email.outbox.concurrency} requests in flight. Delivery results are recorded after
+ * the whole batch completes: successes are marked as sent and failures are rescheduled with
+ * exponential backoff or dead-lettered by {@link EmailOutboxService}. A run keeps claiming
+ * batches while full batches come back, so a backlog built during a provider outage is drained
+ * without waiting for the next poll.</p>
+ *
+ * <p>Outcomes are counted by the {@code email.outbox.deliveries} meter, tagged
+ * {@code result=sent}, {@code result=retry} and {@code result=dead}.</p>
+ *
+ * @author HahnGuil
+ */
+@Component
+@Slf4j
+public class EmailOutboxDispatcher {
+
+    private final EmailOutboxService emailOutboxService;
+    private final EmailService emailService;
+    private final int batchSize;
+    private final int concurrency;
+    private final Duration sendTimeout;
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter dead;
+
+    public EmailOutboxDispatcher(EmailOutboxService emailOutboxService,
+                                 EmailService emailService,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${email.outbox.batch-size:50}") int batchSize,
+                                 @Value("${email.outbox.concurrency:4}") int concurrency,
+                                 @Value("${email.outbox.send-timeout:PT10S}") Duration sendTimeout) {
+        this.emailOutboxService = emailOutboxService;
+        this.emailService = emailService;
+        this.batchSize = batchSize;
+        this.concurrency = concurrency;
+        this.sendTimeout = sendTimeout;
+        this.sent = Counter.builder("email.outbox.deliveries").tag("result", "sent").register(meterRegistry);
+        this.retried = Counter.builder("email.outbox.deliveries").tag("result", "retry").register(meterRegistry);
+        this.dead = Counter.builder("email.outbox.deliveries").tag("result", "dead").register(meterRegistry);
+    }
+
+    /**
+     * Claims and delivers due emails until a batch comes back smaller than the batch size.
+     *
+     * @author HahnGuil
+     */
+    @Scheduled(fixedDelayString = "${email.outbox.poll-interval:PT5S}", scheduler = "emailOutboxScheduler")
+    public void dispatch() {
+        List<EmailOutbox> batch;
+        do {
+            batch = emailOutboxService.claimDueBatch(batchSize);
+            if (batch.isEmpty()) {
+                return;
+            }
+            log.info("EmailOutboxDispatcher: Delivering {} emails at: {}", batch.size(), DateTimeConverter.formatInstantNow());
+            deliver(batch).forEach(this::record);
+        } while (batch.size() == batchSize);
+    }
+
+    private List<Delivery> deliver(List<EmailOutbox> batch) {
+        return Flux.fromIterable(batch)
+                .flatMap(email -> emailService.sendEmail(email.getRecipient(), email.getSubject(), email.getHtmlBody())
+                        .timeout(sendTimeout)
+                        .thenReturn(new Delivery(email.getId(), null))
+                        .onErrorResume(e -> Mono.just(new Delivery(email.getId(), e.toString()))), concurrency)
+                .collectList()
+                .blockOptional()
+                .orElse(List.of());
+    }
+
+    private void record(Delivery delivery) {
+        if (delivery.error() == null) {
+            emailOutboxService.markSent(delivery.id());
+            sent.increment();
+            return;
+        }
+
+        log.error("EmailOutboxDispatcher: Fail to send email: {}: {} at: {}", delivery.id(), delivery.error(), DateTimeConverter.formatInstantNow());
+        if (emailOutboxService.markFailed(delivery.id(), delivery.error()) == EmailOutboxStatus.DEAD) {
+            dead.increment();
+        } else {
+            retried.increment();
+        }
+    }
+
+    private record Delivery(Long id, String error) { }
+}
@@ -0,0 +1,69 @@
+package br.com.hahn.auth.infrastructure.scheduling;
+
+/**
+ * Lease held by the job running on the current thread, see {@link SchedulerLeaseManager}.
+ *
+ * <p>The lease is held until the time its last renewal extended it to, and is lost at once when
+ * a renewal finds it taken over by another instance. Jobs that work in batches call
+ * {@link #checkHeld()} before each batch, so an instance that lost its lease, for example after
+ * a long pause, stops instead of repeating the work of the instance that took it over. Outside of
+ * a leased job the check does nothing.</p>
+ *
+ * @author HahnGuil
+ */
+public final class JobLease {
+
+    private static final ThreadLocal<JobLease> CURRENT = new ThreadLocal<>();
+
+    private final String name;
+    private volatile long validUntilNanos;
+    private volatile boolean lost;
+
+    JobLease(String name, long validUntilNanos) {
+        this.name = name;
+        this.validUntilNanos = validUntilNanos;
+    }
+
+    /**
+     * Stops the current job when its lease expired or was taken over.
+     *
+     * @author HahnGuil
+     * @throws IllegalStateException if the job running on this thread no longer holds its lease
+     */
+    public static void checkHeld() {
+        var lease = CURRENT.get();
+        if (lease != null && !lease.isHeld()) {
+            throw new IllegalStateException("Lease " + lease.name + " is no longer held, stopping the job");
+        }
+    }
+
+    String name() {
+        return name;
+    }
+
+    void run(Runnable task) {
+        var previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            task.run();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    void renewed(long validUntilNanos) {
+        this.validUntilNanos = validUntilNanos;
+    }
+
+    void markLost() {
+        lost = true;
+    }
+
+    boolean isHeld() {
+        return !lost && System.nanoTime() - validUntilNanos < 0;
+    }
+}
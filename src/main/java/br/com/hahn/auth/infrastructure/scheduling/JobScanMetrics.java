@@ -0,0 +1,124 @@
+package br.com.hahn.auth.infrastructure.scheduling;
+
+import br.com.hahn.auth.util.DateTimeConverter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records the throughput and memory footprint of the batch jobs that scan the user base.
+ *
+ * <p>A job calls {@link #start(String)} when it begins, {@link Scan#add(int)} for every chunk it
+ * processes and {@link Scan#finish()} at the end. Each finished run publishes, tagged with
+ * {@code job}:</p>
+ * <ul>
+ *   <li>{@code scheduler.scan.rows}: rows processed, accumulated across runs;</li>
+ *   <li>{@code scheduler.scan.rows.per.second}: throughput of the last run;</li>
+ *   <li>{@code scheduler.scan.heap.peak}: peak heap usage, in bytes, during the last run.</li>
+ * </ul>
+ *
+ * <p>The heap peak is read from the peak usage of the heap memory pools, which is reset when a
+ * run starts. It covers the whole JVM, so it includes the allocations of requests served while
+ * the job runs; a job that loads its whole result set still shows up as a step in this gauge.</p>
+ *
+ * @author HahnGuil
+ */
+@Component
+@Slf4j
+public class JobScanMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, JobState> jobs = new ConcurrentHashMap<>();
+    private final List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+            .filter(pool -> pool.getType() == MemoryType.HEAP)
+            .toList();
+
+    public JobScanMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Starts recording a run of the given job.
+     *
+     * @author HahnGuil
+     * @param job the job name, used as the {@code job} tag
+     * @return the run to report chunks to
+     */
+    public Scan start(String job) {
+        var state = jobs.computeIfAbsent(job, this::register);
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        return new Scan(job, state, System.nanoTime());
+    }
+
+    private JobState register(String job) {
+        var state = new JobState(Counter.builder("scheduler.scan.rows").tag("job", job).register(meterRegistry));
+        Gauge.builder("scheduler.scan.rows.per.second", state, s -> s.rowsPerSecond).tag("job", job).register(meterRegistry);
+        Gauge.builder("scheduler.scan.heap.peak", state, s -> s.heapPeakBytes).tag("job", job).baseUnit("bytes").register(meterRegistry);
+        return state;
+    }
+
+    private long heapPeak() {
+        return heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+    }
+
+    private static final class JobState {
+        private final Counter rows;
+        private volatile double rowsPerSecond;
+        private volatile double heapPeakBytes;
+
+        private JobState(Counter rows) {
+            this.rows = rows;
+        }
+    }
+
+    /**
+     * A single run of a job.
+     */
+    public final class Scan {
+
+        private final String job;
+        private final JobState state;
+        private final long startedAt;
+        private long rows;
+
+        private Scan(String job, JobState state, long startedAt) {
+            this.job = job;
+            this.state = state;
+            this.startedAt = startedAt;
+        }
+
+        /**
+         * Counts the rows of a processed chunk.
+         *
+         * @author HahnGuil
+         * @param chunkRows the number of rows in the chunk
+         */
+        public void add(int chunkRows) {
+            rows += chunkRows;
+            state.rows.increment(chunkRows);
+        }
+
+        /**
+         * Ends the run and publishes its throughput and heap peak.
+         *
+         * @author HahnGuil
+         * @return the number of rows processed by the run
+         */
+        public long finish() {
+            var seconds = Math.max(System.nanoTime() - startedAt, 1L) / 1_000_000_000d;
+            state.rowsPerSecond = rows / seconds;
+            state.heapPeakBytes = heapPeak();
+            log.info("JobScanMetrics: Job: {} processed {} rows at {} rows/s, heap peak: {} bytes at: {}", job, rows, Math.round(state.rowsPerSecond), (long) state.heapPeakBytes, DateTimeConverter.formatInstantNow());
+            return rows;
+        }
+    }
+}
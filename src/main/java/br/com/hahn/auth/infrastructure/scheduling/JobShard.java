@@ -0,0 +1,17 @@
+package br.com.hahn.auth.infrastructure.scheduling;
+
+/**
+ * A slice of the users processed by a sharded job: the users whose id hashes to {@code index}
+ * modulo {@code count}.
+ *
+ * @author HahnGuil
+ * @param index the shard processed by this run, from {@code 0} to {@code count - 1}
+ * @param count the number of shards the job is split into
+ */
+public record JobShard(int index, int count) {
+
+    /**
+     * The single shard of a job that is not split.
+     */
+    public static final JobShard ALL = new JobShard(0, 1);
+}
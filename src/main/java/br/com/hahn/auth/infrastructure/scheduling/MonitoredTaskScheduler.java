@@ -0,0 +1,175 @@
+package br.com.hahn.auth.infrastructure.scheduling;
+
+import br.com.hahn.auth.infrastructure.persistence.BackgroundWork;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Task scheduler that records how every scheduled job runs.
+ *
+ * <p>Runs of a job never overlap, so the wrapper keeps no guard of its own: a trigger or fixed
+ * delay task is only rescheduled by Spring once its run returns, and a fixed rate task is only
+ * run again by the underlying {@code ScheduledThreadPoolExecutor} once the previous run ended,
+ * starting late instead. The late start shows up in {@code scheduler.job.lag}.</p>
+ *
+ * <p>Every run is {@link BackgroundWork}, so it uses the background connection pool, unless
+ * {@link #setBackgroundWork(boolean)} turned it off. Runs are
+ * reported under the {@code job} tag, which is the {@code Class.method} of the scheduled
+ * method:</p>
+ * <ul>
+ *   <li>{@code scheduler.job.runs}: runs, tagged {@code outcome=success} or
+ *   {@code failure};</li>
+ *   <li>{@code scheduler.job.duration}: run duration, tagged with the same outcome;</li>
+ *   <li>{@code scheduler.job.lag}: delay between the time the run was due and the time it
+ *   started.</li>
+ * </ul>
+ * <p>While a run executes, {@link #currentFireTime()} returns the time it was scheduled for, which
+ * is the same on every instance for a cron job.</p>
+ *
+ * @author HahnGuil
+ */
+public class MonitoredTaskScheduler extends ThreadPoolTaskScheduler {
+
+    private static final ThreadLocal<Instant> FIRE_TIME = new ThreadLocal<>();
+
+    private final transient MeterRegistry meterRegistry;
+    private final transient Clock clock;
+    private boolean backgroundWork = true;
+
+    public MonitoredTaskScheduler(MeterRegistry meterRegistry) {
+        this(meterRegistry, Clock.systemUTC());
+    }
+
+    MonitoredTaskScheduler(MeterRegistry meterRegistry, Clock clock) {
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+    }
+
+    /**
+     * Sets whether runs are {@link BackgroundWork}. Short tasks that must not wait behind the jobs
+     * for a background connection turn it off and use the pool serving requests.
+     *
+     * @author HahnGuil
+     * @param backgroundWork false to run outside of {@link BackgroundWork}
+     */
+    public void setBackgroundWork(boolean backgroundWork) {
+        this.backgroundWork = backgroundWork;
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable task, Trigger trigger) {
+        var job = new MonitoredJob(task, null, null, null);
+        return super.schedule(job, triggerContext -> {
+            var next = trigger.nextExecution(triggerContext);
+            job.expectedStart = next;
+            return next;
+        });
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable task, Instant startTime) {
+        return super.schedule(new MonitoredJob(task, startTime, null, null), startTime);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, Instant startTime, Duration period) {
+        return super.scheduleAtFixedRate(new MonitoredJob(task, startTime, period, null), startTime, period);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, Duration period) {
+        return super.scheduleAtFixedRate(new MonitoredJob(task, clock.instant(), period, null), period);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, Instant startTime, Duration delay) {
+        return super.scheduleWithFixedDelay(new MonitoredJob(task, startTime, null, delay), startTime, delay);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, Duration delay) {
+        return super.scheduleWithFixedDelay(new MonitoredJob(task, clock.instant(), null, delay), delay);
+    }
+
+    /**
+     * Returns the time the run executing on the current thread was scheduled for, or
+     * {@code null} outside of a scheduled run.
+     */
+    static Instant currentFireTime() {
+        return FIRE_TIME.get();
+    }
+
+    /**
+     * Returns the name a scheduled method is reported under: the simple class name and the
+     * method name, taken from the {@code toString} of the runnable Spring schedules.
+     */
+    static String jobName(Runnable task) {
+        var name = task.toString();
+        var method = name.lastIndexOf('.');
+        var type = method > 0 ? name.lastIndexOf('.', method - 1) : -1;
+        return name.substring(type + 1);
+    }
+
+    final class MonitoredJob implements Runnable {
+
+        private final Runnable task;
+        private final String name;
+        private final Duration fixedRate;
+        private final Duration fixedDelay;
+        private final Timer lag;
+        private volatile Instant expectedStart;
+
+        MonitoredJob(Runnable task, Instant expectedStart, Duration fixedRate, Duration fixedDelay) {
+            this.task = task;
+            this.name = jobName(task);
+            this.expectedStart = expectedStart;
+            this.fixedRate = fixedRate;
+            this.fixedDelay = fixedDelay;
+            this.lag = Timer.builder("scheduler.job.lag").tag("job", name).register(meterRegistry);
+        }
+
+        @Override
+        public void run() {
+            var startedAt = clock.instant();
+            var fireTime = expectedStart;
+            if (expectedStart != null) {
+                var delay = Duration.between(expectedStart, startedAt);
+                lag.record(delay.isNegative() ? Duration.ZERO : delay);
+                if (fixedRate != null) {
+                    expectedStart = expectedStart.plus(fixedRate);
+                }
+            }
+
+            var outcome = "failure";
+            var sample = Timer.start();
+            FIRE_TIME.set(fireTime);
+            try {
+                if (backgroundWork) {
+                    BackgroundWork.run(task);
+                } else {
+                    task.run();
+                }
+                outcome = "success";
+            } finally {
+                FIRE_TIME.remove();
+                sample.stop(Timer.builder("scheduler.job.duration").tag("job", name).tag("outcome", outcome).register(meterRegistry));
+                meterRegistry.counter("scheduler.job.runs", "job", name, "outcome", outcome).increment();
+                if (fixedDelay != null) {
+                    expectedStart = clock.instant().plus(fixedDelay);
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return task.toString();
+        }
+    }
+}
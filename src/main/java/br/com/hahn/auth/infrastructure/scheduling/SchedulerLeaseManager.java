@@ -0,0 +1,227 @@
+package br.com.hahn.auth.infrastructure.scheduling;
+
+import br.com.hahn.auth.util.DateTimeConverter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Makes scheduled jobs run on a single instance at a time, using leases stored in
+ * {@code scheduler_lease}.
+ *
+ * <p>Before running, a job takes the lease of its name with a single upsert that only succeeds
+ * when no lease exists or the current one has lapsed. Each successful take increments the
+ * fencing token of the lease, and every renewal or release is conditioned on that token, so an
+ * instance that lost its lease, for example after a long pause, can no longer extend or release
+ * the lease of the instance that took it over. While the job runs, the lease is renewed every
+ * third of {@code scheduler.lease.ttl}, on the {@code leaseHeartbeatScheduler} of
+ * {@link SchedulingConfig}; a job that dies with its instance frees it once the ttl lapses. The job runs inside a {@link JobLease}: when a renewal finds the lease taken over,
+ * or the lease ran out without being renewed, the next {@link JobLease#checkHeld()} of the job
+ * stops it.</p>
+ *
+ * <p>When the job completes, it releases the lease and records the fire time of the trigger it
+ * ran for, as given by {@link MonitoredTaskScheduler#currentFireTime()}. A lease is only taken
+ * for a fire time later than the last completed one, so an instance whose trigger fires late,
+ * or that reaches a shard after another instance finished it, skips the run instead of
+ * repeating it, however late it is. A job that fails releases its lease without recording its
+ * fire time, so the next trigger runs it again.</p>
+ *
+ * <p>A sharded job takes one lease per shard. Every instance walks the shards and runs those
+ * whose lease it obtains, so the instances split the work between them.</p>
+ *
+ * <p>Lease attempts are counted by the {@code scheduler.lease.attempts} meter, tagged
+ * {@code job} and {@code result=acquired} or {@code result=skipped}; renewals that find the
+ * lease taken over are counted by {@code scheduler.lease.lost}.</p>
+ *
+ * @author HahnGuil
+ */
+@Component
+@Slf4j
+public class SchedulerLeaseManager {
+
+    private static final String ACQUIRE_SQL = """
+            INSERT INTO toxic_bet.scheduler_lease AS l (job_name, owner, lease_until, fencing_token)
+            VALUES (?, ?, now() + ? * INTERVAL '1 millisecond', 1)
+            ON CONFLICT (job_name) DO UPDATE
+               SET owner = EXCLUDED.owner,
+                   lease_until = EXCLUDED.lease_until,
+                   fencing_token = l.fencing_token + 1
+             WHERE l.lease_until <= now()
+               AND (l.last_completed_fire_time IS NULL OR l.last_completed_fire_time < ?)
+            RETURNING fencing_token
+            """;
+
+    private static final String EXTEND_SQL = """
+            UPDATE toxic_bet.scheduler_lease
+               SET lease_until = now() + ? * INTERVAL '1 millisecond'
+             WHERE job_name = ?
+               AND owner = ?
+               AND fencing_token = ?
+            """;
+
+    private static final String COMPLETE_SQL = """
+            UPDATE toxic_bet.scheduler_lease
+               SET lease_until = now(),
+                   last_completed_fire_time = ?
+             WHERE job_name = ?
+               AND owner = ?
+               AND fencing_token = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SchedulerLeaseProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final TaskScheduler heartbeatScheduler;
+    private final String owner;
+
+    public SchedulerLeaseManager(JdbcTemplate jdbcTemplate,
+                                 SchedulerLeaseProperties properties,
+                                 MeterRegistry meterRegistry,
+                                 @Qualifier("leaseHeartbeatScheduler") TaskScheduler heartbeatScheduler) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.heartbeatScheduler = heartbeatScheduler;
+        this.owner = properties.getOwner() == null || properties.getOwner().isBlank()
+                ? System.getenv().getOrDefault("HOSTNAME", "instance") + "-" + UUID.randomUUID().toString().substring(0, 8)
+                : properties.getOwner();
+    }
+
+    /**
+     * Runs {@code task} if this instance obtains the lease of {@code job}, and skips it otherwise.
+     *
+     * @author HahnGuil
+     * @param job the job name
+     * @param task the job body
+     * @return {@code true} if the task ran
+     */
+    public boolean runExclusive(String job, Runnable task) {
+        return runLeased(job, job, task);
+    }
+
+    /**
+     * Runs {@code task} once for every shard of {@code job} whose lease this instance obtains.
+     * The number of shards is read from {@code scheduler.lease.shards.<job>}.
+     *
+     * @author HahnGuil
+     * @param job the job name
+     * @param task the job body, called with the shard to process
+     * @return the number of shards run by this instance
+     */
+    public int runSharded(String job, Consumer<JobShard> task) {
+        int count = Math.max(properties.getShards().getOrDefault(job, 1), 1);
+        int ran = 0;
+        for (int index = 0; index < count; index++) {
+            var shard = new JobShard(index, count);
+            var leaseName = count == 1 ? job : job + "#" + index + "/" + count;
+            if (runLeased(job, leaseName, () -> task.accept(shard))) {
+                ran++;
+            }
+        }
+        return ran;
+    }
+
+    private boolean runLeased(String job, String leaseName, Runnable task) {
+        var ttl = properties.getTtl();
+        var fireTime = MonitoredTaskScheduler.currentFireTime();
+        var requestedAt = System.nanoTime();
+        var fencingToken = jdbcTemplate.query(ACQUIRE_SQL, (ResultSetExtractor<Long>) rs -> rs.next() ? rs.getLong(1) : null,
+                leaseName, owner, ttl.toMillis(), Timestamp.from(fireTime == null ? Instant.now() : fireTime));
+        if (fencingToken == null) {
+            log.info("SchedulerLeaseManager: Lease: {} is held by another instance or its run is done, skipping at: {}", leaseName, DateTimeConverter.formatInstantNow());
+            attempts(job, "skipped").increment();
+            return false;
+        }
+        attempts(job, "acquired").increment();
+
+        var lease = new JobLease(leaseName, requestedAt + ttl.toNanos());
+        var renewEvery = ttl.dividedBy(3);
+        var heartbeat = heartbeatScheduler.scheduleAtFixedRate(new Heartbeat(job, lease, fencingToken, ttl),
+                Instant.now().plus(renewEvery), renewEvery);
+        var completed = false;
+        try {
+            lease.run(task);
+            completed = true;
+            return true;
+        } finally {
+            heartbeat.cancel(false);
+            release(leaseName, fencingToken, completed ? fireTime : null);
+        }
+    }
+
+    private void release(String leaseName, long fencingToken, Instant completedFireTime) {
+        try {
+            if (completedFireTime == null) {
+                extend(leaseName, fencingToken, 0);
+            } else {
+                jdbcTemplate.update(COMPLETE_SQL, Timestamp.from(completedFireTime), leaseName, owner, fencingToken);
+            }
+        } catch (RuntimeException e) {
+            log.error("SchedulerLeaseManager: Fail to release lease: {}, it lapses after the ttl: {} at: {}", leaseName, e.toString(), DateTimeConverter.formatInstantNow());
+        }
+    }
+
+    private void renew(String job, JobLease lease, long fencingToken, Duration ttl) {
+        var leaseName = lease.name();
+        try {
+            var requestedAt = System.nanoTime();
+            if (extend(leaseName, fencingToken, ttl.toMillis()) == 0) {
+                log.error("SchedulerLeaseManager: Lease: {} was taken over by another instance, stopping the job at: {}", leaseName, DateTimeConverter.formatInstantNow());
+                meterRegistry.counter("scheduler.lease.lost", "job", job).increment();
+                lease.markLost();
+            } else {
+                lease.renewed(requestedAt + ttl.toNanos());
+            }
+        } catch (RuntimeException e) {
+            log.error("SchedulerLeaseManager: Fail to renew lease: {}: {} at: {}", leaseName, e.toString(), DateTimeConverter.formatInstantNow());
+        }
+    }
+
+    private int extend(String leaseName, long fencingToken, long millis) {
+        return jdbcTemplate.update(EXTEND_SQL, millis, leaseName, owner, fencingToken);
+    }
+
+    private Counter attempts(String job, String result) {
+        return meterRegistry.counter("scheduler.lease.attempts", "job", job, "result", result);
+    }
+
+    /**
+     * Renews the lease of a running job. Named after this method, so every heartbeat is reported
+     * under the same {@code job} tag by the {@link MonitoredTaskScheduler}.
+     */
+    private final class Heartbeat implements Runnable {
+
+        private final String job;
+        private final JobLease lease;
+        private final long fencingToken;
+        private final Duration ttl;
+
+        Heartbeat(String job, JobLease lease, long fencingToken, Duration ttl) {
+            this.job = job;
+            this.lease = lease;
+            this.fencingToken = fencingToken;
+            this.ttl = ttl;
+        }
+
+        @Override
+        public void run() {
+            renew(job, lease, fencingToken, ttl);
+        }
+
+        @Override
+        public String toString() {
+            return SchedulerLeaseManager.class.getName() + ".renew";
+        }
+    }
+}
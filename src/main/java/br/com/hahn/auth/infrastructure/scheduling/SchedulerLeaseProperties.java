@@ -0,0 +1,37 @@
+package br.com.hahn.auth.infrastructure.scheduling;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Settings of the scheduled job leases, under {@code scheduler.lease}.
+ *
+ * @author HahnGuil
+ */
+@Component
+@ConfigurationProperties(prefix = "scheduler.lease")
+@Getter
+@Setter
+public class SchedulerLeaseProperties {
+
+    /**
+     * Identifies this instance in the lease table; a host name and random suffix when blank.
+     */
+    private String owner;
+
+    /**
+     * How long a lease lasts without renewal. Running jobs renew it every third of this time.
+     */
+    private Duration ttl = Duration.ofMinutes(5);
+
+    /**
+     * Number of shards of each sharded job, by job name; jobs not listed run as a single shard.
+     */
+    private Map<String, Integer> shards = new HashMap<>();
+}
@@ -0,0 +1,134 @@
+package br.com.hahn.auth.infrastructure.scheduling;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Task schedulers of the scheduled jobs, one per job, so a slow or stuck job never delays the
+ * others.
+ *
+ * <p>Every {@code @Scheduled} method names its scheduler through the {@code scheduler}
+ * attribute. Jobs that mostly wait on the database or on HTTP calls run on a virtual thread;
+ * CPU bound or short jobs keep a platform thread. {@code taskScheduler} is the default for any
+ * job that names none. The token expiry wheel and the lease heartbeat of
+ * {@link SchedulerLeaseManager} are scheduled programmatically on their own schedulers. The
+ * heartbeat is not background work: a lease renewal must never wait behind the jobs for a
+ * background connection, so it takes its single short statement from the pool serving
+ * requests.</p>
+ *
+ * <p>All schedulers are {@link MonitoredTaskScheduler}s, which publish the
+ * {@code scheduler.job.*} meters. Each has a single thread, which is enough: the runs of one job
+ * never overlap, and every job has its own scheduler. On shutdown they stop starting
+ * new runs and wait up to {@code scheduler.shutdown-timeout} for running ones to finish.</p>
+ *
+ * @author HahnGuil
+ */
+@Configuration
+public class SchedulingConfig {
+
+    private final MeterRegistry meterRegistry;
+    private final Duration shutdownTimeout;
+
+    public SchedulingConfig(MeterRegistry meterRegistry,
+                            @Value("${scheduler.shutdown-timeout:PT30S}") Duration shutdownTimeout) {
+        this.meterRegistry = meterRegistry;
+        this.shutdownTimeout = shutdownTimeout;
+    }
+
+    @Bean
+    public MonitoredTaskScheduler taskScheduler() {
+        return platform("scheduler-default-");
+    }
+
+    @Bean
+    public MonitoredTaskScheduler tokenExpiryScheduler() {
+        return platform("job-token-expiry-");
+    }
+
+    @Bean
+    public MonitoredTaskScheduler tokenExpiryWheelScheduler() {
+        return platform("token-expiry-wheel-");
+    }
+
+    @Bean
+    public MonitoredTaskScheduler leaseHeartbeatScheduler() {
+        var scheduler = platform("scheduler-lease-heartbeat-");
+        scheduler.setBackgroundWork(false);
+        return scheduler;
+    }
+
+    @Bean
+    public MonitoredTaskScheduler keyRotationScheduler() {
+        return platform("job-key-rotation-");
+    }
+
+    @Bean
+    public MonitoredTaskScheduler registeredEmailsScheduler() {
+        return platform("job-registered-emails-");
+    }
+
+    @Bean
+    public MonitoredTaskScheduler applicationRegistryScheduler() {
+        return platform("job-application-registry-");
+    }
+
+    @Bean
+    public MonitoredTaskScheduler replicaLagScheduler() {
+        return platform("job-replica-lag-");
+    }
+
+    @Bean
+    public MonitoredTaskScheduler purgeScheduler() {
+        return virtual("job-purge-");
+    }
+
+    @Bean
+    public MonitoredTaskScheduler archiveScheduler() {
+        return virtual("job-archive-");
+    }
+
+    @Bean
+    public MonitoredTaskScheduler blockUsersScheduler() {
+        return virtual("job-block-users-");
+    }
+
+    @Bean
+    public MonitoredTaskScheduler passwordExpiryScheduler() {
+        return virtual("job-password-expiry-");
+    }
+
+    @Bean
+    public MonitoredTaskScheduler emailOutboxScheduler() {
+        return virtual("job-email-outbox-");
+    }
+
+    @Bean
+    public MonitoredTaskScheduler userSyncScheduler() {
+        return virtual("job-user-sync-");
+    }
+
+    private MonitoredTaskScheduler platform(String threadNamePrefix) {
+        var scheduler = monitored();
+        scheduler.setThreadNamePrefix(threadNamePrefix);
+        return scheduler;
+    }
+
+    private MonitoredTaskScheduler virtual(String threadNamePrefix) {
+        var scheduler = monitored();
+        scheduler.setThreadFactory(Thread.ofVirtual().name(threadNamePrefix, 0).factory());
+        return scheduler;
+    }
+
+    private MonitoredTaskScheduler monitored() {
+        var scheduler = new MonitoredTaskScheduler(meterRegistry);
+        scheduler.setPoolSize(1);
+        scheduler.setRemoveOnCancelPolicy(true);
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        scheduler.setAwaitTerminationMillis(shutdownTimeout.toMillis());
+        return scheduler;
+    }
+}
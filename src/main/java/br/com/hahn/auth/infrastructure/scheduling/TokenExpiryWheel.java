@@ -0,0 +1,210 @@
+package br.com.hahn.auth.infrastructure.scheduling;
+
+import br.com.hahn.auth.domain.enums.ScopeToken;
+import br.com.hahn.auth.domain.model.ActiveTokenRow;
+import br.com.hahn.auth.domain.respository.TokenLogRepository;
+import br.com.hahn.auth.infrastructure.persistence.BackgroundWork;
+import br.com.hahn.auth.util.DateTimeConverter;
+import br.com.hahn.auth.util.TimingWheel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Deactivates user tokens when they expire.
+ *
+ * <p>Every user token saved by {@code TokenLogService#saveTokenLog} is scheduled on a
+ * {@link TimingWheel} for the lifetime of its scope after its creation: {@link #TOKEN_LIFETIME}
+ * for most scopes and {@link #REFRESH_TOKEN_LIFETIME} for refresh tokens, matching the expiry
+ * signed into the JWT by {@code TokenService}. The {@code tokenExpiryWheelScheduler} of
+ * {@link SchedulingConfig} advances the wheel every {@code token.expiry.tick} and deactivates the released tokens in batches of
+ * {@code token.expiry.batch-size}: each batch is a single statement that flips the active flag
+ * of the tokens that are still active and records their invalidation. Tokens deactivated earlier
+ * by a logoff, refresh or new login are skipped by that statement.</p>
+ *
+ * <p>The wheel only lives in memory, so it is rebuilt from the active tokens in the database when
+ * the application is ready. Tokens missed anyway, because a batch failed or the instance stopped,
+ * are picked up by {@link #expireOverdue()}, which the scheduler runs as a coarse safety net.</p>
+ *
+ * <p>Deactivated tokens are counted by the {@code token.expiry.expired} meter, tagged
+ * {@code source=wheel} and {@code source=safety-net}; {@code token.expiry.scheduled} reports the
+ * number of tokens waiting on the wheel.</p>
+ *
+ * @author HahnGuil
+ */
+@Component
+@Slf4j
+public class TokenExpiryWheel {
+
+    static final Duration TOKEN_LIFETIME = Duration.ofMinutes(15);
+    static final Duration REFRESH_TOKEN_LIFETIME = Duration.ofMinutes(30);
+
+    private final TokenLogRepository tokenLogRepository;
+    private final Clock clock;
+    private final TaskScheduler taskScheduler;
+    private final Duration tick;
+    private final int batchSize;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final TimingWheel<UUID> wheel;
+    private final Counter expiredByWheel;
+    private final Counter expiredBySafetyNet;
+
+    public TokenExpiryWheel(TokenLogRepository tokenLogRepository,
+                            MeterRegistry meterRegistry,
+                            @Qualifier("tokenExpiryWheelScheduler") TaskScheduler taskScheduler,
+                            @Value("${token.expiry.tick:PT1S}") Duration tick,
+                            @Value("${token.expiry.wheel-size:64}") int wheelSize,
+                            @Value("${token.expiry.batch-size:100}") int batchSize) {
+        this(tokenLogRepository, meterRegistry, taskScheduler, tick, wheelSize, batchSize, Clock.systemDefaultZone());
+    }
+
+    TokenExpiryWheel(TokenLogRepository tokenLogRepository, MeterRegistry meterRegistry, TaskScheduler taskScheduler,
+                     Duration tick, int wheelSize, int batchSize, Clock clock) {
+        this.tokenLogRepository = tokenLogRepository;
+        this.taskScheduler = taskScheduler;
+        this.clock = clock;
+        this.tick = tick;
+        this.batchSize = batchSize;
+        this.wheel = new TimingWheel<>(tick.toMillis(), wheelSize, clock.millis());
+        this.expiredByWheel = Counter.builder("token.expiry.expired").tag("source", "wheel").register(meterRegistry);
+        this.expiredBySafetyNet = Counter.builder("token.expiry.expired").tag("source", "safety-net").register(meterRegistry);
+        Gauge.builder("token.expiry.scheduled", this, TokenExpiryWheel::scheduled).register(meterRegistry);
+    }
+
+    /**
+     * Rebuilds the wheel from the database and starts advancing it.
+     *
+     * @author HahnGuil
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        BackgroundWork.run(this::rebuild);
+        taskScheduler.scheduleAtFixedRate(new Tick(), Instant.now().plus(tick), tick);
+    }
+
+    /**
+     * Schedules the expiry of a user token created at {@code createDate}.
+     *
+     * @author HahnGuil
+     * @param tokenLogId the token log id of the token
+     * @param scopeToken the scope of the token, which sets its lifetime
+     * @param createDate the creation date of the token
+     */
+    public void schedule(UUID tokenLogId, ScopeToken scopeToken, LocalDateTime createDate) {
+        lock.lock();
+        try {
+            wheel.schedule(tokenLogId, deadline(scopeToken, createDate));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Deactivates every active user token older than the lifetime of its scope, whether or not
+     * it is on the wheel.
+     *
+     * @author HahnGuil
+     * @return the number of tokens deactivated
+     */
+    public int expireOverdue() {
+        var now = LocalDateTime.now(clock);
+        var overdue = tokenLogRepository.findExpiredActiveUserTokenIds(now.minus(TOKEN_LIFETIME), now.minus(REFRESH_TOKEN_LIFETIME));
+        var expired = expire(overdue);
+        expiredBySafetyNet.increment(expired);
+        return expired;
+    }
+
+    void rebuild() {
+        var overdue = new ArrayList<UUID>();
+        var activeTokens = tokenLogRepository.findActiveUserTokens();
+        lock.lock();
+        try {
+            for (ActiveTokenRow token : activeTokens) {
+                if (!wheel.schedule(token.getIdTokenLog(), deadline(token.getScopeToken(), token.getCreateDate()))) {
+                    overdue.add(token.getIdTokenLog());
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        log.info("TokenExpiryWheel: Scheduled {} active tokens, {} already overdue at: {}", activeTokens.size() - overdue.size(), overdue.size(), DateTimeConverter.formatInstantNow());
+        expiredByWheel.increment(expire(overdue));
+    }
+
+    void tick() {
+        try {
+            var due = new ArrayList<UUID>();
+            lock.lock();
+            try {
+                wheel.advance(clock.millis(), due::add);
+            } finally {
+                lock.unlock();
+            }
+            expiredByWheel.increment(expire(due));
+        } catch (RuntimeException e) {
+            log.error("TokenExpiryWheel: Fail to expire tokens, left to the safety net: {} at: {}", e.toString(), DateTimeConverter.formatInstantNow());
+        }
+    }
+
+    private int expire(List<UUID> tokenLogIds) {
+        int expired = 0;
+        for (int from = 0; from < tokenLogIds.size(); from += batchSize) {
+            var batch = tokenLogIds.subList(from, Math.min(from + batchSize, tokenLogIds.size()));
+            expired += tokenLogRepository.expireTokens(batch, LocalDateTime.now(clock));
+        }
+        if (expired > 0) {
+            log.info("TokenExpiryWheel: Expired {} tokens at: {}", expired, DateTimeConverter.formatInstantNow());
+        }
+        return expired;
+    }
+
+    private long deadline(ScopeToken scopeToken, LocalDateTime createDate) {
+        return createDate.plus(lifetime(scopeToken)).atZone(clock.getZone()).toInstant().toEpochMilli();
+    }
+
+    static Duration lifetime(ScopeToken scopeToken) {
+        return ScopeToken.REFRESH_TOKEN.equals(scopeToken) ? REFRESH_TOKEN_LIFETIME : TOKEN_LIFETIME;
+    }
+
+    private int scheduled() {
+        lock.lock();
+        try {
+            return wheel.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Advances the wheel. Named after {@link #tick()}, so its runs are reported under a stable
+     * {@code job} tag by the {@link MonitoredTaskScheduler}.
+     */
+    private final class Tick implements Runnable {
+
+        @Override
+        public void run() {
+            tick();
+        }
+
+        @Override
+        public String toString() {
+            return TokenExpiryWheel.class.getName() + ".tick";
+        }
+    }
+}
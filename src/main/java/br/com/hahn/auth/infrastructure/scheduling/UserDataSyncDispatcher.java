@@ -0,0 +1,124 @@
+package br.com.hahn.auth.infrastructure.scheduling;
+
+import br.com.hahn.auth.application.service.UserDataService;
+import br.com.hahn.auth.domain.enums.UserSyncStatus;
+import br.com.hahn.auth.domain.model.UserSyncTask;
+import br.com.hahn.auth.infrastructure.resilience.CircuitBreaker;
+import br.com.hahn.auth.infrastructure.service.UserDataClient;
+import br.com.hahn.auth.util.DateTimeConverter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Pushes pending user changes to the user-data service in the background.
+ *
+ * <p>Each run claims due syncs in batches and patches the users through {@link UserDataClient}
+ * with at most {@code integration.toxicbet.users.sync.concurrency} calls in flight. Results are
+ * recorded after the whole batch completes: successes are marked as synced and failures are
+ * rescheduled with exponential backoff or dead-lettered by {@link UserDataService}. The stored
+ * token is decrypted right before the call; a token that cannot be decrypted counts as a failed
+ * attempt.</p>
+ *
+ * <p>While the circuit breaker of the user-data client is open runs claim nothing, so pending
+ * syncs do not burn their attempts. Once the open period is over a single sync is claimed and
+ * sent as the trial call.</p>
+ *
+ * <p>Outcomes are counted by the {@code users.sync.deliveries} meter, tagged
+ * {@code result=synced}, {@code result=retry} and {@code result=dead}.</p>
+ *
+ * @author HahnGuil
+ */
+@Component
+@Slf4j
+public class UserDataSyncDispatcher {
+
+    private final UserDataService userDataService;
+    private final UserDataClient userDataClient;
+    private final CircuitBreaker circuitBreaker;
+    private final int batchSize;
+    private final int concurrency;
+    private final Duration callTimeout;
+    private final Counter synced;
+    private final Counter retried;
+    private final Counter dead;
+
+    public UserDataSyncDispatcher(UserDataService userDataService,
+                                  UserDataClient userDataClient,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${integration.toxicbet.users.sync.batch-size:50}") int batchSize,
+                                  @Value("${integration.toxicbet.users.sync.concurrency:4}") int concurrency,
+                                  @Value("${integration.toxicbet.users.sync.call-timeout:PT5S}") Duration callTimeout) {
+        this.userDataService = userDataService;
+        this.userDataClient = userDataClient;
+        this.circuitBreaker = userDataClient.getCircuitBreaker();
+        this.batchSize = batchSize;
+        this.concurrency = concurrency;
+        this.callTimeout = callTimeout;
+        this.synced = Counter.builder("users.sync.deliveries").tag("result", "synced").register(meterRegistry);
+        this.retried = Counter.builder("users.sync.deliveries").tag("result", "retry").register(meterRegistry);
+        this.dead = Counter.builder("users.sync.deliveries").tag("result", "dead").register(meterRegistry);
+    }
+
+    /**
+     * Claims and sends due syncs until a batch comes back smaller than the batch size or the
+     * circuit breaker rejects the run.
+     *
+     * @author HahnGuil
+     */
+    @Scheduled(fixedDelayString = "${integration.toxicbet.users.sync.poll-interval:PT1S}", scheduler = "userSyncScheduler")
+    public void dispatch() {
+        List<UserSyncTask> batch;
+        int limit;
+        do {
+            if (circuitBreaker.isOpen()) {
+                return;
+            }
+            limit = circuitBreaker.getState() == CircuitBreaker.State.CLOSED ? batchSize : 1;
+            batch = userDataService.claimDueBatch(limit);
+            if (batch.isEmpty()) {
+                return;
+            }
+            log.info("UserDataSyncDispatcher: Syncing {} users at: {}", batch.size(), DateTimeConverter.formatInstantNow());
+            sync(batch).forEach(this::record);
+        } while (batch.size() == limit && circuitBreaker.getState() == CircuitBreaker.State.CLOSED);
+    }
+
+    private List<Result> sync(List<UserSyncTask> batch) {
+        return Flux.fromIterable(batch)
+                .flatMap(task -> Mono.fromCallable(() -> userDataService.bearerTokenOf(task))
+                        .flatMap(bearerToken -> userDataClient.patchUserByEmailHeader(bearerToken, task.getUserEmail()))
+                        .timeout(callTimeout)
+                        .thenReturn(new Result(task, null))
+                        .onErrorResume(e -> Mono.just(new Result(task, e.toString()))), concurrency)
+                .collectList()
+                .blockOptional()
+                .orElse(List.of());
+    }
+
+    private void record(Result result) {
+        var task = result.task();
+        if (result.error() == null) {
+            userDataService.markSynced(task.getId(), task.getVersion());
+            synced.increment();
+            return;
+        }
+
+        log.error("UserDataSyncDispatcher: Fail to sync user: {}: {} at: {}", task.getUserEmail(), result.error(), DateTimeConverter.formatInstantNow());
+        if (userDataService.markFailed(task.getId(), task.getVersion(), result.error()) == UserSyncStatus.DEAD) {
+            dead.increment();
+        } else {
+            retried.increment();
+        }
+    }
+
+    private record Result(UserSyncTask task, String error) { }
+}
@@ -7,6 +7,7 @@ import jakarta.annotation.PostConstruct;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.security.KeyPair;
@@ -15,7 +16,7 @@ import java.security.PublicKey;
 import java.security.interfaces.RSAPublicKey;
 import java.time.Instant;
 import java.util.*;
-import java.util.concurrent.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
 
 @Service
@@ -27,12 +28,10 @@ public class KeyManager {
     private final AtomicReference<KeyPair> currentKeyPair = new AtomicReference<>();
     private final AtomicReference<String> currentKeyId = new AtomicReference<>();
     private final Map<String, PublicKey> publicKeys = new ConcurrentHashMap<>();
-    private final ScheduledExecutorService scheduledExecutorService = Executors.newSingleThreadScheduledExecutor();
 
     @PostConstruct
     public void init() {
         rotateKeys();
-        scheduledExecutorService.scheduleAtFixedRate(this::rotateKeys, 2, 2, TimeUnit.HOURS);
     }
 
     /**
@@ -42,14 +41,16 @@ public class KeyManager {
      * This method generates a new RSA key pair, creates a unique identifier for the key,
      * updates the atomic references that hold the current key pair and key id, and stores
      * the new public key in the public keys map for distribution (e.g. JWK endpoint).
-     * It is intended to be invoked at startup and periodically by a scheduled executor.
+     * It is invoked at startup and then every {@code security.keys.rotation-interval} on the
+     * {@code keyRotationScheduler}, which waits for a running rotation on shutdown.
      * </p>
      *
      * @throws KeyRotationException if an error occurs during key generation or update
      * @author HahnGuil
      * @since 1.0
      */
-    private void rotateKeys() {
+    @Scheduled(fixedRateString = "${security.keys.rotation-interval:PT2H}", initialDelayString = "${security.keys.rotation-interval:PT2H}", scheduler = "keyRotationScheduler")
+    public void rotateKeys() {
         log.info("KeyManager: Starting to rotate keys at: {}", Instant.now());
         try {
             KeyPairGenerator keyGen = KeyPairGenerator.getInstance("RSA");
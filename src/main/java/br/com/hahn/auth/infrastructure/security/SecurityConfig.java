@@ -128,8 +128,10 @@ public class SecurityConfig {
     /**
      * Provides an OAuth2UserService bean for loading user details based on the OAuth2UserRequest.
      *
-     * <p>This method determines the type of OAuth2UserRequest and delegates the user loading
-     * process to the appropriate service:
+     * <p>The delegate services are created once and shared by every sign-in, and the OIDC service
+     * reuses the same {@link DefaultOAuth2UserService} for its user info calls. This method
+     * determines the type of OAuth2UserRequest and delegates the user loading process to the
+     * appropriate service:
      * <ul>
      *   <li>If the request is an instance of OidcUserRequest, it uses the OidcUserService to load the user.</li>
      *   <li>Otherwise, it uses the DefaultOAuth2UserService to load the user.</li>
@@ -141,12 +143,13 @@ public class SecurityConfig {
      */
     @Bean
     public OAuth2UserService<OAuth2UserRequest, OAuth2User> oAuth2UserService() {
+        DefaultOAuth2UserService defaultOAuth2UserService = new DefaultOAuth2UserService();
+        OidcUserService oidcUserService = new OidcUserService();
+        oidcUserService.setOauth2UserService(defaultOAuth2UserService);
         return userRequest -> {
             if (userRequest instanceof OidcUserRequest oidcUserRequest) {
-                OidcUserService oidcUserService = new OidcUserService();
                 return (OAuth2User) oidcUserService.loadUser(oidcUserRequest);
             } else {
-                DefaultOAuth2UserService defaultOAuth2UserService = new DefaultOAuth2UserService();
                 return defaultOAuth2UserService.loadUser(userRequest);
             }
         };
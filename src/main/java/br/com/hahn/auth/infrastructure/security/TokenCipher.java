@@ -0,0 +1,101 @@
+package br.com.hahn.auth.infrastructure.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Encrypts the user tokens that have to be stored until a background call forwards them.
+ *
+ * <p>Tokens are sealed with AES-256-GCM under the key configured in
+ * {@code security.token-encryption.key} (base64, 32 bytes). A random 96-bit IV is generated for
+ * every value and stored in front of the ciphertext. The caller passes an associated value, such
+ * as the email of the row owner, that must be given again to decrypt, so a ciphertext copied to
+ * another row does not decrypt.</p>
+ *
+ * <p>The key is required and startup fails without it: a key generated per process would leave
+ * the values written by another instance, or before a restart, impossible to decrypt.</p>
+ *
+ * @author HahnGuil
+ */
+@Component
+public class TokenCipher {
+
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final int KEY_LENGTH_BYTES = 32;
+    private static final int IV_LENGTH_BYTES = 12;
+    private static final int TAG_LENGTH_BITS = 128;
+
+    private final SecretKey key;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    public TokenCipher(@Value("${security.token-encryption.key:}") String base64Key) {
+        if (base64Key.isBlank()) {
+            throw new IllegalStateException("security.token-encryption.key is not configured");
+        }
+        this.key = decodeKey(base64Key);
+    }
+
+    /**
+     * Encrypts a token.
+     *
+     * @author HahnGuil
+     * @param token the token in plain text
+     * @param associatedData the value the ciphertext is bound to
+     * @return the IV and the ciphertext, base64 encoded
+     */
+    public String encrypt(String token, String associatedData) {
+        var iv = new byte[IV_LENGTH_BYTES];
+        secureRandom.nextBytes(iv);
+        try {
+            var cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH_BITS, iv));
+            cipher.updateAAD(associatedData.getBytes(StandardCharsets.UTF_8));
+            var ciphertext = cipher.doFinal(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(ByteBuffer.allocate(iv.length + ciphertext.length).put(iv).put(ciphertext).array());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to encrypt token", e);
+        }
+    }
+
+    /**
+     * Decrypts a token encrypted by {@link #encrypt(String, String)}.
+     *
+     * @author HahnGuil
+     * @param encrypted the value returned by {@link #encrypt(String, String)}
+     * @param associatedData the value the ciphertext was bound to
+     * @return the token in plain text
+     * @throws IllegalStateException if the value was not encrypted with this key and associated value
+     */
+    public String decrypt(String encrypted, String associatedData) {
+        try {
+            var bytes = Base64.getDecoder().decode(encrypted);
+            if (bytes.length <= IV_LENGTH_BYTES) {
+                throw new IllegalStateException("Encrypted token is too short");
+            }
+            var cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH_BITS, bytes, 0, IV_LENGTH_BYTES));
+            cipher.updateAAD(associatedData.getBytes(StandardCharsets.UTF_8));
+            return new String(cipher.doFinal(bytes, IV_LENGTH_BYTES, bytes.length - IV_LENGTH_BYTES), StandardCharsets.UTF_8);
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("Failed to decrypt token", e);
+        }
+    }
+
+    private static SecretKey decodeKey(String base64Key) {
+        var bytes = Base64.getDecoder().decode(base64Key.trim());
+        if (bytes.length != KEY_LENGTH_BYTES) {
+            throw new IllegalStateException("security.token-encryption.key must be " + KEY_LENGTH_BYTES + " bytes, base64 encoded");
+        }
+        return new SecretKeySpec(bytes, "AES");
+    }
+}
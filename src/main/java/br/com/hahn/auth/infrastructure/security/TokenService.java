@@ -18,6 +18,7 @@ import org.springframework.stereotype.Service;
 
 import java.security.interfaces.RSAPrivateKey;
 import java.security.interfaces.RSAPublicKey;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.Optional;
@@ -129,7 +130,7 @@ public class TokenService {
                     .withClaim("token_log_id", tokenLog.getIdTokenLog().toString())
                     .withClaim("token_log_date_request", tokenLog.getCreateDate().toString())
                     .withClaim("scope", tokenLog.getScopeToken().getValue())
-                    .withExpiresAt(tokenLog.getCreateDate().plusHours(APPLICATION_TOKEN_EXPIRATION_TIME_HOURS).toInstant(ZONE_OFFSET))
+                    .withExpiresAt(applicationTokenExpiresAt(tokenLog))
                     .sign(algorithm);
         }catch (JWTCreationException e){
             log.error("TokenService: Error to generate token for Application: {}, at: {}", application.getNameApplication(), DateTimeConverter.formatInstantNow());
@@ -147,7 +148,7 @@ public class TokenService {
                     .withClaim("application_id", application.getId().toString())
                     .withClaim("scope", ScopeToken.APPLICATION_REFRESH_TOKEN.getValue())
                     .withClaim("token_log_id", tokenLog.getIdTokenLog().toString())
-                    .withExpiresAt(tokenLog.getCreateDate().plusMinutes(APPLICATION_REFRESH_TOKEN_EXPIRATION_TIME_HOURS).toInstant(ZONE_OFFSET))
+                    .withExpiresAt(applicationRefreshTokenExpiresAt(tokenLog))
                     .sign(algorithm);
         } catch (JWTCreationException e) {
             log.error("TokenService: Error to generate refresh token for Application: {}, throw IllegalStateException at: {}", tokenLog.getApplicationId(), DateTimeConverter.formatInstantNow());
@@ -155,6 +156,28 @@ public class TokenService {
         }
     }
 
+    /**
+     * Returns the expiration instant written into an application token issued for the given token log.
+     *
+     * @author HahnGuil
+     * @param tokenLog the token log of the application token
+     * @return the instant at which the application token expires
+     */
+    public Instant applicationTokenExpiresAt(TokenLog tokenLog) {
+        return tokenLog.getCreateDate().plusHours(APPLICATION_TOKEN_EXPIRATION_TIME_HOURS).toInstant(ZONE_OFFSET);
+    }
+
+    /**
+     * Returns the expiration instant written into an application refresh token issued for the given token log.
+     *
+     * @author HahnGuil
+     * @param tokenLog the token log of the application refresh token
+     * @return the instant at which the application refresh token expires
+     */
+    public Instant applicationRefreshTokenExpiresAt(TokenLog tokenLog) {
+        return tokenLog.getCreateDate().plusMinutes(APPLICATION_REFRESH_TOKEN_EXPIRATION_TIME_HOURS).toInstant(ZONE_OFFSET);
+    }
+
     /**
      * Generates a refresh token for the specified user.
      *
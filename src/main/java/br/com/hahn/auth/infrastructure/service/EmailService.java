@@ -1,6 +1,7 @@
 package br.com.hahn.auth.infrastructure.service;
 
 
+import br.com.hahn.auth.infrastructure.http.OutboundClientFactory;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -16,8 +17,8 @@ public class EmailService {
 
     private final WebClient webClient;
 
-    public EmailService(WebClient.Builder webClientBuilder) {
-        this.webClient = webClientBuilder.baseUrl("https://api.resend.com").build();
+    public EmailService(OutboundClientFactory outboundClientFactory) {
+        this.webClient = outboundClientFactory.webClient("resend");
     }
 
     @Value("${resend.api.key}")
@@ -1,6 +1,8 @@
 package br.com.hahn.auth.infrastructure.service;
 
 import br.com.hahn.auth.application.execption.InvalidOperationException;
+import br.com.hahn.auth.infrastructure.http.OutboundClientFactory;
+import br.com.hahn.auth.infrastructure.resilience.CircuitBreaker;
 import br.com.hahn.auth.util.DateTimeConverter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -9,25 +11,38 @@ import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
 @Service
 @Slf4j
 public class UserDataClient {
 
     private final WebClient webClient;
+    private final CircuitBreaker circuitBreaker;
 
     @Value("${integration.toxicbet.users.patch-user-email-path:/users}")
     private String patchUserEmailPath;
 
-    public UserDataClient(WebClient.Builder webClientBuilder,
-                          @Value("${integration.toxicbet.users.base-url}") String baseUrl) {
-        this.webClient = webClientBuilder.baseUrl(baseUrl).build();
+    public UserDataClient(OutboundClientFactory outboundClientFactory) {
+        this.webClient = outboundClientFactory.webClient("user-data");
+        this.circuitBreaker = outboundClientFactory.circuitBreaker("user-data");
     }
 
-    public void patchUserByEmailHeader(String bearerToken, String userEmail) {
+    /**
+     * Patches the user identified by the email header on the user-data service.
+     *
+     * <p>The call is not executed until the returned Mono is subscribed. Error responses are
+     * signalled as {@link InvalidOperationException}.</p>
+     *
+     * @author HahnGuil
+     * @param bearerToken the bearer token forwarded to the user-data service
+     * @param userEmail the email of the user to patch
+     * @return a {@link reactor.core.publisher.Mono} that completes when the remote call finishes successfully
+     */
+    public Mono<Void> patchUserByEmailHeader(String bearerToken, String userEmail) {
         log.info("UserDataClient: Calling patch user endpoint for email {} at {}", userEmail, DateTimeConverter.formatInstantNow());
 
-        webClient.patch()
+        return webClient.patch()
                 .uri(patchUserEmailPath)
                 .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
                 .header(HttpHeaders.AUTHORIZATION, buildAuthorizationHeader(bearerToken))
@@ -41,7 +56,17 @@ public class UserDataClient {
                                         + " - "
                                         + responseBody)))
                 .toBodilessEntity()
-                .block();
+                .then();
+    }
+
+    /**
+     * Returns the circuit breaker guarding calls to the user-data service.
+     *
+     * @author HahnGuil
+     * @return the circuit breaker of the user-data client
+     */
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
     }
 
     private String buildAuthorizationHeader(String token) {
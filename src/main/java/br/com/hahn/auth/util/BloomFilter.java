@@ -0,0 +1,97 @@
+package br.com.hahn.auth.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter of strings.
+ *
+ * <p>{@link #mightContain(String)} never returns {@code false} for a value that was added, and
+ * returns {@code true} for a value that was not added with roughly the false positive rate the
+ * filter was sized for, as long as no more than the expected number of values is added. Values
+ * are hashed with 64-bit FNV-1a, finalized with the MurmurHash3 mixer, and the bit positions are
+ * derived from two halves of that hash. Adds and lookups are lock free and may run concurrently.</p>
+ *
+ * @author HahnGuil
+ */
+public final class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    /**
+     * Creates a filter sized for the expected number of values and false positive rate.
+     *
+     * @author HahnGuil
+     * @param expectedInsertions the number of values expected to be added, at least 1
+     * @param falsePositiveRate the accepted false positive rate, between 0 and 1
+     */
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        var n = Math.max(expectedInsertions, 1);
+        var p = Math.clamp(falsePositiveRate, 1e-9, 0.5);
+        var optimalBits = (long) Math.ceil(-n * Math.log(p) / (Math.log(2) * Math.log(2)));
+        var words = (int) Math.min(Math.ceilDiv(Math.max(optimalBits, 64), 64), Integer.MAX_VALUE - 8);
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashCount = (int) Math.clamp(Math.round((double) bitCount / n * Math.log(2)), 1, 16);
+    }
+
+    /**
+     * Adds a value to the filter.
+     *
+     * @author HahnGuil
+     * @param value the value to add
+     */
+    public void add(String value) {
+        var hash = hash(value);
+        var h1 = (int) hash;
+        var h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            var index = Math.floorMod(h1 + (long) i * h2, bitCount);
+            var word = (int) (index >>> 6);
+            var mask = 1L << index;
+            long current;
+            do {
+                current = bits.get(word);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    /**
+     * Checks whether a value may have been added to the filter.
+     *
+     * @author HahnGuil
+     * @param value the value to check
+     * @return false when the value was certainly never added, true when it may have been
+     */
+    public boolean mightContain(String value) {
+        var hash = hash(value);
+        var h1 = (int) hash;
+        var h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            var index = Math.floorMod(h1 + (long) i * h2, bitCount);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
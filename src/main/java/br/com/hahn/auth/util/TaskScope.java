@@ -0,0 +1,112 @@
+package br.com.hahn.auth.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Structured scope for running a few subtasks concurrently on virtual threads.
+ *
+ * <p>Follows the shutdown-on-failure policy of {@code StructuredTaskScope}, which is still a
+ * preview API on Java 24: subtasks are forked inside a try-with-resources block,
+ * {@link #join()} waits for all of them and, as soon as one fails, cancels the others and
+ * rethrows its exception unchanged. Closing the scope interrupts and waits for any subtask still
+ * running, so no subtask outlives the block that forked it.</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>
+ *     try (var scope = new TaskScope()) {
+ *         Supplier&lt;String&gt; first = scope.fork(this::first);
+ *         Supplier&lt;String&gt; second = scope.fork(this::second);
+ *         scope.join();
+ *         return first.get() + second.get();
+ *     }
+ * </pre>
+ *
+ * <p>Subtasks run without the request-bound state of the forking thread (request attributes,
+ * security context, transaction). Fork CPU-bound work only and keep database calls on the forking
+ * thread: a subtask that touches the database borrows a second pooled connection and commits
+ * outside the transaction of the forking thread.</p>
+ *
+ * @author HahnGuil
+ */
+public final class TaskScope implements AutoCloseable {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ExecutorCompletionService<Object> completion = new ExecutorCompletionService<>(executor);
+    private final List<Future<?>> forked = new ArrayList<>();
+    private boolean joined;
+
+    /**
+     * Starts a subtask.
+     *
+     * @param task the subtask to run
+     * @param <T> the result type of the subtask
+     * @return a supplier of the subtask result, usable only after {@link #join()} returns
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Supplier<T> fork(Callable<T> task) {
+        var future = completion.submit((Callable<Object>) task);
+        forked.add(future);
+        return () -> {
+            if (!joined) {
+                throw new IllegalStateException("TaskScope: result requested before join");
+            }
+            return (T) future.resultNow();
+        };
+    }
+
+    /**
+     * Waits for every subtask. On the first failure the remaining subtasks are cancelled and the
+     * failure is rethrown: runtime exceptions and errors as they are, checked exceptions wrapped in
+     * an {@link IllegalStateException}.
+     */
+    public void join() {
+        try {
+            for (int i = 0; i < forked.size(); i++) {
+                var done = completion.take();
+                try {
+                    done.get();
+                } catch (ExecutionException e) {
+                    cancelAll();
+                    throw propagate(e.getCause());
+                } catch (CancellationException e) {
+                    cancelAll();
+                    throw e;
+                }
+            }
+            joined = true;
+        } catch (InterruptedException e) {
+            cancelAll();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("TaskScope: interrupted while joining subtasks", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        cancelAll();
+        executor.close();
+    }
+
+    private void cancelAll() {
+        forked.forEach(future -> future.cancel(true));
+    }
+
+    private static RuntimeException propagate(Throwable cause) {
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(cause);
+    }
+}
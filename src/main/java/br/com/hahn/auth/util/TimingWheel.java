@@ -0,0 +1,145 @@
+package br.com.hahn.auth.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel that releases items once their deadline has passed.
+ *
+ * <p>Time is divided into ticks of {@code tickMillis}. Level {@code 0} has {@code wheelSize}
+ * buckets of one tick each; every level above has buckets {@code wheelSize} times wider than the
+ * level below, and levels are added on demand, so any deadline is accepted. Scheduling an item is
+ * O(1). {@link #advance(long, Consumer)} walks the wheel one tick at a time: when a tick starts a
+ * bucket of an upper level, that bucket is cascaded into the levels below, and the level
+ * {@code 0} bucket of the tick is released. An item is released at the first tick that starts
+ * at or after its deadline, so never early and at most one tick late.</p>
+ *
+ * <p>Not thread safe; callers serialize access.</p>
+ *
+ * @author HahnGuil
+ * @param <T> the type of the scheduled items
+ */
+public final class TimingWheel<T> {
+
+    private record Entry<T>(T item, long tick) { }
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final List<List<ArrayDeque<Entry<T>>>> levels = new ArrayList<>();
+    private long currentTick;
+    private int size;
+
+    /**
+     * Creates a wheel whose clock starts at {@code startMillis}.
+     *
+     * @author HahnGuil
+     * @param tickMillis the duration of a tick, in milliseconds
+     * @param wheelSize the number of buckets of each level
+     * @param startMillis the current time, in epoch milliseconds
+     */
+    public TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize < 2) {
+            throw new IllegalArgumentException("tickMillis must be positive and wheelSize at least 2");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.currentTick = startMillis / tickMillis;
+        addLevel();
+    }
+
+    /**
+     * Schedules {@code item} to be released once {@code deadlineMillis} has passed.
+     *
+     * @author HahnGuil
+     * @param item the item to release
+     * @param deadlineMillis the deadline, in epoch milliseconds
+     * @return {@code false} if the deadline is already due, in which case the item is not scheduled
+     */
+    public boolean schedule(T item, long deadlineMillis) {
+        var entry = new Entry<>(item, Math.ceilDiv(deadlineMillis, tickMillis));
+        if (entry.tick() <= currentTick) {
+            return false;
+        }
+        place(entry);
+        size++;
+        return true;
+    }
+
+    /**
+     * Moves the wheel forward to {@code nowMillis}, handing every item whose deadline has passed
+     * to {@code expired}.
+     *
+     * @author HahnGuil
+     * @param nowMillis the current time, in epoch milliseconds
+     * @param expired receives the released items
+     */
+    public void advance(long nowMillis, Consumer<T> expired) {
+        var targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick && size > 0) {
+            currentTick++;
+            long span = 1;
+            for (int level = 1; level < levels.size(); level++) {
+                span *= wheelSize;
+                if (currentTick % span == 0) {
+                    cascade(levels.get(level).get((int) ((currentTick / span) % wheelSize)), expired);
+                }
+            }
+            release(levels.getFirst().get((int) (currentTick % wheelSize)), expired);
+        }
+        currentTick = Math.max(currentTick, targetTick);
+    }
+
+    /**
+     * Returns the number of scheduled items.
+     *
+     * @author HahnGuil
+     * @return the number of items not released yet
+     */
+    public int size() {
+        return size;
+    }
+
+    private void place(Entry<T> entry) {
+        long span = 1;
+        for (int level = 0; ; level++) {
+            if (level == levels.size()) {
+                addLevel();
+            }
+            if (entry.tick() / span - currentTick / span < wheelSize) {
+                levels.get(level).get((int) ((entry.tick() / span) % wheelSize)).add(entry);
+                return;
+            }
+            span *= wheelSize;
+        }
+    }
+
+    private void cascade(ArrayDeque<Entry<T>> bucket, Consumer<T> expired) {
+        Entry<T> entry;
+        while ((entry = bucket.poll()) != null) {
+            if (entry.tick() <= currentTick) {
+                size--;
+                expired.accept(entry.item());
+            } else {
+                place(entry);
+            }
+        }
+    }
+
+    private void release(ArrayDeque<Entry<T>> bucket, Consumer<T> expired) {
+        Entry<T> entry;
+        while ((entry = bucket.poll()) != null) {
+            size--;
+            expired.accept(entry.item());
+        }
+    }
+
+    private void addLevel() {
+        var buckets = new ArrayList<ArrayDeque<Entry<T>>>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new ArrayDeque<>());
+        }
+        levels.add(buckets);
+    }
+}
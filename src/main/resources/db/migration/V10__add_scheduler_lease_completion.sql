@@ -0,0 +1,3 @@
+-- Records the fire time of the last completed run of each lease, so a late trigger does not run it again
+ALTER TABLE toxic_bet.scheduler_lease
+    ADD COLUMN IF NOT EXISTS last_completed_fire_time TIMESTAMPTZ;
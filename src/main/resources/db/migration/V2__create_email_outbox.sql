@@ -0,0 +1,16 @@
+-- Creating the email_outbox table
+CREATE TABLE IF NOT EXISTS toxic_bet.email_outbox (
+                                                      id BIGSERIAL PRIMARY KEY,
+                                                      recipient VARCHAR(255) NOT NULL,
+                                                      subject VARCHAR(255) NOT NULL,
+                                                      html_body TEXT,
+                                                      status VARCHAR(20) NOT NULL,
+                                                      attempts INTEGER NOT NULL DEFAULT 0,
+                                                      next_attempt_at TIMESTAMP NOT NULL,
+                                                      last_error VARCHAR(1000),
+                                                      created_at TIMESTAMP NOT NULL,
+                                                      sent_at TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS ix_email_outbox_pending ON toxic_bet.email_outbox(next_attempt_at) WHERE status = 'PENDING';
+CREATE INDEX IF NOT EXISTS ix_email_outbox_status ON toxic_bet.email_outbox(status);
@@ -0,0 +1,15 @@
+-- Creating the password_expiry_notice table
+CREATE TABLE IF NOT EXISTS toxic_bet.password_expiry_notice (
+                                                                id BIGSERIAL PRIMARY KEY,
+                                                                user_id UUID NOT NULL,
+                                                                password_create_date TIMESTAMP NOT NULL,
+                                                                threshold_days INTEGER NOT NULL,
+                                                                sent_at TIMESTAMP NOT NULL,
+                                                                CONSTRAINT fk_password_expiry_notice_user
+                                                                    FOREIGN KEY (user_id) REFERENCES toxic_bet.users(user_id) ON DELETE CASCADE
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_password_expiry_notice_user_password_threshold
+    ON toxic_bet.password_expiry_notice(user_id, password_create_date, threshold_days);
+
+CREATE INDEX IF NOT EXISTS ix_users_password_create_date ON toxic_bet.users(password_create_date);
@@ -0,0 +1,18 @@
+-- Creating the user_sync_queue table
+CREATE TABLE IF NOT EXISTS toxic_bet.user_sync_queue (
+                                                         id BIGSERIAL PRIMARY KEY,
+                                                         user_email VARCHAR(255) NOT NULL,
+                                                         bearer_token TEXT,
+                                                         token_expires_at TIMESTAMP,
+                                                         version INTEGER NOT NULL DEFAULT 1,
+                                                         status VARCHAR(20) NOT NULL,
+                                                         attempts INTEGER NOT NULL DEFAULT 0,
+                                                         next_attempt_at TIMESTAMP NOT NULL,
+                                                         last_error VARCHAR(1000),
+                                                         created_at TIMESTAMP NOT NULL,
+                                                         updated_at TIMESTAMP NOT NULL,
+                                                         synced_at TIMESTAMP
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_user_sync_queue_user_email ON toxic_bet.user_sync_queue(user_email);
+CREATE INDEX IF NOT EXISTS ix_user_sync_queue_pending ON toxic_bet.user_sync_queue(next_attempt_at) WHERE status = 'PENDING';
@@ -0,0 +1,4 @@
+-- Indexes used by the retention purge to find rows past their retention
+CREATE INDEX IF NOT EXISTS ix_reset_password_expiration_date ON toxic_bet.reset_password(expiration_date);
+CREATE INDEX IF NOT EXISTS ix_logged_now_date_login ON toxic_bet.logged_now(date_login);
+CREATE INDEX IF NOT EXISTS ix_invalidated_token_date_invalidate ON toxic_bet.invalidated_token(date_invalidate);
@@ -0,0 +1,2 @@
+-- Index used by the audit archive to read token logs in date order
+CREATE INDEX IF NOT EXISTS ix_token_log_create_date ON toxic_bet.token_log(create_date);
@@ -0,0 +1,7 @@
+-- Creating the scheduler_lease table
+CREATE TABLE IF NOT EXISTS toxic_bet.scheduler_lease (
+                                                         job_name VARCHAR(150) PRIMARY KEY,
+                                                         owner VARCHAR(255) NOT NULL,
+                                                         lease_until TIMESTAMPTZ NOT NULL,
+                                                         fencing_token BIGINT NOT NULL
+);
@@ -0,0 +1,5 @@
+-- Dead-lettered emails no longer keep their body, which may hold a recovery code
+UPDATE toxic_bet.email_outbox SET html_body = NULL WHERE status = 'DEAD' AND html_body IS NOT NULL;
+
+-- Index used by the retention purge to find sent and dead-lettered emails past their retention
+CREATE INDEX IF NOT EXISTS ix_email_outbox_terminal_created_at ON toxic_bet.email_outbox(created_at) WHERE status IN ('SENT', 'DEAD');
@@ -0,0 +1,6 @@
+-- Tokens are now stored encrypted; pending syncs still holding a plaintext token are dead-lettered
+UPDATE toxic_bet.user_sync_queue
+   SET status = 'DEAD',
+       bearer_token = NULL,
+       last_error = 'Dropped plaintext token on upgrade'
+ WHERE bearer_token IS NOT NULL;
@@ -1,6 +1,5 @@
 package br.com.hahn.auth.application.controller;
 
-import br.com.hahn.auth.application.execption.InvalidFormatTypeException;
 import br.com.hahn.auth.application.execption.InvalidRecoverTokenException;
 import br.com.hahn.auth.domain.enums.ErrorsResponses;
 import jakarta.servlet.http.HttpServletRequest;
@@ -79,50 +78,4 @@ class AbstractControllerTest {
 
         assertEquals(ErrorsResponses.FAIL_CONVERT_TOKEN.getMessage(), exception.getMessage());
     }
-
-    @Test
-    void shouldValidateCorrectEmailFormat() {
-        controller.validateEmailFormat("test@example.com");
-    }
-
-    @Test
-    void shouldThrowExceptionForNullEmail() {
-        InvalidFormatTypeException exception = assertThrows(InvalidFormatTypeException.class, () ->
-                controller.validateEmailFormat(null)
-        );
-
-        assertEquals(ErrorsResponses.INVALID_EMAIL_FORMAT_TYPE.getMessage(), exception.getMessage());
-    }
-
-    @Test
-    void shouldThrowExceptionForInvalidEmailFormat() {
-        InvalidFormatTypeException exception = assertThrows(InvalidFormatTypeException.class, () ->
-                controller.validateEmailFormat("invalid-email")
-        );
-
-        assertEquals(ErrorsResponses.INVALID_EMAIL_FORMAT_TYPE.getMessage(), exception.getMessage());
-    }
-
-    @Test
-    void shouldValidateCorrectPasswordFormat() {
-        controller.validatePasswordFormat("Password1!");
-    }
-
-    @Test
-    void shouldThrowExceptionForNullPassword() {
-        InvalidFormatTypeException exception = assertThrows(InvalidFormatTypeException.class, () ->
-                controller.validatePasswordFormat(null)
-        );
-
-        assertEquals(ErrorsResponses.INVALID_PASSWORD_FORMAT_TYPE.getMessage(), exception.getMessage());
-    }
-
-    @Test
-    void shouldThrowExceptionForInvalidPasswordFormat() {
-        InvalidFormatTypeException exception = assertThrows(InvalidFormatTypeException.class, () ->
-                controller.validatePasswordFormat("weak")
-        );
-
-        assertEquals(ErrorsResponses.INVALID_PASSWORD_FORMAT_TYPE.getMessage(), exception.getMessage());
-    }
 }
@@ -1,19 +1,27 @@
 package br.com.hahn.auth.application.controller;
 
-import br.com.hahn.auth.application.execption.InvalidFormatTypeException;
 import br.com.hahn.auth.application.execption.InvalidRecoverTokenException;
 import br.com.hahn.auth.application.service.AuthService;
 import br.com.hahn.auth.domain.enums.ErrorsResponses;
 import br.com.hahn.auth.domain.model.LogOfRequest;
 import br.com.hahn.auth.domain.model.LoginRequest;
 import br.com.hahn.auth.domain.model.LoginResponse;
+import br.com.hahn.auth.infrastructure.cache.IdempotentResponseCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.oauth2.jwt.Jwt;
 
+import java.time.Duration;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -22,7 +30,9 @@ class LoginControllerTest {
 
 
     private final AuthService authService = mock(AuthService.class);
-    private final LoginController controller = new LoginController(authService);
+    private final IdempotentResponseCache idempotentResponseCache = new IdempotentResponseCache(new SimpleMeterRegistry(), Duration.ofMinutes(1), 100);
+    private final LoginController controller = new LoginController(authService, idempotentResponseCache);
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
 
     @Test
     void shouldReturnCreatedStatusAndLoginResponseForValidLoginRequest() {
@@ -38,27 +48,44 @@ class LoginControllerTest {
     }
 
     @Test
-    void shouldThrowExceptionForInvalidEmailFormatInLoginRequest() {
+    void shouldRejectInvalidEmailFormatInLoginRequest() {
         LoginRequest loginRequest = new LoginRequest("invalid-email", "Password1!");
 
-        InvalidFormatTypeException exception = assertThrows(InvalidFormatTypeException.class, () ->
-                controller.postLogin(loginRequest)
-        );
-
-        assertEquals(ErrorsResponses.INVALID_EMAIL_FORMAT_TYPE.getMessage(), exception.getMessage());
-        verify(authService, never()).userLogin(any());
+        assertEquals(Set.of("email"), violatedProperties(loginRequest));
     }
 
     @Test
-    void shouldThrowExceptionForInvalidPasswordFormatInLoginRequest() {
+    void shouldRejectInvalidPasswordFormatInLoginRequest() {
         LoginRequest loginRequest = new LoginRequest("user@example.com", "weak");
 
-        InvalidFormatTypeException exception = assertThrows(InvalidFormatTypeException.class, () ->
-                controller.postLogin(loginRequest)
-        );
+        assertEquals(Set.of("password"), violatedProperties(loginRequest));
+    }
+
+    @Test
+    void shouldReplayLoginResponseForRetryWithSameIdempotencyKey() {
+        LoginRequest loginRequest = new LoginRequest("user@example.com", "Password1!");
+        LoginResponse loginResponse = new LoginResponse();
+        when(authService.userLogin(loginRequest)).thenReturn(loginResponse);
+        LoginController spyController = Mockito.spy(controller);
+        Mockito.doReturn("retry-key").when(spyController).extractIdempotencyKey();
 
-        assertEquals(ErrorsResponses.INVALID_PASSWORD_FORMAT_TYPE.getMessage(), exception.getMessage());
-        verify(authService, never()).userLogin(any());
+        ResponseEntity<LoginResponse> first = spyController.postLogin(loginRequest);
+        ResponseEntity<LoginResponse> retry = spyController.postLogin(loginRequest);
+
+        assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+        assertSame(first.getBody(), retry.getBody());
+        verify(authService, times(1)).userLogin(loginRequest);
+    }
+
+    @Test
+    void shouldNotReplayLoginResponseWithoutIdempotencyKey() {
+        LoginRequest loginRequest = new LoginRequest("user@example.com", "Password1!");
+        when(authService.userLogin(loginRequest)).thenReturn(new LoginResponse());
+
+        controller.postLogin(loginRequest);
+        controller.postLogin(loginRequest);
+
+        verify(authService, times(2)).userLogin(loginRequest);
     }
 
     @Test
@@ -88,4 +115,10 @@ class LoginControllerTest {
         assertEquals(ErrorsResponses.INVALID_TOKEN.getMessage(), exception.getMessage());
         verify(authService, never()).logOffUser(any());
     }
+
+    private Set<String> violatedProperties(Object request) {
+        return validator.validate(request).stream()
+                .map(violation -> violation.getPropertyPath().toString())
+                .collect(Collectors.toSet());
+    }
 }
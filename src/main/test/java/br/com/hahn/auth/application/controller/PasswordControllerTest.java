@@ -4,6 +4,8 @@ import br.com.hahn.auth.application.execption.InvalidFormatTypeException;
 import br.com.hahn.auth.application.service.PasswordService;
 import br.com.hahn.auth.domain.enums.ErrorsResponses;
 import br.com.hahn.auth.domain.model.*;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -11,6 +13,9 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.oauth2.jwt.Jwt;
 
+import java.util.Set;
+import java.util.stream.Collectors;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
@@ -24,6 +29,7 @@ class PasswordControllerTest {
     private final String incorrectEmailFormat = "user.email.com";
     private PasswordService passwordService;
     private PasswordController controller;
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
 
 
     @BeforeEach
@@ -47,39 +53,24 @@ class PasswordControllerTest {
     }
 
     @Test
-    void shouldThrowExceptionForInvalidEmailInChangePassword() {
+    void shouldRejectInvalidEmailInChangePassword() {
         ChangePasswordRequest request = new ChangePasswordRequest(incorrectEmailFormat, oldPassword, newPassword);
 
-        InvalidFormatTypeException exception = assertThrows(InvalidFormatTypeException.class, () ->
-                controller.patchChangePassword(request)
-        );
-
-        assertEquals(ErrorsResponses.INVALID_EMAIL_FORMAT_TYPE.getMessage(), exception.getMessage());
-        Mockito.verify(passwordService, never()).changePassword(any());
+        assertEquals(Set.of("email"), violatedProperties(request));
     }
 
     @Test
-    void shouldThrowExceptionForInvalidNewPasswordInChangePassword() {
+    void shouldRejectInvalidNewPasswordInChangePassword() {
         ChangePasswordRequest request = new ChangePasswordRequest(correctEmailFormat, oldPassword, incorrectPasswordFormat);
 
-        InvalidFormatTypeException exception = assertThrows(InvalidFormatTypeException.class, () ->
-                controller.patchChangePassword(request)
-        );
-
-        assertEquals(ErrorsResponses.INVALID_PASSWORD_FORMAT_TYPE.getMessage(), exception.getMessage());
-        Mockito.verify(passwordService, never()).changePassword(any());
+        assertEquals(Set.of("newPassword"), violatedProperties(request));
     }
 
     @Test
-    void shouldThrowExceptionForInvalidOldPasswordInChangePassword() {
+    void shouldRejectInvalidOldPasswordInChangePassword() {
         ChangePasswordRequest request = new ChangePasswordRequest(correctEmailFormat, incorrectPasswordFormat, newPassword);
 
-        InvalidFormatTypeException exception = assertThrows(InvalidFormatTypeException.class, () ->
-                controller.patchChangePassword(request)
-        );
-
-        assertEquals(ErrorsResponses.INVALID_PASSWORD_FORMAT_TYPE.getMessage(), exception.getMessage());
-        Mockito.verify(passwordService, never()).changePassword(any());
+        assertEquals(Set.of("oldPassword"), violatedProperties(request));
     }
 
     @Test
@@ -132,15 +123,10 @@ class PasswordControllerTest {
     }
 
     @Test
-    void shouldThrowExceptionForInvalidPasswordInResetPassword() {
+    void shouldRejectInvalidPasswordInResetPassword() {
         NewPasswordRequest request = new NewPasswordRequest(incorrectPasswordFormat);
 
-        InvalidFormatTypeException exception = assertThrows(InvalidFormatTypeException.class, () ->
-                controller.patchResetPassword(request)
-        );
-
-        assertEquals(ErrorsResponses.INVALID_PASSWORD_FORMAT_TYPE.getMessage(), exception.getMessage());
-        Mockito.verify(passwordService, never()).resetUserPassword(any(), any());
+        assertEquals(Set.of("newPassword"), violatedProperties(request));
     }
 
     @Test
@@ -158,27 +144,17 @@ class PasswordControllerTest {
     }
 
     @Test
-    void shouldThrowExceptionForInvalidEmailInPasswordResetRequest() {
+    void shouldRejectInvalidEmailInPasswordResetRequest() {
         PasswordResetRequest request = new PasswordResetRequest(incorrectEmailFormat);
 
-        InvalidFormatTypeException exception = assertThrows(InvalidFormatTypeException.class, () ->
-                controller.postPasswordResetRequest(request)
-        );
-
-        assertEquals(ErrorsResponses.INVALID_EMAIL_FORMAT_TYPE.getMessage(), exception.getMessage());
-        Mockito.verify(passwordService, never()).requestValidateCode(any());
+        assertEquals(Set.of("email"), violatedProperties(request));
     }
 
     @Test
-    void shouldThrowExceptionForEmptyEmailInPasswordResetRequest() {
+    void shouldRejectEmptyEmailInPasswordResetRequest() {
         PasswordResetRequest request = new PasswordResetRequest("");
 
-        InvalidFormatTypeException exception = assertThrows(InvalidFormatTypeException.class, () ->
-                controller.postPasswordResetRequest(request)
-        );
-
-        assertEquals(ErrorsResponses.INVALID_EMAIL_FORMAT_TYPE.getMessage(), exception.getMessage());
-        Mockito.verify(passwordService, never()).requestValidateCode(any());
+        assertEquals(Set.of("email"), violatedProperties(request));
     }
 
     @Test
@@ -193,4 +169,10 @@ class PasswordControllerTest {
         assertEquals(responseMock, response.getBody());
         Mockito.verify(passwordService, times(1)).validateResetCode(request);
     }
+
+    private Set<String> violatedProperties(Object request) {
+        return validator.validate(request).stream()
+                .map(violation -> violation.getPropertyPath().toString())
+                .collect(Collectors.toSet());
+    }
 }
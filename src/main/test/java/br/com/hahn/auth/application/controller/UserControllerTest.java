@@ -1,27 +1,34 @@
 package br.com.hahn.auth.application.controller;
 
-import br.com.hahn.auth.application.execption.InvalidFormatTypeException;
 import br.com.hahn.auth.application.service.UserService;
-import br.com.hahn.auth.domain.enums.ErrorsResponses;
 import br.com.hahn.auth.domain.model.UserRequest;
 import br.com.hahn.auth.domain.model.UserResponse;
+import br.com.hahn.auth.infrastructure.cache.IdempotentResponseCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import java.time.Duration;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
 class UserControllerTest {
 
     private UserController controller;
     private UserService userService;
+    private final IdempotentResponseCache idempotentResponseCache = new IdempotentResponseCache(new SimpleMeterRegistry(), Duration.ofMinutes(1), 100);
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
 
     @Test
     void shouldRegisterUserSuccessfully() {
         userService = mock(UserService.class);
-        controller = new UserController(userService);
+        controller = new UserController(userService, idempotentResponseCache);
 
         var userRequest = createUserRequest();
         UserResponse userResponse = new UserResponse();
@@ -35,35 +42,19 @@ class UserControllerTest {
     }
 
     @Test
-    void shouldThrowExceptionForInvalidEmailFormat() {
-        userService = mock(UserService.class);
-        controller = new UserController(userService);
-
+    void shouldRejectInvalidEmailFormat() {
         var userRequest = createUserRequest();
         userRequest.setEmail("user.email.com");
 
-        InvalidFormatTypeException exception = assertThrows(InvalidFormatTypeException.class, () ->
-                controller.postRegisterUser(userRequest)
-        );
-
-        assertEquals(ErrorsResponses.INVALID_EMAIL_FORMAT_TYPE.getMessage(), exception.getMessage());
-        verify(userService, never()).createUser(any());
+        assertEquals(Set.of("email"), violatedProperties(userRequest));
     }
 
     @Test
-    void shouldThrowExceptionForInvalidPasswordFormat() {
-        userService = mock(UserService.class);
-        controller = new UserController(userService);
-
+    void shouldRejectInvalidPasswordFormat() {
         var userRequest = createUserRequest();
         userRequest.setPassword("weak");
 
-        InvalidFormatTypeException exception = assertThrows(InvalidFormatTypeException.class, () ->
-                controller.postRegisterUser(userRequest)
-        );
-
-        assertEquals(ErrorsResponses.INVALID_PASSWORD_FORMAT_TYPE.getMessage(), exception.getMessage());
-        verify(userService, never()).createUser(any());
+        assertEquals(Set.of("password"), violatedProperties(userRequest));
     }
 
     private UserRequest createUserRequest(){
@@ -79,4 +70,10 @@ class UserControllerTest {
 
         return request;
     }
+
+    private Set<String> violatedProperties(Object request) {
+        return validator.validate(request).stream()
+                .map(violation -> violation.getPropertyPath().toString())
+                .collect(Collectors.toSet());
+    }
 }
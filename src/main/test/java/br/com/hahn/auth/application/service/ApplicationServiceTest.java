@@ -1,25 +1,48 @@
 package br.com.hahn.auth.application.service;
 
+import br.com.hahn.auth.application.dto.ApplicationSnapshot;
 import br.com.hahn.auth.application.execption.ApplicationNotFoundException;
+import br.com.hahn.auth.domain.enums.ScopeToken;
 import br.com.hahn.auth.domain.model.Application;
-import br.com.hahn.auth.domain.respository.ApplicationRepository;
+import br.com.hahn.auth.domain.model.ApplicationRegisterResponse;
+import br.com.hahn.auth.domain.model.TokenLog;
+import br.com.hahn.auth.infrastructure.cache.ApplicationRegistry;
+import br.com.hahn.auth.infrastructure.cache.CacheInvalidationBus;
+import br.com.hahn.auth.infrastructure.cache.ApplicationTokenCache;
+import br.com.hahn.auth.infrastructure.security.TokenService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class ApplicationServiceTest {
 
     @Mock
-    private ApplicationRepository applicationRepository;
+    private ApplicationRegistry applicationRegistry;
+
+    @Mock
+    private TokenLogService tokenLogService;
+
+    @Mock
+    private TokenService tokenService;
+
+    @Spy
+    private ApplicationTokenCache applicationTokenCache = new ApplicationTokenCache(new SimpleMeterRegistry(), mock(CacheInvalidationBus.class), Duration.ofMinutes(5));
 
     @InjectMocks
     private ApplicationService applicationService;
@@ -27,25 +50,82 @@ class ApplicationServiceTest {
     @Test
     void shouldFindApplicationByIdWhenApplicationExists() {
         Long id = 1L;
-        Application application = new Application();
-        application.setId(id);
+        ApplicationSnapshot application = new ApplicationSnapshot(id, UUID.randomUUID(), "toxic-bet");
 
-        when(applicationRepository.findById(id)).thenReturn(Optional.of(application));
+        when(applicationRegistry.findById(id)).thenReturn(Optional.of(application));
 
         Application result = applicationService.findById(id);
 
         assertNotNull(result);
         assertEquals(id, result.getId());
-        verify(applicationRepository).findById(id);
+        verify(applicationRegistry).findById(id);
     }
 
     @Test
     void shouldThrowApplicationNotFoundExceptionWhenApplicationDoesNotExist() {
         Long id = 1L;
 
-        when(applicationRepository.findById(id)).thenReturn(Optional.empty());
+        when(applicationRegistry.findById(id)).thenReturn(Optional.empty());
 
         assertThrows(ApplicationNotFoundException.class, () -> applicationService.findById(id));
-        verify(applicationRepository).findById(id);
+        verify(applicationRegistry).findById(id);
+    }
+
+    @Test
+    void shouldReturnDetachedCopyWhenFindingByPublicId() {
+        UUID publicId = UUID.randomUUID();
+        ApplicationSnapshot application = new ApplicationSnapshot(1L, publicId, "toxic-bet");
+
+        when(applicationRegistry.findByPublicId(publicId)).thenReturn(Optional.of(application));
+
+        Application first = applicationService.findByPublicId(publicId);
+        Application second = applicationService.findByPublicId(publicId);
+
+        assertEquals(publicId, first.getPublicId());
+        assertEquals("toxic-bet", first.getNameApplication());
+        assertNotSame(first, second);
+    }
+
+    @Test
+    void shouldReuseApplicationTokensWhileStillActive() {
+        UUID publicId = UUID.randomUUID();
+        TokenLog tokenLog = new TokenLog();
+        tokenLog.setIdTokenLog(UUID.randomUUID());
+        tokenLog.setCreateDate(LocalDateTime.now());
+
+        when(applicationRegistry.findByPublicId(publicId)).thenReturn(Optional.of(new ApplicationSnapshot(1L, publicId, "toxic-bet")));
+        when(tokenLogService.saveApplicationTokenLog(any(), any(), any())).thenReturn(tokenLog);
+        when(tokenService.generateApplicationToken(any(), eq(tokenLog))).thenReturn("application-token");
+        when(tokenService.generateApplicationRefreshToken(any(), eq(tokenLog))).thenReturn("refresh-token");
+        when(tokenService.applicationTokenExpiresAt(tokenLog)).thenReturn(Instant.now().plus(Duration.ofHours(10)));
+        when(tokenService.applicationRefreshTokenExpiresAt(tokenLog)).thenReturn(Instant.now().plus(Duration.ofHours(1)));
+        when(tokenLogService.isTokenValid(tokenLog.getIdTokenLog())).thenReturn(true);
+
+        ApplicationRegisterResponse first = applicationService.registerApplication(publicId);
+        ApplicationRegisterResponse second = applicationService.registerApplication(publicId);
+
+        assertEquals(first.getApplicationToken(), second.getApplicationToken());
+        assertEquals(first.getRefreshApplicationToken(), second.getRefreshApplicationToken());
+        verify(tokenLogService, times(1)).saveApplicationTokenLog(any(), eq(ScopeToken.APPLICATION_TOKEN), any());
+        verify(tokenService, times(1)).generateApplicationToken(any(), any());
+    }
+
+    @Test
+    void shouldIssueNewApplicationTokensWhenStoredTokensWereDeactivated() {
+        UUID publicId = UUID.randomUUID();
+        TokenLog tokenLog = new TokenLog();
+        tokenLog.setIdTokenLog(UUID.randomUUID());
+        tokenLog.setCreateDate(LocalDateTime.now());
+
+        when(applicationRegistry.findByPublicId(publicId)).thenReturn(Optional.of(new ApplicationSnapshot(1L, publicId, "toxic-bet")));
+        when(tokenLogService.saveApplicationTokenLog(any(), any(), any())).thenReturn(tokenLog);
+        when(tokenService.applicationTokenExpiresAt(tokenLog)).thenReturn(Instant.now().plus(Duration.ofHours(10)));
+        when(tokenService.applicationRefreshTokenExpiresAt(tokenLog)).thenReturn(Instant.now().plus(Duration.ofHours(1)));
+        when(tokenLogService.isTokenValid(tokenLog.getIdTokenLog())).thenReturn(false);
+
+        applicationService.registerApplication(publicId);
+        applicationService.registerApplication(publicId);
+
+        verify(tokenService, times(2)).generateApplicationToken(any(), any());
     }
-}
\ No newline at end of file
+}
@@ -5,22 +5,33 @@ import br.com.hahn.auth.application.execption.InvalidTokenException;
 import br.com.hahn.auth.application.execption.UserBlockException;
 import br.com.hahn.auth.domain.enums.ScopeToken;
 import br.com.hahn.auth.domain.enums.TypeInvalidation;
+import br.com.hahn.auth.domain.model.LoggedNow;
 import br.com.hahn.auth.domain.model.LoginRequest;
 import br.com.hahn.auth.domain.model.LoginResponse;
 import br.com.hahn.auth.domain.model.TokenLog;
+import br.com.hahn.auth.domain.model.TokenState;
 import br.com.hahn.auth.domain.model.User;
+import br.com.hahn.auth.infrastructure.cache.RefreshSingleFlight;
+import br.com.hahn.auth.infrastructure.lock.UserSessionLock;
 import br.com.hahn.auth.infrastructure.security.TokenService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.jwt.Jwt;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -45,6 +56,12 @@ class AuthServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Spy
+    private RefreshSingleFlight refreshSingleFlight = new RefreshSingleFlight(new SimpleMeterRegistry(), Duration.ofSeconds(10), 100);
+
+    @Spy
+    private UserSessionLock userSessionLock = new UserSessionLock(new SimpleMeterRegistry(), null, null, "local", 16);
+
     @InjectMocks
     private AuthService authService;
 
@@ -99,6 +116,118 @@ class AuthServiceTest {
         assertThrows(UserBlockException.class, () -> authService.userLogin(loginRequest));
     }
 
+    @Test
+    void shouldCleanPreviousSessionEvenWhenPasswordDoesNotMatch() {
+        LoginRequest loginRequest = new LoginRequest("user@example.com", "wrongPassword");
+        User user = new User();
+        user.setUserId(UUID.randomUUID());
+        user.setEmail("user@example.com");
+        user.setPassword("encodedPassword");
+
+        when(userService.findByEmail(loginRequest.getEmail())).thenReturn(user);
+        when(loggedNowService.findByUserId(user.getUserId())).thenReturn(List.of(new LoggedNow()));
+        when(passwordEncoder.matches(loginRequest.getPassword(), user.getPassword())).thenReturn(false);
+
+        assertThrows(InvalidCredentialsException.class, () -> authService.userLogin(loginRequest));
+        verify(loggedNowService).deleteByUserId(user.getUserId());
+        verify(tokenLogService).deactivateActiveUserToken(user.getUserId(), TypeInvalidation.NEW_LOGIN);
+    }
+
+    @Test
+    void shouldNotCompareCredentialsOfBlockedUser() {
+        LoginRequest loginRequest = new LoginRequest("user@example.com", "password");
+        User user = new User();
+        user.setUserId(UUID.randomUUID());
+        user.setEmail("user@example.com");
+        user.setPassword("encodedPassword");
+        user.setBlockUser(true);
+
+        when(userService.findByEmail(loginRequest.getEmail())).thenReturn(user);
+
+        assertThrows(UserBlockException.class, () -> authService.userLogin(loginRequest));
+        verifyNoInteractions(passwordEncoder);
+    }
+
+    @Test
+    void shouldPropagateSessionCleanupFailure() {
+        LoginRequest loginRequest = new LoginRequest("user@example.com", "password");
+        User user = new User();
+        user.setUserId(UUID.randomUUID());
+        user.setEmail("user@example.com");
+        user.setPassword("encodedPassword");
+
+        when(userService.findByEmail(loginRequest.getEmail())).thenReturn(user);
+        when(loggedNowService.findByUserId(user.getUserId())).thenThrow(new IllegalStateException("database down"));
+
+        var exception = assertThrows(IllegalStateException.class, () -> authService.userLogin(loginRequest));
+        assertEquals("database down", exception.getMessage());
+        verify(tokenLogService, never()).saveTokenLog(any(), any(), any());
+    }
+
+    @Test
+    void shouldRunDatabaseWorkOnCallingThread() {
+        LoginRequest loginRequest = new LoginRequest("user@example.com", "password");
+        User user = new User();
+        user.setUserId(UUID.randomUUID());
+        user.setEmail("user@example.com");
+        user.setPassword("encodedPassword");
+        var databaseThreads = ConcurrentHashMap.<Thread>newKeySet();
+
+        when(userService.findByEmail(loginRequest.getEmail())).thenReturn(user);
+        when(passwordEncoder.matches(loginRequest.getPassword(), user.getPassword())).thenReturn(true);
+        when(loggedNowService.findByUserId(user.getUserId())).thenAnswer(_ -> {
+            databaseThreads.add(Thread.currentThread());
+            return List.of();
+        });
+        when(tokenLogService.saveTokenLog(any(), any(), any())).thenAnswer(_ -> {
+            databaseThreads.add(Thread.currentThread());
+            return new TokenLog();
+        });
+
+        authService.userLogin(loginRequest);
+
+        assertEquals(Set.of(Thread.currentThread()), databaseThreads);
+        verify(tokenLogService, times(2)).saveTokenLog(any(), any(), any());
+    }
+
+    @Test
+    void shouldShareRefreshResultForSameRefreshToken() {
+        UUID tokenLogId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        Jwt jwt = mock(Jwt.class);
+        when(jwt.getSubject()).thenReturn("user@example.com");
+        when(jwt.getClaim("token_log_id")).thenReturn(tokenLogId.toString());
+        when(jwt.getClaim("user_id")).thenReturn(userId.toString());
+        User user = new User();
+        user.setUserId(userId);
+        user.setEmail("user@example.com");
+
+        when(tokenLogService.findTokenState(tokenLogId)).thenReturn(new TokenState(tokenLogId, ScopeToken.REFRESH_TOKEN, true, LocalDateTime.now()));
+        when(tokenLogService.isTokenValid(tokenLogId)).thenReturn(true);
+        when(userService.findByEmail("user@example.com")).thenReturn(user);
+        when(tokenLogService.saveTokenLog(any(), any(), any())).thenReturn(new TokenLog());
+        when(tokenService.generateUserToken(any(), any())).thenReturn("accessToken");
+        when(tokenService.generateRefreshToken(any(), any())).thenReturn("refreshToken");
+
+        LoginResponse first = authService.generateNewTokenForUser(jwt);
+        LoginResponse second = authService.generateNewTokenForUser(jwt);
+
+        assertSame(first, second);
+        verify(tokenLogService, times(1)).deactivateActiveUserToken(userId, TypeInvalidation.USER_REFRESH);
+        verify(tokenService, times(1)).generateUserToken(any(), any());
+    }
+
+    @Test
+    void shouldLogOffUnderUserSessionLock() {
+        UUID userId = UUID.randomUUID();
+
+        authService.doLogOff(userId, TypeInvalidation.LOG_OFF);
+
+        verify(userSessionLock).withLock(eq(userId), any(Runnable.class));
+        verify(loggedNowService).deleteByUserId(userId);
+        verify(tokenLogService).deactivateActiveUserToken(userId, TypeInvalidation.LOG_OFF);
+    }
+
     @Test
     void shouldLogOffUserSuccessfully() {
         Jwt jwt = mock(Jwt.class);
@@ -115,10 +244,9 @@ class AuthServiceTest {
     @Test
     void shouldThrowInvalidTokenExceptionWhenTokenIsNotRefreshToken() throws Exception {
         UUID tokenLogId = UUID.randomUUID();
-        TokenLog tokenLog = new TokenLog();
-        tokenLog.setScopeToken(ScopeToken.LOGIN_TOKEN);
+        TokenState tokenState = new TokenState(tokenLogId, ScopeToken.LOGIN_TOKEN, true, LocalDateTime.now());
 
-        when(tokenLogService.findById(tokenLogId)).thenReturn(tokenLog);
+        when(tokenLogService.findTokenState(tokenLogId)).thenReturn(tokenState);
 
         Method method = AuthService.class.getDeclaredMethod("isRefreshToken", UUID.class);
         method.setAccessible(true);
@@ -0,0 +1,113 @@
+package br.com.hahn.auth.application.service;
+
+import br.com.hahn.auth.domain.enums.EmailOutboxStatus;
+import br.com.hahn.auth.domain.model.EmailOutbox;
+import br.com.hahn.auth.domain.respository.EmailOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailOutboxServiceTest {
+
+    @Mock
+    private EmailOutboxRepository emailOutboxRepository;
+
+    private EmailOutboxService emailOutboxService;
+
+    @BeforeEach
+    void setUp() {
+        emailOutboxService = new EmailOutboxService(emailOutboxRepository, 3, Duration.ofSeconds(30), Duration.ofMinutes(2), Duration.ofMinutes(2));
+    }
+
+    @Test
+    void shouldEnqueuePendingEmailDueNow() {
+        emailOutboxService.enqueue("user@example.com", "subject", "<p>body</p>");
+
+        ArgumentCaptor<EmailOutbox> captor = ArgumentCaptor.forClass(EmailOutbox.class);
+        verify(emailOutboxRepository).save(captor.capture());
+        assertEquals(EmailOutboxStatus.PENDING, captor.getValue().getStatus());
+        assertEquals(0, captor.getValue().getAttempts());
+        assertFalse(captor.getValue().getNextAttemptAt().isAfter(LocalDateTime.now()));
+    }
+
+    @Test
+    void shouldLeaseClaimedEmails() {
+        EmailOutbox email = email(0);
+        when(emailOutboxRepository.lockDueBatch(any(LocalDateTime.class), eq(10))).thenReturn(List.of(email));
+
+        var batch = emailOutboxService.claimDueBatch(10);
+
+        assertEquals(1, batch.getFirst().getAttempts());
+        assertTrue(batch.getFirst().getNextAttemptAt().isAfter(LocalDateTime.now().plusMinutes(1)));
+    }
+
+    @Test
+    void shouldDoubleBackoffUpToMaximum() {
+        assertEquals(Duration.ofSeconds(30), emailOutboxService.backoffFor(1));
+        assertEquals(Duration.ofSeconds(60), emailOutboxService.backoffFor(2));
+        assertEquals(Duration.ofMinutes(2), emailOutboxService.backoffFor(3));
+        assertEquals(Duration.ofMinutes(2), emailOutboxService.backoffFor(10));
+    }
+
+    @Test
+    void shouldRescheduleFailedEmailBelowMaxAttempts() {
+        EmailOutbox email = email(1);
+        when(emailOutboxRepository.findById(1L)).thenReturn(Optional.of(email));
+
+        var status = emailOutboxService.markFailed(1L, "503");
+
+        assertEquals(EmailOutboxStatus.PENDING, status);
+        assertEquals(EmailOutboxStatus.PENDING, email.getStatus());
+        assertEquals("503", email.getLastError());
+    }
+
+    @Test
+    void shouldDeadLetterEmailAfterMaxAttempts() {
+        EmailOutbox email = email(3);
+        when(emailOutboxRepository.findById(1L)).thenReturn(Optional.of(email));
+
+        var status = emailOutboxService.markFailed(1L, "503");
+
+        assertEquals(EmailOutboxStatus.DEAD, status);
+        assertEquals(EmailOutboxStatus.DEAD, email.getStatus());
+        assertNull(email.getHtmlBody());
+    }
+
+    @Test
+    void shouldDropBodyWhenEmailIsSent() {
+        EmailOutbox email = email(1);
+        when(emailOutboxRepository.findById(1L)).thenReturn(Optional.of(email));
+
+        emailOutboxService.markSent(1L);
+
+        assertEquals(EmailOutboxStatus.SENT, email.getStatus());
+        assertNull(email.getHtmlBody());
+        assertNotNull(email.getSentAt());
+    }
+
+    private EmailOutbox email(int attempts) {
+        EmailOutbox email = new EmailOutbox();
+        email.setId(1L);
+        email.setRecipient("user@example.com");
+        email.setSubject("subject");
+        email.setHtmlBody("<p>body</p>");
+        email.setStatus(EmailOutboxStatus.PENDING);
+        email.setAttempts(attempts);
+        email.setNextAttemptAt(LocalDateTime.now());
+        return email;
+    }
+}
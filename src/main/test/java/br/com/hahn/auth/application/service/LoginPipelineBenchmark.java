@@ -0,0 +1,104 @@
+package br.com.hahn.auth.application.service;
+
+import br.com.hahn.auth.util.TaskScope;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Compares the end-to-end latency of the login pipeline run step by step with the
+ * {@link TaskScope} version used by {@link AuthService#userLogin}.
+ * <p>
+ * BCrypt and the RSA signatures are real; every database round trip (previous-session lookup,
+ * token log insert) is simulated by parking for {@code dbLatencyMicros}.
+ * <p>
+ * Run with {@code java -cp target/test-classes:<test classpath> org.openjdk.jmh.Main LoginPipelineBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoginPipelineBenchmark {
+
+    private static final String PASSWORD = "SecurePass1!";
+
+    @Param({"500", "2000"})
+    private long dbLatencyMicros;
+
+    private BCryptPasswordEncoder passwordEncoder;
+    private String encodedPassword;
+    private Algorithm algorithm;
+
+    @Setup
+    public void setUp() throws NoSuchAlgorithmException {
+        passwordEncoder = new BCryptPasswordEncoder();
+        encodedPassword = passwordEncoder.encode(PASSWORD);
+        var generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        var keyPair = generator.generateKeyPair();
+        algorithm = Algorithm.RSA256((RSAPublicKey) keyPair.getPublic(), (RSAPrivateKey) keyPair.getPrivate());
+    }
+
+    @Benchmark
+    public void sequential(Blackhole blackhole) {
+        database();
+        blackhole.consume(passwordEncoder.matches(PASSWORD, encodedPassword));
+        blackhole.consume(issue("LOGIN_TOKEN"));
+        blackhole.consume(issue("REFRESH_TOKEN"));
+    }
+
+    @Benchmark
+    public void structured(Blackhole blackhole) {
+        try (var scope = new TaskScope()) {
+            scope.fork(() -> {
+                database();
+                return null;
+            });
+            var matches = scope.fork(() -> passwordEncoder.matches(PASSWORD, encodedPassword));
+            scope.join();
+            blackhole.consume(matches.get());
+        }
+        try (var scope = new TaskScope()) {
+            var token = scope.fork(() -> issue("LOGIN_TOKEN"));
+            var refreshToken = scope.fork(() -> issue("REFRESH_TOKEN"));
+            scope.join();
+            blackhole.consume(token.get());
+            blackhole.consume(refreshToken.get());
+        }
+    }
+
+    private String issue(String scope) {
+        database();
+        return JWT.create()
+                .withSubject("john.doe@toxicbet.com.br")
+                .withClaim("token_log_id", UUID.randomUUID().toString())
+                .withClaim("scope", scope)
+                .sign(algorithm);
+    }
+
+    private void database() {
+        LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(dbLatencyMicros));
+    }
+}
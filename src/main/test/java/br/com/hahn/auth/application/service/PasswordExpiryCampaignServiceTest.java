@@ -0,0 +1,102 @@
+package br.com.hahn.auth.application.service;
+
+import br.com.hahn.auth.domain.model.PasswordExpiryCandidate;
+import br.com.hahn.auth.domain.respository.PasswordExpiryNoticeRepository;
+import br.com.hahn.auth.infrastructure.scheduling.JobScanMetrics;
+import br.com.hahn.auth.infrastructure.scheduling.JobShard;
+import br.com.hahn.auth.infrastructure.service.EmailService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PasswordExpiryCampaignServiceTest {
+
+    @Mock
+    private PasswordExpiryNoticeRepository passwordExpiryNoticeRepository;
+
+    @Mock
+    private EmailService emailService;
+
+    private PasswordExpiryCampaignService passwordExpiryCampaignService;
+
+    @BeforeEach
+    void setUp() {
+        var meterRegistry = new SimpleMeterRegistry();
+        passwordExpiryCampaignService = new PasswordExpiryCampaignService(passwordExpiryNoticeRepository, emailService,
+                new JobScanMetrics(meterRegistry), meterRegistry, List.of(20, 15, 10, 5), 2, 4, 1000, Duration.ofSeconds(5));
+    }
+
+    @Test
+    void shouldPickMostUrgentThresholdReached() {
+        var now = LocalDateTime.now();
+
+        var notice = passwordExpiryCampaignService.toNotice(candidate(now.minusDays(82), null), now);
+
+        assertTrue(notice.isPresent());
+        assertEquals(10, notice.get().thresholdDays());
+        assertEquals(8, notice.get().daysLeft());
+    }
+
+    @Test
+    void shouldSkipWhenThresholdAlreadyNotified() {
+        var now = LocalDateTime.now();
+
+        assertTrue(passwordExpiryCampaignService.toNotice(candidate(now.minusDays(82), 10), now).isEmpty());
+        assertTrue(passwordExpiryCampaignService.toNotice(candidate(now.minusDays(82), 5), now).isEmpty());
+        assertTrue(passwordExpiryCampaignService.toNotice(candidate(now.minusDays(82), 15), now).isPresent());
+    }
+
+    @Test
+    void shouldSkipPasswordsOutsideWarningWindow() {
+        var now = LocalDateTime.now();
+
+        assertTrue(passwordExpiryCampaignService.toNotice(candidate(now.minusDays(60), null), now).isEmpty());
+    }
+
+    @Test
+    void shouldWalkChunksAndRecordOnlySuccessfulSends() {
+        var now = LocalDateTime.now();
+        var first = candidate(now.minusDays(75), null);
+        var second = candidate(now.minusDays(80), null);
+        var third = candidate(now.minusDays(86), null);
+        when(passwordExpiryNoticeRepository.findCandidatesAfter(any(LocalDateTime.class), any(LocalDateTime.class), any(UUID.class), eq(2), eq(0), eq(1)))
+                .thenReturn(List.of(first, second))
+                .thenReturn(List.of(third));
+        when(emailService.sendEmail(anyString(), anyString(), anyString())).thenReturn(Mono.empty());
+        when(emailService.sendEmail(eq(second.getEmail()), anyString(), anyString())).thenReturn(Mono.error(new IllegalStateException("provider down")));
+
+        int sentCount = passwordExpiryCampaignService.run(JobShard.ALL);
+
+        assertEquals(2, sentCount);
+        verify(passwordExpiryNoticeRepository).findCandidatesAfter(any(LocalDateTime.class), any(LocalDateTime.class), eq(new UUID(0L, 0L)), eq(2), eq(0), eq(1));
+        verify(passwordExpiryNoticeRepository).findCandidatesAfter(any(LocalDateTime.class), any(LocalDateTime.class), eq(second.getUserId()), eq(2), eq(0), eq(1));
+        verify(passwordExpiryNoticeRepository).recordNotice(eq(first.getUserId()), eq(first.getPasswordCreateDate()), eq(15), any(LocalDateTime.class));
+        verify(passwordExpiryNoticeRepository).recordNotice(eq(third.getUserId()), eq(third.getPasswordCreateDate()), eq(5), any(LocalDateTime.class));
+        verify(passwordExpiryNoticeRepository, never()).recordNotice(eq(second.getUserId()), any(LocalDateTime.class), anyInt(), any(LocalDateTime.class));
+    }
+
+    private PasswordExpiryCandidate candidate(LocalDateTime passwordCreateDate, Integer lastNotifiedThreshold) {
+        var userId = UUID.randomUUID();
+        return new Candidate(userId, userId + "@example.com", "John", passwordCreateDate, lastNotifiedThreshold);
+    }
+
+    private record Candidate(UUID getUserId, String getEmail, String getFirstName, LocalDateTime getPasswordCreateDate,
+                             Integer getLastNotifiedThreshold) implements PasswordExpiryCandidate { }
+}
@@ -9,7 +9,6 @@ import br.com.hahn.auth.domain.enums.TypeUser;
 import br.com.hahn.auth.domain.model.*;
 import br.com.hahn.auth.domain.respository.ResetPasswordRepository;
 import br.com.hahn.auth.infrastructure.security.TokenService;
-import br.com.hahn.auth.infrastructure.service.EmailService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -18,7 +17,6 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.jwt.Jwt;
-import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
@@ -51,7 +49,7 @@ class PasswordServiceTest {
     private ResetPasswordRepository resetPasswordRepository;
 
     @Mock
-    private EmailService emailService;
+    private EmailOutboxService emailOutboxService;
 
     @Mock
     private TokenService tokenService;
@@ -151,7 +149,6 @@ class PasswordServiceTest {
         when(userService.findByEmail(correctEmailFormat)).thenReturn(user);
         when(resetPasswordRepository.existsByUserEmail(correctEmailFormat)).thenReturn(false);
         when(passwordEncoder.encode(anyString())).thenReturn(encodedCode);
-        when(emailService.sendEmail(anyString(), anyString(), anyString())).thenReturn(Mono.empty());
 
         SuccessResponse response = passwordService.requestValidateCode(request);
 
@@ -159,7 +156,7 @@ class PasswordServiceTest {
         assertNotNull(response.getMessage());
         verify(userService).findByEmail(correctEmailFormat);
         verify(resetPasswordRepository).save(any(ResetPassword.class));
-        verify(emailService).sendEmail(eq(correctEmailFormat), anyString(), anyString());
+        verify(emailOutboxService).enqueue(eq(correctEmailFormat), anyString(), anyString());
     }
 
     @Test
@@ -177,7 +174,6 @@ class PasswordServiceTest {
         when(resetPasswordRepository.existsByUserEmail(correctEmailFormat)).thenReturn(true);
         when(resetPasswordRepository.findByUserEmail(correctEmailFormat)).thenReturn(Optional.of(existingResetPassword));
         when(passwordEncoder.encode(anyString())).thenReturn(encodedCode);
-        when(emailService.sendEmail(anyString(), anyString(), anyString())).thenReturn(Mono.empty());
 
         passwordService.requestValidateCode(request);
 
@@ -262,18 +258,6 @@ class PasswordServiceTest {
         verify(tokenLogService).deactivateActiveToken(userId, TypeInvalidation.RESET_PASSWORD);
     }
 
-    @Test
-    void shouldDeleteExpiredResetPasswordEntries() {
-        LocalDateTime cutoffDate = LocalDateTime.now().minusDays(1);
-
-        when(resetPasswordRepository.deleteByExpirationDateBefore(cutoffDate)).thenReturn(5);
-
-        int deletedCount = passwordService.deleteByExpirationDateBefore(cutoffDate);
-
-        assertEquals(5, deletedCount);
-        verify(resetPasswordRepository).deleteByExpirationDateBefore(cutoffDate);
-    }
-
     @Test
     void shouldValidateTokenForChangePasswordSuccessfully() {
         UUID tokenLogId = UUID.randomUUID();
@@ -281,20 +265,17 @@ class PasswordServiceTest {
         Jwt jwt = mock(Jwt.class);
         when(jwt.<String>getClaim("token_log_id")).thenReturn(tokenLogId.toString());
 
-        TokenLog tokenLog = new TokenLog();
-        tokenLog.setIdTokenLog(tokenLogId);
-        tokenLog.setScopeToken(ScopeToken.LOGIN_TOKEN);
-        tokenLog.setActiveToken(true);
+        TokenState tokenState = new TokenState(tokenLogId, ScopeToken.LOGIN_TOKEN, true, LocalDateTime.now());
 
-        when(tokenLogService.findById(tokenLogId)).thenReturn(tokenLog);
-        doNothing().when(tokenLogService).isExpectedScopeToken(tokenLog);
-        doNothing().when(tokenLogService).isTokenLogValid(tokenLog);
+        when(tokenLogService.findTokenState(tokenLogId)).thenReturn(tokenState);
+        doNothing().when(tokenLogService).isExpectedScopeToken(tokenState);
+        doNothing().when(tokenLogService).isTokenLogValid(tokenState);
 
         passwordService.validateTokenForChangePassword(jwt);
 
-        verify(tokenLogService).findById(tokenLogId);
-        verify(tokenLogService).isExpectedScopeToken(tokenLog);
-        verify(tokenLogService).isTokenLogValid(tokenLog);
+        verify(tokenLogService).findTokenState(tokenLogId);
+        verify(tokenLogService).isExpectedScopeToken(tokenState);
+        verify(tokenLogService).isTokenLogValid(tokenState);
     }
 
     @Test
@@ -306,7 +287,6 @@ class PasswordServiceTest {
         when(userService.findByEmail(correctEmailFormat)).thenReturn(user);
         when(resetPasswordRepository.existsByUserEmail(correctEmailFormat)).thenReturn(false);
         when(passwordEncoder.encode(anyString())).thenReturn(encodedCode);
-        when(emailService.sendEmail(anyString(), anyString(), anyString())).thenReturn(Mono.empty());
 
         passwordService.requestValidateCode(request);
 
@@ -4,8 +4,11 @@ import br.com.hahn.auth.application.execption.InvalidTokenException;
 import br.com.hahn.auth.domain.enums.ScopeToken;
 import br.com.hahn.auth.domain.enums.TypeInvalidation;
 import br.com.hahn.auth.domain.model.TokenLog;
+import br.com.hahn.auth.domain.model.TokenState;
 import br.com.hahn.auth.domain.model.User;
 import br.com.hahn.auth.domain.respository.TokenLogRepository;
+import br.com.hahn.auth.infrastructure.cache.RequestMemo;
+import br.com.hahn.auth.infrastructure.scheduling.TokenExpiryWheel;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -13,6 +16,10 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.mock.web.MockHttpServletRequest;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
@@ -38,6 +45,12 @@ class TokenLogServiceTest {
     @Mock
     private InvalidatedTokenService invalidatedTokenService;
 
+    @Spy
+    private RequestMemo requestMemo = new RequestMemo();
+
+    @Mock
+    private TokenExpiryWheel tokenExpiryWheel;
+
     @InjectMocks
     private TokenLogService tokenLogService;
 
@@ -99,6 +112,7 @@ class TokenLogServiceTest {
             assertNotNull(result);
             verify(tokenLogRepository).save(any());
             verify(loggedNowService).save(user.getUserId(), tokenLog.getIdTokenLog(), createDate);
+            verify(tokenExpiryWheel).schedule(tokenLog.getIdTokenLog(), scopeToken, createDate);
         }
 
         @Test
@@ -131,7 +145,8 @@ class TokenLogServiceTest {
         void isTokenValidReturnsTrue() {
             UUID tokenLogId = UUID.randomUUID();
 
-            when(tokenLogRepository.findActiveTokenByLoginLogId(tokenLogId)).thenReturn(true);
+            when(tokenLogRepository.findTokenStateById(tokenLogId))
+                    .thenReturn(Optional.of(new TokenState(tokenLogId, ScopeToken.REFRESH_TOKEN, true, LocalDateTime.now())));
 
             assertTrue(tokenLogService.isTokenValid(tokenLogId));
         }
@@ -141,10 +156,39 @@ class TokenLogServiceTest {
         void isTokenValidReturnsFalse() {
             UUID tokenLogId = UUID.randomUUID();
 
-            when(tokenLogRepository.findActiveTokenByLoginLogId(tokenLogId)).thenReturn(false);
+            when(tokenLogRepository.findTokenStateById(tokenLogId))
+                    .thenReturn(Optional.of(new TokenState(tokenLogId, ScopeToken.REFRESH_TOKEN, false, LocalDateTime.now())));
+
+            assertFalse(tokenLogService.isTokenValid(tokenLogId));
+        }
+
+        @Test
+        @DisplayName("Should return false when token does not exist")
+        void isTokenValidReturnsFalseWhenNotFound() {
+            UUID tokenLogId = UUID.randomUUID();
+
+            when(tokenLogRepository.findTokenStateById(tokenLogId)).thenReturn(Optional.empty());
 
             assertFalse(tokenLogService.isTokenValid(tokenLogId));
         }
+
+        @Test
+        @DisplayName("Should load the token state once per request")
+        void isTokenValidSharesTokenStateWithinRequest() {
+            UUID tokenLogId = UUID.randomUUID();
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+            try {
+                when(tokenLogRepository.findTokenStateById(tokenLogId))
+                        .thenReturn(Optional.of(new TokenState(tokenLogId, ScopeToken.REFRESH_TOKEN, true, LocalDateTime.now())));
+
+                assertEquals(ScopeToken.REFRESH_TOKEN, tokenLogService.findTokenState(tokenLogId).scopeToken());
+                assertTrue(tokenLogService.isTokenValid(tokenLogId));
+
+                verify(tokenLogRepository, times(1)).findTokenStateById(tokenLogId);
+            } finally {
+                RequestContextHolder.resetRequestAttributes();
+            }
+        }
     }
 
     @Nested
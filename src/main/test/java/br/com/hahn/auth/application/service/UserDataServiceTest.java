@@ -0,0 +1,113 @@
+package br.com.hahn.auth.application.service;
+
+import br.com.hahn.auth.domain.enums.UserSyncStatus;
+import br.com.hahn.auth.domain.model.UserSyncTask;
+import br.com.hahn.auth.domain.respository.UserSyncTaskRepository;
+import br.com.hahn.auth.infrastructure.security.TokenCipher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserDataServiceTest {
+
+    @Mock
+    private UserSyncTaskRepository userSyncTaskRepository;
+
+    private final TokenCipher tokenCipher = new TokenCipher(Base64.getEncoder().encodeToString(new byte[32]));
+    private UserDataService userDataService;
+
+    @BeforeEach
+    void setUp() {
+        userDataService = new UserDataService(userSyncTaskRepository, tokenCipher, 3, Duration.ofSeconds(5), Duration.ofMinutes(2), Duration.ofMinutes(1));
+    }
+
+    @Test
+    void shouldUpsertPendingSyncWithEncryptedRequestToken() {
+        Jwt jwt = mock(Jwt.class);
+        when(jwt.getTokenValue()).thenReturn("token");
+        when(jwt.getExpiresAt()).thenReturn(Instant.now().plusSeconds(900));
+        var storedToken = ArgumentCaptor.forClass(String.class);
+
+        userDataService.updateUserByEmailHeader(jwt, "user@example.com");
+
+        verify(userSyncTaskRepository).upsertPending(eq("user@example.com"), storedToken.capture(), any(LocalDateTime.class), any(LocalDateTime.class));
+        assertNotEquals("token", storedToken.getValue());
+        assertEquals("token", tokenCipher.decrypt(storedToken.getValue(), "user@example.com"));
+    }
+
+    @Test
+    void shouldDecryptStoredTokenForTheRowOwner() {
+        UserSyncTask task = task(1, LocalDateTime.now().plusMinutes(10));
+        task.setBearerToken(tokenCipher.encrypt("token", "user@example.com"));
+
+        assertEquals("token", userDataService.bearerTokenOf(task));
+    }
+
+    @Test
+    void shouldKeepRowPendingWhenNewerUpdateWasCoalesced() {
+        UserSyncTask task = task(2, LocalDateTime.now().plusMinutes(10));
+        when(userSyncTaskRepository.findById(1L)).thenReturn(Optional.of(task));
+
+        userDataService.markSynced(1L, 1);
+
+        assertEquals(UserSyncStatus.PENDING, task.getStatus());
+        assertEquals("token", task.getBearerToken());
+    }
+
+    @Test
+    void shouldMarkSyncedAndDropToken() {
+        UserSyncTask task = task(1, LocalDateTime.now().plusMinutes(10));
+        when(userSyncTaskRepository.findById(1L)).thenReturn(Optional.of(task));
+
+        userDataService.markSynced(1L, 1);
+
+        assertEquals(UserSyncStatus.SYNCED, task.getStatus());
+        assertNull(task.getBearerToken());
+    }
+
+    @Test
+    void shouldRetryWithBackoffWhileTokenIsValid() {
+        UserSyncTask task = task(1, LocalDateTime.now().plusMinutes(10));
+        when(userSyncTaskRepository.findById(1L)).thenReturn(Optional.of(task));
+
+        assertEquals(UserSyncStatus.PENDING, userDataService.markFailed(1L, 1, "HTTP 503"));
+        assertTrue(task.getNextAttemptAt().isAfter(LocalDateTime.now()));
+    }
+
+    @Test
+    void shouldDeadLetterWhenTokenExpiresBeforeNextAttempt() {
+        UserSyncTask task = task(1, LocalDateTime.now().plusSeconds(1));
+        when(userSyncTaskRepository.findById(1L)).thenReturn(Optional.of(task));
+
+        assertEquals(UserSyncStatus.DEAD, userDataService.markFailed(1L, 1, "HTTP 503"));
+        assertNull(task.getBearerToken());
+    }
+
+    private UserSyncTask task(int version, LocalDateTime tokenExpiresAt) {
+        UserSyncTask task = new UserSyncTask();
+        task.setId(1L);
+        task.setUserEmail("user@example.com");
+        task.setBearerToken("token");
+        task.setTokenExpiresAt(tokenExpiresAt);
+        task.setVersion(version);
+        task.setStatus(UserSyncStatus.PENDING);
+        task.setAttempts(1);
+        return task;
+    }
+}
@@ -3,12 +3,21 @@ package br.com.hahn.auth.application.service;
 import br.com.hahn.auth.application.execption.UserEmailAlreadyExistException;
 import br.com.hahn.auth.application.execption.UserNotFoundException;
 import br.com.hahn.auth.domain.enums.ScopeToken;
+import br.com.hahn.auth.domain.model.OAuthUserRow;
 import br.com.hahn.auth.domain.model.TokenLog;
 import br.com.hahn.auth.domain.model.User;
 import br.com.hahn.auth.domain.model.UserRequest;
 import br.com.hahn.auth.domain.model.UserResponse;
+import br.com.hahn.auth.domain.model.UserScanRow;
 import br.com.hahn.auth.domain.respository.UserRepository;
+import br.com.hahn.auth.infrastructure.cache.CacheInvalidationBus;
+import br.com.hahn.auth.infrastructure.cache.RegisteredEmailFilter;
+import br.com.hahn.auth.infrastructure.cache.RequestMemo;
+import br.com.hahn.auth.infrastructure.cache.UserSnapshotCache;
+import br.com.hahn.auth.infrastructure.scheduling.JobScanMetrics;
+import br.com.hahn.auth.infrastructure.scheduling.JobShard;
 import br.com.hahn.auth.infrastructure.security.TokenService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -16,8 +25,13 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.core.user.OAuth2User;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -40,6 +54,18 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Spy
+    private UserSnapshotCache userSnapshotCache = new UserSnapshotCache(new SimpleMeterRegistry(), mock(CacheInvalidationBus.class), 100, Duration.ofMinutes(5));
+
+    @Spy
+    private RequestMemo requestMemo = new RequestMemo();
+
+    @Spy
+    private RegisteredEmailFilter registeredEmailFilter = new RegisteredEmailFilter(null, mock(CacheInvalidationBus.class), new SimpleMeterRegistry(), 0.01, 100);
+
+    @Spy
+    private JobScanMetrics jobScanMetrics = new JobScanMetrics(new SimpleMeterRegistry());
+
     @InjectMocks
     private UserService userService;
 
@@ -77,10 +103,10 @@ class UserServiceTest {
 
             when(userRepository.existsByEmail(userRequest.getEmail())).thenReturn(false);
             when(passwordEncoder.encode(userRequest.getPassword())).thenReturn("encodedPassword");
-            when(userRepository.save(any(User.class))).thenReturn(savedUser);
+            when(userRepository.insertIfEmailAbsent(any(User.class), any())).thenReturn(1L);
             when(tokenLogService.saveTokenLog(any(User.class), eq(ScopeToken.REGISTER_TOKEN), any())).thenReturn(registerTokenLog);
             when(tokenLogService.saveTokenLog(any(User.class), eq(ScopeToken.REFRESH_TOKEN), any())).thenReturn(refreshTokenLog);
-            when(tokenService.generateToken(any(User.class), any(TokenLog.class))).thenReturn("test-token");
+            when(tokenService.generateUserToken(any(User.class), any(TokenLog.class))).thenReturn("test-token");
             when(tokenService.generateRefreshToken(any(User.class), any(TokenLog.class))).thenReturn("test-refresh-token");
 
             UserResponse response = userService.createUser(userRequest);
@@ -88,10 +114,45 @@ class UserServiceTest {
             assertNotNull(response);
             assertEquals(userRequest.getEmail(), response.getEmail());
             verify(userRepository).existsByEmail(userRequest.getEmail());
-            verify(userRepository).save(any(User.class));
+            verify(userRepository).insertIfEmailAbsent(any(User.class), any());
             verify(passwordEncoder).encode(userRequest.getPassword());
         }
 
+        @Test
+        @DisplayName("Should throw exception when email is registered between the check and the insert")
+        void createUserThrowsExceptionWhenInsertConflicts() {
+            UserRequest userRequest = new UserRequest();
+            userRequest.setEmail("test@example.com");
+            userRequest.setPassword("password123");
+            userRequest.setTypeUser(UserRequest.TypeUserEnum.DIRECT_USER);
+
+            when(userRepository.existsByEmail(userRequest.getEmail())).thenReturn(false);
+            when(passwordEncoder.encode(userRequest.getPassword())).thenReturn("encodedPassword");
+            when(userRepository.insertIfEmailAbsent(any(User.class), any())).thenReturn(0L);
+
+            assertThrows(UserEmailAlreadyExistException.class, () -> userService.createUser(userRequest));
+            verify(tokenLogService, never()).saveTokenLog(any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Should skip the existence query when the filter knows the email is not registered")
+        void createUserSkipsExistenceQueryForUnknownEmail() {
+            UserRequest userRequest = new UserRequest();
+            userRequest.setEmail("test@example.com");
+            userRequest.setPassword("password123");
+            userRequest.setTypeUser(UserRequest.TypeUserEnum.DIRECT_USER);
+
+            doReturn(false).when(registeredEmailFilter).mightContain(userRequest.getEmail());
+            when(passwordEncoder.encode(userRequest.getPassword())).thenReturn("encodedPassword");
+            when(userRepository.insertIfEmailAbsent(any(User.class), any())).thenReturn(1L);
+            when(tokenLogService.saveTokenLog(any(User.class), any(), any())).thenReturn(new TokenLog());
+
+            userService.createUser(userRequest);
+
+            verify(userRepository, never()).existsByEmail(any());
+            verify(registeredEmailFilter).add(userRequest.getEmail());
+        }
+
         @Test
         @DisplayName("Should throw exception when email already exists")
         void createUserThrowsExceptionWhenEmailExists() {
@@ -102,7 +163,37 @@ class UserServiceTest {
 
             assertThrows(UserEmailAlreadyExistException.class, () -> userService.createUser(userRequest));
             verify(userRepository).existsByEmail(userRequest.getEmail());
-            verify(userRepository, never()).save(any(User.class));
+            verify(userRepository, never()).insertIfEmailAbsent(any(User.class), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("findOrCreateOAuthUser")
+    class FindOrCreateOAuthUser {
+
+        @Test
+        @DisplayName("Should upsert the OAuth user once and serve the next sign-in from the cache")
+        void findOrCreateOAuthUserUpsertsOnce() {
+            OAuth2User oAuth2User = mock(OAuth2User.class);
+            when(oAuth2User.getAttribute("email")).thenReturn("oauth@example.com");
+            when(oAuth2User.getAttribute("given_name")).thenReturn("OAuth");
+            OAuthUserRow row = mock(OAuthUserRow.class);
+            UUID userId = UUID.randomUUID();
+            when(row.getUserId()).thenReturn(userId);
+            when(row.getEmail()).thenReturn("oauth@example.com");
+            when(row.getTypeUser()).thenReturn("OAUTH_USER");
+            when(row.getRole()).thenReturn("USER_NORMAL");
+            when(row.getUserApplicationRole()).thenReturn("USER");
+            when(userRepository.upsertOAuthUser(any(User.class))).thenReturn(List.of(row));
+
+            User first = userService.findOrCreateOAuthUser(oAuth2User);
+            User second = userService.findOrCreateOAuthUser(oAuth2User);
+
+            assertEquals(userId, first.getUserId());
+            assertEquals(userId, second.getUserId());
+            assertTrue(first.getApplications().isEmpty());
+            verify(userRepository, times(1)).upsertOAuthUser(any(User.class));
+            verify(userRepository, never()).existsByEmail(any());
         }
     }
 
@@ -136,5 +227,70 @@ class UserServiceTest {
             assertThrows(UserNotFoundException.class, () -> userService.findByEmail(email));
             verify(userRepository).findByEmailWithApplications(email);
         }
+
+        @Test
+        @DisplayName("Should serve the second lookup from the cache")
+        void findByEmailServesSecondLookupFromCache() {
+            String email = "test@example.com";
+            User user = new User();
+            user.setUserId(UUID.randomUUID());
+            user.setEmail(email);
+
+            when(userRepository.findByEmailWithApplications(email)).thenReturn(Optional.of(user));
+
+            userService.findByEmail(email);
+            User result = userService.findByEmail(email);
+
+            assertEquals(user.getUserId(), result.getUserId());
+            verify(userRepository, times(1)).findByEmailWithApplications(email);
+        }
+
+        @Test
+        @DisplayName("Should reload the user after the password is updated")
+        void findByEmailReloadsUserAfterPasswordUpdate() {
+            String email = "test@example.com";
+            UUID userId = UUID.randomUUID();
+            User user = new User();
+            user.setUserId(userId);
+            user.setEmail(email);
+
+            when(userRepository.findByEmailWithApplications(email)).thenReturn(Optional.of(user));
+
+            userService.findByEmail(email);
+            userService.updatePassword(email, userId, "newPassword", LocalDateTime.now());
+            userService.findByEmail(email);
+
+            verify(userRepository, times(2)).findByEmailWithApplications(email);
+        }
+    }
+
+    @Nested
+    @DisplayName("findUserToBlock")
+    class FindUserToBlock {
+
+        @Test
+        @DisplayName("Should block users in batches and evict each blocked user from the cache")
+        void shouldBlockUsersInBatchesAndEvictThem() {
+            var userId = UUID.randomUUID();
+            var row = mock(UserScanRow.class);
+            when(row.getUserId()).thenReturn(userId);
+            when(row.getEmail()).thenReturn("blocked@example.com");
+            when(userRepository.blockUsersWithPasswordOlderThan(any(LocalDateTime.class), eq(500), eq(0), eq(1))).thenReturn(List.of(row));
+
+            long blocked = userService.findUserToBlock(JobShard.ALL);
+
+            assertEquals(1, blocked);
+            verify(userRepository, times(1)).blockUsersWithPasswordOlderThan(any(LocalDateTime.class), eq(500), eq(0), eq(1));
+            verify(userSnapshotCache).evict("blocked@example.com", userId);
+        }
+
+        @Test
+        @DisplayName("Should stop when no user is left to block")
+        void shouldStopWhenNoUserIsLeft() {
+            when(userRepository.blockUsersWithPasswordOlderThan(any(LocalDateTime.class), anyInt(), anyInt(), anyInt())).thenReturn(List.of());
+
+            assertEquals(0, userService.findUserToBlock(JobShard.ALL));
+            verify(userRepository, times(1)).blockUsersWithPasswordOlderThan(any(LocalDateTime.class), anyInt(), anyInt(), anyInt());
+        }
     }
 }
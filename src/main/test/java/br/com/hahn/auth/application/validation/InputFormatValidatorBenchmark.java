@@ -0,0 +1,71 @@
+package br.com.hahn.auth.application.validation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Compares the validation done on the login and registration path before and after
+ * {@link InputFormatValidator}: the legacy path compiled both patterns on every request.
+ * <p>
+ * Run with {@code java -cp target/test-classes:<test classpath> org.openjdk.jmh.Main InputFormatValidatorBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InputFormatValidatorBenchmark {
+
+    private static final String EMAIL = "john.doe@toxicbet.com.br";
+    private static final String PASSWORD = "SecurePass1!";
+    private static final String HOSTILE_PASSWORD = "a".repeat(4096);
+
+    @Benchmark
+    public void loginLegacyRegex(Blackhole blackhole) {
+        blackhole.consume(Pattern.compile("^[A-Z0-9._%+-]+@[A-Z0-9.-]+\\.[A-Z]{2,}$", Pattern.CASE_INSENSITIVE).matcher(EMAIL).matches());
+        blackhole.consume(Pattern.compile("^(?=.*\\d)(?=.*[A-Z])(?=.*[^A-Za-z0-9]).{8,12}$").matcher(PASSWORD).matches());
+    }
+
+    @Benchmark
+    public void loginScanner(Blackhole blackhole) {
+        blackhole.consume(InputFormatValidator.isValidEmail(EMAIL));
+        blackhole.consume(InputFormatValidator.isValidPassword(PASSWORD));
+    }
+
+    @Benchmark
+    public void changePasswordLegacyRegex(Blackhole blackhole) {
+        var passwordPattern = "^(?=.*\\d)(?=.*[A-Z])(?=.*[^A-Za-z0-9]).{8,12}$";
+        blackhole.consume(Pattern.compile("^[A-Z0-9._%+-]+@[A-Z0-9.-]+\\.[A-Z]{2,}$", Pattern.CASE_INSENSITIVE).matcher(EMAIL).matches());
+        blackhole.consume(Pattern.compile(passwordPattern).matcher(PASSWORD).matches());
+        blackhole.consume(Pattern.compile(passwordPattern).matcher(PASSWORD).matches());
+    }
+
+    @Benchmark
+    public void changePasswordScanner(Blackhole blackhole) {
+        blackhole.consume(InputFormatValidator.isValidEmail(EMAIL));
+        blackhole.consume(InputFormatValidator.isValidPassword(PASSWORD));
+        blackhole.consume(InputFormatValidator.isValidPassword(PASSWORD));
+    }
+
+    @Benchmark
+    public void hostilePasswordLegacyRegex(Blackhole blackhole) {
+        blackhole.consume(Pattern.compile("^(?=.*\\d)(?=.*[A-Z])(?=.*[^A-Za-z0-9]).{8,12}$").matcher(HOSTILE_PASSWORD).matches());
+    }
+
+    @Benchmark
+    public void hostilePasswordScanner(Blackhole blackhole) {
+        blackhole.consume(InputFormatValidator.isValidPassword(HOSTILE_PASSWORD));
+    }
+}
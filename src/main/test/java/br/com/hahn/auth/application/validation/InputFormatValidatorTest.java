@@ -0,0 +1,62 @@
+package br.com.hahn.auth.application.validation;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InputFormatValidatorTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"test@example.com", "John.Doe+bet@mail.toxicbet.com.br", "a_b%c-d@x-y.IO", "a@b.c.de"})
+    void shouldAcceptValidEmails(String email) {
+        assertTrue(InputFormatValidator.isValidEmail(email));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "invalid-email", "@example.com", "test@.com", "test@example.c", "test@example.c0m",
+            "test@@example.com", "te st@example.com", "test@exa_mple.com", "test@example.com.", "tést@example.com"})
+    void shouldRejectInvalidEmails(String email) {
+        assertFalse(InputFormatValidator.isValidEmail(email));
+    }
+
+    @Test
+    void shouldRejectNullEmail() {
+        assertFalse(InputFormatValidator.isValidEmail(null));
+    }
+
+    @Test
+    void shouldRejectEmailLongerThanMaximumLength() {
+        var email = "a".repeat(InputFormatValidator.MAX_EMAIL_LENGTH) + "@example.com";
+
+        assertFalse(InputFormatValidator.isValidEmail(email));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"Password1!", "SecurePass1!", "AAAAAAA1 ", "1Aé45678"})
+    void shouldAcceptValidPasswords(String password) {
+        assertTrue(InputFormatValidator.isValidPassword(password));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"weak", "Password1", "password1!", "Password!!", "Pass1!", "Password123!X", "Passw\nord1!"})
+    void shouldRejectInvalidPasswords(String password) {
+        assertFalse(InputFormatValidator.isValidPassword(password));
+    }
+
+    @Test
+    void shouldCountPasswordLengthInUtf16Chars() {
+        var password = "Passwo1!" + "\uD83D\uDE00".repeat(3);
+
+        assertFalse(InputFormatValidator.isValidPassword(password));
+    }
+
+    @Test
+    void shouldRejectLongPasswordWithoutScanningIt() {
+        var password = "A1!" + "a".repeat(100_000);
+
+        assertFalse(InputFormatValidator.isValidPassword(password));
+    }
+}
@@ -0,0 +1,76 @@
+package br.com.hahn.auth.infrastructure.archive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.LocalDate;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArchiveBucketWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldWriteOneCompressedFilePerDayWithChecksumAndManifest() throws Exception {
+        var firstDay = LocalDate.of(2025, 1, 1);
+        var secondDay = firstDay.plusDays(1);
+
+        try (var writer = new ArchiveBucketWriter(directory, "token_log", "run1", objectMapper)) {
+            writer.write(firstDay, Map.of("id", "a"));
+            writer.write(firstDay, Map.of("id", "b"));
+            writer.write(secondDay, Map.of("id", "c"));
+            writer.close();
+
+            var buckets = writer.buckets();
+            assertEquals(2, buckets.size());
+            assertEquals(2, buckets.getFirst().rows());
+            assertEquals(1, buckets.getLast().rows());
+
+            var file = directory.resolve("token_log/day=2025-01-01/part-run1.ndjson.gz");
+            assertEquals(file, buckets.getFirst().file());
+            assertEquals(List.of("{\"id\":\"a\"}", "{\"id\":\"b\"}"), readLines(file));
+
+            var sha256 = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(file)));
+            assertEquals(sha256, buckets.getFirst().sha256());
+            assertEquals(sha256 + "  part-run1.ndjson.gz\n", Files.readString(file.resolveSibling("part-run1.ndjson.gz.sha256")));
+
+            var manifest = objectMapper.readTree(Files.readString(file.resolveSibling("MANIFEST.ndjson")));
+            assertEquals("part-run1.ndjson.gz", manifest.get("file").asText());
+            assertEquals(2, manifest.get("rows").asLong());
+            assertEquals(sha256, manifest.get("sha256").asText());
+        }
+    }
+
+    @Test
+    void shouldRemoveIncompleteFileOnAbort() throws IOException {
+        var writer = new ArchiveBucketWriter(directory, "token_log", "run1", objectMapper);
+        writer.write(LocalDate.of(2025, 1, 1), Map.of("id", "a"));
+
+        writer.abort();
+
+        assertTrue(writer.buckets().isEmpty());
+        assertFalse(Files.exists(directory.resolve("token_log/day=2025-01-01/part-run1.ndjson.gz")));
+        assertFalse(Files.exists(directory.resolve("token_log/day=2025-01-01/MANIFEST.ndjson")));
+    }
+
+    private List<String> readLines(Path file) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package br.com.hahn.auth.infrastructure.cache;
+
+import br.com.hahn.auth.domain.model.Application;
+import br.com.hahn.auth.domain.respository.ApplicationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ApplicationRegistryTest {
+
+    @Mock
+    private ApplicationRepository applicationRepository;
+
+    private Application application;
+
+    @BeforeEach
+    void setUp() {
+        application = new Application();
+        application.setId(1L);
+        application.setPublicId(UUID.randomUUID());
+        application.setNameApplication("toxic-bet");
+    }
+
+    @Test
+    void shouldServeBothIndexesFromSingleLoad() {
+        when(applicationRepository.findAll()).thenReturn(List.of(application));
+        var registry = new ApplicationRegistry(applicationRepository, mock(CacheInvalidationBus.class), new SimpleMeterRegistry(), Duration.ofSeconds(30));
+
+        var byPublicId = registry.findByPublicId(application.getPublicId());
+        var byId = registry.findById(1L);
+
+        assertTrue(byPublicId.isPresent());
+        assertEquals(byPublicId, byId);
+        verify(applicationRepository, times(1)).findAll();
+    }
+
+    @Test
+    void shouldNotReloadOnMissWithinInterval() {
+        when(applicationRepository.findAll()).thenReturn(List.of(application));
+        var clock = Clock.fixed(Instant.parse("2025-01-01T00:00:00Z"), ZoneOffset.UTC);
+        var registry = new ApplicationRegistry(applicationRepository, mock(CacheInvalidationBus.class), new SimpleMeterRegistry(), Duration.ofSeconds(30), clock);
+        registry.refresh();
+
+        assertTrue(registry.findById(99L).isEmpty());
+        assertTrue(registry.findById(98L).isEmpty());
+        verify(applicationRepository, times(1)).findAll();
+    }
+
+    @Test
+    void shouldReloadOnMissAfterInterval() {
+        var inserted = new Application();
+        inserted.setId(2L);
+        inserted.setPublicId(UUID.randomUUID());
+        when(applicationRepository.findAll()).thenReturn(List.of(application), List.of(application, inserted));
+        var registry = new ApplicationRegistry(applicationRepository, mock(CacheInvalidationBus.class), new SimpleMeterRegistry(), Duration.ZERO);
+        registry.refresh();
+
+        assertTrue(registry.findByPublicId(inserted.getPublicId()).isPresent());
+        verify(applicationRepository, times(2)).findAll();
+    }
+}
@@ -0,0 +1,76 @@
+package br.com.hahn.auth.infrastructure.cache;
+
+import br.com.hahn.auth.infrastructure.cache.ApplicationTokenCache.IssuedTokens;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class ApplicationTokenCacheTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T12:00:00Z");
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ApplicationTokenCache cache = new ApplicationTokenCache(meterRegistry, mock(CacheInvalidationBus.class), Duration.ofMinutes(5), Clock.fixed(NOW, ZoneOffset.UTC));
+    private final UUID publicId = UUID.randomUUID();
+    private final AtomicInteger issued = new AtomicInteger();
+
+    @Test
+    void shouldReuseActivePairFarFromExpiry() {
+        Supplier<IssuedTokens> issuer = issuer(NOW.plus(Duration.ofHours(1)));
+
+        var first = cache.getOrIssue(publicId, _ -> true, issuer);
+        var second = cache.getOrIssue(publicId, _ -> true, issuer);
+
+        assertSame(first, second);
+        assertEquals(1, issued.get());
+        assertEquals(1.0, meterRegistry.get("applications.tokens").tag("result", "reused").counter().count());
+    }
+
+    @Test
+    void shouldIssueNewPairNearExpiry() {
+        Supplier<IssuedTokens> issuer = issuer(NOW.plus(Duration.ofMinutes(4)));
+
+        cache.getOrIssue(publicId, _ -> true, issuer);
+        cache.getOrIssue(publicId, _ -> true, issuer);
+
+        assertEquals(2, issued.get());
+    }
+
+    @Test
+    void shouldIssueNewPairWhenStoredPairWasDeactivated() {
+        Supplier<IssuedTokens> issuer = issuer(NOW.plus(Duration.ofHours(1)));
+
+        cache.getOrIssue(publicId, _ -> false, issuer);
+        cache.getOrIssue(publicId, _ -> false, issuer);
+
+        assertEquals(2, issued.get());
+    }
+
+    @Test
+    void shouldIssueNewPairAfterEviction() {
+        Supplier<IssuedTokens> issuer = issuer(NOW.plus(Duration.ofHours(1)));
+
+        cache.getOrIssue(publicId, _ -> true, issuer);
+        cache.evict(publicId);
+        cache.getOrIssue(publicId, _ -> true, issuer);
+
+        assertEquals(2, issued.get());
+    }
+
+    private Supplier<IssuedTokens> issuer(Instant expiresAt) {
+        return () -> {
+            int n = issued.incrementAndGet();
+            return new IssuedTokens("token-" + n, "refresh-" + n, UUID.randomUUID(), expiresAt);
+        };
+    }
+}
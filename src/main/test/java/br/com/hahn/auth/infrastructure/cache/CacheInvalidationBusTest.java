@@ -0,0 +1,122 @@
+package br.com.hahn.auth.infrastructure.cache;
+
+import br.com.hahn.auth.infrastructure.cache.CacheInvalidationBus.Topic;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGNotification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class CacheInvalidationBusTest {
+
+    private static final String CHANNEL = "auth_cache_invalidation";
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CacheInvalidationBus bus = bus(true);
+
+    @Test
+    void shouldPublishInvalidationWithInstanceAndTopic() {
+        bus.publish(Topic.USER_EMAIL, "user@example.com");
+
+        verify(jdbcTemplate).query(eq("SELECT pg_notify(?, ?)"), any(ResultSetExtractor.class),
+                eq(CHANNEL), eq(bus.instanceId() + "|user-email|user@example.com"));
+        assertEquals(1.0, meterRegistry.get("cache.invalidation.published").tag("topic", "user-email").counter().count());
+    }
+
+    @Test
+    void shouldNotPublishWhenDisabled() {
+        bus(false).publish(Topic.USER, "id");
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void shouldDispatchDistinctInvalidationsOfOtherInstances() {
+        var received = new ArrayList<String>();
+        bus.subscribe(Topic.USER_EMAIL, received::add);
+
+        bus.dispatch(List.of(
+                "other|user-email|a@example.com",
+                "other|user-email|a@example.com",
+                "another|user-email|b@example.com",
+                bus.instanceId() + "|user-email|c@example.com",
+                "other|unknown|d@example.com"));
+
+        assertEquals(List.of("a@example.com", "b@example.com"), received);
+    }
+
+    @Test
+    void shouldResyncInsteadOfDispatchingOversizedBatch() {
+        var received = new AtomicInteger();
+        var resyncs = new AtomicInteger();
+        bus.subscribe(Topic.USER, _ -> received.incrementAndGet());
+        bus.onResync(resyncs::incrementAndGet);
+
+        bus.dispatch(List.of("other|user|1", "other|user|2", "other|user|3"));
+
+        assertEquals(0, received.get());
+        assertEquals(1, resyncs.get());
+        assertEquals(1.0, meterRegistry.get("cache.invalidation.resyncs").tag("reason", "overflow").counter().count());
+    }
+
+    @Test
+    void shouldStopCoalescingOnceBatchOverflows() throws SQLException {
+        var polls = new AtomicInteger();
+
+        var payloads = bus.coalesce(notifications("other|user|0"), _ -> notifications("other|user|" + polls.incrementAndGet()));
+
+        assertEquals(List.of("other|user|0", "other|user|1", "other|user|2"), payloads);
+        assertEquals(2, polls.get());
+    }
+
+    @Test
+    void shouldStopCoalescingAtDeadlineUnderSteadyStream() throws SQLException {
+        var steady = notifications("other|user|1");
+
+        var payloads = bus.coalesce(steady, _ -> steady);
+
+        assertEquals(List.of("other|user|1"), payloads);
+    }
+
+    @Test
+    void shouldKeepDispatchingWhenHandlerFails() {
+        var received = new ArrayList<String>();
+        bus.subscribe(Topic.APPLICATIONS, _ -> {
+            throw new IllegalStateException("boom");
+        });
+        bus.subscribe(Topic.APPLICATIONS, received::add);
+
+        bus.dispatch(List.of("-|applications|"));
+
+        assertEquals(List.of(""), received);
+    }
+
+    @Test
+    void shouldRejectInvalidChannelName() {
+        assertThrows(IllegalArgumentException.class, () -> new CacheInvalidationBus(null, jdbcTemplate, meterRegistry, true,
+                "bad; DROP TABLE users", Duration.ofSeconds(10), Duration.ofMillis(50), 2, Duration.ofSeconds(1), Duration.ofSeconds(30)));
+    }
+
+    private PGNotification[] notifications(String payload) {
+        var notification = mock(PGNotification.class);
+        when(notification.getParameter()).thenReturn(payload);
+        return new PGNotification[] {notification};
+    }
+
+    private CacheInvalidationBus bus(boolean enabled) {
+        return new CacheInvalidationBus(null, jdbcTemplate, meterRegistry, enabled, CHANNEL,
+                Duration.ofSeconds(10), Duration.ofMillis(50), 2, Duration.ofSeconds(1), Duration.ofSeconds(30));
+    }
+}
@@ -0,0 +1,75 @@
+package br.com.hahn.auth.infrastructure.cache;
+
+import br.com.hahn.auth.application.execption.IdempotencyKeyReusedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotentResponseCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final IdempotentResponseCache cache = new IdempotentResponseCache(meterRegistry, Duration.ofMinutes(1), 100);
+
+    @Test
+    void shouldReplayResponseForSameKeyAndBody() {
+        var calls = new AtomicInteger();
+        var fingerprint = cache.fingerprint("user@example.com", "Password1!");
+
+        var first = cache.execute("login", "key-1", fingerprint, () -> "response-" + calls.incrementAndGet());
+        var retry = cache.execute("login", "key-1", fingerprint, () -> "response-" + calls.incrementAndGet());
+
+        assertEquals("response-1", first);
+        assertEquals("response-1", retry);
+        assertEquals(1.0, meterRegistry.get("idempotency.requests").tag("result", "replayed").counter().count());
+    }
+
+    @Test
+    void shouldRejectKeyReusedWithDifferentBody() {
+        cache.execute("login", "key-1", cache.fingerprint("user@example.com", "Password1!"), () -> "response");
+        var otherFingerprint = cache.fingerprint("other@example.com", "Password1!");
+
+        assertThrows(IdempotencyKeyReusedException.class, () -> cache.execute("login", "key-1", otherFingerprint, () -> "other"));
+    }
+
+    @Test
+    void shouldRunAgainAfterFailure() {
+        var fingerprint = cache.fingerprint("user@example.com", "Password1!");
+
+        assertThrows(IllegalStateException.class, () -> cache.execute("login", "key-1", fingerprint, () -> {
+            throw new IllegalStateException("failed");
+        }));
+
+        assertEquals("response", cache.execute("login", "key-1", fingerprint, () -> "response"));
+    }
+
+    @Test
+    void shouldKeepOperationsApart() {
+        var fingerprint = cache.fingerprint("user@example.com", "Password1!");
+
+        cache.execute("login", "key-1", fingerprint, () -> "login");
+
+        assertEquals("register", cache.execute("register", "key-1", fingerprint, () -> "register"));
+    }
+
+    @Test
+    void shouldRunEveryTimeWithoutKey() {
+        var calls = new AtomicInteger();
+
+        cache.execute("login", null, "fingerprint", calls::incrementAndGet);
+        cache.execute("login", " ", "fingerprint", calls::incrementAndGet);
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void shouldKeyFingerprintPerProcess() {
+        var other = new IdempotentResponseCache(new SimpleMeterRegistry(), Duration.ofMinutes(1), 100);
+
+        assertEquals(cache.fingerprint("user@example.com", "Password1!"), cache.fingerprint("user@example.com", "Password1!"));
+        assertNotEquals(cache.fingerprint("user@example.com", "Password1!"), other.fingerprint("user@example.com", "Password1!"));
+    }
+}
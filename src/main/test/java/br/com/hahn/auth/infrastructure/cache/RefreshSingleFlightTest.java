@@ -0,0 +1,76 @@
+package br.com.hahn.auth.infrastructure.cache;
+
+import br.com.hahn.auth.domain.model.LoginResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RefreshSingleFlightTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RefreshSingleFlight singleFlight = new RefreshSingleFlight(meterRegistry, Duration.ofSeconds(10), 100);
+
+    @Test
+    void shouldComputeOnceForConcurrentRefreshes() throws Exception {
+        var tokenLogId = UUID.randomUUID();
+        var calls = new AtomicInteger();
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var first = executor.submit(() -> singleFlight.refresh(tokenLogId, () -> {
+                calls.incrementAndGet();
+                started.countDown();
+                await(release);
+                return new LoginResponse();
+            }));
+            assertTrue(started.await(1, TimeUnit.SECONDS));
+            var second = executor.submit(() -> singleFlight.refresh(tokenLogId, () -> {
+                calls.incrementAndGet();
+                return new LoginResponse();
+            }));
+            release.countDown();
+
+            assertSame(first.get(1, TimeUnit.SECONDS), second.get(1, TimeUnit.SECONDS));
+        }
+
+        assertEquals(1, calls.get());
+        assertEquals(1.0, meterRegistry.get("tokens.refresh").tag("result", "coalesced").counter().count());
+    }
+
+    @Test
+    void shouldNotKeepFailedRefresh() {
+        var tokenLogId = UUID.randomUUID();
+
+        assertThrows(IllegalStateException.class, () -> singleFlight.refresh(tokenLogId, () -> {
+            throw new IllegalStateException("expired");
+        }));
+        var response = singleFlight.refresh(tokenLogId, LoginResponse::new);
+
+        assertNotNull(response);
+    }
+
+    @Test
+    void shouldKeepRefreshesOfDifferentTokensApart() {
+        var first = singleFlight.refresh(UUID.randomUUID(), LoginResponse::new);
+        var second = singleFlight.refresh(UUID.randomUUID(), LoginResponse::new);
+
+        assertNotSame(first, second);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package br.com.hahn.auth.infrastructure.cache;
+
+import br.com.hahn.auth.domain.respository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RegisteredEmailFilterTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final RegisteredEmailFilter filter = new RegisteredEmailFilter(userRepository, mock(CacheInvalidationBus.class), new SimpleMeterRegistry(), 0.01, 2);
+
+    @Test
+    void shouldReportEveryEmailAsPossiblyRegisteredBeforeFirstBuild() {
+        assertTrue(filter.mightContain("user@example.com"));
+    }
+
+    @Test
+    void shouldLoadEveryPageOnRebuild() {
+        when(userRepository.count()).thenReturn(3L);
+        when(userRepository.findEmailsAfter("", 2)).thenReturn(List.of("a@example.com", "b@example.com"));
+        when(userRepository.findEmailsAfter("b@example.com", 2)).thenReturn(List.of("c@example.com"));
+
+        filter.rebuild();
+
+        assertTrue(filter.mightContain("a@example.com"));
+        assertTrue(filter.mightContain("b@example.com"));
+        assertTrue(filter.mightContain("c@example.com"));
+        assertFalse(filter.mightContain("unknown@example.com"));
+    }
+
+    @Test
+    void shouldKnowEmailsAddedAfterRebuild() {
+        when(userRepository.count()).thenReturn(0L);
+        when(userRepository.findEmailsAfter("", 2)).thenReturn(List.of());
+        filter.rebuild();
+
+        filter.add("new@example.com");
+
+        assertTrue(filter.mightContain("new@example.com"));
+    }
+}
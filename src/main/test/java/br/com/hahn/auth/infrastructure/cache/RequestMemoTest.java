@@ -0,0 +1,69 @@
+package br.com.hahn.auth.infrastructure.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestMemoTest {
+
+    private final RequestMemo requestMemo = new RequestMemo();
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void shouldLoadOncePerRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        var loads = new AtomicInteger();
+
+        requestMemo.get("users", "a@example.com", loads::incrementAndGet);
+        var value = requestMemo.get("users", "a@example.com", loads::incrementAndGet);
+
+        assertEquals(1, value);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void shouldNotShareValuesBetweenRequests() {
+        var loads = new AtomicInteger();
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        requestMemo.get("users", "a@example.com", loads::incrementAndGet);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        requestMemo.get("users", "a@example.com", loads::incrementAndGet);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void shouldPassThroughOutsideRequest() {
+        var loads = new AtomicInteger();
+
+        requestMemo.get("users", "a@example.com", loads::incrementAndGet);
+        requestMemo.get("users", "a@example.com", loads::incrementAndGet);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void shouldReloadAfterEviction() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        var loads = new AtomicInteger();
+
+        requestMemo.get("users", "a@example.com", loads::incrementAndGet);
+        requestMemo.evict("users", "a@example.com");
+        requestMemo.get("users", "a@example.com", loads::incrementAndGet);
+        requestMemo.evictNamespace("users");
+        requestMemo.get("users", "a@example.com", loads::incrementAndGet);
+
+        assertEquals(3, loads.get());
+    }
+}
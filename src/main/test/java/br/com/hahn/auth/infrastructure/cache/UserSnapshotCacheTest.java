@@ -0,0 +1,119 @@
+package br.com.hahn.auth.infrastructure.cache;
+
+import br.com.hahn.auth.application.dto.UserSnapshot;
+import br.com.hahn.auth.domain.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserSnapshotCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private final CacheInvalidationBus cacheInvalidationBus = mock(CacheInvalidationBus.class);
+    private UserSnapshotCache cache;
+    private UserSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new UserSnapshotCache(meterRegistry, cacheInvalidationBus, 100, Duration.ofMinutes(5));
+
+        var user = new User();
+        user.setUserId(UUID.randomUUID());
+        user.setEmail("test@example.com");
+        snapshot = UserSnapshot.from(user);
+    }
+
+    @Test
+    void shouldLoadOnceAndServeBothIndexes() {
+        var loads = new AtomicInteger();
+        Supplier<Optional<UserSnapshot>> loader = () -> {
+            loads.incrementAndGet();
+            return Optional.of(snapshot);
+        };
+
+        cache.getByEmail(snapshot.email(), loader);
+        var byEmail = cache.getByEmail(snapshot.email(), loader);
+        var byId = cache.getById(snapshot.userId(), loader);
+
+        assertEquals(1, loads.get());
+        assertEquals(Optional.of(snapshot), byEmail);
+        assertEquals(Optional.of(snapshot), byId);
+    }
+
+    @Test
+    void shouldNotCacheMissingUser() {
+        var loads = new AtomicInteger();
+        Supplier<Optional<UserSnapshot>> loader = () -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        };
+
+        cache.getByEmail("missing@example.com", loader);
+        cache.getByEmail("missing@example.com", loader);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void shouldEvictBothIndexesByEmail() {
+        cache.getByEmail(snapshot.email(), () -> Optional.of(snapshot));
+
+        cache.evict(snapshot.email(), null);
+
+        var loads = new AtomicInteger();
+        cache.getById(snapshot.userId(), () -> {
+            loads.incrementAndGet();
+            return Optional.of(snapshot);
+        });
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void shouldPublishEvictionOnInvalidationBus() {
+        cache.evict(snapshot.email(), snapshot.userId());
+
+        verify(cacheInvalidationBus).publish(CacheInvalidationBus.Topic.USER, snapshot.userId().toString());
+        verify(cacheInvalidationBus).publish(CacheInvalidationBus.Topic.USER_EMAIL, snapshot.email());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldEvictUserInvalidatedByAnotherInstance() {
+        ArgumentCaptor<Consumer<String>> handler = ArgumentCaptor.forClass(Consumer.class);
+        verify(cacheInvalidationBus).subscribe(eq(CacheInvalidationBus.Topic.USER), handler.capture());
+        cache.getByEmail(snapshot.email(), () -> Optional.of(snapshot));
+
+        handler.getValue().accept(snapshot.userId().toString());
+
+        var loads = new AtomicInteger();
+        cache.getByEmail(snapshot.email(), () -> {
+            loads.incrementAndGet();
+            return Optional.of(snapshot);
+        });
+        assertEquals(1, loads.get());
+        verify(cacheInvalidationBus, never()).publish(any(), any());
+    }
+
+    @Test
+    void shouldPublishHitAndMissMetrics() {
+        cache.getByEmail(snapshot.email(), () -> Optional.of(snapshot));
+        cache.getByEmail(snapshot.email(), () -> Optional.of(snapshot));
+
+        var hits = meterRegistry.get("cache.gets").tag("cache", "users.by-email").tag("result", "hit").functionCounter().count();
+        var misses = meterRegistry.get("cache.gets").tag("cache", "users.by-email").tag("result", "miss").functionCounter().count();
+        assertEquals(1.0, hits);
+        assertEquals(1.0, misses);
+    }
+}
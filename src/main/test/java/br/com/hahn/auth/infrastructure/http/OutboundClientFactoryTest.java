@@ -0,0 +1,74 @@
+package br.com.hahn.auth.infrastructure.http;
+
+import br.com.hahn.auth.infrastructure.resilience.CircuitBreaker;
+import br.com.hahn.auth.infrastructure.service.ResendStubServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutboundClientFactoryTest {
+
+    private ResendStubServer stub;
+    private SimpleMeterRegistry meterRegistry;
+    private OutboundClientFactory factory;
+
+    @BeforeEach
+    void setUp() {
+        stub = new ResendStubServer();
+        meterRegistry = new SimpleMeterRegistry();
+        var destination = new OutboundClientProperties.Destination();
+        destination.setBaseUrl(stub.baseUrl());
+        destination.getCircuitBreaker().setFailureThreshold(2);
+        destination.getCircuitBreaker().setOpenDuration(Duration.ofMinutes(1));
+        var properties = new OutboundClientProperties();
+        properties.getClients().put("stub", destination);
+        factory = new OutboundClientFactory(properties, WebClient.builder(), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        factory.shutdown();
+        stub.close();
+    }
+
+    @Test
+    void shouldRecordLatencyByOutcome() {
+        call();
+
+        var timer = meterRegistry.get("http.client.outbound").tag("client", "stub").tag("method", "POST").tag("outcome", "2xx").timer();
+        assertEquals(1, timer.count());
+    }
+
+    @Test
+    void shouldRejectCallsOnceCircuitOpens() {
+        stub.respondWith(503);
+
+        assertThrows(RuntimeException.class, this::call);
+        assertThrows(RuntimeException.class, this::call);
+        assertEquals(CircuitBreaker.State.OPEN, factory.circuitBreaker("stub").getState());
+
+        assertThrows(OutboundCallRejectedException.class, this::call);
+        assertEquals(2, stub.receivedBodies().size());
+    }
+
+    @Test
+    void shouldReuseClientPerDestination() {
+        assertSame(factory.webClient("stub"), factory.webClient("stub"));
+        assertThrows(IllegalStateException.class, () -> factory.webClient("unknown"));
+    }
+
+    private void call() {
+        factory.webClient("stub").post()
+                .uri("/emails")
+                .bodyValue("{}")
+                .retrieve()
+                .toBodilessEntity()
+                .block(Duration.ofSeconds(5));
+    }
+}
@@ -0,0 +1,84 @@
+package br.com.hahn.auth.infrastructure.lock;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class UserSessionLockTest {
+
+    private final UserSessionLock localLock = new UserSessionLock(new SimpleMeterRegistry(), null, null, "local", 16);
+
+    @Test
+    void shouldSerializeTransitionsOfTheSameUser() throws Exception {
+        var userId = UUID.randomUUID();
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var secondRan = new AtomicBoolean();
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var first = executor.submit(() -> localLock.withLock(userId, () -> {
+                started.countDown();
+                await(release);
+            }));
+            assertTrue(started.await(1, TimeUnit.SECONDS));
+            var second = executor.submit(() -> localLock.withLock(userId, () -> secondRan.set(true)));
+
+            Thread.sleep(100);
+            assertFalse(secondRan.get());
+            release.countDown();
+            first.get(1, TimeUnit.SECONDS);
+            second.get(1, TimeUnit.SECONDS);
+        }
+
+        assertTrue(secondRan.get());
+    }
+
+    @Test
+    void shouldReleaseLockWhenTransitionFails() {
+        var userId = UUID.randomUUID();
+
+        assertThrows(IllegalStateException.class, () -> localLock.withLock(userId, () -> {
+            throw new IllegalStateException("failed");
+        }));
+
+        assertEquals("done", localLock.withLock(userId, () -> "done"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldTakeAdvisoryLockInsideTransactionInAdvisoryMode() {
+        var userId = UUID.randomUUID();
+        var transactionTemplate = mock(TransactionTemplate.class);
+        var jdbcTemplate = mock(JdbcTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation -> ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+        var advisoryLock = new UserSessionLock(new SimpleMeterRegistry(), transactionTemplate, jdbcTemplate, "advisory", 16);
+
+        var result = advisoryLock.withLock(userId, () -> "done");
+
+        assertEquals("done", result);
+        verify(jdbcTemplate).query(anyString(), any(ResultSetExtractor.class), eq(UserSessionLock.ADVISORY_NAMESPACE), eq(userId.hashCode()));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
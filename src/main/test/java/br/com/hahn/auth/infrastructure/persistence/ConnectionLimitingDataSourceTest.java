@@ -0,0 +1,67 @@
+package br.com.hahn.auth.infrastructure.persistence;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConnectionLimitingDataSourceTest {
+
+    @Mock
+    private DataSource targetDataSource;
+
+    @Mock
+    private Connection connection;
+
+    private ConnectionLimitingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new ConnectionLimitingDataSource(targetDataSource, "interactive", 1, Duration.ofMillis(50), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void shouldRejectWhenAllPermitsAreInUse() throws SQLException {
+        when(targetDataSource.getConnection()).thenReturn(connection);
+
+        dataSource.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+        verify(targetDataSource, times(1)).getConnection();
+    }
+
+    @Test
+    void shouldReleasePermitOnceWhenConnectionIsClosed() throws SQLException {
+        when(targetDataSource.getConnection()).thenReturn(connection);
+
+        var first = dataSource.getConnection();
+        first.close();
+        first.close();
+        var second = dataSource.getConnection();
+
+        assertNotNull(second);
+        assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    void shouldReleasePermitWhenPoolFails() throws SQLException {
+        when(targetDataSource.getConnection()).thenThrow(new SQLException("pool down")).thenReturn(connection);
+
+        assertThrows(SQLException.class, () -> dataSource.getConnection());
+
+        assertNotNull(dataSource.getConnection());
+    }
+}
@@ -0,0 +1,237 @@
+package br.com.hahn.auth.infrastructure.persistence;
+
+import br.com.hahn.auth.domain.respository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final DataSource replica = mock(DataSource.class);
+    private final DataSource primary = mock(DataSource.class);
+    private final Connection replicaConnection = mock(Connection.class);
+    private final Connection primaryConnection = mock(Connection.class);
+    private final JdbcTemplate replicaJdbcTemplate = mock(JdbcTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-01-01T10:00:00Z"));
+    private final ReplicaLagMonitor monitor = new ReplicaLagMonitor(replicaJdbcTemplate, meterRegistry, Duration.ofSeconds(1), Duration.ofMillis(50), clock);
+    private final ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(replica, primary, monitor, meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void shouldReadFromPrimaryUntilLagIsMeasured() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        assertSame(primaryConnection, dataSource.getConnection());
+        verifyNoInteractions(replica);
+    }
+
+    @Test
+    void shouldReadFromReplicaWhenLagIsWithinLimit() throws SQLException {
+        lag(200L);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+
+        assertSame(replicaConnection, dataSource.getConnection());
+        assertEquals(1.0, meterRegistry.get("db.replica.routing").tag("target", "replica").counter().count());
+    }
+
+    @Test
+    void shouldReadFromPrimaryWhenReplicaLagsTooMuch() throws SQLException {
+        lag(1500L);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        assertSame(primaryConnection, dataSource.getConnection());
+        assertEquals(1500.0, meterRegistry.get("db.replica.lag").gauge().value());
+    }
+
+    @Test
+    void shouldReadFromPrimaryWhenLagCheckFails() throws SQLException {
+        lag(0L);
+        when(replicaJdbcTemplate.queryForObject(ReplicaLagMonitor.LAG_QUERY, Long.class)).thenThrow(new DataAccessResourceFailureException("down"));
+        monitor.checkLag();
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        assertSame(primaryConnection, dataSource.getConnection());
+        assertEquals(1.0, meterRegistry.get("db.replica.lag.check.failures").counter().count());
+    }
+
+    @Test
+    void shouldReadFromPrimaryWhenReplicaIsNotStreaming() throws SQLException {
+        lag(0L);
+        lag(null);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        assertSame(primaryConnection, dataSource.getConnection());
+        verifyNoInteractions(replica);
+    }
+
+    @Test
+    void shouldReadOwnWritesFromPrimaryUntilReplicaCaughtUp() throws SQLException {
+        lag(100L);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        request("user@example.com");
+        new WriteRecordingDataSource(primary, monitor).getConnection().close();
+        request("user@example.com");
+
+        clock.advance(Duration.ofMillis(100));
+        assertSame(primaryConnection, dataSource.getConnection());
+
+        clock.advance(Duration.ofMillis(51));
+        assertSame(replicaConnection, dataSource.getConnection());
+        verify(primaryConnection, times(1)).close();
+    }
+
+    @Test
+    void shouldKeepReadsOfOtherCallersOnReplicaAfterWrite() throws SQLException {
+        lag(100L);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        request("user@example.com");
+        new WriteRecordingDataSource(primary, monitor).getConnection().close();
+
+        request("other@example.com");
+        assertSame(replicaConnection, dataSource.getConnection());
+
+        request(null);
+        assertSame(replicaConnection, dataSource.getConnection());
+    }
+
+    @Test
+    void shouldReadWritesOfAnonymousCallerFromPrimaryWithinTheRequest() throws SQLException {
+        lag(100L);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        request(null);
+        new WriteRecordingDataSource(primary, monitor).getConnection().close();
+
+        assertSame(primaryConnection, dataSource.getConnection());
+        verifyNoInteractions(replica);
+    }
+
+    @Test
+    void shouldLoadCredentialsFromPrimaryAfterPasswordChangeWhileReplicaLags() throws Exception {
+        lag(500L);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        var application = new LazyConnectionDataSourceProxy();
+        application.setTargetDataSource(new WriteRecordingDataSource(primary, monitor));
+        application.setReadOnlyDataSource(dataSource);
+        application.setDefaultAutoCommit(true);
+        application.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        application.afterPropertiesSet();
+        var transactionManager = new DataSourceTransactionManager(application);
+
+        request("user@example.com");
+        new TransactionTemplate(transactionManager).executeWithoutResult(_ -> statement(application));
+
+        request(null);
+        clock.advance(Duration.ofMillis(100));
+        var credentials = new TransactionTemplate(transactionManager);
+        credentials.setReadOnly(UserRepository.class.getMethod("findByEmailWithApplications", String.class)
+                .getAnnotation(Transactional.class).readOnly());
+        credentials.executeWithoutResult(_ -> statement(application));
+
+        verify(primary, times(2)).getConnection();
+        verifyNoInteractions(replica);
+    }
+
+    @Test
+    void shouldReadBackgroundWorkFromPrimary() throws SQLException {
+        lag(0L);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        var connection = new Connection[1];
+
+        BackgroundWork.run(() -> {
+            try {
+                connection[0] = dataSource.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertSame(primaryConnection, connection[0]);
+        verifyNoInteractions(replica);
+    }
+
+    @Test
+    void shouldFallBackToPrimaryWhenReplicaIsUnavailable() throws SQLException {
+        lag(0L);
+        when(replica.getConnection()).thenThrow(new SQLException("connection refused"));
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        assertSame(primaryConnection, dataSource.getConnection());
+        assertFalse(monitor.canReadFromReplica());
+    }
+
+    private static void statement(DataSource dataSource) {
+        try {
+            DataSourceUtils.getConnection(dataSource).createStatement();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void request(String caller) {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        ReadYourWrites.bindCaller(caller);
+    }
+
+    private void lag(Long millis) {
+        when(replicaJdbcTemplate.queryForObject(ReplicaLagMonitor.LAG_QUERY, Long.class)).thenReturn(millis);
+        monitor.checkLag();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package br.com.hahn.auth.infrastructure.persistence;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RetentionPurgeEngineTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PurgeProperties purgeProperties = new PurgeProperties();
+    private RetentionPurgeEngine retentionPurgeEngine;
+
+    @BeforeEach
+    void setUp() {
+        purgeProperties.setBatchSize(100);
+        purgeProperties.setPauseBetweenBatches(Duration.ZERO);
+        purgeProperties.setMaxBatchesPerRun(10);
+        retentionPurgeEngine = new RetentionPurgeEngine(jdbcTemplate, purgeProperties, meterRegistry);
+    }
+
+    @Test
+    void shouldDeleteInBatchesUntilBatchIsNotFull() {
+        when(jdbcTemplate.update(contains("ctid IN"), any(), eq(100))).thenReturn(100, 100, 40);
+
+        long deleted = retentionPurgeEngine.purge(RetentionPurgeEngine.Target.RESET_PASSWORD, LocalDateTime.now());
+
+        assertEquals(240, deleted);
+        verify(jdbcTemplate, times(3)).update(contains("toxic_bet.reset_password"), any(), eq(100));
+        assertEquals(240.0, meterRegistry.get("purge.rows").tag("table", "reset-password").counter().count());
+        assertEquals(3.0, meterRegistry.get("purge.batches").tag("table", "reset-password").counter().count());
+    }
+
+    @Test
+    void shouldStopAtMaxBatchesPerRun() {
+        purgeProperties.setMaxBatchesPerRun(2);
+        when(jdbcTemplate.update(anyString(), any(), eq(100))).thenReturn(100);
+
+        long deleted = retentionPurgeEngine.purge(RetentionPurgeEngine.Target.LOGGED_NOW, LocalDateTime.now());
+
+        assertEquals(200, deleted);
+        verify(jdbcTemplate, times(2)).update(contains("toxic_bet.logged_now"), any(), eq(100));
+    }
+
+    @Test
+    void shouldPurgeOnlyEnabledTables() {
+        var disabled = new PurgeProperties.Retention();
+        disabled.setEnabled(false);
+        purgeProperties.setTables(Map.of("invalidated-token", disabled));
+        when(jdbcTemplate.update(anyString(), any(), eq(100))).thenReturn(3);
+
+        var deleted = retentionPurgeEngine.purgeAll();
+
+        assertEquals(Map.of(RetentionPurgeEngine.Target.RESET_PASSWORD, 3L, RetentionPurgeEngine.Target.LOGGED_NOW, 3L,
+                RetentionPurgeEngine.Target.EMAIL_OUTBOX, 3L), deleted);
+        verify(jdbcTemplate, never()).update(contains("toxic_bet.invalidated_token"), any(), anyInt());
+    }
+
+    @Test
+    void shouldPurgeOnlyTerminalOutboxRows() {
+        when(jdbcTemplate.update(anyString(), any(), eq(100))).thenReturn(0);
+
+        retentionPurgeEngine.purge(RetentionPurgeEngine.Target.EMAIL_OUTBOX, LocalDateTime.now());
+
+        verify(jdbcTemplate).update(contains("created_at < ? AND status IN ('SENT', 'DEAD') LIMIT ?"), any(), eq(100));
+    }
+}
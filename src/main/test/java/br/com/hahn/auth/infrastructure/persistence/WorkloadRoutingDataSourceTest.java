@@ -0,0 +1,48 @@
+package br.com.hahn.auth.infrastructure.persistence;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class WorkloadRoutingDataSourceTest {
+
+    private final DataSource interactive = mock(DataSource.class);
+    private final DataSource background = mock(DataSource.class);
+    private final Connection interactiveConnection = mock(Connection.class);
+    private final Connection backgroundConnection = mock(Connection.class);
+    private final WorkloadRoutingDataSource dataSource = new WorkloadRoutingDataSource(interactive, background);
+
+    @Test
+    void shouldUseInteractivePoolOutsideBackgroundWork() throws SQLException {
+        when(interactive.getConnection()).thenReturn(interactiveConnection);
+
+        assertSame(interactiveConnection, dataSource.getConnection());
+        verifyNoInteractions(background);
+    }
+
+    @Test
+    void shouldUseBackgroundPoolForBackgroundWork() throws SQLException {
+        when(background.getConnection()).thenReturn(backgroundConnection);
+        when(interactive.getConnection()).thenReturn(interactiveConnection);
+        var connections = new Connection[2];
+
+        BackgroundWork.run(() -> BackgroundWork.run(() -> connections[0] = getConnection()));
+        connections[1] = getConnection();
+
+        assertSame(backgroundConnection, connections[0]);
+        assertSame(interactiveConnection, connections[1]);
+    }
+
+    private Connection getConnection() {
+        try {
+            return dataSource.getConnection();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package br.com.hahn.auth.infrastructure.resilience;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private MutableClock clock;
+    private SimpleMeterRegistry meterRegistry;
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+        meterRegistry = new SimpleMeterRegistry();
+        circuitBreaker = new CircuitBreaker("test", 2, Duration.ofSeconds(30), meterRegistry, clock);
+    }
+
+    @Test
+    void shouldOpenAfterConsecutiveFailures() {
+        circuitBreaker.onFailure();
+        assertTrue(circuitBreaker.tryAcquire());
+
+        circuitBreaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquire());
+        assertEquals(2.0, meterRegistry.get("circuit.breaker.state").tag("name", "test").gauge().value());
+    }
+
+    @Test
+    void shouldResetFailuresOnSuccess() {
+        circuitBreaker.onFailure();
+        circuitBreaker.onSuccess();
+        circuitBreaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void shouldAllowSingleTrialCallAfterOpenDuration() {
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+        clock.advance(Duration.ofSeconds(30));
+
+        assertTrue(circuitBreaker.tryAcquire());
+        assertFalse(circuitBreaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+
+        circuitBreaker.onSuccess();
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertTrue(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    void shouldReopenWhenTrialCallFails() {
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+        clock.advance(Duration.ofSeconds(30));
+        circuitBreaker.tryAcquire();
+
+        circuitBreaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquire());
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
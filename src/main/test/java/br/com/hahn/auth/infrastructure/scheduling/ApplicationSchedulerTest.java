@@ -1,99 +1,113 @@
 package br.com.hahn.auth.infrastructure.scheduling;
 
-import br.com.hahn.auth.application.service.PasswordService;
-import br.com.hahn.auth.application.service.TokenLogService;
+import br.com.hahn.auth.application.service.PasswordExpiryCampaignService;
 import br.com.hahn.auth.application.service.UserService;
-import br.com.hahn.auth.domain.enums.TypeInvalidation;
-import br.com.hahn.auth.domain.enums.UserRole;
-import br.com.hahn.auth.domain.model.TokenLog;
-import br.com.hahn.auth.domain.model.User;
-import br.com.hahn.auth.infrastructure.service.EmailService;
+import br.com.hahn.auth.infrastructure.archive.AuditArchiver;
+import br.com.hahn.auth.infrastructure.persistence.RetentionPurgeEngine;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import reactor.core.publisher.Mono;
 
-import java.time.LocalDateTime;
-import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.function.Consumer;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class ApplicationSchedulerTest {
 
     @Mock
-    private EmailService emailService;
+    private PasswordExpiryCampaignService passwordExpiryCampaignService;
 
     @Mock
     private UserService userService;
 
     @Mock
-    private TokenLogService tokenLogService;
+    private TokenExpiryWheel tokenExpiryWheel;
 
     @Mock
-    private PasswordService passwordService;
+    private RetentionPurgeEngine retentionPurgeEngine;
+
+    @Mock
+    private AuditArchiver auditArchiver;
+
+    @Mock
+    private SchedulerLeaseManager schedulerLeaseManager;
 
     @InjectMocks
     private ApplicationScheduler applicationScheduler;
 
+    @BeforeEach
+    void setUp() {
+        lenient().when(schedulerLeaseManager.runExclusive(anyString(), any())).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return true;
+        });
+        lenient().when(schedulerLeaseManager.runSharded(anyString(), any())).thenAnswer(invocation -> {
+            invocation.<Consumer<JobShard>>getArgument(1).accept(JobShard.ALL);
+            return 1;
+        });
+    }
+
     @Test
-    void shouldCleanExpiredResetRecoverCodesSuccessfully() {
-        when(passwordService.deleteByExpirationDateBefore(any(LocalDateTime.class))).thenReturn(5);
+    void shouldPurgeExpiredRecordsSuccessfully() {
+        when(retentionPurgeEngine.purgeAll()).thenReturn(Map.of(RetentionPurgeEngine.Target.RESET_PASSWORD, 5L));
 
-        applicationScheduler.cleanExpiredResetRecoverCodes();
+        applicationScheduler.purgeExpiredRecords();
 
-        verify(passwordService).deleteByExpirationDateBefore(any(LocalDateTime.class));
-        verifyNoMoreInteractions(passwordService);
+        verify(retentionPurgeEngine).purgeAll();
+        verifyNoMoreInteractions(retentionPurgeEngine);
     }
 
     @Test
-    void shouldSendNotificationEmailsToUsersWithExpiringPasswords() {
-        User user = new User();
-        user.setEmail("test@example.com");
-        user.setFirstName("John");
-        user.setRole(UserRole.USER_NORMAL);
-        when(userService.getUsersWithPasswordExpiringInDays(anyInt())).thenReturn(List.of(user));
-        when(emailService.sendEmail(anyString(), anyString(), anyString())).thenReturn(Mono.empty());
+    void shouldSkipJobWhenLeaseIsHeldByAnotherInstance() {
+        doReturn(false).when(schedulerLeaseManager).runExclusive(eq("purge-expired-records"), any());
 
-        applicationScheduler.alertExpiredUser();
+        applicationScheduler.purgeExpiredRecords();
+
+        verifyNoInteractions(retentionPurgeEngine);
+    }
+
+    @Test
+    void shouldDelegateAuditArchivingToArchiver() {
+        when(auditArchiver.archive()).thenReturn(Map.of(AuditArchiver.Source.TOKEN_LOG, 10L));
+
+        applicationScheduler.archiveAuditHistory();
 
-        verify(userService, times(4)).getUsersWithPasswordExpiringInDays(anyInt());
-        verify(emailService, times(4)).sendEmail(eq("test@example.com"), anyString(), anyString());
+        verify(auditArchiver).archive();
+        verifyNoMoreInteractions(auditArchiver);
     }
 
     @Test
-    void shouldNotSendEmailsToUsersWithNonNormalRoles() {
-        User user = new User();
-        user.setRole(UserRole.USER_ADMIN);
-        when(userService.getUsersWithPasswordExpiringInDays(anyInt())).thenReturn(List.of(user));
+    void shouldDelegateExpiringPasswordNotificationsToCampaign() {
+        when(passwordExpiryCampaignService.run(JobShard.ALL)).thenReturn(3);
 
         applicationScheduler.alertExpiredUser();
 
-        verify(userService, times(4)).getUsersWithPasswordExpiringInDays(anyInt());
-        verifyNoInteractions(emailService);
+        verify(passwordExpiryCampaignService).run(JobShard.ALL);
+        verifyNoMoreInteractions(passwordExpiryCampaignService);
     }
 
     @Test
     void shouldBlockUsersBasedOnCriteria() {
         applicationScheduler.blockUser();
 
-        verify(userService).findUserToBlock();
+        verify(userService).findUserToBlock(JobShard.ALL);
         verifyNoMoreInteractions(userService);
     }
 
     @Test
-    void shouldInvalidateExpiredTokensSuccessfully() {
-        TokenLog tokenLog = new TokenLog();
-        UUID userId = UUID.randomUUID();
-        tokenLog.setUserId(userId);
-        when(tokenLogService.findExpiredActiveTokens(any(LocalDateTime.class))).thenReturn(List.of(tokenLog));
+    void shouldDelegateOverdueTokensToExpiryWheel() {
+        when(tokenExpiryWheel.expireOverdue()).thenReturn(2);
 
         applicationScheduler.invalidTokenScheduler();
 
-        verify(tokenLogService).findExpiredActiveTokens(any(LocalDateTime.class));
-        verify(tokenLogService).deactivateActiveToken(userId, TypeInvalidation.EXPIRATION_TIME);
+        verify(tokenExpiryWheel).expireOverdue();
+        verifyNoMoreInteractions(tokenExpiryWheel);
     }
-}
\ No newline at end of file
+}
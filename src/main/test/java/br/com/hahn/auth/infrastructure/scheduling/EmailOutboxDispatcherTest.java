@@ -0,0 +1,89 @@
+package br.com.hahn.auth.infrastructure.scheduling;
+
+import br.com.hahn.auth.application.service.EmailOutboxService;
+import br.com.hahn.auth.domain.enums.EmailOutboxStatus;
+import br.com.hahn.auth.domain.model.EmailOutbox;
+import br.com.hahn.auth.infrastructure.service.ResendStubServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailOutboxDispatcherTest {
+
+    @Mock
+    private EmailOutboxService emailOutboxService;
+
+    private ResendStubServer resend;
+    private EmailOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        resend = new ResendStubServer();
+        dispatcher = new EmailOutboxDispatcher(emailOutboxService, resend.emailService(), new SimpleMeterRegistry(), 2, 2, Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        resend.close();
+    }
+
+    @Test
+    void shouldMarkDeliveredEmailsAsSent() {
+        when(emailOutboxService.claimDueBatch(2)).thenReturn(List.of(email(1L), email(2L)), List.of(email(3L)));
+
+        dispatcher.dispatch();
+
+        assertEquals(3, resend.receivedBodies().size());
+        verify(emailOutboxService).markSent(1L);
+        verify(emailOutboxService).markSent(2L);
+        verify(emailOutboxService).markSent(3L);
+        verify(emailOutboxService, never()).markFailed(any(), anyString());
+    }
+
+    @Test
+    void shouldRescheduleEmailsWhenProviderFails() {
+        resend.respondWith(503);
+        when(emailOutboxService.claimDueBatch(2)).thenReturn(List.of(email(1L)));
+        when(emailOutboxService.markFailed(eq(1L), anyString())).thenReturn(EmailOutboxStatus.PENDING);
+
+        dispatcher.dispatch();
+
+        verify(emailOutboxService).markFailed(eq(1L), anyString());
+        verify(emailOutboxService, never()).markSent(any());
+    }
+
+    @Test
+    void shouldStopWhenNothingIsDue() {
+        when(emailOutboxService.claimDueBatch(anyInt())).thenReturn(List.of());
+
+        dispatcher.dispatch();
+
+        assertTrue(resend.receivedBodies().isEmpty());
+        verify(emailOutboxService, times(1)).claimDueBatch(2);
+    }
+
+    private EmailOutbox email(Long id) {
+        EmailOutbox email = new EmailOutbox();
+        email.setId(id);
+        email.setRecipient("user" + id + "@example.com");
+        email.setSubject("Password Reset Request");
+        email.setHtmlBody("<p>code</p>");
+        email.setStatus(EmailOutboxStatus.PENDING);
+        email.setAttempts(1);
+        return email;
+    }
+}
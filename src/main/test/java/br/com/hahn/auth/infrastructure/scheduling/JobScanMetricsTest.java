@@ -0,0 +1,34 @@
+package br.com.hahn.auth.infrastructure.scheduling;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JobScanMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final JobScanMetrics jobScanMetrics = new JobScanMetrics(meterRegistry);
+
+    @Test
+    void shouldPublishRowsThroughputAndHeapPeakOfRun() {
+        var scan = jobScanMetrics.start("block-users");
+        scan.add(300);
+        scan.add(200);
+
+        assertEquals(500, scan.finish());
+        assertEquals(500.0, meterRegistry.get("scheduler.scan.rows").tag("job", "block-users").counter().count());
+        assertTrue(meterRegistry.get("scheduler.scan.rows.per.second").tag("job", "block-users").gauge().value() > 0);
+        assertTrue(meterRegistry.get("scheduler.scan.heap.peak").tag("job", "block-users").gauge().value() > 0);
+    }
+
+    @Test
+    void shouldAccumulateRowsAcrossRuns() {
+        jobScanMetrics.start("block-users").add(10);
+        var second = jobScanMetrics.start("block-users");
+        second.add(5);
+        second.finish();
+
+        assertEquals(15.0, meterRegistry.get("scheduler.scan.rows").tag("job", "block-users").counter().count());
+    }
+}
@@ -0,0 +1,179 @@
+package br.com.hahn.auth.infrastructure.scheduling;
+
+import br.com.hahn.auth.infrastructure.persistence.BackgroundWork;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MonitoredTaskSchedulerTest {
+
+    private static final String JOB = "ApplicationScheduler.purgeExpiredRecords";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-01-01T10:00:00Z"));
+    private final MonitoredTaskScheduler scheduler = new MonitoredTaskScheduler(meterRegistry, clock);
+
+    @Test
+    void shouldNameJobAfterClassAndMethod() {
+        assertEquals(JOB, MonitoredTaskScheduler.jobName(new NamedTask(() -> { })));
+    }
+
+    @Test
+    void shouldRecordSuccessfulRun() {
+        var runs = new AtomicInteger();
+        var job = scheduler.new MonitoredJob(new NamedTask(runs::incrementAndGet), null, null, null);
+
+        job.run();
+
+        assertEquals(1, runs.get());
+        assertEquals(1.0, meterRegistry.get("scheduler.job.runs").tag("job", JOB).tag("outcome", "success").counter().count());
+        assertEquals(1, meterRegistry.get("scheduler.job.duration").tag("job", JOB).tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void shouldRunJobAsBackgroundWork() {
+        var background = new AtomicBoolean();
+        var job = scheduler.new MonitoredJob(new NamedTask(() -> background.set(BackgroundWork.isActive())), null, null, null);
+
+        job.run();
+
+        assertTrue(background.get());
+        assertFalse(BackgroundWork.isActive());
+    }
+
+    @Test
+    void shouldRunJobOutsideOfBackgroundWorkWhenTurnedOff() {
+        var background = new AtomicBoolean(true);
+        scheduler.setBackgroundWork(false);
+        var job = scheduler.new MonitoredJob(new NamedTask(() -> background.set(BackgroundWork.isActive())), null, null, null);
+
+        job.run();
+
+        assertFalse(background.get());
+    }
+
+    @Test
+    void shouldRecordFailedRunAndRethrow() {
+        var job = scheduler.new MonitoredJob(new NamedTask(() -> {
+            throw new IllegalStateException("boom");
+        }), null, null, null);
+
+        assertThrows(IllegalStateException.class, job::run);
+
+        assertEquals(1.0, meterRegistry.get("scheduler.job.runs").tag("job", JOB).tag("outcome", "failure").counter().count());
+    }
+
+    @Test
+    void shouldNotOverlapRunsOfAJobSlowerThanItsRate() throws InterruptedException {
+        var poolScheduler = new MonitoredTaskScheduler(meterRegistry);
+        poolScheduler.setPoolSize(1);
+        poolScheduler.initialize();
+        var running = new AtomicInteger();
+        var overlapped = new AtomicBoolean();
+        var runs = new CountDownLatch(3);
+        try {
+            poolScheduler.scheduleAtFixedRate(new NamedTask(() -> {
+                if (running.incrementAndGet() > 1) {
+                    overlapped.set(true);
+                }
+                sleep(Duration.ofMillis(30));
+                running.decrementAndGet();
+                runs.countDown();
+            }), Duration.ofMillis(5));
+
+            assertTrue(runs.await(5, TimeUnit.SECONDS));
+        } finally {
+            poolScheduler.shutdown();
+        }
+
+        assertFalse(overlapped.get());
+        assertTrue(meterRegistry.get("scheduler.job.runs").tag("job", JOB).tag("outcome", "success").counter().count() >= 2.0);
+    }
+
+    @Test
+    void shouldRecordLagOfFixedRateRuns() {
+        var job = scheduler.new MonitoredJob(new NamedTask(() -> { }), clock.instant(), Duration.ofMinutes(1), null);
+
+        clock.advance(Duration.ofSeconds(3));
+        job.run();
+        clock.advance(Duration.ofSeconds(59));
+        job.run();
+
+        var lag = meterRegistry.get("scheduler.job.lag").tag("job", JOB).timer();
+        assertEquals(2, lag.count());
+        assertEquals(5.0, lag.totalTime(TimeUnit.SECONDS));
+    }
+
+    @Test
+    void shouldMeasureLagOfFixedDelayRunsFromEndOfPreviousRun() {
+        var job = scheduler.new MonitoredJob(new NamedTask(() -> clock.advance(Duration.ofSeconds(10))), clock.instant(), null, Duration.ofSeconds(5));
+
+        job.run();
+        clock.advance(Duration.ofSeconds(7));
+        job.run();
+
+        var lag = meterRegistry.get("scheduler.job.lag").tag("job", JOB).timer();
+        assertEquals(2, lag.count());
+        assertEquals(2.0, lag.totalTime(TimeUnit.SECONDS));
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record NamedTask(Runnable body) implements Runnable {
+
+        @Override
+        public void run() {
+            body.run();
+        }
+
+        @Override
+        public String toString() {
+            return "br.com.hahn.auth.infrastructure.scheduling." + JOB;
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
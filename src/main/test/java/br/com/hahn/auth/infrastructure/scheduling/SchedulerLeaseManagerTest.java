@@ -0,0 +1,135 @@
+package br.com.hahn.auth.infrastructure.scheduling;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SchedulerLeaseManagerTest {
+
+    private static final Instant FIRE_TIME = Instant.parse("2026-10-19T03:30:00Z");
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SchedulerLeaseProperties properties = new SchedulerLeaseProperties();
+    private final MonitoredTaskScheduler heartbeatScheduler = new MonitoredTaskScheduler(meterRegistry);
+    private SchedulerLeaseManager schedulerLeaseManager;
+
+    @BeforeEach
+    void setUp() {
+        properties.setOwner("node-a");
+        properties.setTtl(Duration.ofMinutes(5));
+        heartbeatScheduler.initialize();
+        schedulerLeaseManager = new SchedulerLeaseManager(jdbcTemplate, properties, meterRegistry, heartbeatScheduler);
+    }
+
+    @AfterEach
+    void tearDown() {
+        heartbeatScheduler.shutdown();
+    }
+
+    @Test
+    void shouldRunJobAndRecordItsFireTimeOnCompletion() {
+        when(jdbcTemplate.query(anyString(), any(ResultSetExtractor.class), eq("purge"), eq("node-a"), eq(300_000L), eq(Timestamp.from(FIRE_TIME)))).thenReturn(7L);
+        var ran = new ArrayList<String>();
+
+        firedAt(FIRE_TIME, () -> assertTrue(schedulerLeaseManager.runExclusive("purge", () -> ran.add("purge"))));
+
+        assertEquals(List.of("purge"), ran);
+        verify(jdbcTemplate).update(contains("last_completed_fire_time = ?"), eq(Timestamp.from(FIRE_TIME)), eq("purge"), eq("node-a"), eq(7L));
+        assertEquals(1.0, meterRegistry.get("scheduler.lease.attempts").tag("job", "purge").tag("result", "acquired").counter().count());
+    }
+
+    @Test
+    void shouldSkipJobWhenLeaseIsHeldOrItsFireTimeIsCompleted() {
+        when(jdbcTemplate.query(anyString(), any(ResultSetExtractor.class), any(), any(), any(), any())).thenReturn(null);
+
+        firedAt(FIRE_TIME, () -> assertFalse(schedulerLeaseManager.runExclusive("purge", () -> fail("must not run"))));
+
+        verify(jdbcTemplate).query(contains("last_completed_fire_time < ?"), any(ResultSetExtractor.class), eq("purge"), eq("node-a"), eq(300_000L), eq(Timestamp.from(FIRE_TIME)));
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+        assertEquals(1.0, meterRegistry.get("scheduler.lease.attempts").tag("job", "purge").tag("result", "skipped").counter().count());
+    }
+
+    @Test
+    void shouldReleaseLeaseWithoutRecordingCompletionWhenJobFails() {
+        when(jdbcTemplate.query(anyString(), any(ResultSetExtractor.class), any(), any(), any(), any())).thenReturn(3L);
+
+        firedAt(FIRE_TIME, () -> assertThrows(IllegalStateException.class, () -> schedulerLeaseManager.runExclusive("purge", () -> {
+            throw new IllegalStateException("boom");
+        })));
+
+        verify(jdbcTemplate).update(contains("SET lease_until = now() + ?"), eq(0L), eq("purge"), eq("node-a"), eq(3L));
+        verify(jdbcTemplate, never()).update(contains("last_completed_fire_time"), any(Object[].class));
+    }
+
+    @Test
+    void shouldNotRecordCompletionOfRunOutsideOfTheScheduler() {
+        when(jdbcTemplate.query(anyString(), any(ResultSetExtractor.class), any(), any(), any(), any())).thenReturn(5L);
+
+        assertTrue(schedulerLeaseManager.runExclusive("purge", () -> { }));
+
+        verify(jdbcTemplate).update(contains("SET lease_until = now() + ?"), eq(0L), eq("purge"), eq("node-a"), eq(5L));
+        verify(jdbcTemplate, never()).update(contains("last_completed_fire_time"), any(Object[].class));
+    }
+
+    @Test
+    void shouldStopJobWhenRenewalFindsLeaseTakenOver() {
+        properties.setTtl(Duration.ofMillis(30));
+        when(jdbcTemplate.query(anyString(), any(ResultSetExtractor.class), any(), any(), any(), any())).thenReturn(2L);
+        when(jdbcTemplate.update(contains("SET lease_until = now() + ?"), eq(30L), any(), any(), any())).thenReturn(0);
+        var batches = new ArrayList<Integer>();
+
+        firedAt(FIRE_TIME, () -> assertThrows(IllegalStateException.class, () -> schedulerLeaseManager.runExclusive("purge", () -> {
+            for (int batch = 0; batch < 1_000; batch++) {
+                JobLease.checkHeld();
+                batches.add(batch);
+                sleep();
+            }
+        })));
+
+        assertTrue(batches.size() < 1_000);
+        verify(jdbcTemplate, never()).update(contains("last_completed_fire_time"), any(Object[].class));
+        assertEquals(1.0, meterRegistry.get("scheduler.lease.lost").tag("job", "purge").counter().count());
+    }
+
+    @Test
+    void shouldRunOnlyTheShardsWhoseLeaseIsObtained() {
+        properties.setShards(Map.of("block-users", 3));
+        when(jdbcTemplate.query(anyString(), any(ResultSetExtractor.class), eq("block-users#0/3"), any(), any(), any())).thenReturn(1L);
+        when(jdbcTemplate.query(anyString(), any(ResultSetExtractor.class), eq("block-users#1/3"), any(), any(), any())).thenReturn(null);
+        when(jdbcTemplate.query(anyString(), any(ResultSetExtractor.class), eq("block-users#2/3"), any(), any(), any())).thenReturn(4L);
+        var shards = new ArrayList<JobShard>();
+
+        int ran = schedulerLeaseManager.runSharded("block-users", shards::add);
+
+        assertEquals(2, ran);
+        assertEquals(List.of(new JobShard(0, 3), new JobShard(2, 3)), shards);
+    }
+
+    private void firedAt(Instant fireTime, Runnable task) {
+        new MonitoredTaskScheduler(meterRegistry).new MonitoredJob(task, fireTime, null, null).run();
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(Duration.ofMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package br.com.hahn.auth.infrastructure.scheduling;
+
+import br.com.hahn.auth.domain.enums.ScopeToken;
+import br.com.hahn.auth.domain.model.ActiveTokenRow;
+import br.com.hahn.auth.domain.respository.TokenLogRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class TokenExpiryWheelTest {
+
+    private final TokenLogRepository tokenLogRepository = mock(TokenLogRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-01-01T10:00:00Z"));
+    private final TokenExpiryWheel tokenExpiryWheel = new TokenExpiryWheel(tokenLogRepository, meterRegistry, mock(TaskScheduler.class), Duration.ofSeconds(1), 64, 2, clock);
+
+    @Test
+    void shouldExpireTokenWhenItsLifetimeEnds() {
+        var tokenLogId = UUID.randomUUID();
+        when(tokenLogRepository.expireTokens(anyList(), any(LocalDateTime.class))).thenReturn(1);
+        tokenExpiryWheel.schedule(tokenLogId, ScopeToken.LOGIN_TOKEN, LocalDateTime.now(clock));
+
+        clock.advance(TokenExpiryWheel.TOKEN_LIFETIME.minusSeconds(1));
+        tokenExpiryWheel.tick();
+        verify(tokenLogRepository, never()).expireTokens(anyList(), any(LocalDateTime.class));
+
+        clock.advance(Duration.ofSeconds(1));
+        tokenExpiryWheel.tick();
+        verify(tokenLogRepository).expireTokens(eq(List.of(tokenLogId)), any(LocalDateTime.class));
+        assertEquals(1.0, meterRegistry.get("token.expiry.expired").tag("source", "wheel").counter().count());
+    }
+
+    @Test
+    void shouldExpireRefreshTokenWhenItsLongerLifetimeEnds() {
+        var tokenLogId = UUID.randomUUID();
+        when(tokenLogRepository.expireTokens(anyList(), any(LocalDateTime.class))).thenReturn(1);
+        tokenExpiryWheel.schedule(tokenLogId, ScopeToken.REFRESH_TOKEN, LocalDateTime.now(clock));
+
+        clock.advance(TokenExpiryWheel.TOKEN_LIFETIME);
+        tokenExpiryWheel.tick();
+        verify(tokenLogRepository, never()).expireTokens(anyList(), any(LocalDateTime.class));
+
+        clock.advance(TokenExpiryWheel.REFRESH_TOKEN_LIFETIME.minus(TokenExpiryWheel.TOKEN_LIFETIME));
+        tokenExpiryWheel.tick();
+        verify(tokenLogRepository).expireTokens(eq(List.of(tokenLogId)), any(LocalDateTime.class));
+    }
+
+    @Test
+    void shouldExpireOverdueTokensAndScheduleTheOthersOnRebuild() {
+        var overdue = row(UUID.randomUUID(), ScopeToken.LOGIN_TOKEN, LocalDateTime.now(clock).minusMinutes(20));
+        var active = row(UUID.randomUUID(), ScopeToken.LOGIN_TOKEN, LocalDateTime.now(clock).minusMinutes(5));
+        var activeRefresh = row(UUID.randomUUID(), ScopeToken.REFRESH_TOKEN, LocalDateTime.now(clock).minusMinutes(20));
+        when(tokenLogRepository.findActiveUserTokens()).thenReturn(List.of(overdue, active, activeRefresh));
+
+        tokenExpiryWheel.rebuild();
+
+        verify(tokenLogRepository).expireTokens(eq(List.of(overdue.getIdTokenLog())), any(LocalDateTime.class));
+        assertEquals(2.0, meterRegistry.get("token.expiry.scheduled").gauge().value());
+    }
+
+    @Test
+    void shouldExpireOverdueTokensInBatches() {
+        var ids = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        var now = LocalDateTime.now(clock);
+        when(tokenLogRepository.findExpiredActiveUserTokenIds(now.minus(TokenExpiryWheel.TOKEN_LIFETIME), now.minus(TokenExpiryWheel.REFRESH_TOKEN_LIFETIME))).thenReturn(ids);
+        when(tokenLogRepository.expireTokens(anyList(), any(LocalDateTime.class))).thenReturn(2, 1);
+
+        int expired = tokenExpiryWheel.expireOverdue();
+
+        assertEquals(3, expired);
+        verify(tokenLogRepository).expireTokens(eq(ids.subList(0, 2)), any(LocalDateTime.class));
+        verify(tokenLogRepository).expireTokens(eq(ids.subList(2, 3)), any(LocalDateTime.class));
+        assertEquals(3.0, meterRegistry.get("token.expiry.expired").tag("source", "safety-net").counter().count());
+    }
+
+    private ActiveTokenRow row(UUID idTokenLog, ScopeToken scopeToken, LocalDateTime createDate) {
+        var row = mock(ActiveTokenRow.class);
+        when(row.getIdTokenLog()).thenReturn(idTokenLog);
+        when(row.getScopeToken()).thenReturn(scopeToken);
+        when(row.getCreateDate()).thenReturn(createDate);
+        return row;
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package br.com.hahn.auth.infrastructure.scheduling;
+
+import br.com.hahn.auth.application.service.UserDataService;
+import br.com.hahn.auth.domain.enums.UserSyncStatus;
+import br.com.hahn.auth.domain.model.UserSyncTask;
+import br.com.hahn.auth.infrastructure.resilience.CircuitBreaker;
+import br.com.hahn.auth.infrastructure.service.UserDataClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserDataSyncDispatcherTest {
+
+    @Mock
+    private UserDataService userDataService;
+
+    @Mock
+    private UserDataClient userDataClient;
+
+    private CircuitBreaker circuitBreaker;
+    private UserDataSyncDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreaker = new CircuitBreaker("user-data", 2, Duration.ofMinutes(1), new SimpleMeterRegistry());
+        when(userDataClient.getCircuitBreaker()).thenReturn(circuitBreaker);
+        dispatcher = new UserDataSyncDispatcher(userDataService, userDataClient, new SimpleMeterRegistry(), 2, 2, Duration.ofSeconds(5));
+    }
+
+    @Test
+    void shouldMarkPatchedUsersAsSynced() {
+        when(userDataService.claimDueBatch(2)).thenReturn(List.of(task(1L, 1), task(2L, 3)), List.of());
+        when(userDataService.bearerTokenOf(any())).thenAnswer(invocation -> invocation.<UserSyncTask>getArgument(0).getBearerToken());
+        when(userDataClient.patchUserByEmailHeader(anyString(), anyString())).thenReturn(Mono.empty());
+
+        dispatcher.dispatch();
+
+        verify(userDataService).markSynced(1L, 1);
+        verify(userDataService).markSynced(2L, 3);
+        verify(userDataService, never()).markFailed(any(), anyInt(), anyString());
+    }
+
+    @Test
+    void shouldRescheduleFailedSyncs() {
+        when(userDataService.claimDueBatch(2)).thenReturn(List.of(task(1L, 1)));
+        when(userDataService.bearerTokenOf(any())).thenReturn("token-1");
+        when(userDataClient.patchUserByEmailHeader(anyString(), anyString())).thenReturn(Mono.error(new IllegalStateException("HTTP 503")));
+        when(userDataService.markFailed(eq(1L), eq(1), anyString())).thenReturn(UserSyncStatus.PENDING);
+
+        dispatcher.dispatch();
+
+        verify(userDataService).markFailed(eq(1L), eq(1), anyString());
+        verify(userDataService, never()).markSynced(any(), anyInt());
+    }
+
+    @Test
+    void shouldRescheduleSyncWhoseTokenCannotBeDecrypted() {
+        when(userDataService.claimDueBatch(2)).thenReturn(List.of(task(1L, 1)));
+        when(userDataService.bearerTokenOf(any())).thenThrow(new IllegalStateException("Failed to decrypt token"));
+        when(userDataService.markFailed(eq(1L), eq(1), anyString())).thenReturn(UserSyncStatus.PENDING);
+
+        dispatcher.dispatch();
+
+        verify(userDataClient, never()).patchUserByEmailHeader(anyString(), anyString());
+        verify(userDataService).markFailed(eq(1L), eq(1), contains("Failed to decrypt token"));
+    }
+
+    @Test
+    void shouldNotClaimWhileCircuitIsOpen() {
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+
+        dispatcher.dispatch();
+
+        verify(userDataService, never()).claimDueBatch(anyInt());
+    }
+
+    private UserSyncTask task(Long id, int version) {
+        UserSyncTask task = new UserSyncTask();
+        task.setId(id);
+        task.setUserEmail("user" + id + "@example.com");
+        task.setBearerToken("token-" + id);
+        task.setVersion(version);
+        task.setStatus(UserSyncStatus.PENDING);
+        task.setAttempts(1);
+        return task;
+    }
+}
@@ -0,0 +1,53 @@
+package br.com.hahn.auth.infrastructure.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenCipherTest {
+
+    private final TokenCipher tokenCipher = new TokenCipher(Base64.getEncoder().encodeToString(new byte[32]));
+
+    @Test
+    void shouldDecryptWhatItEncrypted() {
+        var encrypted = tokenCipher.encrypt("header.payload.signature", "user@example.com");
+
+        assertFalse(encrypted.contains("payload"));
+        assertEquals("header.payload.signature", tokenCipher.decrypt(encrypted, "user@example.com"));
+    }
+
+    @Test
+    void shouldUseNewIvForEveryValue() {
+        assertNotEquals(tokenCipher.encrypt("token", "user@example.com"), tokenCipher.encrypt("token", "user@example.com"));
+    }
+
+    @Test
+    void shouldRejectTokenBoundToAnotherUser() {
+        var encrypted = tokenCipher.encrypt("token", "user@example.com");
+
+        assertThrows(IllegalStateException.class, () -> tokenCipher.decrypt(encrypted, "other@example.com"));
+    }
+
+    @Test
+    void shouldRejectTokenEncryptedWithAnotherKey() {
+        var otherKey = new byte[32];
+        otherKey[0] = 1;
+        var encrypted = new TokenCipher(Base64.getEncoder().encodeToString(otherKey)).encrypt("token", "user@example.com");
+
+        assertThrows(IllegalStateException.class, () -> tokenCipher.decrypt(encrypted, "user@example.com"));
+    }
+
+    @Test
+    void shouldRejectMissingKey() {
+        assertThrows(IllegalStateException.class, () -> new TokenCipher(""));
+    }
+
+    @Test
+    void shouldRejectKeyWithWrongLength() {
+        var key = Base64.getEncoder().encodeToString(new byte[16]);
+
+        assertThrows(IllegalStateException.class, () -> new TokenCipher(key));
+    }
+}
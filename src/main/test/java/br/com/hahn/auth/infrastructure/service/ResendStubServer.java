@@ -0,0 +1,72 @@
+package br.com.hahn.auth.infrastructure.service;
+
+import br.com.hahn.auth.infrastructure.http.OutboundClientFactory;
+import br.com.hahn.auth.infrastructure.http.OutboundClientProperties;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local HTTP server that stands in for the Resend API in tests.
+ * It answers {@code POST /emails} with the configured status and records every request body.
+ */
+public class ResendStubServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final List<String> receivedBodies = new CopyOnWriteArrayList<>();
+    private final AtomicInteger status = new AtomicInteger(200);
+
+    public ResendStubServer() {
+        try {
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        server.createContext("/emails", exchange -> {
+            receivedBodies.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            var response = "{\"id\":\"stub\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status.get(), response.length);
+            exchange.getResponseBody().write(response);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public void respondWith(int httpStatus) {
+        status.set(httpStatus);
+    }
+
+    public List<String> receivedBodies() {
+        return receivedBodies;
+    }
+
+    public EmailService emailService() {
+        var destination = new OutboundClientProperties.Destination();
+        destination.setBaseUrl(baseUrl());
+        var properties = new OutboundClientProperties();
+        properties.getClients().put("resend", destination);
+        var emailService = new EmailService(new OutboundClientFactory(properties, WebClient.builder(), new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(emailService, "apiKey", "test-key");
+        ReflectionTestUtils.setField(emailService, "sender", "no-reply@example.com");
+        return emailService;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
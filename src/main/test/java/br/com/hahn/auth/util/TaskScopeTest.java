@@ -0,0 +1,61 @@
+package br.com.hahn.auth.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskScopeTest {
+
+    @Test
+    void shouldReturnResultsOfAllSubtasks() {
+        try (var scope = new TaskScope()) {
+            var first = scope.fork(() -> "first");
+            var second = scope.fork(() -> 2);
+            scope.join();
+
+            assertEquals("first", first.get());
+            assertEquals(2, second.get());
+        }
+    }
+
+    @Test
+    void shouldCancelSiblingsAndRethrowFirstFailure() throws InterruptedException {
+        var interrupted = new AtomicBoolean();
+        var finished = new CountDownLatch(1);
+        var failure = new IllegalStateException("boom");
+
+        try (var scope = new TaskScope()) {
+            scope.fork(() -> {
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException _) {
+                    interrupted.set(true);
+                } finally {
+                    finished.countDown();
+                }
+                return null;
+            });
+            scope.fork(() -> {
+                throw failure;
+            });
+
+            assertSame(failure, assertThrows(IllegalStateException.class, scope::join));
+        }
+
+        assertTrue(finished.await(1, TimeUnit.SECONDS));
+        assertTrue(interrupted.get());
+    }
+
+    @Test
+    void shouldNotExposeResultsBeforeJoin() {
+        try (var scope = new TaskScope()) {
+            var result = scope.fork(() -> "value");
+
+            assertThrows(IllegalStateException.class, result::get);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package br.com.hahn.auth.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    private final TimingWheel<String> wheel = new TimingWheel<>(1000, 8, 0);
+    private final List<String> released = new ArrayList<>();
+
+    @Test
+    void shouldReleaseItemAtFirstTickAfterDeadline() {
+        wheel.schedule("a", 2500);
+
+        wheel.advance(2999, released::add);
+        assertTrue(released.isEmpty());
+
+        wheel.advance(3000, released::add);
+        assertEquals(List.of("a"), released);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void shouldCascadeDeadlinesBeyondFirstLevel() {
+        wheel.schedule("minute", 60_000);
+        wheel.schedule("hour", 3_600_000);
+        wheel.schedule("soon", 5_000);
+
+        wheel.advance(59_999, released::add);
+        assertEquals(List.of("soon"), released);
+
+        wheel.advance(60_000, released::add);
+        assertEquals(List.of("soon", "minute"), released);
+
+        wheel.advance(3_599_999, released::add);
+        assertEquals(2, released.size());
+
+        wheel.advance(3_600_000, released::add);
+        assertEquals(List.of("soon", "minute", "hour"), released);
+    }
+
+    @Test
+    void shouldRejectDeadlinesAlreadyDue() {
+        wheel.advance(10_000, released::add);
+
+        assertFalse(wheel.schedule("late", 9_000));
+        assertFalse(wheel.schedule("now", 10_000));
+        assertTrue(wheel.schedule("next", 10_001));
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    void shouldReleaseEverythingWhenAdvancedPastAllDeadlines() {
+        for (int i = 1; i <= 100; i++) {
+            wheel.schedule("item-" + i, i * 7_919L);
+        }
+
+        wheel.advance(1_000_000, released::add);
+
+        assertEquals(100, released.size());
+        assertEquals("item-1", released.getFirst());
+        assertEquals("item-100", released.getLast());
+    }
+}